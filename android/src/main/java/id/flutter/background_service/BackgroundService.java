@@ -20,30 +20,45 @@ import android.os.PowerManager;
 import android.provider.Settings;
 import android.util.Log;
 
+import id.flutter.background_service.ble.MainThreadExecutor;
 import id.flutter.background_service.constant.ArgumentKey;
 import id.flutter.background_service.constant.ChannelName;
 import id.flutter.background_service.constant.MethodName;
+import id.flutter.background_service.converter.PayloadSchemaRegistry;
 import id.flutter.background_service.delegate.BluetoothStateDelegate;
+import id.flutter.background_service.delegate.BulkWriteDelegate;
 import id.flutter.background_service.delegate.CallDelegate;
 import id.flutter.background_service.delegate.CharacteristicsDelegate;
 import id.flutter.background_service.delegate.DescriptorsDelegate;
 import id.flutter.background_service.delegate.DeviceConnectionDelegate;
 import id.flutter.background_service.delegate.DevicesDelegate;
 import id.flutter.background_service.delegate.LogLevelDelegate;
+import id.flutter.background_service.delegate.MethodDispatcher;
 import id.flutter.background_service.delegate.DiscoveryDelegate;
+import id.flutter.background_service.delegate.InFlightReads;
+import id.flutter.background_service.delegate.GattOperationScheduler;
 import id.flutter.background_service.delegate.MtuDelegate;
 import id.flutter.background_service.delegate.RssiDelegate;
 import id.flutter.background_service.event.AdapterStateStreamHandler;
+import id.flutter.background_service.event.BulkWriteProgressStreamHandler;
 import id.flutter.background_service.event.CharacteristicsMonitorStreamHandler;
 import id.flutter.background_service.event.ConnectionStateStreamHandler;
+import id.flutter.background_service.event.ProximityStreamHandler;
+import id.flutter.background_service.event.RegionStreamHandler;
 import id.flutter.background_service.event.RestoreStateStreamHandler;
 import id.flutter.background_service.event.ScanningStreamHandler;
+import id.flutter.background_service.gatt.ValueCache;
+import id.flutter.background_service.scan.RegionMonitor;
+import id.flutter.background_service.scan.ScanFilterMatcher;
+import id.flutter.background_service.scan.RssiSmoother;
+import id.flutter.background_service.scan.ScanResultDeduplicator;
 import com.polidea.multiplatformbleadapter.BleAdapter;
 import com.polidea.multiplatformbleadapter.BleAdapterFactory;
 import com.polidea.multiplatformbleadapter.OnErrorCallback;
 import com.polidea.multiplatformbleadapter.OnEventCallback;
 import com.polidea.multiplatformbleadapter.ScanResult;
 import com.polidea.multiplatformbleadapter.errors.BleError;
+import com.polidea.multiplatformbleadapter.errors.BleErrorCode;
 
 import androidx.annotation.NonNull;
 import androidx.core.app.NotificationCompat;
@@ -54,7 +69,6 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -64,17 +78,24 @@ import java.lang.UnsatisfiedLinkError;
 
 import io.flutter.FlutterInjector;
 import io.flutter.embedding.engine.FlutterEngine;
+import io.flutter.embedding.engine.FlutterEngineCache;
+import io.flutter.embedding.engine.FlutterEngineGroup;
 import io.flutter.embedding.engine.dart.DartExecutor;
 import io.flutter.embedding.engine.loader.FlutterLoader;
+import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.JSONMethodCodec;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugin.common.StandardMethodCodec;
 import io.flutter.view.FlutterCallbackInformation;
 import io.flutter.view.FlutterMain;
 
 public class BackgroundService extends Service implements MethodChannel.MethodCallHandler {
     private static final String TAG = "BackgroundService";
+    private static final String ENGINE_ID = "id.flutter/background_service_engine";
+    private static FlutterEngineGroup engineGroup;
+    private static final EngineStartStatistics engineStartStatistics = new EngineStartStatistics();
     private FlutterEngine backgroundEngine;
     private MethodChannel methodChannel;
     private DartExecutor.DartCallback dartCallback;
@@ -82,14 +103,58 @@ public class BackgroundService extends Service implements MethodChannel.MethodCa
     String notificationTitle = "스마트 패스";
     String notificationContent = "실행 준비중입니다.";
 
+    private static final int HEADLESS_SCAN_MODE_LOW_POWER = 0;
+    private static final int HEADLESS_CALLBACK_TYPE_ALL_MATCHES = 1;
+    private static final int MAX_PENDING_REGION_EVENTS = 64;
+
     private BleAdapter bleAdapter;
-    private List<CallDelegate> delegates = new LinkedList<>();
+    private HeadlessMonitoringConfig headlessConfig;
+    private boolean headlessClient = false;
+    private volatile boolean headlessScanning = false;
+    private boolean resolveOnCallingThread = false;
+    private List<CallDelegate> delegates = new ArrayList<>();
+    private final MethodDispatcher methodDispatcher = new MethodDispatcher();
+    private final ValueCache valueCache = new ValueCache();
+    private final InFlightReads inFlightReads = new InFlightReads(valueCache);
+    private final GattOperationScheduler gattOperationScheduler = new GattOperationScheduler(methodDispatcher, inFlightReads);
+
+    // The stream handlers live as long as the cached engine. Its isolate listens to their
+    // channels only once, so a warm start has to keep the sinks they were given.
+    private static final AdapterStateStreamHandler adapterStateStreamHandler = new AdapterStateStreamHandler();
+    private static final RestoreStateStreamHandler restoreStateStreamHandler = new RestoreStateStreamHandler();
+    private static final ScanningStreamHandler scanningStreamHandler = new ScanningStreamHandler();
+    private static final ConnectionStateStreamHandler connectionStateStreamHandler = new ConnectionStateStreamHandler();
+    private static final PayloadSchemaRegistry payloadSchemas = new PayloadSchemaRegistry();
+    private static final CharacteristicsMonitorStreamHandler characteristicsMonitorStreamHandler = new CharacteristicsMonitorStreamHandler(payloadSchemas);
+    private static final ProximityStreamHandler proximityStreamHandler = new ProximityStreamHandler();
+    private static final BulkWriteProgressStreamHandler bulkWriteProgressStreamHandler = new BulkWriteProgressStreamHandler();
+    private static final RegionStreamHandler regionStreamHandler = new RegionStreamHandler();
+    private CharacteristicsDelegate characteristicsDelegate;
+    private BulkWriteDelegate bulkWriteDelegate;
+    private ScanResultDeduplicator scanResultDeduplicator = new ScanResultDeduplicator();
+    private RssiSmoother rssiSmoother = new RssiSmoother(new RssiSmoother.Listener() {
+        @Override
+        public void onSmoothedRssi(String deviceId, double rssi, int rawRssi) {
+            proximityStreamHandler.onSmoothedRssi(deviceId, rssi, rawRssi);
+        }
+    });
+    private RegionMonitor regionMonitor = new RegionMonitor(new RegionMonitor.Listener() {
+        @Override
+        public void onRegionEvent(String regionId, String deviceId, String type, int rssi) {
+            regionStreamHandler.onRegionEvent(regionId, deviceId, type, rssi);
+            if (headlessScanning && !isRunning.get() && headlessConfig.wakeOn.contains(type)) {
+                MainThreadExecutor.getInstance().post(wakeEngine);
+            }
+        }
+    });
 
-    private AdapterStateStreamHandler adapterStateStreamHandler = new AdapterStateStreamHandler();
-    private RestoreStateStreamHandler restoreStateStreamHandler = new RestoreStateStreamHandler();
-    private ScanningStreamHandler scanningStreamHandler = new ScanningStreamHandler();
-    private ConnectionStateStreamHandler connectionStateStreamHandler = new ConnectionStateStreamHandler();
-    private CharacteristicsMonitorStreamHandler characteristicsMonitorStreamHandler = new CharacteristicsMonitorStreamHandler();
+    private final Runnable wakeEngine = new Runnable() {
+        @Override
+        public void run() {
+            Log.d(TAG, "Region event in headless mode, starting Flutter engine");
+            runService();
+        }
+    };
 
     @Override
     public IBinder onBind(Intent intent) {
@@ -105,6 +170,16 @@ public class BackgroundService extends Service implements MethodChannel.MethodCa
                 .apply();
     }
 
+    public static void setBleTaskQueueMode(Context context, boolean value) {
+        SharedPreferences pref = context.getSharedPreferences("id.flutter.background_service", MODE_PRIVATE);
+        pref.edit().putBoolean("ble_task_queue", value).apply();
+    }
+
+    public static boolean isBleTaskQueueMode(Context context) {
+        SharedPreferences pref = context.getSharedPreferences("id.flutter.background_service", MODE_PRIVATE);
+        return pref.getBoolean("ble_task_queue", false);
+    }
+
     public void setAutoStartOnBootMode(boolean value) {
         SharedPreferences pref = getSharedPreferences("id.flutter.background_service", MODE_PRIVATE);
         pref.edit().putBoolean("auto_start_on_boot", value).apply();
@@ -126,16 +201,39 @@ public class BackgroundService extends Service implements MethodChannel.MethodCa
     }
 
     private void setupAdapter(Context context) {
+        clearDelegates();
         bleAdapter = BleAdapterFactory.getNewAdapter(context);
-        delegates.add(new DeviceConnectionDelegate(bleAdapter, connectionStateStreamHandler));
+        valueCache.forgetIdentifiers();
+        delegates.add(new DeviceConnectionDelegate(bleAdapter, connectionStateStreamHandler, valueCache));
         delegates.add(new LogLevelDelegate(bleAdapter));
-        delegates.add(new DiscoveryDelegate(bleAdapter));
+        delegates.add(new DiscoveryDelegate(bleAdapter, valueCache));
         delegates.add(new BluetoothStateDelegate(bleAdapter));
-        delegates.add(new RssiDelegate(bleAdapter));
+        delegates.add(new RssiDelegate(bleAdapter, inFlightReads));
         delegates.add(new MtuDelegate(bleAdapter));
-        delegates.add(new CharacteristicsDelegate(bleAdapter, characteristicsMonitorStreamHandler));
+        characteristicsDelegate = new CharacteristicsDelegate(bleAdapter, characteristicsMonitorStreamHandler, payloadSchemas, inFlightReads, valueCache);
+        delegates.add(characteristicsDelegate);
+        bulkWriteDelegate = new BulkWriteDelegate(bleAdapter, bulkWriteProgressStreamHandler, valueCache);
+        delegates.add(bulkWriteDelegate);
         delegates.add(new DevicesDelegate(bleAdapter));
-        delegates.add(new DescriptorsDelegate(bleAdapter));
+        delegates.add(new DescriptorsDelegate(bleAdapter, inFlightReads, valueCache));
+        for (CallDelegate delegate : delegates) {
+            delegate.setResolveOnCallingThread(resolveOnCallingThread);
+            methodDispatcher.register(delegate);
+        }
+    }
+
+    private void setResolveOnCallingThread(boolean value) {
+        resolveOnCallingThread = value;
+        for (CallDelegate delegate : delegates) {
+            delegate.setResolveOnCallingThread(value);
+        }
+    }
+
+    private void clearDelegates() {
+        for (CallDelegate delegate : delegates) {
+            methodDispatcher.unregister(delegate);
+        }
+        delegates.clear();
     }
 
     private final BroadcastReceiver mBroadCastReceiver = new BroadcastReceiver() {
@@ -215,6 +313,7 @@ public class BackgroundService extends Service implements MethodChannel.MethodCa
     @Override
     public void onCreate() {
         super.onCreate();
+        methodDispatcher.register(serviceMethods, serviceMethodHandler, true);
         createNotificationChannel();
         try {
             String packageName = getApplicationContext().getPackageName();
@@ -236,8 +335,25 @@ public class BackgroundService extends Service implements MethodChannel.MethodCa
     @Override
     public void onDestroy() {
         unregisterReceiver(mBroadCastReceiver);
+        MainThreadExecutor.getInstance().removeCallbacks(wakeEngine);
+        if (bleAdapter != null && headlessScanning) {
+            bleAdapter.stopDeviceScan();
+        }
+        headlessScanning = false;
+        regionMonitor.stop();
+        characteristicsMonitorStreamHandler.closeSubscriptions();
+        if (bleAdapter != null) {
+            // The client goes with the service; after a warm start Dart creates a new one.
+            bleAdapter.destroyClient();
+            bleAdapter = null;
+            clearDelegates();
+        }
+        headlessClient = false;
         stopForeground(true);
         isRunning.set(false);
+        setResolveOnCallingThread(false);
+        scanningStreamHandler.onComplete();
+        characteristicsMonitorStreamHandler.shutdown();
 
         if (backgroundEngine != null) {
             backgroundEngine.getServiceControlSurface().detachFromService();
@@ -339,7 +455,12 @@ public class BackgroundService extends Service implements MethodChannel.MethodCa
         SharedPreferences pref = this.getSharedPreferences("FlutterSharedPreferences", 0);
         String mode = pref.getString("flutter.smartpassmode", "");
         if (mode.equals("GS")) {
-            runService();
+            headlessConfig = HeadlessMonitoringConfig.load(this);
+            if (headlessConfig.enabled && !isRunning.get()) {
+                runHeadless();
+            } else {
+                runService();
+            }
             return START_STICKY;
         } else {
             stopSelf();
@@ -371,32 +492,187 @@ public class BackgroundService extends Service implements MethodChannel.MethodCa
             }
 
             isRunning.set(true);
-            backgroundEngine = new FlutterEngine(this);
+            engineStartStatistics.onStart();
+            FlutterEngine cachedEngine = FlutterEngineCache.getInstance().get(ENGINE_ID);
+            boolean warmStart = cachedEngine != null && cachedEngine.getDartExecutor().isExecutingDart();
+            if (warmStart) {
+                backgroundEngine = cachedEngine;
+            } else {
+                if (cachedEngine != null) {
+                    cachedEngine.destroy();
+                }
+                backgroundEngine = createEngine(callback);
+                FlutterEngineCache.getInstance().put(ENGINE_ID, backgroundEngine);
+            }
             backgroundEngine.getServiceControlSurface().attachToService(BackgroundService.this, null, isForegroundService(this));
 
-            methodChannel = new MethodChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), "id.flutter/background_service_bg");
-
-            final EventChannel bluetoothStateChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.ADAPTER_STATE_CHANGES);
-            final EventChannel restoreStateChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.STATE_RESTORE_EVENTS);
-            final EventChannel scanningChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.SCANNING_EVENTS);
-            final EventChannel connectionStateChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.CONNECTION_STATE_CHANGE_EVENTS);
-            final EventChannel characteristicMonitorChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.MONITOR_CHARACTERISTIC);
+            BinaryMessenger messenger = backgroundEngine.getDartExecutor().getBinaryMessenger();
+            boolean bleTaskQueue = isBleTaskQueueMode(this);
+            setResolveOnCallingThread(bleTaskQueue);
+            if (bleTaskQueue) {
+                // BLE delegates run on the task queue; service methods are moved back to the main thread.
+                methodChannel = new MethodChannel(messenger, "id.flutter/background_service_bg",
+                        StandardMethodCodec.INSTANCE, messenger.makeBackgroundTaskQueue());
+            } else {
+                methodChannel = new MethodChannel(messenger, "id.flutter/background_service_bg");
+            }
 
             methodChannel.setMethodCallHandler(this);
+            characteristicsMonitorStreamHandler.setBinaryMessenger(messenger);
+
+            // A reused engine keeps the event channels registered by the previous service,
+            // and the handlers keep the sinks its isolate listens to.
+            if (!warmStart) {
+                detachStreamHandlers();
+                final EventChannel bluetoothStateChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.ADAPTER_STATE_CHANGES);
+                final EventChannel restoreStateChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.STATE_RESTORE_EVENTS);
+                final EventChannel scanningChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.SCANNING_EVENTS);
+                final EventChannel connectionStateChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.CONNECTION_STATE_CHANGE_EVENTS);
+                final EventChannel characteristicMonitorChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.MONITOR_CHARACTERISTIC);
+                final EventChannel proximityChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.PROXIMITY_EVENTS);
+                final EventChannel regionChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.REGION_EVENTS);
+                final EventChannel bulkWriteProgressChannel = new EventChannel(backgroundEngine.getDartExecutor().getBinaryMessenger(), ChannelName.BULK_WRITE_PROGRESS);
+
+                scanningChannel.setStreamHandler(scanningStreamHandler);
+                bluetoothStateChannel.setStreamHandler(adapterStateStreamHandler);
+                restoreStateChannel.setStreamHandler(restoreStateStreamHandler);
+                connectionStateChannel.setStreamHandler(connectionStateStreamHandler);
+                characteristicMonitorChannel.setStreamHandler(characteristicsMonitorStreamHandler);
+                proximityChannel.setStreamHandler(proximityStreamHandler);
+                regionChannel.setStreamHandler(regionStreamHandler);
+                bulkWriteProgressChannel.setStreamHandler(bulkWriteProgressStreamHandler);
+            }
 
-            scanningChannel.setStreamHandler(this.scanningStreamHandler);
-            bluetoothStateChannel.setStreamHandler(this.adapterStateStreamHandler);
-            restoreStateChannel.setStreamHandler(this.restoreStateStreamHandler);
-            connectionStateChannel.setStreamHandler(this.connectionStateStreamHandler);
-            characteristicMonitorChannel.setStreamHandler(this.characteristicsMonitorStreamHandler);
-
-            dartCallback = new DartExecutor.DartCallback(getAssets(), FlutterInjector.instance().flutterLoader().findAppBundlePath(), callback);
-            backgroundEngine.getDartExecutor().executeDartCallback(dartCallback);
+            if (dartCallback != null) {
+                backgroundEngine.getDartExecutor().executeDartCallback(dartCallback);
+            }
+            engineStartStatistics.onReady(warmStart);
+            if (warmStart) {
+                // The isolate outlived the previous service instance, so its native client is gone.
+                Map<String, String> obj = new HashMap<>();
+                obj.put("state", "serviceRestarted");
+                methodChannel.invokeMethod("onReceiveData", obj);
+            }
         } catch (UnsatisfiedLinkError e) {
             Log.w(TAG, "UnsatisfiedLinkError: After a reboot this may happen for a short period and it is ok to ignore then!" + e.getMessage());
         }
     }
 
+    /**
+     * Drops the sinks the stream handlers were given by a previous engine, which are only
+     * replaced once the new isolate listens.
+     */
+    private void detachStreamHandlers() {
+        adapterStateStreamHandler.onCancel(null);
+        restoreStateStreamHandler.onCancel(null);
+        scanningStreamHandler.onCancel(null);
+        connectionStateStreamHandler.onCancel(null);
+        characteristicsMonitorStreamHandler.onCancel(null);
+        proximityStreamHandler.onCancel(null);
+        regionStreamHandler.onCancel(null);
+        bulkWriteProgressStreamHandler.onCancel(null);
+    }
+
+    /**
+     * Scans and evaluates the persisted proximity regions without a Flutter engine. The engine
+     * is started by {@link #wakeEngine} once a region event configured in
+     * {@link HeadlessMonitoringConfig#wakeOn} happens; the events seen until then are replayed
+     * to the first listener of the region channel.
+     */
+    private void runHeadless() {
+        if (headlessClient || bleAdapter != null) {
+            return;
+        }
+        updateNotificationInfo();
+        try {
+            regionMonitor.setRegions(headlessConfig.regions);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            Log.e(TAG, "Invalid headless regions, starting Flutter engine instead: " + e.getMessage());
+            runService();
+            return;
+        }
+        regionStreamHandler.bufferUntilListened(MAX_PENDING_REGION_EVENTS);
+        headlessClient = true;
+        headlessScanning = true;
+        setupAdapter(getApplicationContext());
+        bleAdapter.createClient(null,
+                new OnEventCallback<String>() {
+                    @Override
+                    public void onEvent(String adapterState) {
+                        adapterStateStreamHandler.onNewAdapterState(adapterState);
+                        if (headlessScanning && "PoweredOn".equals(adapterState)) {
+                            startHeadlessScan();
+                        }
+                    }
+                }, new OnEventCallback<Integer>() {
+                    @Override
+                    public void onEvent(Integer restoreStateIdentifier) {
+                        restoreStateStreamHandler.onRestoreEvent(restoreStateIdentifier);
+                    }
+                });
+        startHeadlessScan();
+    }
+
+    private void startHeadlessScan() {
+        if (bleAdapter == null) {
+            return;
+        }
+        regionMonitor.start();
+        List<String> uuids = headlessConfig.uuids;
+        bleAdapter.startDeviceScan(uuids.toArray(new String[uuids.size()]),
+                HEADLESS_SCAN_MODE_LOW_POWER,
+                HEADLESS_CALLBACK_TYPE_ALL_MATCHES,
+                new OnEventCallback<ScanResult>() {
+                    @Override
+                    public void onEvent(ScanResult data) {
+                        regionMonitor.onScanResult(data);
+                    }
+                }, new OnErrorCallback() {
+                    @Override
+                    public void onError(BleError error) {
+                        Log.w(TAG, "Headless scan failed: " + error.reason);
+                    }
+                });
+    }
+
+    private void configureHeadlessMonitoring(MethodCall call, MethodChannel.Result result) {
+        List<Map<String, Object>> regions;
+        try {
+            regions = call.<List<Map<String, Object>>>argument(ArgumentKey.PROXIMITY_REGIONS);
+            RegionMonitor.validate(regions);
+            HeadlessMonitoringConfig.save(this,
+                    Boolean.TRUE.equals(call.<Boolean>argument(ArgumentKey.HEADLESS_ENABLED)),
+                    regions,
+                    call.<List<String>>argument(ArgumentKey.UUIDS),
+                    call.<List<String>>argument(ArgumentKey.WAKE_ON));
+        } catch (IllegalArgumentException | ClassCastException | JSONException e) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code), e.getMessage(), null);
+            return;
+        }
+        result.success(null);
+    }
+
+    /**
+     * Spawns the engine from the shared {@link FlutterEngineGroup} when the callback is a
+     * top-level function, which can be run directly as the Dart entrypoint. Callbacks that are
+     * static class members fall back to a standalone engine running the callback.
+     * The engine outlives this service in the {@link FlutterEngineCache}, so it only gets the
+     * application context.
+     */
+    private FlutterEngine createEngine(FlutterCallbackInformation callback) {
+        String appBundlePath = FlutterInjector.instance().flutterLoader().findAppBundlePath();
+        if (callback.callbackClassName == null || callback.callbackClassName.isEmpty()) {
+            if (engineGroup == null) {
+                engineGroup = new FlutterEngineGroup(getApplicationContext());
+            }
+            dartCallback = null;
+            return engineGroup.createAndRunEngine(getApplicationContext(),
+                    new DartExecutor.DartEntrypoint(appBundlePath, callback.callbackLibraryPath, callback.callbackName));
+        }
+        dartCallback = new DartExecutor.DartCallback(getAssets(), appBundlePath, callback);
+        return new FlutterEngine(getApplicationContext());
+    }
+
     public void receiveData(MethodCall call) {
         if (methodChannel != null) {
             try {
@@ -413,6 +689,13 @@ public class BackgroundService extends Service implements MethodChannel.MethodCa
 
     private void createClient(MethodCall call, MethodChannel.Result result) {
         try {
+            if (headlessClient) {
+                // The client created for headless monitoring is handed over as is, so the
+                // running region scan keeps going until Dart starts its own scan.
+                headlessClient = false;
+                result.success(null);
+                return;
+            }
             if (bleAdapter != null) {
                 Log.w(TAG, "Overwriting existing native client. Use BleManager#isClientCreated to check whether a client already exists.");
             }
@@ -440,22 +723,56 @@ public class BackgroundService extends Service implements MethodChannel.MethodCa
         if (bleAdapter != null) {
             bleAdapter.destroyClient();
         }
+        headlessScanning = false;
         scanningStreamHandler.onComplete();
         connectionStateStreamHandler.onComplete();
         bleAdapter = null;
-        delegates.clear();
+        clearDelegates();
         result.success(null);
     }
 
     private void startDeviceScan(@NonNull MethodCall call, MethodChannel.Result result) {
         List<String> uuids = call.<List<String>>argument(ArgumentKey.UUIDS);
+        final ScanFilterMatcher scanFilterMatcher;
+        try {
+            scanFilterMatcher = ScanFilterMatcher.compile(call.<List<Map<String, Object>>>argument(ArgumentKey.SCAN_FILTERS));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code), e.getMessage(), null);
+            return;
+        }
+        scanningStreamHandler.setScanResultFormat(call.<String>argument(ArgumentKey.SCAN_RESULT_FORMAT));
+        scanningStreamHandler.setBatching(
+                call.<Integer>argument(ArgumentKey.SCAN_BATCH_SIZE),
+                call.<Integer>argument(ArgumentKey.SCAN_BATCH_INTERVAL_MILLIS));
+        scanResultDeduplicator.configure(
+                call.<Boolean>argument(ArgumentKey.ALLOW_DUPLICATES),
+                call.<Integer>argument(ArgumentKey.DUPLICATE_RSSI_DELTA),
+                call.<Integer>argument(ArgumentKey.DUPLICATE_REFRESH_INTERVAL_MILLIS));
+        rssiSmoother.configure(
+                call.<String>argument(ArgumentKey.RSSI_FILTER),
+                call.<Double>argument(ArgumentKey.RSSI_EMA_ALPHA),
+                call.<Double>argument(ArgumentKey.RSSI_PROCESS_NOISE),
+                call.<Double>argument(ArgumentKey.RSSI_MEASUREMENT_NOISE),
+                call.<Double>argument(ArgumentKey.PROXIMITY_MAX_RATE));
+        if (headlessScanning) {
+            headlessScanning = false;
+            bleAdapter.stopDeviceScan();
+        }
+        regionMonitor.start();
         bleAdapter.startDeviceScan(uuids.toArray(new String[uuids.size()]),
                 call.<Integer>argument(ArgumentKey.SCAN_MODE),
                 call.<Integer>argument(ArgumentKey.CALLBACK_TYPE),
                 new OnEventCallback<ScanResult>() {
                     @Override
                     public void onEvent(ScanResult data) {
-                        scanningStreamHandler.onScanResult(data);
+                        if (!scanFilterMatcher.matches(data)) {
+                            return;
+                        }
+                        rssiSmoother.onSample(data.getDeviceId(), data.getRssi());
+                        regionMonitor.onScanResult(data);
+                        if (scanResultDeduplicator.shouldEmit(data)) {
+                            scanningStreamHandler.onScanResult(data);
+                        }
                     }
                 }, new OnErrorCallback() {
                     @Override
@@ -470,106 +787,182 @@ public class BackgroundService extends Service implements MethodChannel.MethodCa
         if (bleAdapter != null) {
             bleAdapter.stopDeviceScan();
         }
+        headlessScanning = false;
+        scanResultDeduplicator.reset();
+        rssiSmoother.reset();
+        regionMonitor.stop();
         scanningStreamHandler.onComplete();
         result.success(null);
     }
 
-    private void cancelTransaction(MethodCall call, MethodChannel.Result result) {
+    private void getScanBatchStatistics(MethodChannel.Result result) {
+        result.success(scanningStreamHandler.getBatchStatistics());
+    }
+
+    private void setProximityRegions(MethodCall call, MethodChannel.Result result) {
         try {
-            if (bleAdapter != null) {
-                bleAdapter.cancelTransaction(call.<String>argument(ArgumentKey.TRANSACTION_ID));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+            regionMonitor.setRegions(call.<List<Map<String, Object>>>argument(ArgumentKey.PROXIMITY_REGIONS));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code), e.getMessage(), null);
+            return;
         }
-
         result.success(null);
     }
 
-    @Override
-    public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
-        Log.d(TAG, "background onMethodCall : " + call.method);
-        String method = call.method;
-        for (CallDelegate delegate : delegates) {
-            if (delegate.canHandle(call)) {
-                delegate.onMethodCall(call, result);
-                return;
-            }
+    private void configureValueCache(MethodCall call, MethodChannel.Result result) {
+        Number byteBudget = call.argument(ArgumentKey.BYTE_BUDGET);
+        try {
+            valueCache.configure(byteBudget != null ? byteBudget.longValue() : 0,
+                    call.<List<Map<String, Object>>>argument(ArgumentKey.VALUE_CACHE_POLICIES));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code), e.getMessage(), null);
+            return;
         }
+        result.success(null);
+    }
 
+    private void cancelTransaction(MethodCall call, MethodChannel.Result result) {
         try {
-            if (method.equalsIgnoreCase(MethodName.CREATE_CLIENT)) {
-                createClient(call, result);
-                return;
-            }
-            if (method.equalsIgnoreCase(MethodName.DESTROY_CLIENT)) {
-                destroyClient(result);
-                return;
-            }
-            if (method.equalsIgnoreCase(MethodName.START_DEVICE_SCAN)) {
-                startDeviceScan(call, result);
-                return;
-            }
-            if (method.equalsIgnoreCase(MethodName.STOP_DEVICE_SCAN)) {
-                stopDeviceScan(result);
-                return;
-            }
-            if (method.equalsIgnoreCase(MethodName.CANCEL_TRANSACTION)) {
-                cancelTransaction(call, result);
-                return;
-            }
-            if (method.equalsIgnoreCase(MethodName.IS_CLIENT_CREATED)) {
-                isClientCreated(result);
-                return;
-            }
-            if (method.equalsIgnoreCase("setNotificationInfo")) {
-                    notificationTitle = call.<String>argument("title");
-                    notificationContent = call.<String>argument("content");
-                    updateNotificationInfo();
-                    result.success(true);
-                    return;
-            }
-
-            if (method.equalsIgnoreCase("setAutoStartOnBootMode")) {
-                boolean value = call.<Boolean>argument("value");
-                setAutoStartOnBootMode(value);
-                result.success(true);
-                return;
+            String transactionId = call.<String>argument(ArgumentKey.TRANSACTION_ID);
+            if (!characteristicsMonitorStreamHandler.closeSubscription(transactionId)
+                    && !gattOperationScheduler.cancel(transactionId)
+                    && !inFlightReads.cancel(transactionId)
+                    && (characteristicsDelegate == null || !characteristicsDelegate.cancelBatch(transactionId))
+                    && (bulkWriteDelegate == null || !bulkWriteDelegate.cancel(transactionId))
+                    && bleAdapter != null) {
+                bleAdapter.cancelTransaction(transactionId);
             }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
 
-            if (method.equalsIgnoreCase("setForegroundMode")) {
-                boolean value = call.<Boolean>argument("value");
-                setForegroundServiceMode(value);
-                if (value) {
-                    updateNotificationInfo();
-                } else {
-                    stopForeground(true);
-                }
+        result.success(null);
+    }
 
-                result.success(true);
-                return;
-            }
+    private static final List<String> serviceMethods = Arrays.asList(
+            MethodName.CREATE_CLIENT,
+            MethodName.DESTROY_CLIENT,
+            MethodName.START_DEVICE_SCAN,
+            MethodName.STOP_DEVICE_SCAN,
+            MethodName.GET_SCAN_BATCH_STATISTICS,
+            MethodName.GET_GATT_SCHEDULER_STATISTICS,
+            MethodName.CONFIGURE_VALUE_CACHE,
+            MethodName.GET_VALUE_CACHE_STATISTICS,
+            MethodName.SET_PROXIMITY_REGIONS,
+            MethodName.CONFIGURE_HEADLESS_MONITORING,
+            MethodName.CANCEL_TRANSACTION,
+            MethodName.IS_CLIENT_CREATED,
+            "setNotificationInfo",
+            "setAutoStartOnBootMode",
+            "setForegroundMode",
+            "engineStartStatistics",
+            "methodCallStatistics",
+            "mainThreadStatistics",
+            "stopService",
+            "sendData"
+    );
+
+    private final MethodChannel.MethodCallHandler serviceMethodHandler = new MethodChannel.MethodCallHandler() {
+        @Override
+        public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+            try {
+                switch (call.method) {
+                    case MethodName.CREATE_CLIENT:
+                        createClient(call, result);
+                        return;
+                    case MethodName.DESTROY_CLIENT:
+                        destroyClient(result);
+                        return;
+                    case MethodName.START_DEVICE_SCAN:
+                        startDeviceScan(call, result);
+                        return;
+                    case MethodName.STOP_DEVICE_SCAN:
+                        stopDeviceScan(result);
+                        return;
+                    case MethodName.GET_SCAN_BATCH_STATISTICS:
+                        getScanBatchStatistics(result);
+                        return;
+                    case MethodName.GET_GATT_SCHEDULER_STATISTICS:
+                        result.success(gattOperationScheduler.getStatistics());
+                        return;
+                    case MethodName.CONFIGURE_VALUE_CACHE:
+                        configureValueCache(call, result);
+                        return;
+                    case MethodName.GET_VALUE_CACHE_STATISTICS:
+                        result.success(valueCache.getStatistics());
+                        return;
+                    case MethodName.SET_PROXIMITY_REGIONS:
+                        setProximityRegions(call, result);
+                        return;
+                    case MethodName.CONFIGURE_HEADLESS_MONITORING:
+                        configureHeadlessMonitoring(call, result);
+                        return;
+                    case MethodName.CANCEL_TRANSACTION:
+                        cancelTransaction(call, result);
+                        return;
+                    case MethodName.IS_CLIENT_CREATED:
+                        isClientCreated(result);
+                        return;
+                    case "setNotificationInfo":
+                        notificationTitle = call.<String>argument("title");
+                        notificationContent = call.<String>argument("content");
+                        updateNotificationInfo();
+                        result.success(true);
+                        return;
+                    case "setAutoStartOnBootMode": {
+                        boolean value = call.<Boolean>argument("value");
+                        setAutoStartOnBootMode(value);
+                        result.success(true);
+                        return;
+                    }
+                    case "setForegroundMode": {
+                        boolean value = call.<Boolean>argument("value");
+                        setForegroundServiceMode(value);
+                        if (value) {
+                            updateNotificationInfo();
+                        } else {
+                            stopForeground(true);
+                        }
 
-            if (method.equalsIgnoreCase("stopService")) {
-                Intent intent = new Intent(getApplicationContext(), BackgroundService.class);
-                stopService(intent);
-                result.success(true);
-                return;
+                        result.success(true);
+                        return;
+                    }
+                    case "engineStartStatistics":
+                        result.success(engineStartStatistics.toMap());
+                        return;
+                    case "methodCallStatistics":
+                        result.success(methodDispatcher.getCallCounts());
+                        return;
+                    case "mainThreadStatistics":
+                        result.success(methodDispatcher.getMainThreadMicros());
+                        return;
+                    case "stopService": {
+                        Intent intent = new Intent(getApplicationContext(), BackgroundService.class);
+                        stopService(intent);
+                        result.success(true);
+                        return;
+                    }
+                    case "sendData": {
+                        LocalBroadcastManager manager = LocalBroadcastManager.getInstance(BackgroundService.this);
+                        Intent intent = new Intent("id.flutter/background_service");
+                        intent.putExtra("data", call.arguments.toString());
+                        manager.sendBroadcast(intent);
+                        result.success(true);
+                        return;
+                    }
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "exception occured " + e.getMessage());
+                e.printStackTrace();
             }
 
-            if (method.equalsIgnoreCase("sendData")) {
-                LocalBroadcastManager manager = LocalBroadcastManager.getInstance(this);
-                Intent intent = new Intent("id.flutter/background_service");
-                intent.putExtra("data", call.arguments.toString());
-                manager.sendBroadcast(intent);
-                result.success(true);
-                return;
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "exception occured " + e.getMessage());
-            e.printStackTrace();
+            result.notImplemented();
         }
+    };
 
-        result.notImplemented();
+    @Override
+    public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+        engineStartStatistics.onMethodCall();
+        gattOperationScheduler.onMethodCall(call, result);
     }
 }
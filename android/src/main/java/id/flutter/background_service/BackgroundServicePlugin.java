@@ -73,6 +73,7 @@ public class BackgroundServicePlugin extends BroadcastReceiver implements Flutte
         boolean autoStartOnBoot = call.<Boolean>argument("auto_start_on_boot");
 
         BackgroundService.setCallbackDispatcher(context, callbackHandle, isForeground, autoStartOnBoot);
+        BackgroundService.setBleTaskQueueMode(context, Boolean.TRUE.equals(call.<Boolean>argument("ble_task_queue")));
 
         Intent intent = new Intent(context, BackgroundService.class);
         if (isForeground){
@@ -0,0 +1,98 @@
+package id.flutter.background_service;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Start-up timings of the background Flutter engine. A cold start spawns a new engine and
+ * runs the Dart callback, a warm start re-attaches the engine kept in the engine cache.
+ * {@code ready} is the time spent in {@code runService} until the channels are attached,
+ * {@code firstCall} the time until Dart invoked its first method on the background channel.
+ */
+class EngineStartStatistics {
+    private static final String TAG = "BackgroundService";
+
+    private interface Key {
+        String COLD_STARTS = "coldStarts";
+        String WARM_STARTS = "warmStarts";
+        String LAST_START_WARM = "lastStartWarm";
+        String LAST_READY_MILLIS = "lastReadyMillis";
+        String LAST_FIRST_CALL_MILLIS = "lastFirstCallMillis";
+        String AVERAGE_COLD_READY_MILLIS = "averageColdReadyMillis";
+        String AVERAGE_WARM_READY_MILLIS = "averageWarmReadyMillis";
+        String AVERAGE_COLD_FIRST_CALL_MILLIS = "averageColdFirstCallMillis";
+        String AVERAGE_WARM_FIRST_CALL_MILLIS = "averageWarmFirstCallMillis";
+    }
+
+    private int coldStarts = 0;
+    private int warmStarts = 0;
+    private long coldReadyMillis = 0;
+    private long warmReadyMillis = 0;
+    private int coldFirstCalls = 0;
+    private int warmFirstCalls = 0;
+    private long coldFirstCallMillis = 0;
+    private long warmFirstCallMillis = 0;
+
+    private boolean lastStartWarm = false;
+    private long lastReadyMillis = 0;
+    private long lastFirstCallMillis = -1;
+    private long startedAt = 0;
+    private boolean awaitingFirstCall = false;
+
+    synchronized void onStart() {
+        startedAt = SystemClock.elapsedRealtime();
+        awaitingFirstCall = false;
+    }
+
+    synchronized void onReady(boolean warm) {
+        lastStartWarm = warm;
+        lastReadyMillis = SystemClock.elapsedRealtime() - startedAt;
+        lastFirstCallMillis = -1;
+        awaitingFirstCall = true;
+        if (warm) {
+            warmStarts++;
+            warmReadyMillis += lastReadyMillis;
+        } else {
+            coldStarts++;
+            coldReadyMillis += lastReadyMillis;
+        }
+        Log.d(TAG, (warm ? "warm" : "cold") + " engine start ready in " + lastReadyMillis + "ms");
+    }
+
+    synchronized void onMethodCall() {
+        if (!awaitingFirstCall) {
+            return;
+        }
+        awaitingFirstCall = false;
+        lastFirstCallMillis = SystemClock.elapsedRealtime() - startedAt;
+        if (lastStartWarm) {
+            warmFirstCalls++;
+            warmFirstCallMillis += lastFirstCallMillis;
+        } else {
+            coldFirstCalls++;
+            coldFirstCallMillis += lastFirstCallMillis;
+        }
+        Log.d(TAG, (lastStartWarm ? "warm" : "cold") + " engine start first call after " + lastFirstCallMillis + "ms");
+    }
+
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put(Key.COLD_STARTS, coldStarts);
+        statistics.put(Key.WARM_STARTS, warmStarts);
+        statistics.put(Key.LAST_START_WARM, lastStartWarm);
+        statistics.put(Key.LAST_READY_MILLIS, lastReadyMillis);
+        statistics.put(Key.LAST_FIRST_CALL_MILLIS, lastFirstCallMillis);
+        statistics.put(Key.AVERAGE_COLD_READY_MILLIS, average(coldReadyMillis, coldStarts));
+        statistics.put(Key.AVERAGE_WARM_READY_MILLIS, average(warmReadyMillis, warmStarts));
+        statistics.put(Key.AVERAGE_COLD_FIRST_CALL_MILLIS, average(coldFirstCallMillis, coldFirstCalls));
+        statistics.put(Key.AVERAGE_WARM_FIRST_CALL_MILLIS, average(warmFirstCallMillis, warmFirstCalls));
+        return statistics;
+    }
+
+    private static double average(long total, int count) {
+        return count > 0 ? (double) total / count : 0;
+    }
+}
@@ -0,0 +1,139 @@
+package id.flutter.background_service;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.Nullable;
+
+import static android.content.Context.MODE_PRIVATE;
+
+/**
+ * Persisted configuration of the headless monitoring mode, in which the service scans and
+ * evaluates proximity regions natively and only starts the Flutter engine once one of the
+ * {@link #wakeOn} region events happens. It is stored next to the callback handle so it
+ * survives a reboot started through {@link BootReceiver}.
+ */
+class HeadlessMonitoringConfig {
+    private static final String TAG = "BackgroundService";
+    private static final String KEY_ENABLED = "headless_mode";
+    private static final String KEY_REGIONS = "headless_regions";
+    private static final String KEY_UUIDS = "headless_uuids";
+    private static final String KEY_WAKE_ON = "headless_wake_on";
+
+    final boolean enabled;
+    final List<Map<String, Object>> regions;
+    final List<String> uuids;
+    final Set<String> wakeOn;
+
+    private HeadlessMonitoringConfig(boolean enabled, List<Map<String, Object>> regions,
+                                     List<String> uuids, Set<String> wakeOn) {
+        this.enabled = enabled;
+        this.regions = regions;
+        this.uuids = uuids;
+        this.wakeOn = wakeOn;
+    }
+
+    static void save(Context context, boolean enabled, @Nullable List<Map<String, Object>> regions,
+                     @Nullable List<String> uuids, @Nullable List<String> wakeOn) throws JSONException {
+        JSONArray regionsJson = new JSONArray();
+        if (regions != null) {
+            for (Map<String, Object> region : regions) {
+                JSONObject regionJson = new JSONObject();
+                for (Map.Entry<String, Object> entry : region.entrySet()) {
+                    if (entry.getValue() != null) {
+                        regionJson.put(entry.getKey(), toJsonValue(entry.getValue()));
+                    }
+                }
+                regionsJson.put(regionJson);
+            }
+        }
+        SharedPreferences pref = context.getSharedPreferences("id.flutter.background_service", MODE_PRIVATE);
+        pref.edit()
+                .putBoolean(KEY_ENABLED, enabled)
+                .putString(KEY_REGIONS, regionsJson.toString())
+                .putString(KEY_UUIDS, new JSONArray(uuids != null ? uuids : Collections.<String>emptyList()).toString())
+                .putString(KEY_WAKE_ON, new JSONArray(wakeOn != null ? wakeOn : Collections.<String>emptyList()).toString())
+                .apply();
+    }
+
+    static HeadlessMonitoringConfig load(Context context) {
+        SharedPreferences pref = context.getSharedPreferences("id.flutter.background_service", MODE_PRIVATE);
+        if (!pref.getBoolean(KEY_ENABLED, false)) {
+            return disabled();
+        }
+        try {
+            List<Map<String, Object>> regions = new ArrayList<>();
+            JSONArray regionsJson = new JSONArray(pref.getString(KEY_REGIONS, "[]"));
+            for (int i = 0; i < regionsJson.length(); i++) {
+                JSONObject regionJson = regionsJson.getJSONObject(i);
+                Map<String, Object> region = new HashMap<>();
+                Iterator<String> keys = regionJson.keys();
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    region.put(key, fromJsonValue(regionJson.get(key)));
+                }
+                regions.add(region);
+            }
+            return new HeadlessMonitoringConfig(true, regions,
+                    toStrings(new JSONArray(pref.getString(KEY_UUIDS, "[]"))),
+                    new HashSet<>(toStrings(new JSONArray(pref.getString(KEY_WAKE_ON, "[]")))));
+        } catch (JSONException e) {
+            Log.e(TAG, "Invalid headless monitoring config: " + e.getMessage());
+            return disabled();
+        }
+    }
+
+    private static HeadlessMonitoringConfig disabled() {
+        return new HeadlessMonitoringConfig(false, Collections.<Map<String, Object>>emptyList(),
+                Collections.<String>emptyList(), Collections.<String>emptySet());
+    }
+
+    /**
+     * Byte prefixes are the only array values of a region spec, so they are stored as arrays
+     * of unsigned bytes and read back as byte[].
+     */
+    private static Object toJsonValue(Object value) {
+        if (value instanceof byte[]) {
+            JSONArray array = new JSONArray();
+            for (byte b : (byte[]) value) {
+                array.put(b & 0xFF);
+            }
+            return array;
+        }
+        return value;
+    }
+
+    private static Object fromJsonValue(Object value) throws JSONException {
+        if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            byte[] bytes = new byte[array.length()];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) array.getInt(i);
+            }
+            return bytes;
+        }
+        return value;
+    }
+
+    private static List<String> toStrings(JSONArray array) throws JSONException {
+        List<String> strings = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            strings.add(array.getString(i));
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,53 @@
+package id.flutter.background_service.ble;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Single main-thread executor shared by the delegates and stream handlers. Work submitted
+ * with {@link #execute(Runnable)} from the main thread runs immediately instead of being
+ * posted behind the rest of the message queue.
+ */
+public final class MainThreadExecutor implements Executor {
+
+    private static final MainThreadExecutor INSTANCE = new MainThreadExecutor();
+
+    private final Looper mainLooper = Looper.getMainLooper();
+    private final Handler handler = new Handler(mainLooper);
+
+    private MainThreadExecutor() {
+    }
+
+    public static MainThreadExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isMainThread() {
+        return Looper.myLooper() == mainLooper;
+    }
+
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        if (isMainThread()) {
+            runnable.run();
+        } else {
+            handler.post(runnable);
+        }
+    }
+
+    public void post(@NonNull Runnable runnable) {
+        handler.post(runnable);
+    }
+
+    public void postDelayed(@NonNull Runnable runnable, long delayMillis) {
+        handler.postDelayed(runnable, delayMillis);
+    }
+
+    public void removeCallbacks(@NonNull Runnable runnable) {
+        handler.removeCallbacks(runnable);
+    }
+}
@@ -1,44 +1,66 @@
 package id.flutter.background_service.ble;
 
-import android.os.Handler;
-import android.os.Looper;
-
 import com.polidea.multiplatformbleadapter.OnErrorCallback;
 import com.polidea.multiplatformbleadapter.OnSuccessCallback;
 import com.polidea.multiplatformbleadapter.errors.BleError;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
-public class SafeMainThreadResolver<T> implements OnSuccessCallback<T>, OnErrorCallback {
+/**
+ * Resolves a call exactly once on the main thread. The resolver is its own completion task,
+ * so resolving does not allocate and runs inline when already on the main thread. Channels
+ * served from a background task queue accept replies from any thread; resolvers created for
+ * them deliver the result on the calling thread instead.
+ */
+public class SafeMainThreadResolver<T> implements OnSuccessCallback<T>, OnErrorCallback, Runnable {
 
     private OnErrorCallback onErrorCallback = null;
     private OnSuccessCallback<T> onSuccessCallback = null;
     private AtomicBoolean called = new AtomicBoolean(false);
+    private T data;
+    private BleError error;
+
+    private final boolean resolveOnCallingThread;
 
     public SafeMainThreadResolver(OnSuccessCallback<T> onSuccessCallback, OnErrorCallback onErrorCallback) {
+        this(onSuccessCallback, onErrorCallback, false);
+    }
+
+    public SafeMainThreadResolver(OnSuccessCallback<T> onSuccessCallback, OnErrorCallback onErrorCallback,
+                                  boolean resolveOnCallingThread) {
         this.onErrorCallback = onErrorCallback;
         this.onSuccessCallback = onSuccessCallback;
+        this.resolveOnCallingThread = resolveOnCallingThread;
     }
 
     public void onSuccess(final T data) {
         if (onSuccessCallback != null && called.compareAndSet(false, true)) {
-            new Handler(Looper.getMainLooper()).post(new Runnable() {
-                @Override
-                public void run() {
-                    onSuccessCallback.onSuccess(data);
-                }
-            });
+            this.data = data;
+            resolve();
         }
     }
 
     public void onError(final BleError error) {
         if (onErrorCallback != null && called.compareAndSet(false, true)) {
-            new Handler(Looper.getMainLooper()).post(new Runnable() {
-                @Override
-                public void run() {
-                    onErrorCallback.onError(error);
-                }
-            });
+            this.error = error;
+            resolve();
+        }
+    }
+
+    private void resolve() {
+        if (resolveOnCallingThread) {
+            run();
+        } else {
+            MainThreadExecutor.getInstance().execute(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        if (error != null) {
+            onErrorCallback.onError(error);
+        } else {
+            onSuccessCallback.onSuccess(data);
         }
     }
 }
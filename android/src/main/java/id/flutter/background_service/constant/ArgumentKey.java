@@ -5,8 +5,33 @@ public interface ArgumentKey {
     String SCAN_MODE = "scanMode";
     String CALLBACK_TYPE = "callbackType";
     String UUIDS = "uuids";
+    String SCAN_RESULT_FORMAT = "scanResultFormat";
+    String ALLOW_DUPLICATES = "allowDuplicates";
+    String DUPLICATE_RSSI_DELTA = "duplicateRssiDelta";
+    String DUPLICATE_REFRESH_INTERVAL_MILLIS = "duplicateRefreshInterval";
+    String SCAN_BATCH_SIZE = "scanBatchSize";
+    String SCAN_BATCH_INTERVAL_MILLIS = "scanBatchInterval";
+    String SCAN_FILTERS = "scanFilters";
+    String RSSI_FILTER = "rssiFilter";
+    String RSSI_EMA_ALPHA = "rssiEmaAlpha";
+    String RSSI_PROCESS_NOISE = "rssiProcessNoise";
+    String RSSI_MEASUREMENT_NOISE = "rssiMeasurementNoise";
+    String PROXIMITY_MAX_RATE = "proximityMaxRate";
+    String PROXIMITY_REGIONS = "proximityRegions";
+    String HEADLESS_ENABLED = "headlessEnabled";
+    String WAKE_ON = "wakeOn";
+    String STREAM_KEYED = "streamKeyed";
+    String DELIVERY_POLICY = "deliveryPolicy";
+    String DELIVERY_INTERVAL_MILLIS = "deliveryInterval";
+    String VALUE_LAYOUT = "valueLayout";
+    String DECODE = "decode";
+    String PAYLOAD_SCHEMA = "payloadSchema";
+    String RESPONSE_FORMAT = "responseFormat";
+    String CHARACTERISTICS = "characteristics";
 
     String TRANSACTION_ID = "transactionId";
+    String PRIORITY = "priority";
+    String DEADLINE_MILLIS = "deadline";
 
     String DEVICE_IDENTIFIER = "deviceIdentifier";
     String IS_AUTO_CONNECT = "isAutoConnect";
@@ -14,6 +39,8 @@ public interface ArgumentKey {
     String REFRESH_GATT = "refreshGatt";
     String TIMEOUT_MILLIS = "timeout";
     String EMIT_CURRENT_VALUE = "emitCurrentValue";
+    String BYTE_BUDGET = "byteBudget";
+    String VALUE_CACHE_POLICIES = "valueCachePolicies";
 
     String LOG_LEVEL = "logLevel";
 
@@ -25,6 +52,10 @@ public interface ArgumentKey {
     String DESCRIPTOR_IDENTIFIER = "descriptorIdentifier";
     String VALUE = "value";
     String WITH_RESPONSE = "withResponse";
+    String FILE_PATH = "filePath";
+    String CHUNK_SIZE = "chunkSize";
+    String WRITE_WINDOW = "writeWindow";
+    String PROGRESS_INTERVAL_MILLIS = "progressInterval";
 
     String MTU = "mtu";
 
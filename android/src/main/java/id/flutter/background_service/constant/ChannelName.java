@@ -7,4 +7,7 @@ public interface ChannelName {
     String SCANNING_EVENTS = FLUTTER_BLE_LIB + "/scanningEvents";
     String CONNECTION_STATE_CHANGE_EVENTS = FLUTTER_BLE_LIB + "/connectionStateChangeEvents";
     String MONITOR_CHARACTERISTIC = FLUTTER_BLE_LIB + "/monitorCharacteristic";
+    String PROXIMITY_EVENTS = FLUTTER_BLE_LIB + "/proximityEvents";
+    String REGION_EVENTS = FLUTTER_BLE_LIB + "/regionEvents";
+    String BULK_WRITE_PROGRESS = FLUTTER_BLE_LIB + "/bulkWriteProgress";
 }
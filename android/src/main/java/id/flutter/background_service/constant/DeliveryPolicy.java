@@ -0,0 +1,8 @@
+package id.flutter.background_service.constant;
+
+public interface DeliveryPolicy {
+    String ALL = "all";
+    String LATEST = "latest";
+    String SAMPLE = "sample";
+    String AGGREGATE = "aggregate";
+}
@@ -6,6 +6,9 @@ public interface MethodName {
     String DESTROY_CLIENT = "destroyClient";
 
     String CANCEL_TRANSACTION = "cancelTransaction";
+    String GET_GATT_SCHEDULER_STATISTICS = "gattSchedulerStatistics";
+    String CONFIGURE_VALUE_CACHE = "configureValueCache";
+    String GET_VALUE_CACHE_STATISTICS = "valueCacheStatistics";
 
     String GET_STATE = "getState";
 
@@ -14,6 +17,9 @@ public interface MethodName {
 
     String START_DEVICE_SCAN = "startDeviceScan";
     String STOP_DEVICE_SCAN = "stopDeviceScan";
+    String GET_SCAN_BATCH_STATISTICS = "scanBatchStatistics";
+    String SET_PROXIMITY_REGIONS = "setProximityRegions";
+    String CONFIGURE_HEADLESS_MONITORING = "configureHeadlessMonitoring";
 
     String CONNECT_TO_DEVICE = "connectToDevice";
     String IS_DEVICE_CONNECTED = "isDeviceConnected";
@@ -22,6 +28,7 @@ public interface MethodName {
 
     String DISCOVER_ALL_SERVICES_AND_CHARACTERISTICS = "discoverAllServicesAndCharacteristics";
     String GET_SERVICES = "services";
+    String GET_GATT_TREE = "gattTree";
     String GET_CHARACTERISTICS = "characteristics";
     String GET_CHARACTERISTICS_FOR_SERVICE = "characteristicsForService";
     String GET_DESCRIPTORS_FOR_DEVICE = "descriptorsForDevice";
@@ -41,14 +48,18 @@ public interface MethodName {
     String READ_CHARACTERISTIC_FOR_IDENTIFIER = "readCharacteristicForIdentifier";
     String READ_CHARACTERISTIC_FOR_DEVICE = "readCharacteristicForDevice";
     String READ_CHARACTERISTIC_FOR_SERVICE = "readCharacteristicForService";
+    String READ_CHARACTERISTICS_BATCH = "readCharacteristicsBatch";
 
     String WRITE_CHARACTERISTIC_FOR_IDENTIFIER = "writeCharacteristicForIdentifier";
     String WRITE_CHARACTERISTIC_FOR_DEVICE = "writeCharacteristicForDevice";
     String WRITE_CHARACTERISTIC_FOR_SERVICE = "writeCharacteristicForService";
+    String WRITE_CHARACTERISTIC_BULK = "writeCharacteristicBulk";
 
     String MONITOR_CHARACTERISTIC_FOR_IDENTIFIER = "monitorCharacteristicForIdentifier";
     String MONITOR_CHARACTERISTIC_FOR_DEVICE = "monitorCharacteristicForDevice";
     String MONITOR_CHARACTERISTIC_FOR_SERVICE = "monitorCharacteristicForService";
+    String GET_MONITOR_STATISTICS = "monitorStatistics";
+    String REGISTER_PAYLOAD_SCHEMA = "registerPayloadSchema";
 
     String READ_DESCRIPTOR_FOR_IDENTIFIER = "readDescriptorForIdentifier";
     String READ_DESCRIPTOR_FOR_CHARACTERISTIC = "readDescriptorForCharacteristic";
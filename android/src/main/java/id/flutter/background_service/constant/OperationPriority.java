@@ -0,0 +1,7 @@
+package id.flutter.background_service.constant;
+
+public interface OperationPriority {
+    String CRITICAL = "critical";
+    String NORMAL = "normal";
+    String BACKGROUND = "background";
+}
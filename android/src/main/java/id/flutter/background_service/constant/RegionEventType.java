@@ -0,0 +1,7 @@
+package id.flutter.background_service.constant;
+
+public interface RegionEventType {
+    String ENTER = "enter";
+    String EXIT = "exit";
+    String DWELL = "dwell";
+}
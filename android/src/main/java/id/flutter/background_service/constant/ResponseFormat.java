@@ -0,0 +1,7 @@
+package id.flutter.background_service.constant;
+
+public interface ResponseFormat {
+    String JSON = "json";
+    String BINARY = "binary";
+    String DECODED = "decoded";
+}
@@ -0,0 +1,7 @@
+package id.flutter.background_service.constant;
+
+public interface RssiFilterType {
+    String NONE = "none";
+    String EMA = "ema";
+    String KALMAN = "kalman";
+}
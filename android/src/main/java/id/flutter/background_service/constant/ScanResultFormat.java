@@ -0,0 +1,6 @@
+package id.flutter.background_service.constant;
+
+public interface ScanResultFormat {
+    String JSON = "json";
+    String BINARY = "binary";
+}
@@ -0,0 +1,9 @@
+package id.flutter.background_service.converter;
+
+import androidx.annotation.Nullable;
+
+public interface BinaryConverter<T> {
+
+    @Nullable
+    byte[] toBytes(T value);
+}
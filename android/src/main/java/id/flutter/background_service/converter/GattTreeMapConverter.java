@@ -0,0 +1,63 @@
+package id.flutter.background_service.converter;
+
+import com.polidea.multiplatformbleadapter.Characteristic;
+import com.polidea.multiplatformbleadapter.Descriptor;
+import com.polidea.multiplatformbleadapter.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the nested services / characteristics / descriptors structure of a device as maps
+ * sent through the standard codec. Keys match the ones of {@link ServiceJsonConverter},
+ * {@link CharacteristicJsonConverter} and {@link DescriptorJsonConverter}, with the children
+ * of each level nested under {@link Metadata#CHARACTERISTICS} and
+ * {@link Metadata#DESCRIPTORS}. Values are left out as discovery does not read them.
+ */
+public class GattTreeMapConverter {
+
+    public interface Metadata {
+        String SERVICE_UUID = "serviceUuid";
+        String SERVICE_ID = "serviceId";
+        String CHARACTERISTICS = "characteristics";
+        String CHARACTERISTIC_UUID = "characteristicUuid";
+        String CHARACTERISTIC_ID = "id";
+        String IS_READABLE = "isReadable";
+        String IS_WRITABLE_WITH_RESPONSE = "isWritableWithResponse";
+        String IS_WRITABLE_WITHOUT_RESPONSE = "isWritableWithoutResponse";
+        String IS_NOTIFIABLE = "isNotifiable";
+        String IS_INDICATABLE = "isIndicatable";
+        String DESCRIPTORS = "descriptors";
+        String DESCRIPTOR_UUID = "descriptorUuid";
+        String DESCRIPTOR_ID = "descriptorId";
+    }
+
+    public Map<String, Object> toMap(Service service, List<Map<String, Object>> characteristics) {
+        Map<String, Object> map = new HashMap<>(4);
+        map.put(Metadata.SERVICE_ID, service.getId());
+        map.put(Metadata.SERVICE_UUID, service.getUuid().toString());
+        map.put(Metadata.CHARACTERISTICS, characteristics);
+        return map;
+    }
+
+    public Map<String, Object> toMap(Characteristic characteristic, List<Map<String, Object>> descriptors) {
+        Map<String, Object> map = new HashMap<>(12);
+        map.put(Metadata.CHARACTERISTIC_ID, characteristic.getId());
+        map.put(Metadata.CHARACTERISTIC_UUID, characteristic.getUuid().toString());
+        map.put(Metadata.IS_READABLE, characteristic.isReadable());
+        map.put(Metadata.IS_WRITABLE_WITH_RESPONSE, characteristic.isWritableWithResponse());
+        map.put(Metadata.IS_WRITABLE_WITHOUT_RESPONSE, characteristic.isWritableWithoutResponse());
+        map.put(Metadata.IS_NOTIFIABLE, characteristic.isNotifiable());
+        map.put(Metadata.IS_INDICATABLE, characteristic.isIndicatable());
+        map.put(Metadata.DESCRIPTORS, descriptors);
+        return map;
+    }
+
+    public Map<String, Object> toMap(Descriptor descriptor) {
+        Map<String, Object> map = new HashMap<>(4);
+        map.put(Metadata.DESCRIPTOR_ID, descriptor.getId());
+        map.put(Metadata.DESCRIPTOR_UUID, descriptor.getUuid().toString());
+        return map;
+    }
+}
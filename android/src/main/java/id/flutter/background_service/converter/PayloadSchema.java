@@ -0,0 +1,43 @@
+package id.flutter.background_service.converter;
+
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Declarative layout of a characteristic value as a list of numeric fields, each described
+ * by a {@link ValueLayout}. Decoding yields one double per field, in order, which the
+ * standard codec sends to Dart as a Float64List; fields the value is too short for decode
+ * to NaN.
+ */
+public class PayloadSchema {
+
+    private final ValueLayout[] fields;
+
+    private PayloadSchema(ValueLayout[] fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the schema is empty or a field is malformed
+     */
+    public static PayloadSchema fromList(@Nullable List<Map<String, Object>> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("A payload schema needs at least one field");
+        }
+        ValueLayout[] layouts = new ValueLayout[fields.size()];
+        for (int i = 0; i < layouts.length; i++) {
+            layouts[i] = ValueLayout.fromMap(fields.get(i));
+        }
+        return new PayloadSchema(layouts);
+    }
+
+    public double[] decode(@Nullable byte[] value) {
+        double[] decoded = new double[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            decoded[i] = fields[i].fits(value) ? fields[i].read(value) : Double.NaN;
+        }
+        return decoded;
+    }
+}
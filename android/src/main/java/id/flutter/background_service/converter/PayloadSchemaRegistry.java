@@ -0,0 +1,40 @@
+package id.flutter.background_service.converter;
+
+import com.polidea.multiplatformbleadapter.utils.UUIDConverter;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Payload schemas registered from Dart, keyed by characteristic UUID. Lookups happen on
+ * adapter threads while notifications arrive, registration on the method channel thread.
+ */
+public class PayloadSchemaRegistry {
+
+    private final Map<UUID, PayloadSchema> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the schema for the characteristic, or removes it when {@code schema} is null.
+     *
+     * @throws IllegalArgumentException when the UUID is malformed
+     */
+    public void register(String characteristicUuid, @Nullable PayloadSchema schema) {
+        UUID uuid = characteristicUuid != null ? UUIDConverter.convert(characteristicUuid) : null;
+        if (uuid == null) {
+            throw new IllegalArgumentException("Invalid characteristic UUID: " + characteristicUuid);
+        }
+        if (schema != null) {
+            schemas.put(uuid, schema);
+        } else {
+            schemas.remove(uuid);
+        }
+    }
+
+    @Nullable
+    public PayloadSchema get(@Nullable UUID characteristicUuid) {
+        return characteristicUuid != null ? schemas.get(characteristicUuid) : null;
+    }
+}
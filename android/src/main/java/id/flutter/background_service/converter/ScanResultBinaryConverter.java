@@ -0,0 +1,226 @@
+package id.flutter.background_service.converter;
+
+import id.flutter.background_service.scan.MacAddress;
+import com.polidea.multiplatformbleadapter.AdvertisementData;
+import com.polidea.multiplatformbleadapter.ScanResult;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Encodes a {@link ScanResult} into a compact little-endian frame that is sent over the
+ * scanning channel as a raw byte[] instead of a JSON string.
+ *
+ * <pre>
+ * u8   version
+ * u8   flags (see {@link Flag})
+ * id   6 byte MAC address, or u8 length + UTF-8 when {@link Flag#STRING_ID} is set
+ * i8   rssi
+ * u16  mtu
+ * [u8 length + UTF-8 name]                 if {@link Flag#NAME}
+ * [u8 length + UTF-8 local name]           if {@link Flag#LOCAL_NAME}
+ * [i8 tx power level]                      if {@link Flag#TX_POWER_LEVEL}
+ * [u16 length + manufacturer data]         if {@link Flag#MANUFACTURER_DATA}
+ * u8   service UUID count, then tagged UUIDs
+ * u8   service data count, then tagged UUID + u16 length + data
+ * u8   solicited service UUID count, then tagged UUIDs
+ * </pre>
+ *
+ * A tagged UUID is a u8 width (2 or 16) followed by either the 16-bit short form of a
+ * Bluetooth base UUID or the full 128-bit UUID, most significant byte first.
+ */
+public class ScanResultBinaryConverter implements BinaryConverter<ScanResult> {
+
+    public static final int VERSION = 1;
+
+    public interface Flag {
+        int NAME = 1;
+        int LOCAL_NAME = 1 << 1;
+        int TX_POWER_LEVEL = 1 << 2;
+        int MANUFACTURER_DATA = 1 << 3;
+        int STRING_ID = 1 << 4;
+    }
+
+    private static final int SHORT_UUID_LENGTH = 2;
+    private static final int FULL_UUID_LENGTH = 16;
+    private static final int MAX_SHORT_LENGTH = 0xFF;
+    private static final int MAX_LONG_LENGTH = 0xFFFF;
+
+    private static final long BASE_UUID_LSB = 0x800000805F9B34FBL;
+    private static final long BASE_UUID_MSB_MASK = 0xFFFF0000FFFFFFFFL;
+    private static final long BASE_UUID_MSB = 0x0000000000001000L;
+
+    private final byte[] macBuffer = new byte[MacAddress.LENGTH];
+
+    @Override
+    @Nullable
+    public synchronized byte[] toBytes(ScanResult value) {
+        String deviceId = value.getDeviceId();
+        boolean isMac = MacAddress.parse(deviceId, macBuffer);
+        byte[] idBytes = isMac ? null : truncate(utf8(deviceId), MAX_SHORT_LENGTH);
+        byte[] nameBytes = truncate(utf8(value.getDeviceName()), MAX_SHORT_LENGTH);
+
+        AdvertisementData advertisementData = value.getAdvertisementData();
+        byte[] localNameBytes = null;
+        Integer txPowerLevel = null;
+        byte[] manufacturerData = null;
+        List<UUID> serviceUuids = null;
+        Map<UUID, byte[]> serviceData = null;
+        List<UUID> solicitedServiceUuids = null;
+        if (advertisementData != null) {
+            localNameBytes = truncate(utf8(advertisementData.getLocalName()), MAX_SHORT_LENGTH);
+            txPowerLevel = advertisementData.getTxPowerLevel();
+            manufacturerData = truncate(advertisementData.getManufacturerData(), MAX_LONG_LENGTH);
+            serviceUuids = advertisementData.getServiceUUIDs();
+            serviceData = advertisementData.getServiceData();
+            solicitedServiceUuids = advertisementData.getSolicitedServiceUUIDs();
+        }
+
+        int flags = 0;
+        int size = 2 + 1 + 2;
+        if (isMac) {
+            size += MacAddress.LENGTH;
+        } else {
+            flags |= Flag.STRING_ID;
+            size += 1 + (idBytes != null ? idBytes.length : 0);
+        }
+        if (nameBytes != null) {
+            flags |= Flag.NAME;
+            size += 1 + nameBytes.length;
+        }
+        if (localNameBytes != null) {
+            flags |= Flag.LOCAL_NAME;
+            size += 1 + localNameBytes.length;
+        }
+        if (txPowerLevel != null) {
+            flags |= Flag.TX_POWER_LEVEL;
+            size += 1;
+        }
+        if (manufacturerData != null) {
+            flags |= Flag.MANUFACTURER_DATA;
+            size += 2 + manufacturerData.length;
+        }
+        size += 1 + uuidsSize(serviceUuids);
+        size += 1;
+        int serviceDataCount = 0;
+        if (serviceData != null) {
+            for (Map.Entry<UUID, byte[]> entry : serviceData.entrySet()) {
+                if (serviceDataCount == MAX_SHORT_LENGTH) break;
+                size += uuidSize(entry.getKey()) + 2 + Math.min(lengthOf(entry.getValue()), MAX_LONG_LENGTH);
+                serviceDataCount++;
+            }
+        }
+        size += 1 + uuidsSize(solicitedServiceUuids);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) VERSION);
+        buffer.put((byte) flags);
+        if (isMac) {
+            buffer.put(macBuffer);
+        } else {
+            putShortBytes(buffer, idBytes);
+        }
+        buffer.put((byte) value.getRssi());
+        buffer.putShort((short) value.getMtu());
+        if (nameBytes != null) putShortBytes(buffer, nameBytes);
+        if (localNameBytes != null) putShortBytes(buffer, localNameBytes);
+        if (txPowerLevel != null) buffer.put(txPowerLevel.byteValue());
+        if (manufacturerData != null) {
+            buffer.putShort((short) manufacturerData.length);
+            buffer.put(manufacturerData);
+        }
+        putUuids(buffer, serviceUuids);
+        buffer.put((byte) serviceDataCount);
+        if (serviceData != null) {
+            int written = 0;
+            for (Map.Entry<UUID, byte[]> entry : serviceData.entrySet()) {
+                if (written == serviceDataCount) break;
+                putUuid(buffer, entry.getKey());
+                byte[] data = entry.getValue();
+                int length = Math.min(lengthOf(data), MAX_LONG_LENGTH);
+                buffer.putShort((short) length);
+                if (length > 0) buffer.put(data, 0, length);
+                written++;
+            }
+        }
+        putUuids(buffer, solicitedServiceUuids);
+        return buffer.array();
+    }
+
+    static boolean isShortUuid(UUID uuid) {
+        return uuid.getLeastSignificantBits() == BASE_UUID_LSB
+                && (uuid.getMostSignificantBits() & BASE_UUID_MSB_MASK) == BASE_UUID_MSB;
+    }
+
+    private static int uuidSize(UUID uuid) {
+        return 1 + (isShortUuid(uuid) ? SHORT_UUID_LENGTH : FULL_UUID_LENGTH);
+    }
+
+    private static int uuidsSize(@Nullable Collection<UUID> uuids) {
+        if (uuids == null) return 0;
+        int size = 0;
+        int count = 0;
+        for (UUID uuid : uuids) {
+            if (count++ == MAX_SHORT_LENGTH) break;
+            size += uuidSize(uuid);
+        }
+        return size;
+    }
+
+    private static void putUuids(ByteBuffer buffer, @Nullable Collection<UUID> uuids) {
+        int count = uuids == null ? 0 : Math.min(uuids.size(), MAX_SHORT_LENGTH);
+        buffer.put((byte) count);
+        if (count == 0) return;
+        int written = 0;
+        for (UUID uuid : uuids) {
+            if (written++ == count) break;
+            putUuid(buffer, uuid);
+        }
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        if (isShortUuid(uuid)) {
+            int shortUuid = (int) (uuid.getMostSignificantBits() >>> 32) & 0xFFFF;
+            buffer.put((byte) SHORT_UUID_LENGTH);
+            buffer.put((byte) (shortUuid >> 8));
+            buffer.put((byte) shortUuid);
+        } else {
+            buffer.put((byte) FULL_UUID_LENGTH);
+            ByteOrder order = buffer.order();
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            buffer.putLong(uuid.getMostSignificantBits());
+            buffer.putLong(uuid.getLeastSignificantBits());
+            buffer.order(order);
+        }
+    }
+
+    private static void putShortBytes(ByteBuffer buffer, @Nullable byte[] bytes) {
+        int length = lengthOf(bytes);
+        buffer.put((byte) length);
+        if (length > 0) buffer.put(bytes);
+    }
+
+    private static int lengthOf(@Nullable byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    @Nullable
+    private static byte[] utf8(@Nullable String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    @Nullable
+    private static byte[] truncate(@Nullable byte[] bytes, int maxLength) {
+        if (bytes == null || bytes.length <= maxLength) return bytes;
+        byte[] truncated = new byte[maxLength];
+        System.arraycopy(bytes, 0, truncated, 0, maxLength);
+        return truncated;
+    }
+}
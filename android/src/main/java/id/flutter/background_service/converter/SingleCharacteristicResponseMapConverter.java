@@ -0,0 +1,46 @@
+package id.flutter.background_service.converter;
+
+import id.flutter.background_service.ble.SingleCharacteristicResponse;
+import com.polidea.multiplatformbleadapter.Characteristic;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary counterpart of {@link SingleCharacteristicResponseJsonConverter}: a flat map sent
+ * through the standard codec, with ids as integers and the value as a raw byte[] instead of
+ * Base64 inside a JSON string. Keys match the JSON ones.
+ */
+public class SingleCharacteristicResponseMapConverter {
+
+    private interface Metadata {
+        String SERVICE_UUID = "serviceUuid";
+        String SERVICE_ID = "serviceId";
+        String TRANSACTION_ID = "transactionId";
+        String UUID = "characteristicUuid";
+        String ID = "id";
+        String IS_READABLE = "isReadable";
+        String IS_WRITABLE_WITH_RESPONSE = "isWritableWithResponse";
+        String IS_WRITABLE_WITHOUT_RESPONSE = "isWritableWithoutResponse";
+        String IS_NOTIFIABLE = "isNotifiable";
+        String IS_INDICATABLE = "isIndicatable";
+        String VALUE = "value";
+    }
+
+    public Map<String, Object> toMap(SingleCharacteristicResponse value) {
+        Characteristic characteristic = value.getCharacteristic();
+        Map<String, Object> map = new HashMap<>(16);
+        map.put(Metadata.SERVICE_UUID, value.getServiceUuid() != null ? value.getServiceUuid().toString() : null);
+        map.put(Metadata.SERVICE_ID, value.getServiceId());
+        map.put(Metadata.TRANSACTION_ID, value.getTransactionId());
+        map.put(Metadata.UUID, characteristic.getUuid() != null ? characteristic.getUuid().toString() : null);
+        map.put(Metadata.ID, characteristic.getId());
+        map.put(Metadata.IS_READABLE, characteristic.isReadable());
+        map.put(Metadata.IS_WRITABLE_WITH_RESPONSE, characteristic.isWritableWithResponse());
+        map.put(Metadata.IS_WRITABLE_WITHOUT_RESPONSE, characteristic.isWritableWithoutResponse());
+        map.put(Metadata.IS_NOTIFIABLE, characteristic.isNotifiable());
+        map.put(Metadata.IS_INDICATABLE, characteristic.isIndicatable());
+        map.put(Metadata.VALUE, characteristic.getValue());
+        return map;
+    }
+}
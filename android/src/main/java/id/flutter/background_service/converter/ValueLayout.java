@@ -0,0 +1,99 @@
+package id.flutter.background_service.converter;
+
+import java.util.Map;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Location and encoding of a single numeric value inside a characteristic value, e.g. a
+ * signed little-endian 16-bit integer at offset 2. Integers of 1 to 8 bytes and IEEE 754
+ * floats of 4 or 8 bytes are supported; the decoded value is multiplied by {@code scale}.
+ */
+public class ValueLayout {
+
+    public interface Key {
+        String OFFSET = "offset";
+        String WIDTH = "width";
+        String SIGNED = "signed";
+        String LITTLE_ENDIAN = "littleEndian";
+        String FLOAT = "float";
+        String SCALE = "scale";
+    }
+
+    private final int offset;
+    private final int width;
+    private final boolean signed;
+    private final boolean littleEndian;
+    private final boolean isFloat;
+    private final double scale;
+
+    private ValueLayout(int offset, int width, boolean signed, boolean littleEndian, boolean isFloat, double scale) {
+        this.offset = offset;
+        this.width = width;
+        this.signed = signed;
+        this.littleEndian = littleEndian;
+        this.isFloat = isFloat;
+        this.scale = scale;
+    }
+
+    /**
+     * Parses the layout sent from Dart. Only {@code width} is required; values are unsigned,
+     * little-endian integers at offset 0 with a scale of 1 unless specified otherwise.
+     *
+     * @throws IllegalArgumentException when the layout is missing or malformed
+     */
+    public static ValueLayout fromMap(@Nullable Map<String, Object> map) {
+        if (map == null) {
+            throw new IllegalArgumentException("Missing value layout");
+        }
+        Integer offset = (Integer) map.get(Key.OFFSET);
+        Integer width = (Integer) map.get(Key.WIDTH);
+        Boolean signed = (Boolean) map.get(Key.SIGNED);
+        Boolean littleEndian = (Boolean) map.get(Key.LITTLE_ENDIAN);
+        Boolean isFloat = (Boolean) map.get(Key.FLOAT);
+        Number scale = (Number) map.get(Key.SCALE);
+        if (width == null || width < 1 || width > 8) {
+            throw new IllegalArgumentException("Value width has to be between 1 and 8 bytes: " + width);
+        }
+        if (Boolean.TRUE.equals(isFloat) && width != 4 && width != 8) {
+            throw new IllegalArgumentException("Float values have to be 4 or 8 bytes wide: " + width);
+        }
+        if (offset != null && offset < 0) {
+            throw new IllegalArgumentException("Value offset cannot be negative: " + offset);
+        }
+        return new ValueLayout(
+                offset != null ? offset : 0,
+                width,
+                Boolean.TRUE.equals(signed),
+                !Boolean.FALSE.equals(littleEndian),
+                Boolean.TRUE.equals(isFloat),
+                scale != null ? scale.doubleValue() : 1);
+    }
+
+    public boolean fits(@Nullable byte[] value) {
+        return value != null && value.length >= offset + width;
+    }
+
+    /**
+     * Decodes the value; call {@link #fits} first.
+     */
+    public double read(byte[] value) {
+        long bits = 0;
+        for (int i = 0; i < width; i++) {
+            int index = littleEndian ? offset + width - 1 - i : offset + i;
+            bits = (bits << 8) | (value[index] & 0xFF);
+        }
+        double decoded;
+        if (isFloat) {
+            decoded = width == 4 ? Float.intBitsToFloat((int) bits) : Double.longBitsToDouble(bits);
+        } else if (signed && width < 8) {
+            int shift = 64 - width * 8;
+            decoded = (bits << shift) >> shift;
+        } else if (!signed && width == 8 && bits < 0) {
+            decoded = (double) (bits >>> 1) * 2 + (bits & 1);
+        } else {
+            decoded = bits;
+        }
+        return decoded * scale;
+    }
+}
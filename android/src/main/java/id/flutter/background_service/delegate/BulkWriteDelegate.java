@@ -0,0 +1,413 @@
+package id.flutter.background_service.delegate;
+
+import android.os.SystemClock;
+
+import id.flutter.background_service.ble.BleErrorFactory;
+import id.flutter.background_service.ble.SafeMainThreadResolver;
+import id.flutter.background_service.constant.ArgumentKey;
+import id.flutter.background_service.constant.MethodName;
+import id.flutter.background_service.converter.BleErrorJsonConverter;
+import id.flutter.background_service.event.BulkWriteProgressStreamHandler;
+import id.flutter.background_service.gatt.AttributeKeys;
+import id.flutter.background_service.gatt.ValueCache;
+import com.polidea.multiplatformbleadapter.BleAdapter;
+import com.polidea.multiplatformbleadapter.Characteristic;
+import com.polidea.multiplatformbleadapter.Device;
+import com.polidea.multiplatformbleadapter.OnErrorCallback;
+import com.polidea.multiplatformbleadapter.OnSuccessCallback;
+import com.polidea.multiplatformbleadapter.errors.BleError;
+import com.polidea.multiplatformbleadapter.errors.BleErrorCode;
+import com.polidea.multiplatformbleadapter.utils.Base64Converter;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import androidx.annotation.NonNull;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Writes a payload larger than one ATT packet to a characteristic. The payload is split into
+ * chunks of the negotiated MTU minus the ATT header and up to a window of chunks is queued in
+ * the adapter at a time, so the GATT queue never runs dry waiting for a method channel round
+ * trip. A chunk completing releases the next one, which bounds how much is buffered ahead of
+ * the radio. Progress is reported on {@link BulkWriteProgressStreamHandler} at most once per
+ * progress interval, plus once when the transfer completes.
+ *
+ * Every bulk write runs under a transaction id of its own, which names its chunks and lets
+ * {@link #cancel} stop it.
+ */
+public class BulkWriteDelegate extends CallDelegate {
+
+    public static final int DEFAULT_WINDOW_WITH_RESPONSE = 1;
+    public static final int DEFAULT_WINDOW_WITHOUT_RESPONSE = 4;
+    public static final int DEFAULT_PROGRESS_INTERVAL_MILLIS = 100;
+
+    private static final int DEFAULT_MTU = 23;
+    private static final int ATT_HEADER_LENGTH = 3;
+
+    private static List<String> supportedMethods = Arrays.asList(MethodName.WRITE_CHARACTERISTIC_BULK);
+
+    private BleAdapter bleAdapter;
+    private BulkWriteProgressStreamHandler progressStreamHandler;
+    private ValueCache valueCache;
+    private BleErrorJsonConverter bleErrorJsonConverter = new BleErrorJsonConverter();
+    private final Map<String, Transfer> transfers = new ConcurrentHashMap<>();
+
+    public BulkWriteDelegate(BleAdapter bleAdapter,
+                             BulkWriteProgressStreamHandler progressStreamHandler,
+                             ValueCache valueCache) {
+        super(supportedMethods);
+        this.bleAdapter = bleAdapter;
+        this.progressStreamHandler = progressStreamHandler;
+        this.valueCache = valueCache;
+    }
+
+    @Override
+    public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+        switch (call.method) {
+            case MethodName.WRITE_CHARACTERISTIC_BULK:
+                writeCharacteristicBulk(
+                        call.<String>argument(ArgumentKey.DEVICE_IDENTIFIER),
+                        call.<String>argument(ArgumentKey.SERVICE_UUID),
+                        call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID),
+                        call.<byte[]>argument(ArgumentKey.VALUE),
+                        call.<String>argument(ArgumentKey.FILE_PATH),
+                        call.<Boolean>argument(ArgumentKey.WITH_RESPONSE),
+                        call.<Integer>argument(ArgumentKey.CHUNK_SIZE),
+                        call.<Integer>argument(ArgumentKey.WRITE_WINDOW),
+                        call.<Integer>argument(ArgumentKey.PROGRESS_INTERVAL_MILLIS),
+                        call.<String>argument(ArgumentKey.TRANSACTION_ID),
+                        result);
+                return;
+            default:
+                throw new IllegalArgumentException(call.method + " cannot be handled by this delegate");
+        }
+    }
+
+    /**
+     * Cancels the bulk write running under {@code transactionId}, including its queued chunks.
+     *
+     * @return false when no bulk write runs under that transaction id
+     */
+    public boolean cancel(String transactionId) {
+        Transfer transfer = transactionId != null ? transfers.get(transactionId) : null;
+        if (transfer == null) {
+            return false;
+        }
+        transfer.fail(new BleError(BleErrorCode.OperationCancelled, "Bulk write was cancelled", null));
+        return true;
+    }
+
+    private void writeCharacteristicBulk(final String deviceIdentifier,
+                                         String serviceUuid,
+                                         String characteristicUuid,
+                                         byte[] value,
+                                         String filePath,
+                                         Boolean withResponse,
+                                         Integer chunkSize,
+                                         Integer window,
+                                         Integer progressIntervalMillis,
+                                         String transactionId,
+                                         final MethodChannel.Result result) {
+        if (transactionId == null) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code), "A bulk write needs a transaction id", null);
+            return;
+        }
+        if ((value == null) == (filePath == null)) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code),
+                    "A bulk write needs either a value or a file path", null);
+            return;
+        }
+        ChunkSource source;
+        try {
+            source = value != null ? new ByteArrayChunkSource(value) : new FileChunkSource(filePath);
+        } catch (IOException e) {
+            BleError error = BleErrorFactory.fromThrowable(e);
+            result.error(String.valueOf(error.errorCode.code), error.reason, bleErrorJsonConverter.toJson(error));
+            return;
+        }
+        boolean writeWithResponse = withResponse == null || withResponse;
+        final Transfer transfer = new Transfer(
+                deviceIdentifier, serviceUuid, characteristicUuid, writeWithResponse, transactionId, source,
+                window != null && window > 0
+                        ? window
+                        : writeWithResponse ? DEFAULT_WINDOW_WITH_RESPONSE : DEFAULT_WINDOW_WITHOUT_RESPONSE,
+                progressIntervalMillis != null && progressIntervalMillis >= 0
+                        ? progressIntervalMillis : DEFAULT_PROGRESS_INTERVAL_MILLIS,
+                newResolver(
+                        new OnSuccessCallback<Long>() {
+                            @Override
+                            public void onSuccess(Long written) {
+                                result.success(written);
+                            }
+                        },
+                        new OnErrorCallback() {
+                            @Override
+                            public void onError(BleError error) {
+                                result.error(String.valueOf(error.errorCode.code), error.reason, bleErrorJsonConverter.toJson(error));
+                            }
+                        }));
+        if (transfers.putIfAbsent(transactionId, transfer) != null) {
+            source.close();
+            result.error(String.valueOf(BleErrorCode.UnknownError.code),
+                    "A bulk write is already running under transaction " + transactionId, null);
+            return;
+        }
+        if (chunkSize != null && chunkSize > 0) {
+            transfer.start(chunkSize);
+            return;
+        }
+        bleAdapter.getKnownDevices(new String[]{deviceIdentifier},
+                new OnSuccessCallback<Device[]>() {
+                    @Override
+                    public void onSuccess(Device[] devices) {
+                        Integer mtu = devices.length > 0 ? devices[0].getMtu() : null;
+                        transfer.start((mtu != null ? mtu : DEFAULT_MTU) - ATT_HEADER_LENGTH);
+                    }
+                }, new OnErrorCallback() {
+                    @Override
+                    public void onError(BleError error) {
+                        transfer.fail(error);
+                    }
+                });
+    }
+
+    private class Transfer {
+        final String deviceIdentifier;
+        final String serviceUuid;
+        final String characteristicUuid;
+        final boolean withResponse;
+        final String transactionId;
+        final ChunkSource source;
+        final int window;
+        final long progressIntervalMillis;
+        final SafeMainThreadResolver<Long> resolver;
+        final Set<String> inFlight = new HashSet<>();
+
+        int chunkSize;
+        int nextChunk = 0;
+        long written = 0;
+        long lastProgressAt = 0;
+        boolean pumping = false;
+        boolean finished = false;
+
+        Transfer(String deviceIdentifier, String serviceUuid, String characteristicUuid, boolean withResponse,
+                 String transactionId, ChunkSource source, int window, long progressIntervalMillis,
+                 SafeMainThreadResolver<Long> resolver) {
+            this.deviceIdentifier = deviceIdentifier;
+            this.serviceUuid = serviceUuid;
+            this.characteristicUuid = characteristicUuid;
+            this.withResponse = withResponse;
+            this.transactionId = transactionId;
+            this.source = source;
+            this.window = window;
+            this.progressIntervalMillis = progressIntervalMillis;
+            this.resolver = resolver;
+        }
+
+        synchronized void start(int chunkSize) {
+            if (finished) {
+                return;
+            }
+            this.chunkSize = Math.max(1, chunkSize);
+            valueCache.invalidate(AttributeKeys.characteristic(deviceIdentifier, serviceUuid, characteristicUuid));
+            if (source.length() == 0) {
+                complete();
+                return;
+            }
+            pump();
+        }
+
+        /**
+         * Queues chunks until the window is full. A chunk completing synchronously while
+         * queueing re-enters through {@link #onChunkWritten} and is picked up by this loop.
+         */
+        private void pump() {
+            if (pumping) {
+                return;
+            }
+            pumping = true;
+            try {
+                while (!finished && inFlight.size() < window && source.remaining() > 0) {
+                    byte[] chunk;
+                    try {
+                        chunk = source.next(chunkSize);
+                    } catch (IOException e) {
+                        fail(BleErrorFactory.fromThrowable(e));
+                        return;
+                    }
+                    write(chunk, transactionId + "/" + nextChunk++);
+                }
+            } finally {
+                pumping = false;
+            }
+        }
+
+        private void write(byte[] chunk, final String chunkTransactionId) {
+            final int length = chunk.length;
+            inFlight.add(chunkTransactionId);
+            bleAdapter.writeCharacteristicForDevice(
+                    deviceIdentifier,
+                    serviceUuid, characteristicUuid,
+                    Base64Converter.encode(chunk),
+                    withResponse,
+                    chunkTransactionId,
+                    new OnSuccessCallback<Characteristic>() {
+                        @Override
+                        public void onSuccess(Characteristic data) {
+                            valueCache.invalidate(data);
+                            onChunkWritten(chunkTransactionId, length);
+                        }
+                    }, new OnErrorCallback() {
+                        @Override
+                        public void onError(BleError error) {
+                            fail(error);
+                        }
+                    });
+        }
+
+        synchronized void onChunkWritten(String chunkTransactionId, int length) {
+            if (finished || !inFlight.remove(chunkTransactionId)) {
+                return;
+            }
+            written += length;
+            if (written == source.length()) {
+                complete();
+                return;
+            }
+            long now = SystemClock.elapsedRealtime();
+            if (now - lastProgressAt >= progressIntervalMillis) {
+                lastProgressAt = now;
+                progressStreamHandler.onProgress(transactionId, written, source.length());
+            }
+            pump();
+        }
+
+        synchronized void fail(BleError error) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            List<String> queued = new ArrayList<>(inFlight);
+            inFlight.clear();
+            for (String chunkTransactionId : queued) {
+                bleAdapter.cancelTransaction(chunkTransactionId);
+            }
+            release();
+            resolver.onError(error);
+        }
+
+        private void complete() {
+            finished = true;
+            release();
+            progressStreamHandler.onProgress(transactionId, written, source.length());
+            resolver.onSuccess(written);
+        }
+
+        private void release() {
+            transfers.remove(transactionId, this);
+            source.close();
+        }
+    }
+
+    private interface ChunkSource {
+        long length();
+
+        long remaining();
+
+        byte[] next(int maxLength) throws IOException;
+
+        void close();
+    }
+
+    private static class ByteArrayChunkSource implements ChunkSource {
+        private final byte[] bytes;
+        private int offset = 0;
+
+        ByteArrayChunkSource(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public long length() {
+            return bytes.length;
+        }
+
+        @Override
+        public long remaining() {
+            return bytes.length - offset;
+        }
+
+        @Override
+        public byte[] next(int maxLength) {
+            int length = Math.min(maxLength, bytes.length - offset);
+            byte[] chunk = Arrays.copyOfRange(bytes, offset, offset + length);
+            offset += length;
+            return chunk;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Reads the file chunk by chunk as the window frees up, so a firmware image is never held
+     * in memory as a whole.
+     */
+    private static class FileChunkSource implements ChunkSource {
+        private final long length;
+        private final InputStream inputStream;
+        private long offset = 0;
+
+        FileChunkSource(String path) throws IOException {
+            File file = new File(path);
+            length = file.length();
+            inputStream = new BufferedInputStream(new FileInputStream(file));
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public long remaining() {
+            return length - offset;
+        }
+
+        @Override
+        public byte[] next(int maxLength) throws IOException {
+            byte[] chunk = new byte[(int) Math.min(maxLength, length - offset)];
+            int read = 0;
+            while (read < chunk.length) {
+                int count = inputStream.read(chunk, read, chunk.length - read);
+                if (count < 0) {
+                    throw new IOException("File ended after " + (offset + read) + " of " + length + " bytes");
+                }
+                read += count;
+            }
+            offset += read;
+            return chunk;
+        }
+
+        @Override
+        public void close() {
+            try {
+                inputStream.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
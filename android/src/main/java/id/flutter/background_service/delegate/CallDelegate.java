@@ -1,5 +1,9 @@
 package id.flutter.background_service.delegate;
 
+import id.flutter.background_service.ble.SafeMainThreadResolver;
+import com.polidea.multiplatformbleadapter.OnErrorCallback;
+import com.polidea.multiplatformbleadapter.OnSuccessCallback;
+
 import java.util.List;
 
 import io.flutter.plugin.common.MethodCall;
@@ -8,6 +12,7 @@ import io.flutter.plugin.common.MethodChannel;
 abstract public class CallDelegate implements MethodChannel.MethodCallHandler {
 
     final List<String> supportedMethods;
+    private volatile boolean resolveOnCallingThread = false;
 
     CallDelegate(List<String> supportedMethods) {
         this.supportedMethods = supportedMethods;
@@ -16,4 +21,16 @@ abstract public class CallDelegate implements MethodChannel.MethodCallHandler {
     public boolean canHandle(MethodCall call) {
         return supportedMethods.contains(call.method);
     }
+
+    /**
+     * Whether results are delivered on the thread the adapter reports them on instead of the
+     * main thread, for a channel served from a background task queue.
+     */
+    public void setResolveOnCallingThread(boolean resolveOnCallingThread) {
+        this.resolveOnCallingThread = resolveOnCallingThread;
+    }
+
+    <T> SafeMainThreadResolver<T> newResolver(OnSuccessCallback<T> onSuccessCallback, OnErrorCallback onErrorCallback) {
+        return new SafeMainThreadResolver<>(onSuccessCallback, onErrorCallback, resolveOnCallingThread);
+    }
 }
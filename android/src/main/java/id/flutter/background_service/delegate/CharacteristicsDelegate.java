@@ -1,58 +1,92 @@
 package id.flutter.background_service.delegate;
 
-import android.os.Handler;
-import android.os.Looper;
-
-import id.flutter.background_service.ble.BleErrorFactory;
 import id.flutter.background_service.ble.SafeMainThreadResolver;
 import id.flutter.background_service.ble.SingleCharacteristicResponse;
 import id.flutter.background_service.constant.ArgumentKey;
+import id.flutter.background_service.constant.DeliveryPolicy;
 import id.flutter.background_service.constant.MethodName;
+import id.flutter.background_service.constant.ResponseFormat;
 import id.flutter.background_service.converter.BleErrorJsonConverter;
+import id.flutter.background_service.converter.PayloadSchema;
+import id.flutter.background_service.converter.PayloadSchemaRegistry;
 import id.flutter.background_service.converter.SingleCharacteristicResponseJsonConverter;
+import id.flutter.background_service.converter.SingleCharacteristicResponseMapConverter;
+import id.flutter.background_service.converter.ValueLayout;
 import id.flutter.background_service.event.CharacteristicsMonitorStreamHandler;
+import id.flutter.background_service.gatt.AttributeKeys;
+import id.flutter.background_service.gatt.ValueCache;
 import com.polidea.multiplatformbleadapter.BleAdapter;
 import com.polidea.multiplatformbleadapter.Characteristic;
 import com.polidea.multiplatformbleadapter.OnErrorCallback;
 import com.polidea.multiplatformbleadapter.OnEventCallback;
 import com.polidea.multiplatformbleadapter.OnSuccessCallback;
 import com.polidea.multiplatformbleadapter.errors.BleError;
+import com.polidea.multiplatformbleadapter.errors.BleErrorCode;
 import com.polidea.multiplatformbleadapter.utils.Base64Converter;
+import com.polidea.multiplatformbleadapter.utils.UUIDConverter;
 
 import org.json.JSONException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 
 public class CharacteristicsDelegate extends CallDelegate {
 
+    private interface BatchItem {
+        String VALUE = "value";
+        String ERROR = "error";
+    }
+
     private static List<String> supportedMethods = Arrays.asList(
             MethodName.READ_CHARACTERISTIC_FOR_IDENTIFIER,
             MethodName.READ_CHARACTERISTIC_FOR_DEVICE,
             MethodName.READ_CHARACTERISTIC_FOR_SERVICE,
+            MethodName.READ_CHARACTERISTICS_BATCH,
             MethodName.WRITE_CHARACTERISTIC_FOR_IDENTIFIER,
             MethodName.WRITE_CHARACTERISTIC_FOR_DEVICE,
             MethodName.WRITE_CHARACTERISTIC_FOR_SERVICE,
             MethodName.MONITOR_CHARACTERISTIC_FOR_IDENTIFIER,
             MethodName.MONITOR_CHARACTERISTIC_FOR_DEVICE,
-            MethodName.MONITOR_CHARACTERISTIC_FOR_SERVICE
+            MethodName.MONITOR_CHARACTERISTIC_FOR_SERVICE,
+            MethodName.GET_MONITOR_STATISTICS,
+            MethodName.REGISTER_PAYLOAD_SCHEMA
     );
 
     private BleAdapter bleAdapter;
     private SingleCharacteristicResponseJsonConverter characteristicsResponseJsonConverter =
             new SingleCharacteristicResponseJsonConverter();
+    private SingleCharacteristicResponseMapConverter characteristicsResponseMapConverter =
+            new SingleCharacteristicResponseMapConverter();
     private CharacteristicsMonitorStreamHandler characteristicsMonitorStreamHandler;
+    private PayloadSchemaRegistry payloadSchemas;
+    private InFlightReads inFlightReads;
+    private ValueCache valueCache;
     private BleErrorJsonConverter bleErrorJsonConverter = new BleErrorJsonConverter();
-    private Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
 
-    public CharacteristicsDelegate(BleAdapter bleAdapter, CharacteristicsMonitorStreamHandler characteristicsMonitorStreamHandler) {
+    public CharacteristicsDelegate(BleAdapter bleAdapter,
+                                   CharacteristicsMonitorStreamHandler characteristicsMonitorStreamHandler,
+                                   PayloadSchemaRegistry payloadSchemas,
+                                   InFlightReads inFlightReads,
+                                   ValueCache valueCache) {
         super(supportedMethods);
         this.bleAdapter = bleAdapter;
         this.characteristicsMonitorStreamHandler = characteristicsMonitorStreamHandler;
+        this.payloadSchemas = payloadSchemas;
+        this.inFlightReads = inFlightReads;
+        this.valueCache = valueCache;
     }
 
     @Override
@@ -62,6 +96,7 @@ public class CharacteristicsDelegate extends CallDelegate {
                 readCharacteristicForIdentifier(
                         call.<Integer>argument(ArgumentKey.CHARACTERISTIC_IDENTIFIER),
                         call.<String>argument(ArgumentKey.TRANSACTION_ID),
+                        responseFormat(call),
                         result);
                 return;
             case MethodName.READ_CHARACTERISTIC_FOR_DEVICE:
@@ -70,6 +105,7 @@ public class CharacteristicsDelegate extends CallDelegate {
                         call.<String>argument(ArgumentKey.SERVICE_UUID),
                         call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID),
                         call.<String>argument(ArgumentKey.TRANSACTION_ID),
+                        responseFormat(call),
                         result);
                 return;
             case MethodName.READ_CHARACTERISTIC_FOR_SERVICE:
@@ -77,6 +113,15 @@ public class CharacteristicsDelegate extends CallDelegate {
                         call.<Integer>argument(ArgumentKey.SERVICE_IDENTIFIER),
                         call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID),
                         call.<String>argument(ArgumentKey.TRANSACTION_ID),
+                        responseFormat(call),
+                        result);
+                return;
+            case MethodName.READ_CHARACTERISTICS_BATCH:
+                readCharacteristicsBatch(
+                        call.<String>argument(ArgumentKey.DEVICE_IDENTIFIER),
+                        call.<List<Map<String, String>>>argument(ArgumentKey.CHARACTERISTICS),
+                        call.<String>argument(ArgumentKey.TRANSACTION_ID),
+                        responseFormat(call),
                         result);
                 return;
             case MethodName.WRITE_CHARACTERISTIC_FOR_IDENTIFIER:
@@ -110,6 +155,7 @@ public class CharacteristicsDelegate extends CallDelegate {
                 monitorCharacteristicForIdentifier(
                         call.<Integer>argument(ArgumentKey.CHARACTERISTIC_IDENTIFIER),
                         call.<String>argument(ArgumentKey.TRANSACTION_ID),
+                        call,
                         result);
                 return;
             case MethodName.MONITOR_CHARACTERISTIC_FOR_DEVICE:
@@ -118,6 +164,7 @@ public class CharacteristicsDelegate extends CallDelegate {
                         call.<String>argument(ArgumentKey.SERVICE_UUID),
                         call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID),
                         call.<String>argument(ArgumentKey.TRANSACTION_ID),
+                        call,
                         result);
                 return;
             case MethodName.MONITOR_CHARACTERISTIC_FOR_SERVICE:
@@ -125,6 +172,16 @@ public class CharacteristicsDelegate extends CallDelegate {
                         call.<Integer>argument(ArgumentKey.SERVICE_IDENTIFIER),
                         call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID),
                         call.<String>argument(ArgumentKey.TRANSACTION_ID),
+                        call,
+                        result);
+                return;
+            case MethodName.GET_MONITOR_STATISTICS:
+                result.success(characteristicsMonitorStreamHandler.getStatistics());
+                return;
+            case MethodName.REGISTER_PAYLOAD_SCHEMA:
+                registerPayloadSchema(
+                        call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID),
+                        call.<List<Map<String, Object>>>argument(ArgumentKey.PAYLOAD_SCHEMA),
                         result);
                 return;
             default:
@@ -133,116 +190,50 @@ public class CharacteristicsDelegate extends CallDelegate {
     }
 
     private void readCharacteristicForIdentifier(
-            int characteristicIdentifier,
+            final int characteristicIdentifier,
             final String transactionId,
+            final String responseFormat,
             final MethodChannel.Result result) {
-        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = new SafeMainThreadResolver<>(
-                new OnSuccessCallback<Characteristic>() {
-                    @Override
-                    public void onSuccess(Characteristic data) {
-                        try {
-                            result.success(characteristicsResponseJsonConverter.toJson(createCharacteristicResponse(data, transactionId)));
-                        } catch (JSONException e) {
-                            e.printStackTrace();
-                            result.error(null, e.getMessage(), null);
-                        }
-                    }
-                },
-                new OnErrorCallback() {
-                    @Override
-                    public void onError(BleError error) {
-                        result.error(String.valueOf(error.errorCode.code), error.reason, bleErrorJsonConverter.toJson(error));
-                    }
-                }
-        );
-        bleAdapter.readCharacteristic(characteristicIdentifier, transactionId,
-                new OnSuccessCallback<Characteristic>() {
+        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = newReadResolver(transactionId, responseFormat, result);
+        inFlightReads.join(AttributeKeys.characteristic(characteristicIdentifier), transactionId,
+                safeMainThreadResolver, safeMainThreadResolver,
+                new InFlightReads.Read<Characteristic>() {
                     @Override
-                    public void onSuccess(Characteristic data) {
-                        safeMainThreadResolver.onSuccess(data);
-                    }
-                }, new OnErrorCallback() {
-                    @Override
-                    public void onError(BleError error) {
-                        safeMainThreadResolver.onError(error);
+                    public void start(OnSuccessCallback<Characteristic> onSuccess, OnErrorCallback onError) {
+                        bleAdapter.readCharacteristic(characteristicIdentifier, transactionId, onSuccess, onError);
                     }
                 });
     }
 
     private void readCharacteristicForDevice(
-            String deviceIdentifier,
-            String serviceUuid,
-            String characteristicUuid,
+            final String deviceIdentifier,
+            final String serviceUuid,
+            final String characteristicUuid,
             final String transactionId,
+            final String responseFormat,
             final MethodChannel.Result result) {
-
-        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = new SafeMainThreadResolver<>(
-                new OnSuccessCallback<Characteristic>() {
+        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = newReadResolver(transactionId, responseFormat, result);
+        inFlightReads.join(AttributeKeys.characteristic(deviceIdentifier, serviceUuid, characteristicUuid), transactionId,
+                safeMainThreadResolver, safeMainThreadResolver,
+                new InFlightReads.Read<Characteristic>() {
                     @Override
-                    public void onSuccess(Characteristic data) {
-                        try {
-                            result.success(characteristicsResponseJsonConverter.toJson(createCharacteristicResponse(data)));
-                        } catch (JSONException e) {
-                            e.printStackTrace();
-                            result.error(null, e.getMessage(), null);
-                        }
-                    }
-                },
-                new OnErrorCallback() {
-                    @Override
-                    public void onError(BleError error) {
-                        result.error(String.valueOf(error.errorCode.code), error.reason, bleErrorJsonConverter.toJson(error));
-                    }
-                }
-        );
-        bleAdapter.readCharacteristicForDevice(deviceIdentifier, serviceUuid, characteristicUuid, transactionId,
-                new OnSuccessCallback<Characteristic>() {
-                    @Override
-                    public void onSuccess(Characteristic data) {
-                        safeMainThreadResolver.onSuccess(data);
-                    }
-                }, new OnErrorCallback() {
-                    @Override
-                    public void onError(BleError error) {
-                        safeMainThreadResolver.onError(error);
+                    public void start(OnSuccessCallback<Characteristic> onSuccess, OnErrorCallback onError) {
+                        bleAdapter.readCharacteristicForDevice(deviceIdentifier, serviceUuid, characteristicUuid, transactionId,
+                                onSuccess, onError);
                     }
                 });
     }
 
-    private void readCharacteristicForService(int serviceIdentifier, String characteristicUuid, final String transactionId, final MethodChannel.Result result) {
-        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = new SafeMainThreadResolver<>(
-                new OnSuccessCallback<Characteristic>() {
+    private void readCharacteristicForService(final int serviceIdentifier, final String characteristicUuid, final String transactionId,
+                                              final String responseFormat, final MethodChannel.Result result) {
+        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = newReadResolver(transactionId, responseFormat, result);
+        inFlightReads.join(AttributeKeys.characteristic(serviceIdentifier, characteristicUuid), transactionId,
+                safeMainThreadResolver, safeMainThreadResolver,
+                new InFlightReads.Read<Characteristic>() {
                     @Override
-                    public void onSuccess(Characteristic data) {
-                        try {
-                            result.success(characteristicsResponseJsonConverter.toJson(createCharacteristicResponse(data, transactionId)));
-                        } catch (JSONException e) {
-                            e.printStackTrace();
-                            result.error(null, e.getMessage(), null);
-                        }
-                    }
-                },
-                new OnErrorCallback() {
-                    @Override
-                    public void onError(BleError error) {
-                        result.error(String.valueOf(error.errorCode.code), error.reason, bleErrorJsonConverter.toJson(error));
-                    }
-                }
-        );
-
-        bleAdapter.readCharacteristicForService(
-                serviceIdentifier,
-                characteristicUuid,
-                transactionId,
-                new OnSuccessCallback<Characteristic>() {
-                    @Override
-                    public void onSuccess(Characteristic data) {
-                        safeMainThreadResolver.onSuccess(data);
-                    }
-                }, new OnErrorCallback() {
-                    @Override
-                    public void onError(BleError error) {
-                        safeMainThreadResolver.onError(error);
+                    public void start(OnSuccessCallback<Characteristic> onSuccess, OnErrorCallback onError) {
+                        bleAdapter.readCharacteristicForService(serviceIdentifier, characteristicUuid, transactionId,
+                                onSuccess, onError);
                     }
                 });
     }
@@ -252,10 +243,12 @@ public class CharacteristicsDelegate extends CallDelegate {
                                                   boolean withResponse,
                                                   final String transactionId,
                                                   final MethodChannel.Result result) {
-        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = new SafeMainThreadResolver<>(
+        valueCache.invalidate(AttributeKeys.characteristic(characteristicIdentifier));
+        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = newResolver(
                 new OnSuccessCallback<Characteristic>() {
                     @Override
                     public void onSuccess(Characteristic data) {
+                        valueCache.invalidate(data);
                         try {
                             result.success(characteristicsResponseJsonConverter.toJson(createCharacteristicResponse(data, transactionId)));
                         } catch (JSONException e) {
@@ -296,10 +289,12 @@ public class CharacteristicsDelegate extends CallDelegate {
                                               boolean withResponse,
                                               final String transactionId,
                                               final MethodChannel.Result result) {
-        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = new SafeMainThreadResolver<>(
+        valueCache.invalidate(AttributeKeys.characteristic(deviceIdentifier, serviceUuid, characteristicUuid));
+        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = newResolver(
                 new OnSuccessCallback<Characteristic>() {
                     @Override
                     public void onSuccess(Characteristic data) {
+                        valueCache.invalidate(data);
                         try {
                             result.success(characteristicsResponseJsonConverter.toJson(createCharacteristicResponse(data, transactionId)));
                         } catch (JSONException e) {
@@ -341,10 +336,12 @@ public class CharacteristicsDelegate extends CallDelegate {
                                                boolean withResponse,
                                                final String transactionId,
                                                final MethodChannel.Result result) {
-        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = new SafeMainThreadResolver<>(
+        valueCache.invalidate(AttributeKeys.characteristic(serviceIdentifier, characteristicUuid));
+        final SafeMainThreadResolver<Characteristic> safeMainThreadResolver = newResolver(
                 new OnSuccessCallback<Characteristic>() {
                     @Override
                     public void onSuccess(Characteristic data) {
+                        valueCache.invalidate(data);
                         try {
                             result.success(characteristicsResponseJsonConverter.toJson(createCharacteristicResponse(data, transactionId)));
                         } catch (JSONException e) {
@@ -379,124 +376,394 @@ public class CharacteristicsDelegate extends CallDelegate {
                 });
     }
 
-    private void monitorCharacteristicForIdentifier(final int characteristicIdentifier,
-                                                    final String transactionId,
-                                                    final MethodChannel.Result result) {
-        bleAdapter.monitorCharacteristic(
-                characteristicIdentifier,
-                transactionId, new OnEventCallback<Characteristic>() {
+    private static String responseFormat(MethodCall call) {
+        if (Boolean.TRUE.equals(call.<Boolean>argument(ArgumentKey.DECODE))) {
+            return ResponseFormat.DECODED;
+        }
+        String responseFormat = call.<String>argument(ArgumentKey.RESPONSE_FORMAT);
+        return responseFormat != null ? responseFormat : ResponseFormat.JSON;
+    }
+
+    /**
+     * Resolver shared by the read variants, answering with the value read in the requested
+     * format under the caller's transaction id.
+     */
+    private SafeMainThreadResolver<Characteristic> newReadResolver(final String transactionId,
+                                                                   final String responseFormat,
+                                                                   final MethodChannel.Result result) {
+        return newResolver(
+                new OnSuccessCallback<Characteristic>() {
                     @Override
-                    public void onEvent(final Characteristic data) {
-                        mainThreadHandler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                try {
-                                    characteristicsMonitorStreamHandler.onCharacteristicsUpdate(
-                                            createCharacteristicResponse(data, transactionId)
-                                    );
-                                } catch (JSONException e) {
-                                    e.printStackTrace();
-                                    characteristicsMonitorStreamHandler.onError(BleErrorFactory.fromThrowable(e), transactionId);
-                                }
-                            }
-                        });
+                    public void onSuccess(Characteristic data) {
+                        resolveRead(data, transactionId, responseFormat, result);
                     }
-                }, new OnErrorCallback() {
+                },
+                new OnErrorCallback() {
                     @Override
-                    public void onError(final BleError error) {
-                        mainThreadHandler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                characteristicsMonitorStreamHandler.onError(error, transactionId);
-                            }
-                        });
+                    public void onError(BleError error) {
+                        result.error(String.valueOf(error.errorCode.code), error.reason, bleErrorJsonConverter.toJson(error));
                     }
-                });
-        result.success(null);
+                }
+        );
     }
 
-    private void monitorCharacteristicForDevice(String deviceIdentifier,
-                                                String serviceUuid,
-                                                String characteristicUuid,
-                                                final String transactionId,
-                                                final MethodChannel.Result result) {
-        bleAdapter.monitorCharacteristicForDevice(
-                deviceIdentifier,
-                serviceUuid,
-                characteristicUuid,
-                transactionId,
-                new OnEventCallback<Characteristic>() {
+    /**
+     * Resolves a read with the response in the requested format, see {@link #formatRead}.
+     */
+    private void resolveRead(Characteristic characteristic,
+                             String transactionId,
+                             String responseFormat,
+                             MethodChannel.Result result) {
+        Object response;
+        try {
+            response = formatRead(characteristic, transactionId, responseFormat);
+        } catch (JSONException | IllegalArgumentException e) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code), e.getMessage(), null);
+            return;
+        }
+        result.success(response);
+    }
+
+    /**
+     * Builds the response for a read in the requested format.
+     *
+     * @throws IllegalArgumentException when the format is unknown, or when a decoded read has
+     *                                  no payload schema registered for the characteristic
+     */
+    private Object formatRead(Characteristic characteristic,
+                              String transactionId,
+                              String responseFormat) throws JSONException {
+        SingleCharacteristicResponse response = createCharacteristicResponse(characteristic, transactionId);
+        if (ResponseFormat.JSON.equals(responseFormat)) {
+            return characteristicsResponseJsonConverter.toJson(response);
+        }
+        if (ResponseFormat.BINARY.equals(responseFormat)) {
+            return characteristicsResponseMapConverter.toMap(response);
+        }
+        if (!ResponseFormat.DECODED.equals(responseFormat)) {
+            throw new IllegalArgumentException("Unknown response format: " + responseFormat);
+        }
+        PayloadSchema schema = payloadSchemas.get(characteristic.getUuid());
+        if (schema == null) {
+            throw new IllegalArgumentException("No payload schema registered for " + characteristic.getUuid());
+        }
+        return schema.decode(characteristic.getValue());
+    }
+
+    /**
+     * Cancels the batch read running under {@code transactionId}, including the reads of its
+     * characteristics still pending, and fails it with {@link BleErrorCode#OperationCancelled}.
+     * A read other callers attached to keeps running for them.
+     *
+     * @return false when no batch read runs under that transaction id
+     */
+    public boolean cancelBatch(String transactionId) {
+        Batch batch = transactionId != null ? batches.get(transactionId) : null;
+        if (batch == null) {
+            return false;
+        }
+        batch.cancel();
+        return true;
+    }
+
+    /**
+     * Reads several characteristics of one device with a single method call. All reads are
+     * handed to the adapter at once, which queues them on the GATT connection back to back,
+     * and the call resolves with one entry per requested characteristic, in request order,
+     * holding either the formatted value or the serialized error of that read. Every read
+     * runs under its own transaction id derived from {@code transactionId}, unless it attaches
+     * to a pending read of the same characteristic.
+     */
+    private void readCharacteristicsBatch(final String deviceIdentifier,
+                                          List<Map<String, String>> characteristics,
+                                          String transactionId,
+                                          final String responseFormat,
+                                          final MethodChannel.Result result) {
+        if (characteristics == null || characteristics.isEmpty()) {
+            result.success(new ArrayList<>());
+            return;
+        }
+        final Batch batch = new Batch(transactionId, characteristics.size(), newResolver(
+                new OnSuccessCallback<Object[]>() {
                     @Override
-                    public void onEvent(final Characteristic data) {
-                        mainThreadHandler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                try {
-                                    characteristicsMonitorStreamHandler.onCharacteristicsUpdate(
-                                            createCharacteristicResponse(data, transactionId)
-                                    );
-                                } catch (JSONException e) {
-                                    e.printStackTrace();
-                                    characteristicsMonitorStreamHandler.onError(BleErrorFactory.fromThrowable(e), transactionId);
-                                }
-                            }
-                        });
+                    public void onSuccess(Object[] data) {
+                        result.success(Arrays.asList(data));
                     }
-                }, new OnErrorCallback() {
+                },
+                new OnErrorCallback() {
                     @Override
-                    public void onError(final BleError error) {
-                        mainThreadHandler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                characteristicsMonitorStreamHandler.onError(error, transactionId);
-                            }
-                        });
+                    public void onError(BleError error) {
+                        result.error(String.valueOf(error.errorCode.code), error.reason, bleErrorJsonConverter.toJson(error));
                     }
-                });
+                }
+        ));
+        if (transactionId != null && batches.putIfAbsent(transactionId, batch) != null) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code),
+                    "A batch read is already running under transaction " + transactionId, null);
+            return;
+        }
+        for (int i = 0; i < characteristics.size(); i++) {
+            final int index = i;
+            final String itemTransactionId = transactionId != null ? transactionId + "/" + i : null;
+            Map<String, String> characteristic = characteristics.get(i);
+            final String serviceUuid = characteristic.get(ArgumentKey.SERVICE_UUID);
+            final String characteristicUuid = characteristic.get(ArgumentKey.CHARACTERISTIC_UUID);
+            if (!batch.track(itemTransactionId)) {
+                return;
+            }
+            inFlightReads.join(
+                    AttributeKeys.characteristic(deviceIdentifier, serviceUuid, characteristicUuid),
+                    itemTransactionId,
+                    new OnSuccessCallback<Characteristic>() {
+                        @Override
+                        public void onSuccess(Characteristic data) {
+                            Map<String, Object> item = new HashMap<>();
+                            try {
+                                item.put(BatchItem.VALUE, formatRead(data, itemTransactionId, responseFormat));
+                            } catch (JSONException | IllegalArgumentException e) {
+                                item.put(BatchItem.ERROR, bleErrorJsonConverter.toJson(
+                                        new BleError(BleErrorCode.UnknownError, e.getMessage(), null)));
+                            }
+                            batch.complete(index, itemTransactionId, item);
+                        }
+                    }, new OnErrorCallback() {
+                        @Override
+                        public void onError(BleError error) {
+                            Map<String, Object> item = new HashMap<>();
+                            item.put(BatchItem.ERROR, bleErrorJsonConverter.toJson(error));
+                            batch.complete(index, itemTransactionId, item);
+                        }
+                    },
+                    new InFlightReads.Read<Characteristic>() {
+                        @Override
+                        public void start(OnSuccessCallback<Characteristic> onSuccess, OnErrorCallback onError) {
+                            bleAdapter.readCharacteristicForDevice(deviceIdentifier, serviceUuid, characteristicUuid,
+                                    itemTransactionId, onSuccess, onError);
+                        }
+                    });
+        }
+    }
+
+    private class Batch {
+        final String transactionId;
+        final Object[] items;
+        final SafeMainThreadResolver<Object[]> resolver;
+        final Set<String> pending = new HashSet<>();
+
+        int remaining;
+        boolean finished = false;
+
+        Batch(String transactionId, int count, SafeMainThreadResolver<Object[]> resolver) {
+            this.transactionId = transactionId;
+            this.items = new Object[count];
+            this.remaining = count;
+            this.resolver = resolver;
+        }
+
+        /**
+         * Records the transaction id of a read about to start.
+         *
+         * @return false when the batch was cancelled and no more reads should start
+         */
+        synchronized boolean track(String itemTransactionId) {
+            if (finished) {
+                return false;
+            }
+            if (itemTransactionId != null) {
+                pending.add(itemTransactionId);
+            }
+            return true;
+        }
+
+        synchronized void complete(int index, String itemTransactionId, Object item) {
+            if (finished) {
+                return;
+            }
+            if (itemTransactionId != null) {
+                pending.remove(itemTransactionId);
+            }
+            items[index] = item;
+            if (--remaining == 0) {
+                finished = true;
+                release();
+                resolver.onSuccess(items);
+            }
+        }
+
+        void cancel() {
+            List<String> queued;
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                queued = new ArrayList<>(pending);
+                pending.clear();
+            }
+            release();
+            for (String itemTransactionId : queued) {
+                if (!inFlightReads.cancel(itemTransactionId)) {
+                    bleAdapter.cancelTransaction(itemTransactionId);
+                }
+            }
+            resolver.onError(new BleError(BleErrorCode.OperationCancelled, "Batch read was cancelled", null));
+        }
+
+        private void release() {
+            if (transactionId != null) {
+                batches.remove(transactionId, this);
+            }
+        }
+    }
+
+    private void registerPayloadSchema(String characteristicUuid,
+                                       List<Map<String, Object>> fields,
+                                       MethodChannel.Result result) {
+        try {
+            payloadSchemas.register(characteristicUuid, fields != null ? PayloadSchema.fromList(fields) : null);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code), e.getMessage(), null);
+            return;
+        }
         result.success(null);
     }
 
-    private void monitorCharacteristicForService(int serviceIdentifier,
-                                                 String characteristicUuid,
+    private void monitorCharacteristicForIdentifier(final int characteristicIdentifier,
+                                                    final String transactionId,
+                                                    MethodCall call,
+                                                    final MethodChannel.Result result) {
+        monitor(new CharacteristicsMonitorStreamHandler.MonitorSource() {
+            @Override
+            public void start(String monitorTransactionId) {
+                bleAdapter.monitorCharacteristic(
+                        characteristicIdentifier,
+                        monitorTransactionId,
+                        createMonitorEventCallback(monitorTransactionId),
+                        createMonitorErrorCallback(monitorTransactionId));
+            }
+
+            @Override
+            public void stop(String monitorTransactionId) {
+                bleAdapter.cancelTransaction(monitorTransactionId);
+            }
+        }, "characteristic/" + characteristicIdentifier, call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID),
+                transactionId, call, result);
+    }
+
+    private void monitorCharacteristicForDevice(final String deviceIdentifier,
+                                                final String serviceUuid,
+                                                final String characteristicUuid,
+                                                final String transactionId,
+                                                MethodCall call,
+                                                final MethodChannel.Result result) {
+        monitor(new CharacteristicsMonitorStreamHandler.MonitorSource() {
+            @Override
+            public void start(String monitorTransactionId) {
+                bleAdapter.monitorCharacteristicForDevice(
+                        deviceIdentifier,
+                        serviceUuid,
+                        characteristicUuid,
+                        monitorTransactionId,
+                        createMonitorEventCallback(monitorTransactionId),
+                        createMonitorErrorCallback(monitorTransactionId));
+            }
+
+            @Override
+            public void stop(String monitorTransactionId) {
+                bleAdapter.cancelTransaction(monitorTransactionId);
+            }
+        }, "device/" + deviceIdentifier + "/" + sharingUuid(serviceUuid) + "/" + sharingUuid(characteristicUuid),
+                characteristicUuid, transactionId, call, result);
+    }
+
+    private void monitorCharacteristicForService(final int serviceIdentifier,
+                                                 final String characteristicUuid,
                                                  final String transactionId,
+                                                 MethodCall call,
                                                  final MethodChannel.Result result) {
-        bleAdapter.monitorCharacteristicForService(
-                serviceIdentifier,
-                characteristicUuid,
-                transactionId,
-                new OnEventCallback<Characteristic>() {
-                    @Override
-                    public void onEvent(final Characteristic data) {
-                        mainThreadHandler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                try {
-                                    characteristicsMonitorStreamHandler.onCharacteristicsUpdate(
-                                            createCharacteristicResponse(data, transactionId)
-                                    );
-                                } catch (JSONException e) {
-                                    e.printStackTrace();
-                                    characteristicsMonitorStreamHandler.onError(BleErrorFactory.fromThrowable(e), transactionId);
-                                }
-                            }
-                        });
-                    }
-                }, new OnErrorCallback() {
-                    @Override
-                    public void onError(final BleError error) {
-                        mainThreadHandler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                characteristicsMonitorStreamHandler.onError(error, transactionId);
-                            }
-                        });
-                    }
-                });
-        result.success(null);
+        monitor(new CharacteristicsMonitorStreamHandler.MonitorSource() {
+            @Override
+            public void start(String monitorTransactionId) {
+                bleAdapter.monitorCharacteristicForService(
+                        serviceIdentifier,
+                        characteristicUuid,
+                        monitorTransactionId,
+                        createMonitorEventCallback(monitorTransactionId),
+                        createMonitorErrorCallback(monitorTransactionId));
+            }
+
+            @Override
+            public void stop(String monitorTransactionId) {
+                bleAdapter.cancelTransaction(monitorTransactionId);
+            }
+        }, "service/" + serviceIdentifier + "/" + sharingUuid(characteristicUuid), characteristicUuid,
+                transactionId, call, result);
+    }
+
+    /**
+     * Starts the monitor right away on the shared monitor channel, or, when the call is
+     * {@code streamKeyed}, registers it on a channel of its own and returns that channel's
+     * key. Keyed monitors of the same characteristic, as told by {@code sharingKey}, share
+     * one adapter monitor, each with the delivery policy and payload format it asked for.
+     * Decoded monitors are rejected unless a payload schema is registered for
+     * {@code characteristicUuid}, as decoded reads are.
+     */
+    private void monitor(CharacteristicsMonitorStreamHandler.MonitorSource source,
+                         String sharingKey,
+                         @Nullable String characteristicUuid,
+                         String transactionId,
+                         MethodCall call,
+                         MethodChannel.Result result) {
+        if (!Boolean.TRUE.equals(call.<Boolean>argument(ArgumentKey.STREAM_KEYED))) {
+            source.start(transactionId);
+            result.success(null);
+            return;
+        }
+        String deliveryPolicy = call.<String>argument(ArgumentKey.DELIVERY_POLICY);
+        Integer deliveryIntervalMillis = call.<Integer>argument(ArgumentKey.DELIVERY_INTERVAL_MILLIS);
+        Map<String, Object> valueLayout = call.<Map<String, Object>>argument(ArgumentKey.VALUE_LAYOUT);
+        String responseFormat = responseFormat(call);
+        try {
+            if (ResponseFormat.DECODED.equals(responseFormat)
+                    && payloadSchemas.get(characteristicUuid != null ? UUIDConverter.convert(characteristicUuid) : null) == null) {
+                throw new IllegalArgumentException("No payload schema registered for " + characteristicUuid);
+            }
+            result.success(characteristicsMonitorStreamHandler.openSubscription(
+                    transactionId,
+                    sharingKey,
+                    source,
+                    deliveryPolicy != null ? deliveryPolicy : DeliveryPolicy.ALL,
+                    deliveryIntervalMillis != null ? deliveryIntervalMillis : 0,
+                    valueLayout != null ? ValueLayout.fromMap(valueLayout) : null,
+                    responseFormat));
+        } catch (IllegalArgumentException | IllegalStateException | ClassCastException e) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code), e.getMessage(), null);
+        }
+    }
+
+    private static String sharingUuid(String uuid) {
+        UUID parsed = uuid != null ? UUIDConverter.convert(uuid) : null;
+        return parsed != null ? parsed.toString() : uuid;
+    }
+
+    private OnEventCallback<Characteristic> createMonitorEventCallback(final String transactionId) {
+        return new OnEventCallback<Characteristic>() {
+            @Override
+            public void onEvent(Characteristic data) {
+                valueCache.invalidate(data);
+                characteristicsMonitorStreamHandler.onCharacteristicsUpdate(
+                        createCharacteristicResponse(data, transactionId));
+            }
+        };
     }
 
-    private SingleCharacteristicResponse createCharacteristicResponse(Characteristic characteristic) {
-        return createCharacteristicResponse(characteristic, null);
+    private OnErrorCallback createMonitorErrorCallback(final String transactionId) {
+        return new OnErrorCallback() {
+            @Override
+            public void onError(BleError error) {
+                characteristicsMonitorStreamHandler.onError(error, transactionId);
+            }
+        };
     }
 
     private SingleCharacteristicResponse createCharacteristicResponse(Characteristic characteristic, String transactionId) {
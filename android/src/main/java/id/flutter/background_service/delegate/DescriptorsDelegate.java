@@ -6,6 +6,8 @@ import id.flutter.background_service.constant.ArgumentKey;
 import id.flutter.background_service.constant.MethodName;
 import id.flutter.background_service.converter.BleErrorJsonConverter;
 import id.flutter.background_service.converter.DescriptorJsonConverter;
+import id.flutter.background_service.gatt.AttributeKeys;
+import id.flutter.background_service.gatt.ValueCache;
 import com.polidea.multiplatformbleadapter.BleAdapter;
 import com.polidea.multiplatformbleadapter.Descriptor;
 import com.polidea.multiplatformbleadapter.OnErrorCallback;
@@ -39,10 +41,14 @@ public class DescriptorsDelegate extends CallDelegate {
     private BleAdapter bleAdapter;
     private BleErrorJsonConverter errorConverter = new BleErrorJsonConverter();
     private DescriptorJsonConverter descriptorJsonConverter = new DescriptorJsonConverter();
+    private InFlightReads inFlightReads;
+    private ValueCache valueCache;
 
-    public DescriptorsDelegate(BleAdapter bleAdapter) {
+    public DescriptorsDelegate(BleAdapter bleAdapter, InFlightReads inFlightReads, ValueCache valueCache) {
         super(supportedMethods);
         this.bleAdapter = bleAdapter;
+        this.inFlightReads = inFlightReads;
+        this.valueCache = valueCache;
     }
 
     @Override
@@ -126,7 +132,7 @@ public class DescriptorsDelegate extends CallDelegate {
     }
 
     private SafeMainThreadResolver<Descriptor> createMainThreadResolverForResult(final MethodChannel.Result result, final String transactionId) {
-        return new SafeMainThreadResolver<>(
+        return newResolver(
                 new OnSuccessCallback<Descriptor>() {
                     @Override
                     public void onSuccess(Descriptor descriptor) {
@@ -151,18 +157,34 @@ public class DescriptorsDelegate extends CallDelegate {
         );
     }
 
+    /**
+     * Drops the cached value of the written descriptor before resolving, so reads started
+     * while the write was pending do not keep the value from before it.
+     */
+    private OnSuccessCallback<Descriptor> invalidatingOnSuccess(final SafeMainThreadResolver<Descriptor> resolver) {
+        return new OnSuccessCallback<Descriptor>() {
+            @Override
+            public void onSuccess(Descriptor descriptor) {
+                valueCache.invalidate(descriptor);
+                resolver.onSuccess(descriptor);
+            }
+        };
+    }
+
     private void readDescriptorForIdentifier(
             final int descriptorId,
             final String transactionId,
             final MethodChannel.Result result) {
         final SafeMainThreadResolver<Descriptor> safeMainThreadResolver = createMainThreadResolverForResult(result, transactionId);
 
-        bleAdapter.readDescriptor(
-                descriptorId,
-                transactionId,
-                safeMainThreadResolver, //onSuccess
-                safeMainThreadResolver //onError
-        );
+        inFlightReads.join(AttributeKeys.descriptor(descriptorId), transactionId,
+                safeMainThreadResolver, safeMainThreadResolver,
+                new InFlightReads.Read<Descriptor>() {
+                    @Override
+                    public void start(OnSuccessCallback<Descriptor> onSuccess, OnErrorCallback onError) {
+                        bleAdapter.readDescriptor(descriptorId, transactionId, onSuccess, onError);
+                    }
+                });
     }
 
     private void readDescriptorForCharacteristic(
@@ -172,13 +194,15 @@ public class DescriptorsDelegate extends CallDelegate {
             final MethodChannel.Result result) {
         final SafeMainThreadResolver<Descriptor> safeMainThreadResolver = createMainThreadResolverForResult(result, transactionId);
 
-        bleAdapter.readDescriptorForCharacteristic(
-                characteristicId,
-                descriptorUuid,
-                transactionId,
-                safeMainThreadResolver, //success
-                safeMainThreadResolver //error
-        );
+        inFlightReads.join(AttributeKeys.descriptor(characteristicId, descriptorUuid), transactionId,
+                safeMainThreadResolver, safeMainThreadResolver,
+                new InFlightReads.Read<Descriptor>() {
+                    @Override
+                    public void start(OnSuccessCallback<Descriptor> onSuccess, OnErrorCallback onError) {
+                        bleAdapter.readDescriptorForCharacteristic(characteristicId, descriptorUuid, transactionId,
+                                onSuccess, onError);
+                    }
+                });
     }
 
     private void readDescriptorForService(
@@ -189,14 +213,15 @@ public class DescriptorsDelegate extends CallDelegate {
             final MethodChannel.Result result) {
         final SafeMainThreadResolver<Descriptor> safeMainThreadResolver = createMainThreadResolverForResult(result, transactionId);
 
-        bleAdapter.readDescriptorForService(
-                serviceId,
-                characteristicUuid,
-                descriptorUuid,
-                transactionId,
-                safeMainThreadResolver, //success
-                safeMainThreadResolver //error
-        );
+        inFlightReads.join(AttributeKeys.descriptor(serviceId, characteristicUuid, descriptorUuid), transactionId,
+                safeMainThreadResolver, safeMainThreadResolver,
+                new InFlightReads.Read<Descriptor>() {
+                    @Override
+                    public void start(OnSuccessCallback<Descriptor> onSuccess, OnErrorCallback onError) {
+                        bleAdapter.readDescriptorForService(serviceId, characteristicUuid, descriptorUuid, transactionId,
+                                onSuccess, onError);
+                    }
+                });
     }
 
     private void readDescriptorForDevice(
@@ -208,15 +233,15 @@ public class DescriptorsDelegate extends CallDelegate {
             final MethodChannel.Result result) {
         final SafeMainThreadResolver<Descriptor> safeMainThreadResolver = createMainThreadResolverForResult(result, transactionId);
 
-        bleAdapter.readDescriptorForDevice(
-                deviceId,
-                serviceUuid,
-                characteristicUuid,
-                descriptorUuid,
-                transactionId,
-                safeMainThreadResolver, //success
-                safeMainThreadResolver //error
-        );
+        inFlightReads.join(AttributeKeys.descriptor(deviceId, serviceUuid, characteristicUuid, descriptorUuid),
+                transactionId, safeMainThreadResolver, safeMainThreadResolver,
+                new InFlightReads.Read<Descriptor>() {
+                    @Override
+                    public void start(OnSuccessCallback<Descriptor> onSuccess, OnErrorCallback onError) {
+                        bleAdapter.readDescriptorForDevice(deviceId, serviceUuid, characteristicUuid, descriptorUuid,
+                                transactionId, onSuccess, onError);
+                    }
+                });
     }
 
     private void writeDescriptorForIdentifier(
@@ -224,13 +249,14 @@ public class DescriptorsDelegate extends CallDelegate {
             final byte[] value,
             final String transactionId,
             final MethodChannel.Result result) {
+        valueCache.invalidate(AttributeKeys.descriptor(descriptorId));
         final SafeMainThreadResolver<Descriptor> safeMainThreadResolver = createMainThreadResolverForResult(result, transactionId);
 
         bleAdapter.writeDescriptor(
                 descriptorId,
                 Base64Converter.encode(value),
                 transactionId,
-                safeMainThreadResolver, //success
+                invalidatingOnSuccess(safeMainThreadResolver), //success
                 safeMainThreadResolver //error
         );
     }
@@ -241,6 +267,7 @@ public class DescriptorsDelegate extends CallDelegate {
             final byte[] value,
             final String transactionId,
             final MethodChannel.Result result) {
+        valueCache.invalidate(AttributeKeys.descriptor(characteristicId, descriptorUuid));
         final SafeMainThreadResolver<Descriptor> safeMainThreadResolver = createMainThreadResolverForResult(result, transactionId);
 
         bleAdapter.writeDescriptorForCharacteristic(
@@ -248,7 +275,7 @@ public class DescriptorsDelegate extends CallDelegate {
                 descriptorUuid,
                 Base64Converter.encode(value),
                 transactionId,
-                safeMainThreadResolver, //success
+                invalidatingOnSuccess(safeMainThreadResolver), //success
                 safeMainThreadResolver //error
         );
     }
@@ -260,6 +287,7 @@ public class DescriptorsDelegate extends CallDelegate {
             final byte[] value,
             final String transactionId,
             final MethodChannel.Result result) {
+        valueCache.invalidate(AttributeKeys.descriptor(serviceId, characteristicUuid, descriptorUuid));
         final SafeMainThreadResolver<Descriptor> safeMainThreadResolver = createMainThreadResolverForResult(result, transactionId);
 
         bleAdapter.writeDescriptorForService(
@@ -268,7 +296,7 @@ public class DescriptorsDelegate extends CallDelegate {
                 descriptorUuid,
                 Base64Converter.encode(value),
                 transactionId,
-                safeMainThreadResolver, //success
+                invalidatingOnSuccess(safeMainThreadResolver), //success
                 safeMainThreadResolver //error
         );
     }
@@ -281,6 +309,7 @@ public class DescriptorsDelegate extends CallDelegate {
             final byte[] value,
             final String transactionId,
             final MethodChannel.Result result) {
+        valueCache.invalidate(AttributeKeys.descriptor(deviceId, serviceUuid, characteristicUuid, descriptorUuid));
         final SafeMainThreadResolver<Descriptor> safeMainThreadResolver = createMainThreadResolverForResult(result, transactionId);
 
         bleAdapter.writeDescriptorForDevice(
@@ -290,7 +319,7 @@ public class DescriptorsDelegate extends CallDelegate {
                 descriptorUuid,
                 Base64Converter.encode(value),
                 transactionId,
-                safeMainThreadResolver, //success
+                invalidatingOnSuccess(safeMainThreadResolver), //success
                 safeMainThreadResolver //error
         );
     }
@@ -6,6 +6,7 @@ import id.flutter.background_service.constant.ArgumentKey;
 import id.flutter.background_service.constant.MethodName;
 import id.flutter.background_service.converter.BleErrorJsonConverter;
 import id.flutter.background_service.event.ConnectionStateStreamHandler;
+import id.flutter.background_service.gatt.ValueCache;
 import com.polidea.multiplatformbleadapter.BleAdapter;
 import com.polidea.multiplatformbleadapter.ConnectionOptions;
 import com.polidea.multiplatformbleadapter.ConnectionState;
@@ -34,12 +35,15 @@ public class DeviceConnectionDelegate extends CallDelegate {
 
     private BleAdapter bleAdapter;
     private ConnectionStateStreamHandler streamHandler;
+    private ValueCache valueCache;
     private BleErrorJsonConverter bleErrorJsonConverter = new BleErrorJsonConverter();
 
-    public DeviceConnectionDelegate(BleAdapter bleAdapter, ConnectionStateStreamHandler streamHandler) {
+    public DeviceConnectionDelegate(BleAdapter bleAdapter, ConnectionStateStreamHandler streamHandler,
+                                    ValueCache valueCache) {
         super(supportedMethods);
         this.bleAdapter = bleAdapter;
         this.streamHandler = streamHandler;
+        this.valueCache = valueCache;
     }
 
     @Override
@@ -88,7 +92,7 @@ public class DeviceConnectionDelegate extends CallDelegate {
         RefreshGattMoment refreshGattMoment = null;
         if (refreshGatt) refreshGattMoment = RefreshGattMoment.ON_CONNECTED;
 
-        final SafeMainThreadResolver safeMainThreadResolver = new SafeMainThreadResolver<>(
+        final SafeMainThreadResolver safeMainThreadResolver = newResolver(
                 new OnSuccessCallback<Object>() {
                     @Override
                     public void onSuccess(Object data) {
@@ -114,6 +118,9 @@ public class DeviceConnectionDelegate extends CallDelegate {
                 new OnEventCallback<ConnectionState>() {
                     @Override
                     public void onEvent(final ConnectionState data) {
+                        if (data == ConnectionState.DISCONNECTED) {
+                            valueCache.invalidateDevice(deviceId);
+                        }
                         streamHandler.onNewConnectionState(new ConnectionStateChange(deviceId, data));
                     }
                 }, new OnErrorCallback() {
@@ -127,7 +134,7 @@ public class DeviceConnectionDelegate extends CallDelegate {
     private void observeConnectionState(final String deviceId, boolean emitCurrentValue, @NonNull final MethodChannel.Result result) {
         //emit current value if needed; rest is published automatically through connectToDevice()
 
-        final SafeMainThreadResolver safeMainThreadResolver = new SafeMainThreadResolver<>(
+        final SafeMainThreadResolver safeMainThreadResolver = newResolver(
                 new OnSuccessCallback<Boolean>() {
                     @Override
                     public void onSuccess(Boolean isConnected) {
@@ -167,7 +174,7 @@ public class DeviceConnectionDelegate extends CallDelegate {
     }
 
     private void isDeviceConnected(String deviceId, @NonNull final MethodChannel.Result result) {
-        final SafeMainThreadResolver safeMainThreadResolver = new SafeMainThreadResolver<>(
+        final SafeMainThreadResolver safeMainThreadResolver = newResolver(
                 new OnSuccessCallback<Boolean>() {
                     @Override
                     public void onSuccess(Boolean data) {
@@ -196,7 +203,7 @@ public class DeviceConnectionDelegate extends CallDelegate {
     }
 
     private void cancelConnection(String deviceId, @NonNull final MethodChannel.Result result) {
-        final SafeMainThreadResolver safeMainThreadResolver = new SafeMainThreadResolver<>(
+        final SafeMainThreadResolver safeMainThreadResolver = newResolver(
                 new OnSuccessCallback<Object>() {
                     @Override
                     public void onSuccess(Object data) {
@@ -58,7 +58,7 @@ public class DevicesDelegate extends CallDelegate {
     private void getConnectedDevices(@NonNull final List<String> serviceUUIDs, @NonNull final MethodChannel.Result result) {
         Log.d(TAG, "Get known devices");
 
-        final SafeMainThreadResolver resolver = new SafeMainThreadResolver<>(
+        final SafeMainThreadResolver resolver = newResolver(
                 new OnSuccessCallback<Device[]>() {
                     @Override
                     public void onSuccess(Device[] devices) {
@@ -95,7 +95,7 @@ public class DevicesDelegate extends CallDelegate {
     private void getKnownDevices(@NonNull final List<String> deviceIdentifiers, @NonNull final MethodChannel.Result result) {
         Log.d(TAG, "Get known devices");
 
-        final SafeMainThreadResolver resolver = new SafeMainThreadResolver<>(
+        final SafeMainThreadResolver resolver = newResolver(
                 new OnSuccessCallback<Device[]>() {
                     @Override
                     public void onSuccess(Device[] devices) {
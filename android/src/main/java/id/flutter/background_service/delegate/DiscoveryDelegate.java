@@ -6,9 +6,11 @@ import id.flutter.background_service.constant.ArgumentKey;
 import id.flutter.background_service.constant.MethodName;
 import id.flutter.background_service.converter.BleErrorJsonConverter;
 import id.flutter.background_service.converter.CharacteristicJsonConverter;
+import id.flutter.background_service.converter.GattTreeMapConverter;
 import id.flutter.background_service.converter.MultiCharacteristicsResponseJsonConverter;
 import id.flutter.background_service.converter.MultiDescriptorsResponseJsonConverter;
 import id.flutter.background_service.converter.ServiceJsonConverter;
+import id.flutter.background_service.gatt.ValueCache;
 import com.polidea.multiplatformbleadapter.BleAdapter;
 import com.polidea.multiplatformbleadapter.Characteristic;
 import com.polidea.multiplatformbleadapter.Descriptor;
@@ -20,8 +22,10 @@ import com.polidea.multiplatformbleadapter.errors.BleError;
 
 import org.json.JSONException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import androidx.annotation.NonNull;
@@ -30,9 +34,11 @@ import io.flutter.plugin.common.MethodChannel;
 
 public class DiscoveryDelegate extends CallDelegate {
     private BleAdapter adapter;
+    private ValueCache valueCache;
     private BleErrorJsonConverter bleErrorJsonConverter = new BleErrorJsonConverter();
     private CharacteristicJsonConverter characteristicJsonConverter = new CharacteristicJsonConverter();
     private ServiceJsonConverter serviceJsonConverter = new ServiceJsonConverter();
+    private GattTreeMapConverter gattTreeMapConverter = new GattTreeMapConverter();
     private MultiCharacteristicsResponseJsonConverter multiCharacteristicsResponseJsonConverter = new MultiCharacteristicsResponseJsonConverter();
     private MultiDescriptorsResponseJsonConverter multiDescriptorsResponseJsonConverter = new MultiDescriptorsResponseJsonConverter();
 
@@ -40,6 +46,7 @@ public class DiscoveryDelegate extends CallDelegate {
             MethodName.DISCOVER_ALL_SERVICES_AND_CHARACTERISTICS,
             MethodName.GET_CHARACTERISTICS,
             MethodName.GET_SERVICES,
+            MethodName.GET_GATT_TREE,
             MethodName.GET_CHARACTERISTICS_FOR_SERVICE,
 
             MethodName.GET_DESCRIPTORS_FOR_CHARACTERISTIC,
@@ -47,9 +54,10 @@ public class DiscoveryDelegate extends CallDelegate {
             MethodName.GET_DESCRIPTORS_FOR_DEVICE
     );
 
-    public DiscoveryDelegate(BleAdapter adapter) {
+    public DiscoveryDelegate(BleAdapter adapter, ValueCache valueCache) {
         super(supportedMethods);
         this.adapter = adapter;
+        this.valueCache = valueCache;
     }
 
     @Override
@@ -74,6 +82,12 @@ public class DiscoveryDelegate extends CallDelegate {
                         result
                 );
                 return;
+            case MethodName.GET_GATT_TREE:
+                getGattTree(
+                        call.<String>argument(ArgumentKey.DEVICE_IDENTIFIER),
+                        result
+                );
+                return;
             case MethodName.GET_CHARACTERISTICS_FOR_SERVICE:
                 getCharacteristicsForService(call.<Integer>argument(ArgumentKey.SERVICE_IDENTIFIER), result);
                 return;
@@ -103,8 +117,8 @@ public class DiscoveryDelegate extends CallDelegate {
         }
     }
 
-    private void discoverAllServicesAndCharacteristics(String deviceId, String transactionId, final MethodChannel.Result result) {
-        final SafeMainThreadResolver resolver = new SafeMainThreadResolver<>(
+    private void discoverAllServicesAndCharacteristics(final String deviceId, String transactionId, final MethodChannel.Result result) {
+        final SafeMainThreadResolver resolver = newResolver(
                 new OnSuccessCallback<Object>() {
                     @Override
                     public void onSuccess(Object data) {
@@ -122,6 +136,8 @@ public class DiscoveryDelegate extends CallDelegate {
                 new OnSuccessCallback<Device>() {
                     @Override
                     public void onSuccess(Device data) {
+                        // Discovery names the attributes anew, so the identifiers cached values go by are stale.
+                        valueCache.invalidateDevice(deviceId);
                         resolver.onSuccess(null);
                     }
                 }, new OnErrorCallback() {
@@ -176,6 +192,35 @@ public class DiscoveryDelegate extends CallDelegate {
         }
     }
 
+    /**
+     * Walks the services, characteristics and descriptors the adapter discovered for the
+     * device and returns them nested in a single response.
+     */
+    private void getGattTree(String deviceId, final MethodChannel.Result result) {
+        List<Map<String, Object>> serviceMaps;
+        try {
+            List<Service> services = adapter.getServicesForDevice(deviceId);
+            serviceMaps = new ArrayList<>(services.size());
+            for (Service service : services) {
+                List<Characteristic> characteristics = adapter.getCharacteristicsForService(service.getId());
+                List<Map<String, Object>> characteristicMaps = new ArrayList<>(characteristics.size());
+                for (Characteristic characteristic : characteristics) {
+                    List<Descriptor> descriptors = adapter.descriptorsForCharacteristic(characteristic.getId());
+                    List<Map<String, Object>> descriptorMaps = new ArrayList<>(descriptors.size());
+                    for (Descriptor descriptor : descriptors) {
+                        descriptorMaps.add(gattTreeMapConverter.toMap(descriptor));
+                    }
+                    characteristicMaps.add(gattTreeMapConverter.toMap(characteristic, descriptorMaps));
+                }
+                serviceMaps.add(gattTreeMapConverter.toMap(service, characteristicMaps));
+            }
+        } catch (BleError error) {
+            failWithError(result, error);
+            return;
+        }
+        result.success(serviceMaps);
+    }
+
     private void getCharacteristicsForService(Integer serviceId, final MethodChannel.Result result) {
         try {
             List<Characteristic> characteristics = adapter.getCharacteristicsForService(serviceId);
@@ -0,0 +1,409 @@
+package id.flutter.background_service.delegate;
+
+import android.os.SystemClock;
+
+import id.flutter.background_service.ble.MainThreadExecutor;
+import id.flutter.background_service.constant.ArgumentKey;
+import id.flutter.background_service.constant.MethodName;
+import id.flutter.background_service.constant.OperationPriority;
+import id.flutter.background_service.converter.BleErrorJsonConverter;
+import com.polidea.multiplatformbleadapter.errors.BleError;
+import com.polidea.multiplatformbleadapter.errors.BleErrorCode;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Queues GATT operations per device in front of the delegates that issue them. Only
+ * {@link #MAX_IN_FLIGHT_PER_DEVICE} operations of a device are handed to the adapter at a
+ * time; the rest wait in one of three lanes and the next one is taken from the most urgent
+ * non-empty lane, in arrival order within a lane. An operation still queued when its deadline
+ * passes fails with {@link BleErrorCode#OperationTimedOut} without being sent.
+ *
+ * For every lane the time operations spent queued and the time from dispatch to their result
+ * are accumulated separately. Monitors and bulk writes are long running and bypass the queue,
+ * as do reads served by an identical read already in flight or by a cached value, since they
+ * add no traffic.
+ *
+ * A delegate that throws instead of resolving a call fails the operation with
+ * {@link BleErrorCode#UnknownError}, which releases the device's slot like any other result.
+ */
+public class GattOperationScheduler implements MethodChannel.MethodCallHandler {
+
+    public static final int MAX_IN_FLIGHT_PER_DEVICE = 1;
+
+    private static final String[] LANES = {
+            OperationPriority.CRITICAL,
+            OperationPriority.NORMAL,
+            OperationPriority.BACKGROUND
+    };
+
+    private static final Map<String, String> defaultPriorities = new HashMap<>();
+
+    static {
+        for (String method : new String[]{
+                MethodName.READ_CHARACTERISTIC_FOR_IDENTIFIER,
+                MethodName.READ_CHARACTERISTIC_FOR_DEVICE,
+                MethodName.READ_CHARACTERISTIC_FOR_SERVICE,
+                MethodName.READ_CHARACTERISTICS_BATCH,
+                MethodName.WRITE_CHARACTERISTIC_FOR_IDENTIFIER,
+                MethodName.WRITE_CHARACTERISTIC_FOR_DEVICE,
+                MethodName.WRITE_CHARACTERISTIC_FOR_SERVICE,
+                MethodName.READ_DESCRIPTOR_FOR_IDENTIFIER,
+                MethodName.READ_DESCRIPTOR_FOR_CHARACTERISTIC,
+                MethodName.READ_DESCRIPTOR_FOR_SERVICE,
+                MethodName.READ_DESCRIPTOR_FOR_DEVICE,
+                MethodName.WRITE_DESCRIPTOR_FOR_IDENTIFIER,
+                MethodName.WRITE_DESCRIPTOR_FOR_CHARACTERISTIC,
+                MethodName.WRITE_DESCRIPTOR_FOR_SERVICE,
+                MethodName.WRITE_DESCRIPTOR_FOR_DEVICE,
+                MethodName.REQUEST_MTU}) {
+            defaultPriorities.put(method, OperationPriority.NORMAL);
+        }
+        defaultPriorities.put(MethodName.RSSI, OperationPriority.BACKGROUND);
+    }
+
+    /**
+     * Time source and timer of the deadlines.
+     */
+    interface Clock {
+        long now();
+
+        void postDelayed(Runnable runnable, long delayMillis);
+
+        void removeCallbacks(Runnable runnable);
+    }
+
+    private static final Clock MAIN_THREAD_CLOCK = new Clock() {
+        @Override
+        public long now() {
+            return SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void postDelayed(Runnable runnable, long delayMillis) {
+            MainThreadExecutor.getInstance().postDelayed(runnable, delayMillis);
+        }
+
+        @Override
+        public void removeCallbacks(Runnable runnable) {
+            MainThreadExecutor.getInstance().removeCallbacks(runnable);
+        }
+    };
+
+    private interface Statistics {
+        String OPERATIONS = "operations";
+        String QUEUED = "queued";
+        String EXPIRED = "expired";
+        String CANCELLED = "cancelled";
+        String TOTAL_QUEUE_WAIT_MILLIS = "totalQueueWaitMillis";
+        String MAX_QUEUE_WAIT_MILLIS = "maxQueueWaitMillis";
+        String TOTAL_ON_AIR_MILLIS = "totalOnAirMillis";
+        String MAX_ON_AIR_MILLIS = "maxOnAirMillis";
+        String SHARED_READS = "sharedReads";
+    }
+
+    private static class LaneStatistics {
+        long operations;
+        long expired;
+        long cancelled;
+        long totalQueueWaitMillis;
+        long maxQueueWaitMillis;
+        long totalOnAirMillis;
+        long maxOnAirMillis;
+    }
+
+    private class DeviceQueue {
+        final String deviceId;
+        @SuppressWarnings("unchecked")
+        final ArrayDeque<Operation>[] lanes = new ArrayDeque[LANES.length];
+        int inFlight = 0;
+
+        DeviceQueue(String deviceId) {
+            this.deviceId = deviceId;
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = new ArrayDeque<>();
+            }
+        }
+
+        @Nullable
+        Operation poll() {
+            for (ArrayDeque<Operation> lane : lanes) {
+                Operation operation = lane.poll();
+                if (operation != null) {
+                    return operation;
+                }
+            }
+            return null;
+        }
+
+        boolean isIdle() {
+            if (inFlight > 0) {
+                return false;
+            }
+            for (ArrayDeque<Operation> lane : lanes) {
+                if (!lane.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Result of a scheduled call. Forwards to the caller's result and releases the device's
+     * slot; as a {@link Runnable} it is the deadline of the operation while queued.
+     */
+    private class Operation implements MethodChannel.Result, Runnable {
+        final MethodCall call;
+        final MethodChannel.Result result;
+        final DeviceQueue queue;
+        final int lane;
+        final String transactionId;
+        final long enqueuedAt = clock.now();
+        long dispatchedAt = 0;
+        boolean completed = false;
+
+        Operation(MethodCall call, MethodChannel.Result result, DeviceQueue queue, int lane) {
+            this.call = call;
+            this.result = result;
+            this.queue = queue;
+            this.lane = lane;
+            this.transactionId = call.argument(ArgumentKey.TRANSACTION_ID);
+        }
+
+        @Override
+        public void success(@Nullable Object value) {
+            result.success(value);
+            dispatch(complete(this));
+        }
+
+        @Override
+        public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+            result.error(errorCode, errorMessage, errorDetails);
+            dispatch(complete(this));
+        }
+
+        @Override
+        public void notImplemented() {
+            result.notImplemented();
+            dispatch(complete(this));
+        }
+
+        @Override
+        public void run() {
+            synchronized (GattOperationScheduler.this) {
+                if (!queue.lanes[lane].remove(this)) {
+                    return;
+                }
+                statistics[lane].expired++;
+                releaseIfIdle(queue);
+            }
+            fail(result, new BleError(BleErrorCode.OperationTimedOut,
+                    "Deadline passed while queued behind other operations", null));
+        }
+    }
+
+    private final MethodChannel.MethodCallHandler handler;
+    private final InFlightReads inFlightReads;
+    private final Clock clock;
+    private final BleErrorJsonConverter bleErrorJsonConverter = new BleErrorJsonConverter();
+    private final Map<String, DeviceQueue> queues = new HashMap<>();
+    private final LaneStatistics[] statistics = new LaneStatistics[LANES.length];
+
+    public GattOperationScheduler(MethodChannel.MethodCallHandler handler, InFlightReads inFlightReads) {
+        this(handler, inFlightReads, MAIN_THREAD_CLOCK);
+    }
+
+    GattOperationScheduler(MethodChannel.MethodCallHandler handler, InFlightReads inFlightReads, Clock clock) {
+        this.handler = handler;
+        this.inFlightReads = inFlightReads;
+        this.clock = clock;
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i] = new LaneStatistics();
+        }
+    }
+
+    @Override
+    public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+        String defaultPriority = defaultPriorities.get(call.method);
+        String deviceId = defaultPriority != null && call.arguments instanceof Map
+                ? call.<String>argument(ArgumentKey.DEVICE_IDENTIFIER) : null;
+        if (deviceId == null || inFlightReads.isShared(InFlightReads.keyOf(call))) {
+            handler.onMethodCall(call, result);
+            return;
+        }
+        String priority = call.argument(ArgumentKey.PRIORITY);
+        int lane = laneOf(priority != null ? priority : defaultPriority);
+        if (lane < 0) {
+            result.error(String.valueOf(BleErrorCode.UnknownError.code), "Unknown priority: " + priority, null);
+            return;
+        }
+        Integer deadlineMillis = call.argument(ArgumentKey.DEADLINE_MILLIS);
+
+        Operation operation;
+        synchronized (this) {
+            DeviceQueue queue = queues.get(deviceId);
+            if (queue == null) {
+                queue = new DeviceQueue(deviceId);
+                queues.put(deviceId, queue);
+            }
+            operation = new Operation(call, result, queue, lane);
+            statistics[lane].operations++;
+            if (queue.inFlight >= MAX_IN_FLIGHT_PER_DEVICE) {
+                queue.lanes[lane].add(operation);
+                if (deadlineMillis != null) {
+                    clock.postDelayed(operation, Math.max(0, deadlineMillis));
+                }
+                return;
+            }
+            dispatching(operation);
+        }
+        dispatch(operation);
+    }
+
+    /**
+     * Removes the queued operation running under {@code transactionId} and fails it with
+     * {@link BleErrorCode#OperationCancelled}.
+     *
+     * @return false when no operation with that transaction id is queued
+     */
+    public boolean cancel(String transactionId) {
+        Operation cancelled = null;
+        synchronized (this) {
+            for (DeviceQueue queue : queues.values()) {
+                for (ArrayDeque<Operation> lane : queue.lanes) {
+                    for (Iterator<Operation> iterator = lane.iterator(); iterator.hasNext(); ) {
+                        Operation operation = iterator.next();
+                        if (transactionId != null && transactionId.equals(operation.transactionId)) {
+                            iterator.remove();
+                            cancelled = operation;
+                            break;
+                        }
+                    }
+                    if (cancelled != null) break;
+                }
+                if (cancelled != null) {
+                    statistics[cancelled.lane].cancelled++;
+                    releaseIfIdle(queue);
+                    break;
+                }
+            }
+        }
+        if (cancelled == null) {
+            return false;
+        }
+        clock.removeCallbacks(cancelled);
+        fail(cancelled.result, new BleError(BleErrorCode.OperationCancelled, "Operation was cancelled", null));
+        return true;
+    }
+
+    synchronized public Map<String, Object> getStatistics() {
+        int[] queued = new int[LANES.length];
+        for (DeviceQueue queue : queues.values()) {
+            for (int i = 0; i < LANES.length; i++) {
+                queued[i] += queue.lanes[i].size();
+            }
+        }
+        Map<String, Object> lanes = new HashMap<>();
+        for (int i = 0; i < LANES.length; i++) {
+            LaneStatistics lane = statistics[i];
+            Map<String, Object> laneStatistics = new HashMap<>();
+            laneStatistics.put(Statistics.OPERATIONS, lane.operations);
+            laneStatistics.put(Statistics.QUEUED, queued[i]);
+            laneStatistics.put(Statistics.EXPIRED, lane.expired);
+            laneStatistics.put(Statistics.CANCELLED, lane.cancelled);
+            laneStatistics.put(Statistics.TOTAL_QUEUE_WAIT_MILLIS, lane.totalQueueWaitMillis);
+            laneStatistics.put(Statistics.MAX_QUEUE_WAIT_MILLIS, lane.maxQueueWaitMillis);
+            laneStatistics.put(Statistics.TOTAL_ON_AIR_MILLIS, lane.totalOnAirMillis);
+            laneStatistics.put(Statistics.MAX_ON_AIR_MILLIS, lane.maxOnAirMillis);
+            lanes.put(LANES[i], laneStatistics);
+        }
+        lanes.put(Statistics.SHARED_READS, inFlightReads.getStatistics());
+        return lanes;
+    }
+
+    /**
+     * Hands dispatched operations to the delegates, one after the other as long as they throw.
+     * An operation the delegate threw for fails, unless the delegate resolved it before
+     * throwing, and the next queued operation of its device is dispatched in its place.
+     */
+    private void dispatch(@Nullable Operation operation) {
+        while (operation != null) {
+            clock.removeCallbacks(operation);
+            try {
+                handler.onMethodCall(operation.call, operation);
+                return;
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    if (operation.completed) {
+                        return;
+                    }
+                }
+                operation.result.error(String.valueOf(BleErrorCode.UnknownError.code), e.getMessage(), null);
+                operation = complete(operation);
+            }
+        }
+    }
+
+    /**
+     * Releases the device's slot held by the completed operation.
+     *
+     * @return the operation dispatched next in its place, or null
+     */
+    @Nullable
+    synchronized private Operation complete(Operation operation) {
+        if (operation.completed) {
+            return null;
+        }
+        operation.completed = true;
+        LaneStatistics lane = statistics[operation.lane];
+        long onAir = clock.now() - operation.dispatchedAt;
+        lane.totalOnAirMillis += onAir;
+        lane.maxOnAirMillis = Math.max(lane.maxOnAirMillis, onAir);
+        DeviceQueue queue = operation.queue;
+        queue.inFlight--;
+        Operation next = queue.poll();
+        if (next == null) {
+            releaseIfIdle(queue);
+            return null;
+        }
+        dispatching(next);
+        return next;
+    }
+
+    private void dispatching(Operation operation) {
+        operation.queue.inFlight++;
+        operation.dispatchedAt = clock.now();
+        LaneStatistics lane = statistics[operation.lane];
+        long queueWait = operation.dispatchedAt - operation.enqueuedAt;
+        lane.totalQueueWaitMillis += queueWait;
+        lane.maxQueueWaitMillis = Math.max(lane.maxQueueWaitMillis, queueWait);
+    }
+
+    private void releaseIfIdle(DeviceQueue queue) {
+        if (queue.isIdle()) {
+            queues.remove(queue.deviceId);
+        }
+    }
+
+    private void fail(MethodChannel.Result result, BleError error) {
+        result.error(String.valueOf(error.errorCode.code), error.reason, bleErrorJsonConverter.toJson(error));
+    }
+
+    private static int laneOf(String priority) {
+        for (int i = 0; i < LANES.length; i++) {
+            if (LANES[i].equals(priority)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
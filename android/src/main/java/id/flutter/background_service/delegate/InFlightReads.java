@@ -0,0 +1,227 @@
+package id.flutter.background_service.delegate;
+
+import id.flutter.background_service.constant.ArgumentKey;
+import id.flutter.background_service.constant.MethodName;
+import id.flutter.background_service.gatt.AttributeKeys;
+import id.flutter.background_service.gatt.ValueCache;
+import com.polidea.multiplatformbleadapter.OnErrorCallback;
+import com.polidea.multiplatformbleadapter.OnSuccessCallback;
+import com.polidea.multiplatformbleadapter.errors.BleError;
+import com.polidea.multiplatformbleadapter.errors.BleErrorCode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.plugin.common.MethodCall;
+
+/**
+ * Single-flight registry of reads sent to the adapter. A read of an attribute that is already
+ * being read attaches to the pending one instead of going over the air again, and every
+ * attached caller receives the same value or error. Each caller still formats the value with
+ * its own transaction id; the adapter only knows the transaction id of the caller that
+ * started the read.
+ *
+ * Reads of attributes covered by the {@link ValueCache} are served from it while fresh, and
+ * the values read are cached.
+ */
+public class InFlightReads {
+
+    public interface Read<T> {
+        void start(OnSuccessCallback<T> onSuccess, OnErrorCallback onError);
+    }
+
+    private interface Statistics {
+        String READS = "reads";
+        String JOINED = "joined";
+        String IN_FLIGHT = "inFlight";
+    }
+
+    private static class Waiter {
+        final String transactionId;
+        final OnSuccessCallback<Object> onSuccess;
+        final OnErrorCallback onError;
+
+        Waiter(String transactionId, OnSuccessCallback<Object> onSuccess, OnErrorCallback onError) {
+            this.transactionId = transactionId;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+    }
+
+    private final ValueCache valueCache;
+    private final Map<String, List<Waiter>> inFlight = new HashMap<>();
+    private long reads = 0;
+    private long joined = 0;
+
+    public InFlightReads(ValueCache valueCache) {
+        this.valueCache = valueCache;
+    }
+
+    /**
+     * Delivers the result of the read of {@code key} to the callbacks, starting {@code read}
+     * when no read of {@code key} is pending and no fresh value of it is cached. Callbacks run
+     * on the calling thread for cached values and on the thread the adapter reports the result
+     * on otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void join(@NonNull final String key,
+                         @Nullable String transactionId,
+                         @NonNull OnSuccessCallback<T> onSuccess,
+                         @NonNull OnErrorCallback onError,
+                         @NonNull Read<T> read) {
+        T cached = valueCache.get(key);
+        if (cached != null) {
+            onSuccess.onSuccess(cached);
+            return;
+        }
+        Waiter waiter = new Waiter(transactionId, (OnSuccessCallback<Object>) onSuccess, onError);
+        synchronized (this) {
+            List<Waiter> waiters = inFlight.get(key);
+            if (waiters != null) {
+                waiters.add(waiter);
+                joined++;
+                return;
+            }
+            waiters = new ArrayList<>(1);
+            waiters.add(waiter);
+            inFlight.put(key, waiters);
+            reads++;
+        }
+        final long generation = valueCache.getGeneration();
+        read.start(
+                new OnSuccessCallback<T>() {
+                    @Override
+                    public void onSuccess(T data) {
+                        valueCache.put(data, generation, readers(key));
+                        for (Waiter waiter : complete(key)) {
+                            waiter.onSuccess.onSuccess(data);
+                        }
+                    }
+                },
+                new OnErrorCallback() {
+                    @Override
+                    public void onError(BleError error) {
+                        for (Waiter waiter : complete(key)) {
+                            waiter.onError.onError(error);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Whether a read of {@code key} would be served by a pending read or a cached value instead
+     * of a request of its own.
+     */
+    public boolean isShared(@Nullable String key) {
+        if (key == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (inFlight.containsKey(key)) {
+                return true;
+            }
+        }
+        return valueCache.contains(key);
+    }
+
+    /**
+     * Detaches the caller waiting under {@code transactionId} from a read that other callers
+     * still wait for, failing it with {@link BleErrorCode#OperationCancelled}. A caller waiting
+     * alone is left attached so that cancelling its transaction in the adapter stops the read.
+     *
+     * @return false when no such caller was detached
+     */
+    public boolean cancel(String transactionId) {
+        if (transactionId == null) {
+            return false;
+        }
+        Waiter cancelled = null;
+        synchronized (this) {
+            for (List<Waiter> waiters : inFlight.values()) {
+                if (waiters.size() < 2) {
+                    continue;
+                }
+                for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext(); ) {
+                    Waiter waiter = iterator.next();
+                    if (transactionId.equals(waiter.transactionId)) {
+                        iterator.remove();
+                        cancelled = waiter;
+                        break;
+                    }
+                }
+                if (cancelled != null) break;
+            }
+        }
+        if (cancelled == null) {
+            return false;
+        }
+        cancelled.onError.onError(new BleError(BleErrorCode.OperationCancelled, "Operation was cancelled", null));
+        return true;
+    }
+
+    synchronized public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put(Statistics.READS, reads);
+        statistics.put(Statistics.JOINED, joined);
+        statistics.put(Statistics.IN_FLIGHT, inFlight.size());
+        return statistics;
+    }
+
+    synchronized private int readers(String key) {
+        List<Waiter> waiters = inFlight.get(key);
+        return waiters != null ? waiters.size() : 0;
+    }
+
+    synchronized private List<Waiter> complete(String key) {
+        List<Waiter> waiters = inFlight.remove(key);
+        return waiters != null ? waiters : new ArrayList<Waiter>(0);
+    }
+
+    /**
+     * Key of the read issued by {@code call}, or null when the call is not a read that can be
+     * shared. Attributes addressed by UUID are keyed by device and UUIDs, attributes addressed
+     * by identifier by the identifier, so a read only attaches to reads addressed the same way.
+     */
+    @Nullable
+    public static String keyOf(@NonNull MethodCall call) {
+        switch (call.method) {
+            case MethodName.READ_CHARACTERISTIC_FOR_IDENTIFIER:
+                return AttributeKeys.characteristic(call.<Integer>argument(ArgumentKey.CHARACTERISTIC_IDENTIFIER));
+            case MethodName.READ_CHARACTERISTIC_FOR_DEVICE:
+                return AttributeKeys.characteristic(
+                        call.<String>argument(ArgumentKey.DEVICE_IDENTIFIER),
+                        call.<String>argument(ArgumentKey.SERVICE_UUID),
+                        call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID));
+            case MethodName.READ_CHARACTERISTIC_FOR_SERVICE:
+                return AttributeKeys.characteristic(
+                        call.<Integer>argument(ArgumentKey.SERVICE_IDENTIFIER),
+                        call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID));
+            case MethodName.READ_DESCRIPTOR_FOR_IDENTIFIER:
+                return AttributeKeys.descriptor(call.<Integer>argument(ArgumentKey.DESCRIPTOR_IDENTIFIER));
+            case MethodName.READ_DESCRIPTOR_FOR_CHARACTERISTIC:
+                return AttributeKeys.descriptor(
+                        call.<Integer>argument(ArgumentKey.CHARACTERISTIC_IDENTIFIER),
+                        call.<String>argument(ArgumentKey.DESCRIPTOR_UUID));
+            case MethodName.READ_DESCRIPTOR_FOR_SERVICE:
+                return AttributeKeys.descriptor(
+                        call.<Integer>argument(ArgumentKey.SERVICE_IDENTIFIER),
+                        call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID),
+                        call.<String>argument(ArgumentKey.DESCRIPTOR_UUID));
+            case MethodName.READ_DESCRIPTOR_FOR_DEVICE:
+                return AttributeKeys.descriptor(
+                        call.<String>argument(ArgumentKey.DEVICE_IDENTIFIER),
+                        call.<String>argument(ArgumentKey.SERVICE_UUID),
+                        call.<String>argument(ArgumentKey.CHARACTERISTIC_UUID),
+                        call.<String>argument(ArgumentKey.DESCRIPTOR_UUID));
+            case MethodName.RSSI:
+                return AttributeKeys.rssi(call.<String>argument(ArgumentKey.DEVICE_IDENTIFIER));
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package id.flutter.background_service.delegate;
+
+import android.os.SystemClock;
+
+import id.flutter.background_service.ble.MainThreadExecutor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Routes background channel calls to their handler with a single hash lookup on the method
+ * name. Entries outlive their handler so call counts are kept when a delegate is removed
+ * together with its client.
+ *
+ * When the channel runs on a background task queue, handlers registered as main-thread
+ * handlers are moved to the main thread and every other handler runs on the task queue.
+ * The time each method spends on the main thread is accumulated per method.
+ */
+public class MethodDispatcher implements MethodChannel.MethodCallHandler {
+
+    private static class Entry {
+        MethodChannel.MethodCallHandler handler;
+        boolean mainThread;
+        long calls;
+        long mainThreadNanos;
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final MainThreadExecutor mainThreadExecutor = MainThreadExecutor.getInstance();
+
+    synchronized public void register(List<String> methods, MethodChannel.MethodCallHandler handler, boolean mainThread) {
+        for (String method : methods) {
+            Entry entry = entries.get(method);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(method, entry);
+            }
+            entry.handler = handler;
+            entry.mainThread = mainThread;
+        }
+    }
+
+    public void register(CallDelegate delegate) {
+        register(delegate.supportedMethods, delegate, false);
+    }
+
+    synchronized public void unregister(CallDelegate delegate) {
+        for (String method : delegate.supportedMethods) {
+            Entry entry = entries.get(method);
+            if (entry != null && entry.handler == delegate) {
+                entry.handler = null;
+            }
+        }
+    }
+
+    @Override
+    public void onMethodCall(@NonNull final MethodCall call, @NonNull final MethodChannel.Result result) {
+        final Entry entry;
+        final MethodChannel.MethodCallHandler handler;
+        synchronized (this) {
+            entry = entries.get(call.method);
+            handler = entry != null ? entry.handler : null;
+            if (handler == null) {
+                result.notImplemented();
+                return;
+            }
+            entry.calls++;
+        }
+        if (entry.mainThread && !mainThreadExecutor.isMainThread()) {
+            mainThreadExecutor.post(new Runnable() {
+                @Override
+                public void run() {
+                    invoke(entry, handler, call, result);
+                }
+            });
+            return;
+        }
+        invoke(entry, handler, call, result);
+    }
+
+    private void invoke(Entry entry, MethodChannel.MethodCallHandler handler, MethodCall call, MethodChannel.Result result) {
+        if (!mainThreadExecutor.isMainThread()) {
+            handler.onMethodCall(call, result);
+            return;
+        }
+        long startedAt = SystemClock.elapsedRealtimeNanos();
+        try {
+            handler.onMethodCall(call, result);
+        } finally {
+            long elapsed = SystemClock.elapsedRealtimeNanos() - startedAt;
+            synchronized (this) {
+                entry.mainThreadNanos += elapsed;
+            }
+        }
+    }
+
+    synchronized public Map<String, Long> getCallCounts() {
+        Map<String, Long> callCounts = new HashMap<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().calls > 0) {
+                callCounts.put(entry.getKey(), entry.getValue().calls);
+            }
+        }
+        return callCounts;
+    }
+
+    /**
+     * Total time in microseconds each called method spent on the main thread.
+     */
+    synchronized public Map<String, Long> getMainThreadMicros() {
+        Map<String, Long> mainThreadMicros = new HashMap<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().calls > 0) {
+                mainThreadMicros.put(entry.getKey(), entry.getValue().mainThreadNanos / 1000);
+            }
+        }
+        return mainThreadMicros;
+    }
+}
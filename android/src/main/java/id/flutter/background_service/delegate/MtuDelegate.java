@@ -50,7 +50,7 @@ public class MtuDelegate extends CallDelegate {
     private void requestMtu(String deviceIdentifier, @NonNull int mtu, String transactionId, @NonNull final MethodChannel.Result result) {
         Log.d(TAG, "Request MTU " + mtu);
 
-        final SafeMainThreadResolver resolver = new SafeMainThreadResolver<>(
+        final SafeMainThreadResolver resolver = newResolver(
                 new OnSuccessCallback<Integer>() {
                     @Override
                     public void onSuccess(Integer mtu) {
@@ -6,6 +6,7 @@ import id.flutter.background_service.ble.SafeMainThreadResolver;
 import id.flutter.background_service.constant.ArgumentKey;
 import id.flutter.background_service.constant.MethodName;
 import id.flutter.background_service.converter.BleErrorJsonConverter;
+import id.flutter.background_service.gatt.AttributeKeys;
 import com.polidea.multiplatformbleadapter.BleAdapter;
 import com.polidea.multiplatformbleadapter.Device;
 import com.polidea.multiplatformbleadapter.OnErrorCallback;
@@ -26,10 +27,12 @@ public class RssiDelegate extends CallDelegate {
 
     private BleAdapter bleAdapter;
     private BleErrorJsonConverter bleErrorJsonConverter = new BleErrorJsonConverter();
+    private InFlightReads inFlightReads;
 
-    public RssiDelegate(BleAdapter bleAdapter) {
+    public RssiDelegate(BleAdapter bleAdapter, InFlightReads inFlightReads) {
         super(supportedMethods);
         this.bleAdapter = bleAdapter;
+        this.inFlightReads = inFlightReads;
     }
 
     @Override
@@ -45,10 +48,10 @@ public class RssiDelegate extends CallDelegate {
         }
     }
 
-    private void rssi(@NonNull final String deviceIdentifier, String transactionId, @NonNull final MethodChannel.Result result) {
+    private void rssi(@NonNull final String deviceIdentifier, final String transactionId, @NonNull final MethodChannel.Result result) {
         Log.d(TAG, "Read rssi for device " + deviceIdentifier + " transactionId: " + transactionId);
 
-        final SafeMainThreadResolver resolver = new SafeMainThreadResolver<>(
+        final SafeMainThreadResolver resolver = newResolver(
                 new OnSuccessCallback<Integer>() {
                     @Override
                     public void onSuccess(Integer rssi) {
@@ -63,7 +66,7 @@ public class RssiDelegate extends CallDelegate {
                     }
                 });
 
-        bleAdapter.readRSSIForDevice(deviceIdentifier, transactionId, new OnSuccessCallback<Device>() {
+        inFlightReads.join(AttributeKeys.rssi(deviceIdentifier), transactionId, new OnSuccessCallback<Device>() {
             @Override
             public void onSuccess(Device device) {
                 Log.d(TAG, "rssi ready on native side: " + device.getRssi());
@@ -74,6 +77,11 @@ public class RssiDelegate extends CallDelegate {
             public void onError(BleError error) {
                 resolver.onError(error);
             }
+        }, new InFlightReads.Read<Device>() {
+            @Override
+            public void start(OnSuccessCallback<Device> onSuccess, OnErrorCallback onError) {
+                bleAdapter.readRSSIForDevice(deviceIdentifier, transactionId, onSuccess, onError);
+            }
         });
     }
 }
@@ -0,0 +1,49 @@
+package id.flutter.background_service.event;
+
+import id.flutter.background_service.ble.MainThreadExecutor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugin.common.EventChannel;
+
+public class BulkWriteProgressStreamHandler implements EventChannel.StreamHandler {
+
+    private interface Metadata {
+        String TRANSACTION_ID = "transactionId";
+        String WRITTEN = "written";
+        String TOTAL = "total";
+    }
+
+    private EventChannel.EventSink eventSink;
+    private final MainThreadExecutor mainThreadExecutor = MainThreadExecutor.getInstance();
+
+    @Override
+    synchronized public void onListen(Object o, EventChannel.EventSink eventSink) {
+        this.eventSink = eventSink;
+    }
+
+    @Override
+    synchronized public void onCancel(Object o) {
+        eventSink = null;
+    }
+
+    public void onProgress(String transactionId, long written, long total) {
+        final Map<String, Object> event = new HashMap<>();
+        event.put(Metadata.TRANSACTION_ID, transactionId);
+        event.put(Metadata.WRITTEN, written);
+        event.put(Metadata.TOTAL, total);
+        mainThreadExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                emit(event);
+            }
+        });
+    }
+
+    synchronized private void emit(Map<String, Object> event) {
+        if (eventSink != null) {
+            eventSink.success(event);
+        }
+    }
+}
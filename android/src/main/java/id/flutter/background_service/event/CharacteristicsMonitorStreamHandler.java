@@ -1,21 +1,327 @@
 package id.flutter.background_service.event;
 
+import android.os.SystemClock;
+
+import id.flutter.background_service.ble.BleErrorFactory;
+import id.flutter.background_service.ble.MainThreadExecutor;
 import id.flutter.background_service.ble.SingleCharacteristicResponse;
+import id.flutter.background_service.constant.ChannelName;
+import id.flutter.background_service.constant.DeliveryPolicy;
+import id.flutter.background_service.constant.ResponseFormat;
 import id.flutter.background_service.converter.BleErrorJsonConverter;
+import id.flutter.background_service.converter.PayloadSchema;
+import id.flutter.background_service.converter.PayloadSchemaRegistry;
 import id.flutter.background_service.converter.SingleCharacteristicResponseJsonConverter;
+import id.flutter.background_service.converter.SingleCharacteristicResponseMapConverter;
+import id.flutter.background_service.converter.ValueLayout;
+import com.polidea.multiplatformbleadapter.Characteristic;
 import com.polidea.multiplatformbleadapter.errors.BleError;
+import com.polidea.multiplatformbleadapter.errors.BleErrorCode;
 
 import org.json.JSONException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import androidx.annotation.Nullable;
+import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.EventChannel;
 
+/**
+ * Delivers characteristic notifications in two stages. Notifications are accepted on any
+ * thread into a bounded queue, serialized on a worker thread, and only the finished payloads
+ * are handed to the main thread for {@code eventSink.success}. When the worker falls
+ * behind, the oldest pending notification is dropped; errors, which end their monitor, are
+ * never dropped.
+ *
+ * Monitors opened with {@link #openSubscription} get their own event channel named
+ * {@code MONITOR_CHARACTERISTIC/<key>} and receive only their own notifications; all other
+ * monitors share the {@code MONITOR_CHARACTERISTIC} channel. Subscriptions opened with the
+ * same sharing key are fed by one adapter monitor, which is started with the first listener
+ * and stopped when the last one cancels.
+ *
+ * Each subscription has a {@link DeliveryPolicy}. With {@code LATEST} a subscription gets at
+ * most one notification per interval, the newest one; with {@code SAMPLE} it gets the newest
+ * notification once every interval. Notifications superseded before their turn are dropped
+ * here, before they are serialized, and counted per subscription. With {@code AGGREGATE} a
+ * subscription gets a min/max/mean summary of the values in each interval instead of the
+ * notifications themselves.
+ *
+ * Each subscription picks a {@link ResponseFormat}: the JSON response, the same response as
+ * a map with the raw value for {@code BINARY}, or for {@code DECODED} the value decoded by
+ * the {@link PayloadSchema} registered for its characteristic, as a double[]. Each format is
+ * only produced when one of the receiving listeners needs it.
+ */
 public class CharacteristicsMonitorStreamHandler implements EventChannel.StreamHandler {
 
+    public static final int MAX_PENDING_EVENTS = 256;
+
+    private interface Statistics {
+        String DROPPED_EVENTS = "droppedEvents";
+        String SUBSCRIPTIONS = "subscriptions";
+        String DELIVERY_POLICY = "deliveryPolicy";
+        String DELIVERED = "delivered";
+        String DROPPED = "dropped";
+    }
+
+    private static final String SHARED_TRANSACTION_ID_PREFIX = "sharedMonitor/";
+
+    private static class MonitorEvent {
+        SingleCharacteristicResponse characteristic;
+        BleError error;
+        String transactionId;
+        String payload;
+        Map<String, Object> binaryPayload;
+        double[] decodedPayload;
+        boolean needsJson = true;
+        boolean needsBinary;
+        boolean needsDecoded;
+        List<Subscription> targets;
+
+        void selectPayloads(List<Subscription> receivers) {
+            needsJson = false;
+            needsBinary = false;
+            needsDecoded = false;
+            for (int i = 0; i < receivers.size(); i++) {
+                String responseFormat = receivers.get(i).responseFormat;
+                needsJson |= ResponseFormat.JSON.equals(responseFormat);
+                needsBinary |= ResponseFormat.BINARY.equals(responseFormat);
+                needsDecoded |= ResponseFormat.DECODED.equals(responseFormat);
+            }
+        }
+    }
+
+    public interface MonitorSource {
+        void start(String transactionId);
+
+        void stop(String transactionId);
+    }
+
+    private static class SharedMonitor {
+        final String sharingKey;
+        final String transactionId;
+        final MonitorSource source;
+        final List<Subscription> listeners = new ArrayList<>(2);
+
+        SharedMonitor(String sharingKey, String transactionId, MonitorSource source) {
+            this.sharingKey = sharingKey;
+            this.transactionId = transactionId;
+            this.source = source;
+        }
+    }
+
+    private class Subscription implements EventChannel.StreamHandler {
+        final String transactionId;
+        final String sharingKey;
+        final MonitorSource source;
+        final EventChannel channel;
+        final String deliveryPolicy;
+        final long deliveryIntervalMillis;
+        @Nullable
+        final WindowAggregator aggregator;
+        final String responseFormat;
+        EventChannel.EventSink eventSink;
+        SharedMonitor monitor;
+
+        SingleCharacteristicResponse pending;
+        long lastDeliveredAt = Long.MIN_VALUE;
+        boolean flushScheduled;
+        long delivered;
+        long dropped;
+
+        final Runnable flush = new Runnable() {
+            @Override
+            public void run() {
+                MonitorEvent event = null;
+                synchronized (CharacteristicsMonitorStreamHandler.this) {
+                    flushScheduled = false;
+                    if (eventSink == null) {
+                        return;
+                    }
+                    if (aggregator != null) {
+                        Map<String, Object> summary = aggregator.closeWindow();
+                        if (summary != null) {
+                            eventSink.success(summary);
+                            delivered++;
+                        }
+                        scheduleFlush(deliveryIntervalMillis);
+                        return;
+                    }
+                    if (pending != null) {
+                        event = new MonitorEvent();
+                        event.characteristic = pending;
+                        event.transactionId = pending.getTransactionId();
+                        event.targets = Collections.singletonList(Subscription.this);
+                        event.selectPayloads(event.targets);
+                        pending = null;
+                        lastDeliveredAt = SystemClock.elapsedRealtime();
+                    }
+                    if (isPeriodic()) {
+                        scheduleFlush(deliveryIntervalMillis);
+                    }
+                }
+                if (event != null) {
+                    enqueue(event);
+                }
+            }
+        };
+
+        Subscription(String transactionId, String sharingKey, MonitorSource source, EventChannel channel,
+                     String deliveryPolicy, long deliveryIntervalMillis, @Nullable ValueLayout valueLayout,
+                     String responseFormat) {
+            this.transactionId = transactionId;
+            this.sharingKey = sharingKey;
+            this.source = source;
+            this.channel = channel;
+            this.deliveryPolicy = deliveryPolicy;
+            this.deliveryIntervalMillis = deliveryIntervalMillis;
+            this.aggregator = valueLayout != null ? new WindowAggregator(valueLayout) : null;
+            this.responseFormat = responseFormat;
+        }
+
+        boolean isPeriodic() {
+            return DeliveryPolicy.SAMPLE.equals(deliveryPolicy) || DeliveryPolicy.AGGREGATE.equals(deliveryPolicy);
+        }
+
+        boolean isThrottled() {
+            return !DeliveryPolicy.ALL.equals(deliveryPolicy);
+        }
+
+        /**
+         * Decides whether a notification goes out to this subscription right away. When it
+         * does not, it replaces the pending one, which then counts as dropped.
+         */
+        boolean admit(SingleCharacteristicResponse characteristic) {
+            if (!isThrottled()) {
+                return true;
+            }
+            if (aggregator != null) {
+                if (!aggregator.add(characteristic.getCharacteristic().getValue())) {
+                    dropped++;
+                }
+                return false;
+            }
+            long now = SystemClock.elapsedRealtime();
+            if (DeliveryPolicy.LATEST.equals(deliveryPolicy) && pending == null
+                    && now - lastDeliveredAt >= deliveryIntervalMillis) {
+                lastDeliveredAt = now;
+                return true;
+            }
+            if (pending != null) {
+                dropped++;
+            }
+            pending = characteristic;
+            if (DeliveryPolicy.LATEST.equals(deliveryPolicy)) {
+                scheduleFlush(Math.max(0, lastDeliveredAt + deliveryIntervalMillis - now));
+            }
+            return false;
+        }
+
+        void scheduleFlush(long delayMillis) {
+            if (!flushScheduled) {
+                flushScheduled = true;
+                mainThreadExecutor.postDelayed(flush, delayMillis);
+            }
+        }
+
+        void cancelFlush() {
+            mainThreadExecutor.removeCallbacks(flush);
+            flushScheduled = false;
+            pending = null;
+        }
+
+        Map<String, Object> getStatistics() {
+            Map<String, Object> statistics = new HashMap<>();
+            statistics.put(Statistics.DELIVERY_POLICY, deliveryPolicy);
+            statistics.put(Statistics.DELIVERED, delivered);
+            statistics.put(Statistics.DROPPED, dropped);
+            return statistics;
+        }
+
+        @Override
+        public void onListen(Object o, EventChannel.EventSink eventSink) {
+            SharedMonitor startedMonitor = null;
+            synchronized (CharacteristicsMonitorStreamHandler.this) {
+                this.eventSink = eventSink;
+                monitor = monitorsByKey.get(sharingKey);
+                if (monitor == null) {
+                    monitor = new SharedMonitor(sharingKey, SHARED_TRANSACTION_ID_PREFIX + nextMonitorId++, source);
+                    monitorsByKey.put(sharingKey, monitor);
+                    monitorsByTransactionId.put(monitor.transactionId, monitor);
+                    startedMonitor = monitor;
+                }
+                monitor.listeners.add(this);
+                if (isPeriodic()) {
+                    scheduleFlush(deliveryIntervalMillis);
+                }
+            }
+            if (startedMonitor != null) {
+                startedMonitor.source.start(startedMonitor.transactionId);
+            }
+        }
+
+        @Override
+        public void onCancel(Object o) {
+            SharedMonitor stoppedMonitor;
+            synchronized (CharacteristicsMonitorStreamHandler.this) {
+                eventSink = null;
+                cancelFlush();
+                subscriptions.remove(transactionId, this);
+                stoppedMonitor = detach(this);
+            }
+            channel.setStreamHandler(null);
+            if (stoppedMonitor != null) {
+                stoppedMonitor.source.stop(stoppedMonitor.transactionId);
+            }
+        }
+    }
+
     private EventChannel.EventSink eventSink;
+    private BinaryMessenger binaryMessenger;
+    private final PayloadSchemaRegistry payloadSchemas;
+    private final Map<String, Subscription> subscriptions = new HashMap<>();
+    private final Map<String, SharedMonitor> monitorsByKey = new HashMap<>();
+    private final Map<String, SharedMonitor> monitorsByTransactionId = new HashMap<>();
+    private int nextSubscriptionKey = 1;
+    private int nextMonitorId = 1;
     private SingleCharacteristicResponseJsonConverter characteristicResponseJsonConverter
             = new SingleCharacteristicResponseJsonConverter();
+    private SingleCharacteristicResponseMapConverter characteristicResponseMapConverter
+            = new SingleCharacteristicResponseMapConverter();
     private BleErrorJsonConverter bleErrorJsonConverter = new BleErrorJsonConverter();
 
+    private final MainThreadExecutor mainThreadExecutor = MainThreadExecutor.getInstance();
+    private final ArrayBlockingQueue<MonitorEvent> pendingEvents = new ArrayBlockingQueue<>(MAX_PENDING_EVENTS);
+    private final ConcurrentLinkedQueue<MonitorEvent> serializedEvents = new ConcurrentLinkedQueue<>();
+    private Thread serializer;
+    private final AtomicBoolean deliveryScheduled = new AtomicBoolean(false);
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private final Runnable deliverSerializedEvents = new Runnable() {
+        @Override
+        public void run() {
+            deliveryScheduled.set(false);
+            synchronized (CharacteristicsMonitorStreamHandler.this) {
+                MonitorEvent event;
+                while ((event = serializedEvents.poll()) != null) {
+                    deliver(event);
+                }
+            }
+        }
+    };
+
+    public CharacteristicsMonitorStreamHandler(PayloadSchemaRegistry payloadSchemas) {
+        this.payloadSchemas = payloadSchemas;
+    }
+
     @Override
     synchronized public void onListen(Object o, EventChannel.EventSink eventSink) {
         this.eventSink = eventSink;
@@ -26,15 +332,358 @@ public class CharacteristicsMonitorStreamHandler implements EventChannel.StreamH
         eventSink = null;
     }
 
-    synchronized public void onCharacteristicsUpdate(SingleCharacteristicResponse characteristic) throws JSONException {
-        if (eventSink != null) {
-            eventSink.success(characteristicResponseJsonConverter.toJson(characteristic));
+    synchronized public void setBinaryMessenger(@Nullable BinaryMessenger binaryMessenger) {
+        this.binaryMessenger = binaryMessenger;
+    }
+
+    /**
+     * Registers a monitor identified by its transaction id on a channel of its own. Listening
+     * to the channel joins the adapter monitor running for {@code sharingKey}, starting it
+     * through {@code source} when there is none yet; cancelling leaves it, and the last
+     * listener to leave stops it. Notifications reach the subscription as
+     * {@code deliveryPolicy} allows, {@code deliveryIntervalMillis} being the minimum time
+     * between two of them for {@code LATEST}, the sampling period for {@code SAMPLE} and the
+     * window length for {@code AGGREGATE}, which also needs the {@code valueLayout} of the
+     * aggregated value. Notifications reach it in the given {@link ResponseFormat}.
+     *
+     * @throws IllegalArgumentException when the policy is unknown, a throttling policy has no
+     *                                  positive interval or aggregation has no value layout
+     * @return the key Dart appends to the monitor channel name
+     */
+    synchronized public int openSubscription(String transactionId, String sharingKey, MonitorSource source,
+                                             String deliveryPolicy, long deliveryIntervalMillis,
+                                             @Nullable ValueLayout valueLayout, String responseFormat) {
+        if (binaryMessenger == null) {
+            throw new IllegalStateException("Monitor subscriptions need an attached engine");
+        }
+        if (!DeliveryPolicy.ALL.equals(deliveryPolicy) && !DeliveryPolicy.LATEST.equals(deliveryPolicy)
+                && !DeliveryPolicy.SAMPLE.equals(deliveryPolicy) && !DeliveryPolicy.AGGREGATE.equals(deliveryPolicy)) {
+            throw new IllegalArgumentException("Unknown delivery policy: " + deliveryPolicy);
+        }
+        if (!ResponseFormat.JSON.equals(responseFormat) && !ResponseFormat.BINARY.equals(responseFormat)
+                && !ResponseFormat.DECODED.equals(responseFormat)) {
+            throw new IllegalArgumentException("Unknown response format: " + responseFormat);
+        }
+        if (DeliveryPolicy.AGGREGATE.equals(deliveryPolicy) != (valueLayout != null)) {
+            throw new IllegalArgumentException("A value layout is required for, and only for, aggregation");
         }
+        if (!DeliveryPolicy.ALL.equals(deliveryPolicy) && deliveryIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Delivery policy " + deliveryPolicy + " needs a positive interval");
+        }
+        int key = nextSubscriptionKey++;
+        EventChannel channel = new EventChannel(binaryMessenger, ChannelName.MONITOR_CHARACTERISTIC + "/" + key);
+        Subscription subscription = new Subscription(transactionId, sharingKey, source, channel,
+                deliveryPolicy, deliveryIntervalMillis, valueLayout, responseFormat);
+        subscriptions.put(transactionId, subscription);
+        channel.setStreamHandler(subscription);
+        return key;
+    }
+
+    /**
+     * Ends the subscription opened with {@code transactionId}, if any, as cancelling its
+     * transaction would for an unshared monitor.
+     *
+     * @return whether there was such a subscription
+     */
+    public boolean closeSubscription(String transactionId) {
+        SharedMonitor stoppedMonitor;
+        Subscription subscription;
+        synchronized (this) {
+            subscription = subscriptions.remove(transactionId);
+            if (subscription == null) {
+                return false;
+            }
+            if (subscription.eventSink != null) {
+                subscription.eventSink.endOfStream();
+                subscription.eventSink = null;
+            }
+            subscription.cancelFlush();
+            stoppedMonitor = detach(subscription);
+        }
+        subscription.channel.setStreamHandler(null);
+        if (stoppedMonitor != null) {
+            stoppedMonitor.source.stop(stoppedMonitor.transactionId);
+        }
+        return true;
     }
 
-    synchronized public void onError(BleError error, String transactionId) {
-        if (eventSink != null) {
-            eventSink.error(String.valueOf(error.errorCode.code), error.reason, bleErrorJsonConverter.toJson(error, transactionId));
+    /**
+     * Ends every open subscription, for when the client running their monitors goes away.
+     */
+    public void closeSubscriptions() {
+        List<String> transactionIds;
+        synchronized (this) {
+            transactionIds = new ArrayList<>(subscriptions.keySet());
+        }
+        for (String transactionId : transactionIds) {
+            closeSubscription(transactionId);
+        }
+    }
+
+    /**
+     * Removes the subscription from its shared monitor.
+     *
+     * @return the monitor when it has no listeners left and needs to be stopped
+     */
+    private SharedMonitor detach(Subscription subscription) {
+        SharedMonitor monitor = subscription.monitor;
+        subscription.monitor = null;
+        if (monitor == null || !monitor.listeners.remove(subscription) || !monitor.listeners.isEmpty()) {
+            return null;
+        }
+        if (monitorsByKey.get(monitor.sharingKey) != monitor) {
+            return null;
+        }
+        monitorsByKey.remove(monitor.sharingKey);
+        monitorsByTransactionId.remove(monitor.transactionId);
+        return monitor;
+    }
+
+    public void onCharacteristicsUpdate(SingleCharacteristicResponse characteristic) {
+        MonitorEvent event = new MonitorEvent();
+        event.characteristic = characteristic;
+        event.transactionId = characteristic.getTransactionId();
+        synchronized (this) {
+            SharedMonitor monitor = event.transactionId != null ? monitorsByTransactionId.get(event.transactionId) : null;
+            if (monitor != null) {
+                if (!admit(monitor, event)) {
+                    return;
+                }
+                if (event.targets == null) {
+                    // Listeners joining before delivery get the next notification, in a format they asked for.
+                    event.targets = new ArrayList<>(monitor.listeners);
+                }
+                event.selectPayloads(event.targets);
+            }
+        }
+        enqueue(event);
+    }
+
+    /**
+     * Applies the delivery policies of the monitor's listeners, narrowing the event down to
+     * the listeners that take it now when some of them throttle.
+     *
+     * @return whether any listener takes the event now
+     */
+    private boolean admit(SharedMonitor monitor, MonitorEvent event) {
+        boolean throttled = false;
+        for (int i = 0; i < monitor.listeners.size(); i++) {
+            throttled |= monitor.listeners.get(i).isThrottled();
+        }
+        if (!throttled) {
+            return true;
+        }
+        List<Subscription> targets = new ArrayList<>(monitor.listeners.size());
+        for (int i = 0; i < monitor.listeners.size(); i++) {
+            Subscription listener = monitor.listeners.get(i);
+            if (listener.admit(event.characteristic)) {
+                targets.add(listener);
+            }
+        }
+        event.targets = targets;
+        return !targets.isEmpty();
+    }
+
+    public void onError(BleError error, String transactionId) {
+        MonitorEvent event = new MonitorEvent();
+        event.error = error;
+        event.transactionId = transactionId;
+        enqueue(event);
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Returns the events dropped because the serializer fell behind, and per open
+     * subscription its delivery policy and delivered and dropped notification counts.
+     */
+    synchronized public Map<String, Object> getStatistics() {
+        Map<String, Object> subscriptionStatistics = new HashMap<>();
+        for (Subscription subscription : subscriptions.values()) {
+            subscriptionStatistics.put(subscription.transactionId, subscription.getStatistics());
+        }
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put(Statistics.DROPPED_EVENTS, droppedEvents.get());
+        statistics.put(Statistics.SUBSCRIPTIONS, subscriptionStatistics);
+        return statistics;
+    }
+
+    /**
+     * Queues the event for the serializer, making room by dropping the oldest pending
+     * notification. An error ends its monitor, so it is never dropped: when only errors are
+     * pending, a notification is dropped itself and an error waits for the serializer.
+     */
+    private void enqueue(MonitorEvent event) {
+        startSerializer();
+        while (!pendingEvents.offer(event)) {
+            if (dropOldestNotification()) {
+                droppedEvents.incrementAndGet();
+            } else if (event.error == null) {
+                droppedEvents.incrementAndGet();
+                return;
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private boolean dropOldestNotification() {
+        Iterator<MonitorEvent> iterator = pendingEvents.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().error == null) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stops the serializer thread and drops the notifications not delivered yet. A later
+     * notification starts a new serializer.
+     */
+    public void shutdown() {
+        Thread stopped;
+        synchronized (this) {
+            stopped = serializer;
+            serializer = null;
+        }
+        if (stopped != null) {
+            stopped.interrupt();
+        }
+        pendingEvents.clear();
+        serializedEvents.clear();
+        mainThreadExecutor.removeCallbacks(deliverSerializedEvents);
+        deliveryScheduled.set(false);
+    }
+
+    private synchronized void startSerializer() {
+        if (serializer != null) {
+            return;
+        }
+        serializer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!Thread.currentThread().isInterrupted()) {
+                    MonitorEvent event;
+                    try {
+                        event = pendingEvents.take();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    serialize(event);
+                    serializedEvents.add(event);
+                    if (deliveryScheduled.compareAndSet(false, true)) {
+                        mainThreadExecutor.post(deliverSerializedEvents);
+                    }
+                }
+            }
+        }, "CharacteristicsMonitorSerializer");
+        serializer.setDaemon(true);
+        serializer.start();
+    }
+
+    private void serialize(MonitorEvent event) {
+        if (event.characteristic != null) {
+            if (event.needsDecoded) {
+                Characteristic characteristic = event.characteristic.getCharacteristic();
+                PayloadSchema schema = payloadSchemas.get(characteristic.getUuid());
+                if (schema != null) {
+                    event.decodedPayload = schema.decode(characteristic.getValue());
+                }
+            }
+            if (event.needsBinary) {
+                event.binaryPayload = characteristicResponseMapConverter.toMap(event.characteristic);
+            }
+            if (!event.needsJson) {
+                return;
+            }
+            try {
+                event.payload = characteristicResponseJsonConverter.toJson(event.characteristic);
+                return;
+            } catch (JSONException e) {
+                e.printStackTrace();
+                event.error = BleErrorFactory.fromThrowable(e);
+            }
+        }
+        event.payload = bleErrorJsonConverter.toJson(event.error, event.transactionId);
+    }
+
+    private void deliver(MonitorEvent event) {
+        SharedMonitor monitor = event.transactionId != null ? monitorsByTransactionId.get(event.transactionId) : null;
+        if (monitor == null) {
+            deliver(event, eventSink);
+            return;
+        }
+        List<Subscription> targets = event.targets != null ? event.targets : monitor.listeners;
+        for (int i = 0; i < targets.size(); i++) {
+            Subscription target = targets.get(i);
+            boolean delivered;
+            if (event.error != null || ResponseFormat.JSON.equals(target.responseFormat)) {
+                delivered = deliver(event, target.eventSink);
+            } else if (ResponseFormat.BINARY.equals(target.responseFormat)) {
+                delivered = deliverBinary(event, target.eventSink);
+            } else {
+                delivered = deliverDecoded(event, target.eventSink);
+            }
+            if (delivered) {
+                target.delivered++;
+            }
+        }
+        if (event.error != null) {
+            // The adapter monitor ends with its error, so the next listener has to start a new one.
+            monitorsByKey.remove(monitor.sharingKey);
+            monitorsByTransactionId.remove(monitor.transactionId);
+            end(monitor);
+        }
+    }
+
+    /**
+     * Closes the subscriptions listening to a monitor that ended. Their channels keep their
+     * handlers until Dart, which cancels on the error, cancels them.
+     */
+    private void end(SharedMonitor monitor) {
+        for (int i = 0; i < monitor.listeners.size(); i++) {
+            Subscription listener = monitor.listeners.get(i);
+            listener.cancelFlush();
+            listener.monitor = null;
+            subscriptions.remove(listener.transactionId, listener);
+        }
+        monitor.listeners.clear();
+    }
+
+    private boolean deliver(MonitorEvent event, @Nullable EventChannel.EventSink sink) {
+        if (sink == null) {
+            return false;
+        }
+        if (event.error == null) {
+            sink.success(event.payload);
+        } else {
+            sink.error(String.valueOf(event.error.errorCode.code), event.error.reason, event.payload);
+        }
+        return true;
+    }
+
+    private boolean deliverBinary(MonitorEvent event, @Nullable EventChannel.EventSink sink) {
+        if (sink == null) {
+            return false;
+        }
+        sink.success(event.binaryPayload);
+        return true;
+    }
+
+    private boolean deliverDecoded(MonitorEvent event, @Nullable EventChannel.EventSink sink) {
+        if (sink == null) {
+            return false;
+        }
+        if (event.decodedPayload == null) {
+            sink.error(String.valueOf(BleErrorCode.UnknownError.code),
+                    "No payload schema registered for " + event.characteristic.getCharacteristic().getUuid(), null);
+            return false;
         }
+        sink.success(event.decodedPayload);
+        return true;
     }
 }
@@ -1,19 +1,32 @@
 package id.flutter.background_service.event;
 
-import android.os.Handler;
-import android.os.Looper;
-
 import id.flutter.background_service.ble.ConnectionStateChange;
+import id.flutter.background_service.ble.MainThreadExecutor;
 import id.flutter.background_service.converter.BleErrorJsonConverter;
 import id.flutter.background_service.converter.ConnectionStateChangeJsonConverter;
 
 import org.json.JSONException;
 
+import java.util.ArrayDeque;
+
 import io.flutter.plugin.common.EventChannel;
 
 public class ConnectionStateStreamHandler implements EventChannel.StreamHandler {
     private EventChannel.EventSink eventSink;
     private ConnectionStateChangeJsonConverter connectionStateChangeJsonConverter = new ConnectionStateChangeJsonConverter();
+    private final MainThreadExecutor mainThreadExecutor = MainThreadExecutor.getInstance();
+    private final ArrayDeque<ConnectionStateChange> pendingStates = new ArrayDeque<>();
+
+    private final Runnable drainPendingStates = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (ConnectionStateStreamHandler.this) {
+                while (!pendingStates.isEmpty()) {
+                    emit(pendingStates.poll());
+                }
+            }
+        }
+    };
 
     @Override
     synchronized public void onListen(Object o, EventChannel.EventSink eventSink) {
@@ -23,31 +36,36 @@ public class ConnectionStateStreamHandler implements EventChannel.StreamHandler
     @Override
     synchronized public void onCancel(Object o) {
         eventSink = null;
+        pendingStates.clear();
     }
 
     synchronized public void onNewConnectionState(final ConnectionStateChange connectionState) {
-        if (eventSink != null) {
-            final ConnectionStateStreamHandler that = this;
-            new Handler(Looper.getMainLooper()).post(new Runnable() {
-                @Override
-                public void run() {
-                    synchronized (that) {
-                        // Check again for null - by the time we get into this async runnable our eventSink
-                        // may have been canceled
-                        if (eventSink != null) {
-                            try {
-                                eventSink.success(connectionStateChangeJsonConverter.toJson(connectionState));
-                            } catch (JSONException e) {
-                                eventSink.error("-1", e.getMessage(), e.getStackTrace());
-                            }
-                        }
-                    }
-                }
-            });
+        if (eventSink == null) {
+            return;
+        }
+        if (pendingStates.isEmpty() && mainThreadExecutor.isMainThread()) {
+            emit(connectionState);
+            return;
+        }
+        pendingStates.add(connectionState);
+        if (pendingStates.size() == 1) {
+            mainThreadExecutor.post(drainPendingStates);
         }
     }
 
     synchronized public void onComplete() {
         if (eventSink != null) eventSink.endOfStream();
     }
+
+    private void emit(ConnectionStateChange connectionState) {
+        // Check again for null - by the time a queued state is drained our eventSink
+        // may have been canceled
+        if (eventSink != null) {
+            try {
+                eventSink.success(connectionStateChangeJsonConverter.toJson(connectionState));
+            } catch (JSONException e) {
+                eventSink.error("-1", e.getMessage(), e.getStackTrace());
+            }
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package id.flutter.background_service.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugin.common.EventChannel;
+
+public class ProximityStreamHandler implements EventChannel.StreamHandler {
+
+    private interface Metadata {
+        String ID = "id";
+        String RSSI = "rssi";
+        String RAW_RSSI = "rawRssi";
+    }
+
+    private EventChannel.EventSink eventSink;
+
+    @Override
+    synchronized public void onListen(Object o, EventChannel.EventSink eventSink) {
+        this.eventSink = eventSink;
+    }
+
+    @Override
+    synchronized public void onCancel(Object o) {
+        eventSink = null;
+    }
+
+    synchronized public void onSmoothedRssi(String deviceId, double rssi, int rawRssi) {
+        if (eventSink != null) {
+            Map<String, Object> event = new HashMap<>();
+            event.put(Metadata.ID, deviceId);
+            event.put(Metadata.RSSI, rssi);
+            event.put(Metadata.RAW_RSSI, rawRssi);
+            eventSink.success(event);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package id.flutter.background_service.event;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugin.common.EventChannel;
+
+public class RegionStreamHandler implements EventChannel.StreamHandler {
+
+    private interface Metadata {
+        String REGION_ID = "regionId";
+        String ID = "id";
+        String TYPE = "type";
+        String RSSI = "rssi";
+        String TIMESTAMP = "timestamp";
+    }
+
+    private EventChannel.EventSink eventSink;
+    private final ArrayDeque<Map<String, Object>> pendingEvents = new ArrayDeque<>();
+    private int pendingCapacity = 0;
+
+    @Override
+    synchronized public void onListen(Object o, EventChannel.EventSink eventSink) {
+        this.eventSink = eventSink;
+        while (!pendingEvents.isEmpty()) {
+            eventSink.success(pendingEvents.poll());
+        }
+        pendingCapacity = 0;
+    }
+
+    @Override
+    synchronized public void onCancel(Object o) {
+        eventSink = null;
+    }
+
+    /**
+     * Keeps up to {@code capacity} events, dropping the oldest, until the next listener
+     * subscribes and receives them ahead of the live events.
+     */
+    synchronized public void bufferUntilListened(int capacity) {
+        pendingCapacity = capacity;
+    }
+
+    synchronized public void onRegionEvent(String regionId, String deviceId, String type, int rssi) {
+        if (eventSink == null && pendingCapacity == 0) {
+            return;
+        }
+        Map<String, Object> event = new HashMap<>();
+        event.put(Metadata.REGION_ID, regionId);
+        event.put(Metadata.ID, deviceId);
+        event.put(Metadata.TYPE, type);
+        event.put(Metadata.RSSI, rssi);
+        event.put(Metadata.TIMESTAMP, System.currentTimeMillis());
+        if (eventSink != null) {
+            eventSink.success(event);
+            return;
+        }
+        if (pendingEvents.size() == pendingCapacity) {
+            pendingEvents.poll();
+        }
+        pendingEvents.add(event);
+    }
+}
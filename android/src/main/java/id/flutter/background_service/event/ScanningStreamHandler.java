@@ -1,18 +1,65 @@
 package id.flutter.background_service.event;
 
+import android.os.SystemClock;
+
+import id.flutter.background_service.ble.MainThreadExecutor;
+import id.flutter.background_service.constant.ScanResultFormat;
 import id.flutter.background_service.converter.BleErrorJsonConverter;
+import id.flutter.background_service.converter.ScanResultBinaryConverter;
 import id.flutter.background_service.converter.ScanResultJsonConverter;
 import com.polidea.multiplatformbleadapter.ScanResult;
 import com.polidea.multiplatformbleadapter.errors.BleError;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
 import io.flutter.plugin.common.EventChannel;
 
 public class ScanningStreamHandler implements EventChannel.StreamHandler {
 
+    public static final int DEFAULT_BATCH_INTERVAL_MILLIS = 200;
+
+    private interface Statistics {
+        String FLUSHES = "flushes";
+        String SIZE_FLUSHES = "sizeFlushes";
+        String TIME_FLUSHES = "timeFlushes";
+        String RESULTS = "results";
+        String MAX_BATCH_SIZE = "maxBatchSize";
+        String MAX_BATCH_LATENCY_MILLIS = "maxBatchLatencyMillis";
+    }
+
     private EventChannel.EventSink scanResultsSink;
     private ScanResultJsonConverter scanResultJsonConverter = new ScanResultJsonConverter();
+    private ScanResultBinaryConverter scanResultBinaryConverter = new ScanResultBinaryConverter();
+    private boolean binaryScanResults = false;
     private BleErrorJsonConverter bleErrorJsonConverter = new BleErrorJsonConverter();
 
+    private final MainThreadExecutor mainThreadExecutor = MainThreadExecutor.getInstance();
+    private Object[] batch = null;
+    private int batchCount = 0;
+    private long batchIntervalMillis = DEFAULT_BATCH_INTERVAL_MILLIS;
+    private long batchStartedAt = 0;
+
+    private long flushes = 0;
+    private long sizeFlushes = 0;
+    private long timeFlushes = 0;
+    private long batchedResults = 0;
+    private int maxBatchSize = 0;
+    private long maxBatchLatencyMillis = 0;
+
+    private final Runnable timedFlush = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (ScanningStreamHandler.this) {
+                if (batchCount > 0) {
+                    timeFlushes++;
+                    flushBatch();
+                }
+            }
+        }
+    };
+
     @Override
     synchronized public void onListen(Object o, EventChannel.EventSink eventSink) {
         scanResultsSink = eventSink;
@@ -21,16 +68,66 @@ public class ScanningStreamHandler implements EventChannel.StreamHandler {
     @Override
     synchronized public void onCancel(Object o) {
         scanResultsSink = null;
+        clearBatch();
+    }
+
+    synchronized public void setScanResultFormat(String scanResultFormat) {
+        binaryScanResults = ScanResultFormat.BINARY.equals(scanResultFormat);
+    }
+
+    /**
+     * Enables batching for the next scan session when {@code batchSize} is greater than one.
+     * Results are then sent as a single list once {@code batchSize} of them are buffered or
+     * {@code batchIntervalMillis} passed since the first one, whichever comes first.
+     */
+    synchronized public void setBatching(Integer batchSize, Integer batchIntervalMillis) {
+        clearBatch();
+        flushes = 0;
+        sizeFlushes = 0;
+        timeFlushes = 0;
+        batchedResults = 0;
+        maxBatchSize = 0;
+        maxBatchLatencyMillis = 0;
+        batch = batchSize != null && batchSize > 1 ? new Object[batchSize] : null;
+        batchIntervalMillis = batchIntervalMillis != null && batchIntervalMillis > 0
+                ? batchIntervalMillis : DEFAULT_BATCH_INTERVAL_MILLIS;
+    }
+
+    synchronized public Map<String, Object> getBatchStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put(Statistics.FLUSHES, flushes);
+        statistics.put(Statistics.SIZE_FLUSHES, sizeFlushes);
+        statistics.put(Statistics.TIME_FLUSHES, timeFlushes);
+        statistics.put(Statistics.RESULTS, batchedResults);
+        statistics.put(Statistics.MAX_BATCH_SIZE, maxBatchSize);
+        statistics.put(Statistics.MAX_BATCH_LATENCY_MILLIS, maxBatchLatencyMillis);
+        return statistics;
     }
 
     synchronized public void onScanResult(ScanResult scanResult) {
         if (scanResultsSink != null) {
-            scanResultsSink.success(scanResultJsonConverter.toJson(scanResult));
+            Object payload = binaryScanResults
+                    ? scanResultBinaryConverter.toBytes(scanResult)
+                    : scanResultJsonConverter.toJson(scanResult);
+            if (batch == null) {
+                scanResultsSink.success(payload);
+                return;
+            }
+            if (batchCount == 0) {
+                batchStartedAt = SystemClock.elapsedRealtime();
+                mainThreadExecutor.postDelayed(timedFlush, batchIntervalMillis);
+            }
+            batch[batchCount++] = payload;
+            if (batchCount == batch.length) {
+                sizeFlushes++;
+                flushBatch();
+            }
         }
     }
 
     synchronized public void onError(BleError error) {
         if (scanResultsSink != null) {
+            flushBatch();
             scanResultsSink.error(
                     String.valueOf(error.errorCode.code),
                     error.reason,
@@ -41,7 +138,30 @@ public class ScanningStreamHandler implements EventChannel.StreamHandler {
 
     synchronized public void onComplete() {
         if (scanResultsSink != null) {
+            flushBatch();
             scanResultsSink.endOfStream();
         }
     }
+
+    private void flushBatch() {
+        mainThreadExecutor.removeCallbacks(timedFlush);
+        if (batchCount == 0 || scanResultsSink == null) {
+            return;
+        }
+        long latency = SystemClock.elapsedRealtime() - batchStartedAt;
+        flushes++;
+        batchedResults += batchCount;
+        maxBatchSize = Math.max(maxBatchSize, batchCount);
+        maxBatchLatencyMillis = Math.max(maxBatchLatencyMillis, latency);
+        scanResultsSink.success(Arrays.asList(Arrays.copyOf(batch, batchCount)));
+        clearBatch();
+    }
+
+    private void clearBatch() {
+        mainThreadExecutor.removeCallbacks(timedFlush);
+        if (batch != null) {
+            Arrays.fill(batch, 0, batchCount, null);
+        }
+        batchCount = 0;
+    }
 }
@@ -0,0 +1,80 @@
+package id.flutter.background_service.event;
+
+import id.flutter.background_service.converter.ValueLayout;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Reduces the values decoded from a characteristic's notifications to one min/max/mean
+ * summary per window. Only primitive running totals are kept between windows, so the
+ * notifications themselves are never retained or serialized.
+ */
+class WindowAggregator {
+
+    private interface Summary {
+        String COUNT = "count";
+        String MIN = "min";
+        String MAX = "max";
+        String MEAN = "mean";
+        String START = "start";
+        String END = "end";
+    }
+
+    private final ValueLayout layout;
+    private int count;
+    private double sum;
+    private double min;
+    private double max;
+    private long windowStartedAt = System.currentTimeMillis();
+
+    WindowAggregator(ValueLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * @return false when the value is too short for the layout and was skipped
+     */
+    boolean add(@Nullable byte[] value) {
+        if (!layout.fits(value)) {
+            return false;
+        }
+        double sample = layout.read(value);
+        if (count == 0) {
+            min = sample;
+            max = sample;
+        } else {
+            min = Math.min(min, sample);
+            max = Math.max(max, sample);
+        }
+        sum += sample;
+        count++;
+        return true;
+    }
+
+    /**
+     * Closes the current window and starts the next one.
+     *
+     * @return the summary of the closed window, or null when it had no samples
+     */
+    @Nullable
+    Map<String, Object> closeWindow() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> summary = null;
+        if (count > 0) {
+            summary = new HashMap<>();
+            summary.put(Summary.COUNT, count);
+            summary.put(Summary.MIN, min);
+            summary.put(Summary.MAX, max);
+            summary.put(Summary.MEAN, sum / count);
+            summary.put(Summary.START, windowStartedAt);
+            summary.put(Summary.END, now);
+        }
+        count = 0;
+        sum = 0;
+        windowStartedAt = now;
+        return summary;
+    }
+}
@@ -0,0 +1,57 @@
+package id.flutter.background_service.gatt;
+
+import com.polidea.multiplatformbleadapter.utils.UUIDConverter;
+
+import java.util.UUID;
+
+/**
+ * String keys naming a readable attribute the way a call addresses it. Attributes addressed
+ * by device and UUIDs get a canonical key; attributes addressed by an adapter identifier get
+ * a key of that identifier, which only resolves to the canonical key once the attribute's
+ * UUIDs are known.
+ */
+public final class AttributeKeys {
+
+    private AttributeKeys() {
+    }
+
+    public static String characteristic(Integer characteristicId) {
+        return "characteristic#" + characteristicId;
+    }
+
+    public static String characteristic(String deviceId, String serviceUuid, String characteristicUuid) {
+        return "characteristic/" + deviceId + "/" + uuid(serviceUuid) + "/" + uuid(characteristicUuid);
+    }
+
+    public static String characteristic(Integer serviceId, String characteristicUuid) {
+        return "characteristic/service#" + serviceId + "/" + uuid(characteristicUuid);
+    }
+
+    public static String descriptor(Integer descriptorId) {
+        return "descriptor#" + descriptorId;
+    }
+
+    public static String descriptor(Integer characteristicId, String descriptorUuid) {
+        return "descriptor/characteristic#" + characteristicId + "/" + uuid(descriptorUuid);
+    }
+
+    public static String descriptor(Integer serviceId, String characteristicUuid, String descriptorUuid) {
+        return "descriptor/service#" + serviceId + "/" + uuid(characteristicUuid) + "/" + uuid(descriptorUuid);
+    }
+
+    public static String descriptor(String deviceId, String serviceUuid, String characteristicUuid, String descriptorUuid) {
+        return "descriptor/" + deviceId + "/" + uuid(serviceUuid) + "/" + uuid(characteristicUuid) + "/" + uuid(descriptorUuid);
+    }
+
+    public static String rssi(String deviceId) {
+        return "rssi/" + deviceId;
+    }
+
+    /**
+     * Canonical form of a UUID so that short and long forms of the same UUID share a key.
+     */
+    public static String uuid(String uuid) {
+        UUID parsed = uuid != null ? UUIDConverter.convert(uuid) : null;
+        return parsed != null ? parsed.toString() : String.valueOf(uuid);
+    }
+}
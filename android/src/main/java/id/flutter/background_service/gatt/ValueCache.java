@@ -0,0 +1,354 @@
+package id.flutter.background_service.gatt;
+
+import android.os.SystemClock;
+
+import com.polidea.multiplatformbleadapter.Characteristic;
+import com.polidea.multiplatformbleadapter.Descriptor;
+import com.polidea.multiplatformbleadapter.utils.UUIDConverter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Opt-in cache of characteristic and descriptor values read from devices. Only attributes
+ * whose UUID has a policy are cached, each for the policy's time to live or, without one,
+ * until invalidated. Values are kept under the canonical key of their device and UUIDs and
+ * evicted in least recently used order once their size exceeds the byte budget. While a value
+ * is cached, the keys of its adapter identifiers resolve to its canonical key.
+ *
+ * Writes and notifications of an attribute invalidate its value, and a device disconnecting or
+ * being rediscovered invalidates all of its values. Every invalidation advances
+ * a generation, and a value read before the last invalidation is not cached, so a read racing
+ * a write cannot cache the value from before the write.
+ */
+public class ValueCache {
+
+    /**
+     * Bytes accounted per entry on top of its value.
+     */
+    public static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    public interface Key {
+        String UUID = "uuid";
+        String TIME_TO_LIVE_MILLIS = "timeToLive";
+    }
+
+    private interface Statistics {
+        String HITS = "hits";
+        String MISSES = "misses";
+        String EXPIRED = "expired";
+        String EVICTED = "evicted";
+        String INVALIDATED = "invalidated";
+        String ENTRIES = "entries";
+        String BYTES = "bytes";
+        String BYTE_BUDGET = "byteBudget";
+    }
+
+    private static class Entry {
+        final Object value;
+        final int size;
+        final long expiresAt;
+        final String[] aliases;
+
+        Entry(Object value, int size, long expiresAt, String[] aliases) {
+            this.value = value;
+            this.size = size;
+            this.expiresAt = expiresAt;
+            this.aliases = aliases;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> aliases = new HashMap<>();
+    private final Map<UUID, Long> timeToLiveMillis = new HashMap<>();
+    private long byteBudget = 0;
+    private long bytes = 0;
+    private long generation = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long expired = 0;
+    private long evicted = 0;
+    private long invalidated = 0;
+
+    /**
+     * Replaces the policies and the byte budget, dropping every cached value. A budget of zero
+     * or no policies disable the cache. A policy without a positive time to live keeps values
+     * until they are invalidated or evicted.
+     *
+     * @throws IllegalArgumentException when a policy contains a malformed UUID
+     */
+    synchronized public void configure(long byteBudget, @Nullable List<Map<String, Object>> policies) {
+        Map<UUID, Long> parsed = new HashMap<>();
+        if (policies != null) {
+            for (Map<String, Object> policy : policies) {
+                String uuid = (String) policy.get(Key.UUID);
+                UUID key = uuid != null ? UUIDConverter.convert(uuid) : null;
+                if (key == null) {
+                    throw new IllegalArgumentException("Invalid UUID in value cache policy: " + uuid);
+                }
+                Number timeToLive = (Number) policy.get(Key.TIME_TO_LIVE_MILLIS);
+                parsed.put(key, timeToLive != null && timeToLive.longValue() > 0 ? timeToLive.longValue() : Long.MAX_VALUE);
+            }
+        }
+        clear();
+        timeToLiveMillis.clear();
+        this.byteBudget = Math.max(0, byteBudget);
+        if (this.byteBudget > 0) {
+            timeToLiveMillis.putAll(parsed);
+        }
+        hits = 0;
+        misses = 0;
+        expired = 0;
+        evicted = 0;
+        invalidated = 0;
+    }
+
+    synchronized public void clear() {
+        entries.clear();
+        aliases.clear();
+        bytes = 0;
+        generation++;
+    }
+
+    /**
+     * Forgets which identifiers name which attributes, for when the adapter that assigned
+     * them is replaced. Cached values stay.
+     */
+    synchronized public void forgetIdentifiers() {
+        aliases.clear();
+    }
+
+    synchronized public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Whether a fresh value is cached under {@code key}. Does not count as a hit or miss.
+     */
+    synchronized public boolean contains(@Nullable String key) {
+        return key != null && fresh(key) != null;
+    }
+
+    /**
+     * Fresh value cached under {@code key}, or null.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    synchronized public <T> T get(String key) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        Entry entry = fresh(key);
+        if (entry == null) {
+            return null;
+        }
+        hits++;
+        return (T) entry.value;
+    }
+
+    /**
+     * Caches a value read from a device when a policy covers it and nothing was invalidated
+     * since {@code readGeneration}. Values of other types are ignored. A covered value counts
+     * as a miss for each of the {@code readers} it was read for, as none of them found it
+     * cached.
+     */
+    synchronized public void put(Object value, long readGeneration, int readers) {
+        UUID uuid;
+        byte[] data;
+        String key;
+        String[] identifierKeys;
+        if (value instanceof Characteristic) {
+            Characteristic characteristic = (Characteristic) value;
+            uuid = characteristic.getUuid();
+            if (!timeToLiveMillis.containsKey(uuid)) {
+                return;
+            }
+            data = characteristic.getValue();
+            key = keyOf(characteristic);
+            identifierKeys = identifierKeysOf(characteristic);
+        } else if (value instanceof Descriptor) {
+            Descriptor descriptor = (Descriptor) value;
+            uuid = descriptor.getUuid();
+            if (!timeToLiveMillis.containsKey(uuid)) {
+                return;
+            }
+            data = descriptor.getValue();
+            key = keyOf(descriptor);
+            identifierKeys = identifierKeysOf(descriptor);
+        } else {
+            return;
+        }
+        misses += readers;
+        int size = ENTRY_OVERHEAD_BYTES + (data != null ? data.length : 0);
+        if (readGeneration != generation || size > byteBudget) {
+            return;
+        }
+        long timeToLive = timeToLiveMillis.get(uuid);
+        long now = now();
+        long expiresAt = timeToLive > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + timeToLive;
+        Entry previous = entries.put(key, new Entry(value, size, expiresAt, identifierKeys));
+        if (previous != null) {
+            dropped(key, previous);
+        }
+        for (String identifierKey : identifierKeys) {
+            aliases.put(identifierKey, key);
+        }
+        bytes += size;
+        for (Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator(); bytes > byteBudget && iterator.hasNext(); ) {
+            Map.Entry<String, Entry> evictedEntry = iterator.next();
+            iterator.remove();
+            dropped(evictedEntry.getKey(), evictedEntry.getValue());
+            evicted++;
+        }
+    }
+
+    /**
+     * Drops the value cached under {@code key} before a write. Identifier keys not yet
+     * resolved drop nothing but still keep pending reads from being cached.
+     */
+    synchronized public void invalidate(@Nullable String key) {
+        if (timeToLiveMillis.isEmpty() || key == null) {
+            return;
+        }
+        generation++;
+        remove(resolve(key));
+    }
+
+    synchronized public void invalidate(Characteristic characteristic) {
+        if (timeToLiveMillis.containsKey(characteristic.getUuid())) {
+            generation++;
+            remove(keyOf(characteristic));
+        }
+    }
+
+    synchronized public void invalidate(Descriptor descriptor) {
+        if (timeToLiveMillis.containsKey(descriptor.getUuid())) {
+            generation++;
+            remove(keyOf(descriptor));
+        }
+    }
+
+    /**
+     * Drops the values cached for the device and the identifiers naming its attributes, for
+     * when it disconnects or is rediscovered and the adapter names its attributes anew.
+     */
+    synchronized public void invalidateDevice(@Nullable String deviceId) {
+        if (timeToLiveMillis.isEmpty() || deviceId == null) {
+            return;
+        }
+        generation++;
+        for (Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (deviceId.equals(deviceIdOf(entry.getValue().value))) {
+                iterator.remove();
+                dropped(entry.getKey(), entry.getValue());
+                invalidated++;
+            }
+        }
+    }
+
+    synchronized public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put(Statistics.HITS, hits);
+        statistics.put(Statistics.MISSES, misses);
+        statistics.put(Statistics.EXPIRED, expired);
+        statistics.put(Statistics.EVICTED, evicted);
+        statistics.put(Statistics.INVALIDATED, invalidated);
+        statistics.put(Statistics.ENTRIES, entries.size());
+        statistics.put(Statistics.BYTES, bytes);
+        statistics.put(Statistics.BYTE_BUDGET, byteBudget);
+        return statistics;
+    }
+
+    @Nullable
+    private Entry fresh(String key) {
+        String resolved = resolve(key);
+        Entry entry = entries.get(resolved);
+        if (entry == null) {
+            return null;
+        }
+        if (now() >= entry.expiresAt) {
+            entries.remove(resolved);
+            dropped(resolved, entry);
+            expired++;
+            return null;
+        }
+        return entry;
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            dropped(key, entry);
+            invalidated++;
+        }
+    }
+
+    /**
+     * Accounts for an entry no longer cached under {@code key} and forgets its identifiers,
+     * unless they name another attribute by now.
+     */
+    private void dropped(String key, Entry entry) {
+        bytes -= entry.size;
+        for (String identifierKey : entry.aliases) {
+            if (key.equals(aliases.get(identifierKey))) {
+                aliases.remove(identifierKey);
+            }
+        }
+    }
+
+    long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    synchronized int getIdentifierCount() {
+        return aliases.size();
+    }
+
+    private String resolve(String key) {
+        String canonical = aliases.get(key);
+        return canonical != null ? canonical : key;
+    }
+
+    @Nullable
+    private static String deviceIdOf(Object value) {
+        if (value instanceof Characteristic) {
+            return ((Characteristic) value).getDeviceId();
+        }
+        return value instanceof Descriptor ? ((Descriptor) value).getDeviceId() : null;
+    }
+
+    private static String keyOf(Characteristic characteristic) {
+        return AttributeKeys.characteristic(characteristic.getDeviceId(),
+                characteristic.getServiceUUID().toString(), characteristic.getUuid().toString());
+    }
+
+    private static String[] identifierKeysOf(Characteristic characteristic) {
+        return new String[]{
+                AttributeKeys.characteristic(characteristic.getId()),
+                AttributeKeys.characteristic(characteristic.getServiceID(), characteristic.getUuid().toString())
+        };
+    }
+
+    private static String keyOf(Descriptor descriptor) {
+        return AttributeKeys.descriptor(descriptor.getDeviceId(), descriptor.getServiceUuid().toString(),
+                descriptor.getCharacteristicUuid().toString(), descriptor.getUuid().toString());
+    }
+
+    private static String[] identifierKeysOf(Descriptor descriptor) {
+        String characteristicUuid = descriptor.getCharacteristicUuid().toString();
+        String descriptorUuid = descriptor.getUuid().toString();
+        return new String[]{
+                AttributeKeys.descriptor(descriptor.getId()),
+                AttributeKeys.descriptor(descriptor.getCharacteristicId(), descriptorUuid),
+                AttributeKeys.descriptor(descriptor.getServiceId(), characteristicUuid, descriptorUuid)
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package id.flutter.background_service.scan;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Allocation-free parsing of Android "AA:BB:CC:DD:EE:FF" device identifiers.
+ */
+public final class MacAddress {
+
+    public static final int LENGTH = 6;
+    public static final long INVALID = -1;
+
+    private static final int TEXT_LENGTH = 17;
+
+    private MacAddress() {
+    }
+
+    /**
+     * Writes the six address bytes into {@code out}, returning false when the identifier is not a MAC address.
+     */
+    public static boolean parse(@Nullable String address, byte[] out) {
+        long value = toLong(address);
+        if (value == INVALID) {
+            return false;
+        }
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            out[i] = (byte) value;
+            value >>>= 8;
+        }
+        return true;
+    }
+
+    /**
+     * Packs the address into the low 48 bits of a long, or returns {@link #INVALID}.
+     */
+    public static long toLong(@Nullable String address) {
+        if (address == null || address.length() != TEXT_LENGTH) {
+            return INVALID;
+        }
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int offset = i * 3;
+            if (i > 0 && address.charAt(offset - 1) != ':') {
+                return INVALID;
+            }
+            int high = Character.digit(address.charAt(offset), 16);
+            int low = Character.digit(address.charAt(offset + 1), 16);
+            if (high < 0 || low < 0) {
+                return INVALID;
+            }
+            value = (value << 8) | (high << 4) | low;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,320 @@
+package id.flutter.background_service.scan;
+
+import android.os.SystemClock;
+
+import id.flutter.background_service.ble.MainThreadExecutor;
+import id.flutter.background_service.constant.RegionEventType;
+import com.polidea.multiplatformbleadapter.ScanResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.Nullable;
+import androidx.collection.LongSparseArray;
+
+/**
+ * Tracks which devices are inside which proximity region and reports only the transitions.
+ * A device enters a region once its RSSI stayed at or above {@code enterRssi} for
+ * {@code enterDwell} milliseconds and exits once it stayed below {@code exitRssi} for
+ * {@code exitDwell} milliseconds or was not seen for {@code exitTimeout} milliseconds.
+ * Keeping {@code exitRssi} below {@code enterRssi} gives the hysteresis that stops a device
+ * on the edge of a region from flapping. A DWELL event is sent once per visit after the
+ * device stayed inside for {@code dwellTime} milliseconds.
+ *
+ * Timeouts and dwell times are checked by a sweep that runs every second between
+ * {@link #start} and {@link #stop}, while a scan feeds the monitor. Events are reported to
+ * the listener outside the monitor's lock.
+ */
+public class RegionMonitor {
+
+    public static final int DEFAULT_ENTER_RSSI = -70;
+    public static final int DEFAULT_EXIT_HYSTERESIS = 5;
+    public static final long DEFAULT_EXIT_TIMEOUT_MILLIS = 5000;
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+    private static final long UNSET = -1;
+
+    public interface Key {
+        String ID = "id";
+        String ENTER_RSSI = "enterRssi";
+        String EXIT_RSSI = "exitRssi";
+        String ENTER_DWELL_MILLIS = "enterDwell";
+        String EXIT_DWELL_MILLIS = "exitDwell";
+        String DWELL_TIME_MILLIS = "dwellTime";
+        String EXIT_TIMEOUT_MILLIS = "exitTimeout";
+    }
+
+    public interface Listener {
+        void onRegionEvent(String regionId, String deviceId, String type, int rssi);
+    }
+
+    private static class Region {
+        String id;
+        ScanFilterMatcher matcher;
+        int enterRssi;
+        int exitRssi;
+        long enterDwellMillis;
+        long exitDwellMillis;
+        long dwellTimeMillis;
+        long exitTimeoutMillis;
+        final LongSparseArray<Presence> presences = new LongSparseArray<>();
+    }
+
+    private static class Event {
+        final String regionId;
+        final String deviceId;
+        final String type;
+        final int rssi;
+
+        Event(String regionId, String deviceId, String type, int rssi) {
+            this.regionId = regionId;
+            this.deviceId = deviceId;
+            this.type = type;
+            this.rssi = rssi;
+        }
+    }
+
+    private static class Presence {
+        String deviceId;
+        int rssi;
+        boolean inside;
+        boolean dwellReported;
+        long lastSeenAt;
+        long enteredAt;
+        long aboveSince = UNSET;
+        long belowSince = UNSET;
+    }
+
+    private final Listener listener;
+    private final MainThreadExecutor mainThreadExecutor = MainThreadExecutor.getInstance();
+    private List<Region> regions = Collections.emptyList();
+    private boolean started;
+
+    private final Runnable sweeper = new Runnable() {
+        @Override
+        public void run() {
+            sweep();
+        }
+    };
+
+    public RegionMonitor(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Replaces the monitored regions. Each region is a scan filter spec extended with the
+     * {@link Key} thresholds; a null or empty list stops monitoring. Devices inside a removed
+     * region are dropped without an EXIT event.
+     *
+     * @throws IllegalArgumentException when a region has no id or a malformed UUID
+     */
+    synchronized public void setRegions(@Nullable List<Map<String, Object>> spec) {
+        List<Region> compiled = new ArrayList<>(spec != null ? spec.size() : 0);
+        if (spec != null) {
+            for (Map<String, Object> entry : spec) {
+                compiled.add(compile(entry));
+            }
+        }
+        regions = compiled;
+        scheduleSweep();
+    }
+
+    /**
+     * @throws IllegalArgumentException when a region has no id or a malformed UUID
+     */
+    public static void validate(@Nullable List<Map<String, Object>> spec) {
+        if (spec != null) {
+            for (Map<String, Object> entry : spec) {
+                compile(entry);
+            }
+        }
+    }
+
+    synchronized public boolean isEnabled() {
+        return !regions.isEmpty();
+    }
+
+    /**
+     * Starts sweeping for timeouts and dwell times, for when a scan starts feeding the monitor.
+     */
+    synchronized public void start() {
+        started = true;
+        scheduleSweep();
+    }
+
+    /**
+     * Stops the sweep and forgets every tracked device, for when scanning stops and absence
+     * can no longer be told apart from a paused scan. Regions stay registered.
+     */
+    synchronized public void stop() {
+        started = false;
+        mainThreadExecutor.removeCallbacks(sweeper);
+        for (int i = 0; i < regions.size(); i++) {
+            regions.get(i).presences.clear();
+        }
+    }
+
+    public void onScanResult(ScanResult scanResult) {
+        List<Event> events;
+        synchronized (this) {
+            events = evaluate(scanResult);
+        }
+        dispatch(events);
+    }
+
+    /**
+     * Exits the devices not seen for their region's timeout and reports dwell times, then
+     * schedules the next sweep while the monitor is started.
+     */
+    void sweep() {
+        List<Event> events = null;
+        synchronized (this) {
+            if (started && !regions.isEmpty()) {
+                events = sweep(now());
+                mainThreadExecutor.postDelayed(sweeper, SWEEP_INTERVAL_MILLIS);
+            }
+        }
+        dispatch(events);
+    }
+
+    long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    private void scheduleSweep() {
+        mainThreadExecutor.removeCallbacks(sweeper);
+        if (started && !regions.isEmpty()) {
+            mainThreadExecutor.postDelayed(sweeper, SWEEP_INTERVAL_MILLIS);
+        }
+    }
+
+    private void dispatch(@Nullable List<Event> events) {
+        if (events == null) {
+            return;
+        }
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            listener.onRegionEvent(event.regionId, event.deviceId, event.type, event.rssi);
+        }
+    }
+
+    @Nullable
+    private List<Event> evaluate(ScanResult scanResult) {
+        if (regions.isEmpty()) {
+            return null;
+        }
+        String deviceId = scanResult.getDeviceId();
+        long key = MacAddress.toLong(deviceId);
+        if (key == MacAddress.INVALID) {
+            return null;
+        }
+        List<Event> events = null;
+        long now = now();
+        int rssi = scanResult.getRssi();
+        for (int i = 0; i < regions.size(); i++) {
+            Region region = regions.get(i);
+            if (!region.matcher.matches(scanResult)) {
+                continue;
+            }
+            Presence presence = region.presences.get(key);
+            if (presence == null) {
+                presence = new Presence();
+                presence.deviceId = deviceId;
+                region.presences.put(key, presence);
+            }
+            presence.rssi = rssi;
+            presence.lastSeenAt = now;
+            if (!presence.inside) {
+                if (rssi < region.enterRssi) {
+                    presence.aboveSince = UNSET;
+                    continue;
+                }
+                if (presence.aboveSince == UNSET) {
+                    presence.aboveSince = now;
+                }
+                if (now - presence.aboveSince >= region.enterDwellMillis) {
+                    presence.inside = true;
+                    presence.dwellReported = false;
+                    presence.enteredAt = now;
+                    presence.belowSince = UNSET;
+                    events = add(events, region.id, deviceId, RegionEventType.ENTER, rssi);
+                }
+            } else {
+                if (rssi >= region.exitRssi) {
+                    presence.belowSince = UNSET;
+                } else {
+                    if (presence.belowSince == UNSET) {
+                        presence.belowSince = now;
+                    }
+                    if (now - presence.belowSince >= region.exitDwellMillis) {
+                        region.presences.remove(key);
+                        events = add(events, region.id, deviceId, RegionEventType.EXIT, rssi);
+                        continue;
+                    }
+                }
+            }
+            events = reportDwell(events, region, presence, now);
+        }
+        return events;
+    }
+
+    @Nullable
+    private List<Event> sweep(long now) {
+        List<Event> events = null;
+        for (int i = 0; i < regions.size(); i++) {
+            Region region = regions.get(i);
+            for (int j = region.presences.size() - 1; j >= 0; j--) {
+                Presence presence = region.presences.valueAt(j);
+                if (now - presence.lastSeenAt >= region.exitTimeoutMillis) {
+                    region.presences.removeAt(j);
+                    if (presence.inside) {
+                        events = add(events, region.id, presence.deviceId, RegionEventType.EXIT, presence.rssi);
+                    }
+                } else {
+                    events = reportDwell(events, region, presence, now);
+                }
+            }
+        }
+        return events;
+    }
+
+    @Nullable
+    private List<Event> reportDwell(@Nullable List<Event> events, Region region, Presence presence, long now) {
+        if (presence.inside && !presence.dwellReported && region.dwellTimeMillis > 0
+                && now - presence.enteredAt >= region.dwellTimeMillis) {
+            presence.dwellReported = true;
+            events = add(events, region.id, presence.deviceId, RegionEventType.DWELL, presence.rssi);
+        }
+        return events;
+    }
+
+    private static List<Event> add(@Nullable List<Event> events, String regionId, String deviceId, String type, int rssi) {
+        if (events == null) {
+            events = new ArrayList<>(1);
+        }
+        events.add(new Event(regionId, deviceId, type, rssi));
+        return events;
+    }
+
+    private static Region compile(Map<String, Object> entry) {
+        Region region = new Region();
+        region.id = (String) entry.get(Key.ID);
+        if (region.id == null) {
+            throw new IllegalArgumentException("Proximity region without an id");
+        }
+        region.matcher = ScanFilterMatcher.compile(Collections.singletonList(entry));
+        region.enterRssi = intValue(entry.get(Key.ENTER_RSSI), DEFAULT_ENTER_RSSI);
+        region.exitRssi = Math.min(region.enterRssi,
+                intValue(entry.get(Key.EXIT_RSSI), region.enterRssi - DEFAULT_EXIT_HYSTERESIS));
+        region.enterDwellMillis = intValue(entry.get(Key.ENTER_DWELL_MILLIS), 0);
+        region.exitDwellMillis = intValue(entry.get(Key.EXIT_DWELL_MILLIS), 0);
+        region.dwellTimeMillis = intValue(entry.get(Key.DWELL_TIME_MILLIS), 0);
+        region.exitTimeoutMillis = intValue(entry.get(Key.EXIT_TIMEOUT_MILLIS), (int) DEFAULT_EXIT_TIMEOUT_MILLIS);
+        return region;
+    }
+
+    private static int intValue(@Nullable Object value, int defaultValue) {
+        return value != null ? ((Number) value).intValue() : defaultValue;
+    }
+}
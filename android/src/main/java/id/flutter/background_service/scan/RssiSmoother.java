@@ -0,0 +1,107 @@
+package id.flutter.background_service.scan;
+
+import android.os.SystemClock;
+
+import id.flutter.background_service.constant.RssiFilterType;
+
+import androidx.annotation.Nullable;
+import androidx.collection.LongSparseArray;
+
+/**
+ * Keeps a smoothed RSSI estimate per device, keyed by the 48-bit MAC address, using either an
+ * exponential moving average or a one-dimensional Kalman filter. Estimates are reported to the
+ * listener at most once per {@link #minEmitIntervalMillis} for each device.
+ */
+public class RssiSmoother {
+
+    public static final double DEFAULT_EMA_ALPHA = 0.3;
+    public static final double DEFAULT_PROCESS_NOISE = 0.008;
+    public static final double DEFAULT_MEASUREMENT_NOISE = 4.0;
+    public static final double DEFAULT_MAX_RATE_HZ = 2.0;
+
+    public interface Listener {
+        void onSmoothedRssi(String deviceId, double rssi, int rawRssi);
+    }
+
+    private static class DeviceState {
+        double estimate;
+        double errorCovariance;
+        long emittedAt;
+    }
+
+    private final LongSparseArray<DeviceState> states = new LongSparseArray<>();
+    private final Listener listener;
+    private String filterType = RssiFilterType.NONE;
+    private double emaAlpha = DEFAULT_EMA_ALPHA;
+    private double processNoise = DEFAULT_PROCESS_NOISE;
+    private double measurementNoise = DEFAULT_MEASUREMENT_NOISE;
+    private long minEmitIntervalMillis = rateToInterval(DEFAULT_MAX_RATE_HZ);
+
+    public RssiSmoother(Listener listener) {
+        this.listener = listener;
+    }
+
+    synchronized public void configure(@Nullable String filterType,
+                                       @Nullable Double emaAlpha,
+                                       @Nullable Double processNoise,
+                                       @Nullable Double measurementNoise,
+                                       @Nullable Double maxRateHz) {
+        states.clear();
+        this.filterType = filterType != null ? filterType : RssiFilterType.NONE;
+        this.emaAlpha = emaAlpha != null ? emaAlpha : DEFAULT_EMA_ALPHA;
+        this.processNoise = processNoise != null ? processNoise : DEFAULT_PROCESS_NOISE;
+        this.measurementNoise = measurementNoise != null ? measurementNoise : DEFAULT_MEASUREMENT_NOISE;
+        this.minEmitIntervalMillis = rateToInterval(maxRateHz != null ? maxRateHz : DEFAULT_MAX_RATE_HZ);
+    }
+
+    synchronized public boolean isEnabled() {
+        return !RssiFilterType.NONE.equals(filterType);
+    }
+
+    public void onSample(String deviceId, int rssi) {
+        double estimate;
+        synchronized (this) {
+            if (!isEnabled()) {
+                return;
+            }
+            long key = MacAddress.toLong(deviceId);
+            if (key == MacAddress.INVALID) {
+                return;
+            }
+            long now = now();
+            DeviceState state = states.get(key);
+            if (state == null) {
+                state = new DeviceState();
+                state.estimate = rssi;
+                state.errorCovariance = measurementNoise;
+                state.emittedAt = Long.MIN_VALUE / 2;
+                states.put(key, state);
+            } else if (RssiFilterType.KALMAN.equals(filterType)) {
+                double priorCovariance = state.errorCovariance + processNoise;
+                double gain = priorCovariance / (priorCovariance + measurementNoise);
+                state.estimate += gain * (rssi - state.estimate);
+                state.errorCovariance = (1 - gain) * priorCovariance;
+            } else {
+                state.estimate += emaAlpha * (rssi - state.estimate);
+            }
+            if (now - state.emittedAt < minEmitIntervalMillis) {
+                return;
+            }
+            state.emittedAt = now;
+            estimate = state.estimate;
+        }
+        listener.onSmoothedRssi(deviceId, estimate, rssi);
+    }
+
+    synchronized public void reset() {
+        states.clear();
+    }
+
+    long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    private static long rateToInterval(double maxRateHz) {
+        return maxRateHz > 0 ? (long) (1000 / maxRateHz) : 0;
+    }
+}
@@ -0,0 +1,214 @@
+package id.flutter.background_service.scan;
+
+import com.polidea.multiplatformbleadapter.AdvertisementData;
+import com.polidea.multiplatformbleadapter.ScanResult;
+import com.polidea.multiplatformbleadapter.utils.UUIDConverter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Matches scan results against a declarative filter spec before they are serialized.
+ * A result passes when it matches any of the filters; every field set on a filter has to
+ * match. Filters with a manufacturer id, an advertised service UUID or a service data UUID
+ * are indexed by that key so a result is only checked against the filters it can possibly
+ * match.
+ */
+public class ScanFilterMatcher {
+
+    public static final ScanFilterMatcher MATCH_ALL = new ScanFilterMatcher(Collections.<Filter>emptyList());
+
+    public interface Key {
+        String MANUFACTURER_ID = "manufacturerId";
+        String MANUFACTURER_DATA_PREFIX = "manufacturerDataPrefix";
+        String NAME_PREFIX = "namePrefix";
+        String SERVICE_UUID = "serviceUuid";
+        String MIN_RSSI = "minRssi";
+        String SERVICE_DATA_UUID = "serviceDataUuid";
+        String SERVICE_DATA_PREFIX = "serviceDataPrefix";
+    }
+
+    private static class Filter {
+        Integer manufacturerId;
+        byte[] manufacturerDataPrefix;
+        String namePrefix;
+        UUID serviceUuid;
+        Integer minRssi;
+        UUID serviceDataUuid;
+        byte[] serviceDataPrefix;
+
+        boolean matches(ScanResult scanResult, @Nullable AdvertisementData advertisementData) {
+            if (minRssi != null && scanResult.getRssi() < minRssi) {
+                return false;
+            }
+            if (namePrefix != null && !startsWith(scanResult.getDeviceName(), namePrefix)
+                    && (advertisementData == null || !startsWith(advertisementData.getLocalName(), namePrefix))) {
+                return false;
+            }
+            if (serviceUuid != null) {
+                List<UUID> serviceUuids = advertisementData != null ? advertisementData.getServiceUUIDs() : null;
+                if (serviceUuids == null || !serviceUuids.contains(serviceUuid)) {
+                    return false;
+                }
+            }
+            if (manufacturerId != null || manufacturerDataPrefix != null) {
+                byte[] manufacturerData = advertisementData != null ? advertisementData.getManufacturerData() : null;
+                if (manufacturerId != null && manufacturerId != manufacturerId(manufacturerData)) {
+                    return false;
+                }
+                if (manufacturerDataPrefix != null && !startsWith(manufacturerData, manufacturerDataPrefix)) {
+                    return false;
+                }
+            }
+            if (serviceDataUuid != null) {
+                Map<UUID, byte[]> serviceData = advertisementData != null ? advertisementData.getServiceData() : null;
+                byte[] data = serviceData != null ? serviceData.get(serviceDataUuid) : null;
+                if (data == null || (serviceDataPrefix != null && !startsWith(data, serviceDataPrefix))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final boolean matchAll;
+    private final Map<Integer, List<Filter>> byManufacturerId = new HashMap<>();
+    private final Map<UUID, List<Filter>> byServiceUuid = new HashMap<>();
+    private final Map<UUID, List<Filter>> byServiceDataUuid = new HashMap<>();
+    private final List<Filter> unindexed = new ArrayList<>();
+
+    private ScanFilterMatcher(List<Filter> filters) {
+        matchAll = filters.isEmpty();
+        for (Filter filter : filters) {
+            if (filter.manufacturerId != null) {
+                index(byManufacturerId, filter.manufacturerId, filter);
+            } else if (filter.serviceUuid != null) {
+                index(byServiceUuid, filter.serviceUuid, filter);
+            } else if (filter.serviceDataUuid != null) {
+                index(byServiceDataUuid, filter.serviceDataUuid, filter);
+            } else {
+                unindexed.add(filter);
+            }
+        }
+    }
+
+    /**
+     * Compiles the filter spec sent from Dart. A null or empty spec matches every result.
+     *
+     * @throws IllegalArgumentException when a filter contains a malformed UUID
+     */
+    public static ScanFilterMatcher compile(@Nullable List<Map<String, Object>> spec) {
+        if (spec == null || spec.isEmpty()) {
+            return MATCH_ALL;
+        }
+        List<Filter> filters = new ArrayList<>(spec.size());
+        for (Map<String, Object> entry : spec) {
+            Filter filter = new Filter();
+            filter.manufacturerId = (Integer) entry.get(Key.MANUFACTURER_ID);
+            filter.manufacturerDataPrefix = (byte[]) entry.get(Key.MANUFACTURER_DATA_PREFIX);
+            filter.namePrefix = (String) entry.get(Key.NAME_PREFIX);
+            filter.minRssi = (Integer) entry.get(Key.MIN_RSSI);
+            filter.serviceDataPrefix = (byte[]) entry.get(Key.SERVICE_DATA_PREFIX);
+            filter.serviceUuid = parseUuid((String) entry.get(Key.SERVICE_UUID));
+            filter.serviceDataUuid = parseUuid((String) entry.get(Key.SERVICE_DATA_UUID));
+            filters.add(filter);
+        }
+        return new ScanFilterMatcher(filters);
+    }
+
+    @Nullable
+    private static UUID parseUuid(@Nullable String uuid) {
+        if (uuid == null) {
+            return null;
+        }
+        UUID parsed = UUIDConverter.convert(uuid);
+        if (parsed == null) {
+            throw new IllegalArgumentException("Invalid UUID in scan filter: " + uuid);
+        }
+        return parsed;
+    }
+
+    public boolean matches(ScanResult scanResult) {
+        if (matchAll) {
+            return true;
+        }
+        AdvertisementData advertisementData = scanResult.getAdvertisementData();
+        if (advertisementData != null) {
+            if (!byManufacturerId.isEmpty()) {
+                int manufacturerId = manufacturerId(advertisementData.getManufacturerData());
+                if (manufacturerId >= 0 && anyMatches(byManufacturerId.get(manufacturerId), scanResult, advertisementData)) {
+                    return true;
+                }
+            }
+            if (!byServiceUuid.isEmpty() && advertisementData.getServiceUUIDs() != null) {
+                for (UUID uuid : advertisementData.getServiceUUIDs()) {
+                    if (anyMatches(byServiceUuid.get(uuid), scanResult, advertisementData)) {
+                        return true;
+                    }
+                }
+            }
+            if (!byServiceDataUuid.isEmpty() && advertisementData.getServiceData() != null) {
+                for (UUID uuid : advertisementData.getServiceData().keySet()) {
+                    if (anyMatches(byServiceDataUuid.get(uuid), scanResult, advertisementData)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return anyMatches(unindexed, scanResult, advertisementData);
+    }
+
+    private static boolean anyMatches(@Nullable List<Filter> filters, ScanResult scanResult,
+                                      @Nullable AdvertisementData advertisementData) {
+        if (filters == null) {
+            return false;
+        }
+        for (int i = 0; i < filters.size(); i++) {
+            if (filters.get(i).matches(scanResult, advertisementData)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <K> void index(Map<K, List<Filter>> index, K key, Filter filter) {
+        List<Filter> filters = index.get(key);
+        if (filters == null) {
+            filters = new ArrayList<>(1);
+            index.put(key, filters);
+        }
+        filters.add(filter);
+    }
+
+    /**
+     * Company identifier carried little-endian in the first two bytes of manufacturer data.
+     */
+    private static int manufacturerId(@Nullable byte[] manufacturerData) {
+        if (manufacturerData == null || manufacturerData.length < 2) {
+            return -1;
+        }
+        return (manufacturerData[0] & 0xFF) | ((manufacturerData[1] & 0xFF) << 8);
+    }
+
+    private static boolean startsWith(@Nullable String value, String prefix) {
+        return value != null && value.startsWith(prefix);
+    }
+
+    private static boolean startsWith(@Nullable byte[] value, byte[] prefix) {
+        if (value == null || value.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (value[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
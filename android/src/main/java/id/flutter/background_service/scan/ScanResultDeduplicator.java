@@ -0,0 +1,109 @@
+package id.flutter.background_service.scan;
+
+import android.os.SystemClock;
+
+import com.polidea.multiplatformbleadapter.AdvertisementData;
+import com.polidea.multiplatformbleadapter.ScanResult;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Suppresses repeated adverts of the same device while a scan is running. A result is
+ * let through when the device is new, its advertised payload changed, its RSSI moved by
+ * more than {@link #rssiDeltaThreshold} or {@link #refreshIntervalMillis} elapsed since
+ * the last result that was emitted for it.
+ *
+ * Records older than the refresh interval would let the next result through anyway, so they
+ * are pruned once per interval and only the devices seen within the last interval are kept.
+ */
+public class ScanResultDeduplicator {
+
+    public static final int DEFAULT_RSSI_DELTA_THRESHOLD = 5;
+    public static final long DEFAULT_REFRESH_INTERVAL_MILLIS = 1000;
+
+    private static class Record {
+        int payloadHash;
+        int rssi;
+        long emittedAt;
+    }
+
+    private final Map<String, Record> records = new HashMap<>();
+    private boolean enabled = false;
+    private int rssiDeltaThreshold = DEFAULT_RSSI_DELTA_THRESHOLD;
+    private long refreshIntervalMillis = DEFAULT_REFRESH_INTERVAL_MILLIS;
+    private long prunedAt = Long.MIN_VALUE / 2;
+
+    synchronized public void configure(Boolean allowDuplicates, Integer rssiDeltaThreshold, Integer refreshIntervalMillis) {
+        records.clear();
+        this.enabled = allowDuplicates != null && !allowDuplicates;
+        this.rssiDeltaThreshold = rssiDeltaThreshold != null ? rssiDeltaThreshold : DEFAULT_RSSI_DELTA_THRESHOLD;
+        this.refreshIntervalMillis = refreshIntervalMillis != null ? refreshIntervalMillis : DEFAULT_REFRESH_INTERVAL_MILLIS;
+    }
+
+    synchronized public boolean shouldEmit(ScanResult scanResult) {
+        if (!enabled || scanResult.getDeviceId() == null) {
+            return true;
+        }
+        long now = now();
+        if (now - prunedAt >= refreshIntervalMillis) {
+            prune(now);
+        }
+        int payloadHash = payloadHash(scanResult);
+        Record record = records.get(scanResult.getDeviceId());
+        if (record == null) {
+            record = new Record();
+            records.put(scanResult.getDeviceId(), record);
+        } else if (record.payloadHash == payloadHash
+                && Math.abs(scanResult.getRssi() - record.rssi) <= rssiDeltaThreshold
+                && now - record.emittedAt < refreshIntervalMillis) {
+            return false;
+        }
+        record.payloadHash = payloadHash;
+        record.rssi = scanResult.getRssi();
+        record.emittedAt = now;
+        return true;
+    }
+
+    synchronized public void reset() {
+        records.clear();
+    }
+
+    private void prune(long now) {
+        prunedAt = now;
+        for (Iterator<Record> iterator = records.values().iterator(); iterator.hasNext(); ) {
+            if (now - iterator.next().emittedAt >= refreshIntervalMillis) {
+                iterator.remove();
+            }
+        }
+    }
+
+    synchronized int getRecordCount() {
+        return records.size();
+    }
+
+    long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    private static int payloadHash(ScanResult scanResult) {
+        int hash = scanResult.getDeviceName() != null ? scanResult.getDeviceName().hashCode() : 0;
+        AdvertisementData advertisementData = scanResult.getAdvertisementData();
+        if (advertisementData == null) {
+            return hash;
+        }
+        hash = 31 * hash + Arrays.hashCode(advertisementData.getManufacturerData());
+        if (advertisementData.getServiceData() != null) {
+            for (Map.Entry<UUID, byte[]> entry : advertisementData.getServiceData().entrySet()) {
+                hash += entry.getKey().hashCode() ^ Arrays.hashCode(entry.getValue());
+            }
+        }
+        hash = 31 * hash + (advertisementData.getServiceUUIDs() != null ? advertisementData.getServiceUUIDs().hashCode() : 0);
+        hash = 31 * hash + (advertisementData.getLocalName() != null ? advertisementData.getLocalName().hashCode() : 0);
+        hash = 31 * hash + (advertisementData.getTxPowerLevel() != null ? advertisementData.getTxPowerLevel() : 0);
+        return hash;
+    }
+}
@@ -0,0 +1,127 @@
+package id.flutter.background_service.converter;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ValueLayoutTest {
+
+    @Test
+    public void readsLittleEndianByDefault() {
+        ValueLayout layout = layout(ValueLayout.Key.WIDTH, 2);
+
+        assertEquals(0x0201, layout.read(bytes(0x01, 0x02)), 0);
+    }
+
+    @Test
+    public void readsBigEndian() {
+        ValueLayout layout = layout(ValueLayout.Key.WIDTH, 2, ValueLayout.Key.LITTLE_ENDIAN, false);
+
+        assertEquals(0x0102, layout.read(bytes(0x01, 0x02)), 0);
+    }
+
+    @Test
+    public void readsAtOffset() {
+        ValueLayout layout = layout(ValueLayout.Key.WIDTH, 2, ValueLayout.Key.OFFSET, 1);
+
+        assertEquals(0x0302, layout.read(bytes(0x01, 0x02, 0x03)), 0);
+    }
+
+    @Test
+    public void extendsSignOfSignedValues() {
+        ValueLayout int8 = layout(ValueLayout.Key.WIDTH, 1, ValueLayout.Key.SIGNED, true);
+        ValueLayout int16 = layout(ValueLayout.Key.WIDTH, 2, ValueLayout.Key.SIGNED, true);
+        ValueLayout int24 = layout(ValueLayout.Key.WIDTH, 3, ValueLayout.Key.SIGNED, true);
+
+        assertEquals(-1, int8.read(bytes(0xFF)), 0);
+        assertEquals(127, int8.read(bytes(0x7F)), 0);
+        assertEquals(-2, int16.read(bytes(0xFE, 0xFF)), 0);
+        assertEquals(-0x800000, int24.read(bytes(0x00, 0x00, 0x80)), 0);
+    }
+
+    @Test
+    public void keepsUnsignedValuesPositive() {
+        ValueLayout uint16 = layout(ValueLayout.Key.WIDTH, 2);
+
+        assertEquals(0xFFFE, uint16.read(bytes(0xFE, 0xFF)), 0);
+    }
+
+    @Test
+    public void readsSigned64BitValues() {
+        ValueLayout int64 = layout(ValueLayout.Key.WIDTH, 8, ValueLayout.Key.SIGNED, true);
+
+        assertEquals(-1, int64.read(bytes(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF)), 0);
+    }
+
+    @Test
+    public void readsUnsigned64BitValuesAboveLongRange() {
+        ValueLayout uint64 = layout(ValueLayout.Key.WIDTH, 8);
+
+        assertEquals(18446744073709551615.0, uint64.read(bytes(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF)), 0);
+        assertEquals(9223372036854775808.0, uint64.read(bytes(0, 0, 0, 0, 0, 0, 0, 0x80)), 0);
+    }
+
+    @Test
+    public void readsFloats() {
+        ValueLayout float32 = layout(ValueLayout.Key.WIDTH, 4, ValueLayout.Key.FLOAT, true);
+        ValueLayout float64 = layout(ValueLayout.Key.WIDTH, 8, ValueLayout.Key.FLOAT, true,
+                ValueLayout.Key.LITTLE_ENDIAN, false);
+        int floatBits = Float.floatToIntBits(1.5f);
+        long doubleBits = Double.doubleToLongBits(-2.25);
+
+        assertEquals(1.5, float32.read(bytes(floatBits, floatBits >> 8, floatBits >> 16, floatBits >> 24)), 0);
+        assertEquals(-2.25, float64.read(bytes((int) (doubleBits >> 56), (int) (doubleBits >> 48), 0, 0, 0, 0, 0, 0)), 0);
+    }
+
+    @Test
+    public void appliesScale() {
+        ValueLayout layout = layout(ValueLayout.Key.WIDTH, 2, ValueLayout.Key.SIGNED, true, ValueLayout.Key.SCALE, 0.01);
+
+        assertEquals(-21.5, layout.read(bytes(0x9A, 0xF7)), 1e-9);
+    }
+
+    @Test
+    public void fitsOnlyValuesLongEnough() {
+        ValueLayout layout = layout(ValueLayout.Key.WIDTH, 2, ValueLayout.Key.OFFSET, 1);
+
+        assertTrue(layout.fits(bytes(0, 0, 0)));
+        assertFalse(layout.fits(bytes(0, 0)));
+        assertFalse(layout.fits(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsWidthAbove8Bytes() {
+        layout(ValueLayout.Key.WIDTH, 9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsFloatOfOtherWidth() {
+        layout(ValueLayout.Key.WIDTH, 2, ValueLayout.Key.FLOAT, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeOffset() {
+        layout(ValueLayout.Key.WIDTH, 1, ValueLayout.Key.OFFSET, -1);
+    }
+
+    private static ValueLayout layout(Object... keysAndValues) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return ValueLayout.fromMap(map);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
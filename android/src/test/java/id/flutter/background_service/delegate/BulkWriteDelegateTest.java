@@ -0,0 +1,206 @@
+package id.flutter.background_service.delegate;
+
+import id.flutter.background_service.constant.ArgumentKey;
+import id.flutter.background_service.constant.MethodName;
+import id.flutter.background_service.event.BulkWriteProgressStreamHandler;
+import id.flutter.background_service.gatt.ValueCache;
+import com.polidea.multiplatformbleadapter.BleAdapter;
+import com.polidea.multiplatformbleadapter.Characteristic;
+import com.polidea.multiplatformbleadapter.Device;
+import com.polidea.multiplatformbleadapter.OnErrorCallback;
+import com.polidea.multiplatformbleadapter.OnSuccessCallback;
+import com.polidea.multiplatformbleadapter.errors.BleErrorCode;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import androidx.annotation.Nullable;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BulkWriteDelegateTest {
+
+    private static final String DEVICE = "AA:BB:CC:DD:EE:FF";
+    private static final String SERVICE = "0000fe59-0000-1000-8000-00805f9b34fb";
+    private static final String CHARACTERISTIC = "8ec90002-f315-4f60-9fb8-838830daea50";
+
+    private static class RecordingResult implements MethodChannel.Result {
+        int replies = 0;
+        Object value;
+        String errorCode;
+
+        @Override
+        public void success(@Nullable Object result) {
+            replies++;
+            value = result;
+        }
+
+        @Override
+        public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+            replies++;
+            this.errorCode = errorCode;
+        }
+
+        @Override
+        public void notImplemented() {
+            replies++;
+        }
+    }
+
+    private BleAdapter adapter;
+    private BulkWriteProgressStreamHandler progress;
+    private BulkWriteDelegate delegate;
+    private final Map<String, OnSuccessCallback<Characteristic>> pendingChunks = new LinkedHashMap<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        adapter = mock(BleAdapter.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                pendingChunks.put(invocation.<String>getArgument(5), invocation.<OnSuccessCallback<Characteristic>>getArgument(6));
+                return null;
+            }
+        }).when(adapter).writeCharacteristicForDevice(anyString(), anyString(), anyString(), any(), anyBoolean(),
+                anyString(), any(OnSuccessCallback.class), any(OnErrorCallback.class));
+        progress = mock(BulkWriteProgressStreamHandler.class);
+        delegate = new BulkWriteDelegate(adapter, progress, new ValueCache());
+        delegate.setResolveOnCallingThread(true);
+    }
+
+    @Test
+    public void splitsPayloadIntoChunksOfMtuLessAttHeader() {
+        final Device device = mock(Device.class);
+        when(device.getMtu()).thenReturn(23);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                invocation.<OnSuccessCallback<Device[]>>getArgument(1).onSuccess(new Device[]{device});
+                return null;
+            }
+        }).when(adapter).getKnownDevices(any(String[].class), any(OnSuccessCallback.class), any(OnErrorCallback.class));
+
+        RecordingResult result = writeBulk("bulk", new byte[50], false, null, null);
+
+        assertEquals(Arrays.asList("bulk/0", "bulk/1", "bulk/2"), new ArrayList<>(pendingChunks.keySet()));
+        completeChunk("bulk/0");
+        completeChunk("bulk/1");
+        completeChunk("bulk/2");
+
+        assertEquals(1, result.replies);
+        assertEquals(50L, result.value);
+        verify(progress).onProgress("bulk", 50, 50);
+    }
+
+    @Test
+    public void keepsWindowOfChunksQueued() {
+        RecordingResult result = writeBulk("bulk", new byte[100], true, 20, 2);
+
+        assertEquals(Arrays.asList("bulk/0", "bulk/1"), new ArrayList<>(pendingChunks.keySet()));
+
+        completeChunk("bulk/0");
+
+        assertEquals(Arrays.asList("bulk/1", "bulk/2"), new ArrayList<>(pendingChunks.keySet()));
+        verify(progress).onProgress("bulk", 20, 100);
+
+        completeChunk("bulk/1");
+        completeChunk("bulk/2");
+        completeChunk("bulk/3");
+        completeChunk("bulk/4");
+
+        assertTrue(pendingChunks.isEmpty());
+        assertEquals(100L, result.value);
+    }
+
+    @Test
+    public void cancelStopsQueuedChunks() {
+        RecordingResult result = writeBulk("bulk", new byte[100], true, 20, 2);
+        completeChunk("bulk/0");
+
+        assertTrue(delegate.cancel("bulk"));
+
+        verify(adapter).cancelTransaction("bulk/1");
+        verify(adapter).cancelTransaction("bulk/2");
+        verify(adapter, never()).cancelTransaction("bulk/0");
+        assertEquals(String.valueOf(BleErrorCode.OperationCancelled.code), result.errorCode);
+        assertFalse(delegate.cancel("bulk"));
+
+        completeChunk("bulk/1");
+
+        assertEquals(1, result.replies);
+        assertFalse(pendingChunks.containsKey("bulk/3"));
+    }
+
+    @Test
+    public void rejectsWriteWithoutTransactionId() {
+        RecordingResult result = writeBulk(null, new byte[10], true, 20, 1);
+
+        assertEquals(String.valueOf(BleErrorCode.UnknownError.code), result.errorCode);
+        assertTrue(pendingChunks.isEmpty());
+    }
+
+    @Test
+    public void rejectsWriteWithoutPayload() {
+        RecordingResult result = writeBulk("bulk", null, true, 20, 1);
+
+        assertEquals(String.valueOf(BleErrorCode.UnknownError.code), result.errorCode);
+        assertTrue(pendingChunks.isEmpty());
+        verify(progress, never()).onProgress(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void rejectsSecondWriteUnderSameTransactionId() {
+        writeBulk("bulk", new byte[100], true, 20, 1);
+
+        RecordingResult second = writeBulk("bulk", new byte[100], true, 20, 1);
+
+        assertEquals(String.valueOf(BleErrorCode.UnknownError.code), second.errorCode);
+        assertEquals(1, pendingChunks.size());
+    }
+
+    private void completeChunk(String chunkTransactionId) {
+        OnSuccessCallback<Characteristic> callback = pendingChunks.remove(chunkTransactionId);
+        assertNotNull("No pending chunk " + chunkTransactionId, callback);
+        callback.onSuccess(mock(Characteristic.class));
+    }
+
+    private RecordingResult writeBulk(String transactionId, byte[] value, boolean withResponse,
+                                      Integer chunkSize, Integer window) {
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put(ArgumentKey.DEVICE_IDENTIFIER, DEVICE);
+        arguments.put(ArgumentKey.SERVICE_UUID, SERVICE);
+        arguments.put(ArgumentKey.CHARACTERISTIC_UUID, CHARACTERISTIC);
+        arguments.put(ArgumentKey.VALUE, value);
+        arguments.put(ArgumentKey.WITH_RESPONSE, withResponse);
+        arguments.put(ArgumentKey.CHUNK_SIZE, chunkSize);
+        arguments.put(ArgumentKey.WRITE_WINDOW, window);
+        arguments.put(ArgumentKey.PROGRESS_INTERVAL_MILLIS, 0);
+        arguments.put(ArgumentKey.TRANSACTION_ID, transactionId);
+        RecordingResult result = new RecordingResult();
+        delegate.onMethodCall(new MethodCall(MethodName.WRITE_CHARACTERISTIC_BULK, arguments), result);
+        return result;
+    }
+}
@@ -0,0 +1,181 @@
+package id.flutter.background_service.delegate;
+
+import id.flutter.background_service.constant.ArgumentKey;
+import id.flutter.background_service.constant.MethodName;
+import id.flutter.background_service.constant.ResponseFormat;
+import id.flutter.background_service.converter.PayloadSchemaRegistry;
+import id.flutter.background_service.event.CharacteristicsMonitorStreamHandler;
+import id.flutter.background_service.gatt.ValueCache;
+import com.polidea.multiplatformbleadapter.BleAdapter;
+import com.polidea.multiplatformbleadapter.Characteristic;
+import com.polidea.multiplatformbleadapter.OnErrorCallback;
+import com.polidea.multiplatformbleadapter.OnSuccessCallback;
+import com.polidea.multiplatformbleadapter.errors.BleErrorCode;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.Nullable;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class CharacteristicsDelegateTest {
+
+    private static final String DEVICE = "AA:BB:CC:DD:EE:FF";
+    private static final String SERVICE = "0000180f-0000-1000-8000-00805f9b34fb";
+    private static final String BATTERY_LEVEL = "00002a19-0000-1000-8000-00805f9b34fb";
+    private static final String MODEL_NUMBER = "00002a24-0000-1000-8000-00805f9b34fb";
+
+    private static class RecordingResult implements MethodChannel.Result {
+        int replies = 0;
+        Object value;
+        String errorCode;
+
+        @Override
+        public void success(@Nullable Object result) {
+            replies++;
+            value = result;
+        }
+
+        @Override
+        public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+            replies++;
+            this.errorCode = errorCode;
+        }
+
+        @Override
+        public void notImplemented() {
+            replies++;
+        }
+    }
+
+    private BleAdapter adapter;
+    private InFlightReads inFlightReads;
+    private CharacteristicsDelegate delegate;
+    private final Map<String, OnSuccessCallback<Characteristic>> pendingReads = new HashMap<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        adapter = mock(BleAdapter.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                pendingReads.put(invocation.<String>getArgument(3), invocation.<OnSuccessCallback<Characteristic>>getArgument(4));
+                return null;
+            }
+        }).when(adapter).readCharacteristicForDevice(anyString(), anyString(), anyString(), anyString(),
+                any(OnSuccessCallback.class), any(OnErrorCallback.class));
+        inFlightReads = new InFlightReads(new ValueCache());
+        delegate = new CharacteristicsDelegate(adapter,
+                new CharacteristicsMonitorStreamHandler(new PayloadSchemaRegistry()),
+                new PayloadSchemaRegistry(), inFlightReads, new ValueCache());
+        delegate.setResolveOnCallingThread(true);
+    }
+
+    @Test
+    public void resolvesBatchOnceEveryReadCompletes() {
+        RecordingResult result = readBatch("batch", BATTERY_LEVEL, MODEL_NUMBER);
+
+        pendingReads.get("batch/1").onSuccess(mock(Characteristic.class));
+        assertEquals(0, result.replies);
+        pendingReads.get("batch/0").onSuccess(mock(Characteristic.class));
+
+        assertEquals(1, result.replies);
+        assertEquals(2, ((List<?>) result.value).size());
+        assertFalse(delegate.cancelBatch("batch"));
+    }
+
+    @Test
+    public void cancelStopsPendingReadsOfBatch() {
+        RecordingResult result = readBatch("batch", BATTERY_LEVEL, MODEL_NUMBER);
+        pendingReads.get("batch/0").onSuccess(mock(Characteristic.class));
+
+        assertTrue(delegate.cancelBatch("batch"));
+
+        verify(adapter).cancelTransaction("batch/1");
+        verify(adapter, never()).cancelTransaction("batch/0");
+        assertEquals(1, result.replies);
+        assertEquals(String.valueOf(BleErrorCode.OperationCancelled.code), result.errorCode);
+
+        pendingReads.get("batch/1").onSuccess(mock(Characteristic.class));
+
+        assertEquals(1, result.replies);
+        assertFalse(delegate.cancelBatch("batch"));
+    }
+
+    @Test
+    public void cancelLeavesSharedReadRunningForOtherCaller() {
+        RecordingResult single = new RecordingResult();
+        delegate.onMethodCall(new MethodCall(MethodName.READ_CHARACTERISTIC_FOR_DEVICE, arguments(
+                ArgumentKey.DEVICE_IDENTIFIER, DEVICE,
+                ArgumentKey.SERVICE_UUID, SERVICE,
+                ArgumentKey.CHARACTERISTIC_UUID, BATTERY_LEVEL,
+                ArgumentKey.TRANSACTION_ID, "single",
+                ArgumentKey.RESPONSE_FORMAT, ResponseFormat.BINARY)), single);
+        RecordingResult batch = readBatch("batch", BATTERY_LEVEL);
+
+        assertTrue(delegate.cancelBatch("batch"));
+
+        verify(adapter, never()).cancelTransaction(anyString());
+        assertEquals(String.valueOf(BleErrorCode.OperationCancelled.code), batch.errorCode);
+
+        pendingReads.get("single").onSuccess(mock(Characteristic.class));
+
+        assertEquals(1, single.replies);
+        assertNull(single.errorCode);
+    }
+
+    @Test
+    public void rejectsSecondBatchUnderSameTransactionId() {
+        readBatch("batch", BATTERY_LEVEL);
+
+        RecordingResult second = readBatch("batch", MODEL_NUMBER);
+
+        assertEquals(String.valueOf(BleErrorCode.UnknownError.code), second.errorCode);
+        assertFalse(pendingReads.containsKey("batch/1"));
+    }
+
+    private RecordingResult readBatch(String transactionId, String... characteristicUuids) {
+        List<Map<String, String>> characteristics = new ArrayList<>();
+        for (String characteristicUuid : characteristicUuids) {
+            Map<String, String> characteristic = new HashMap<>();
+            characteristic.put(ArgumentKey.SERVICE_UUID, SERVICE);
+            characteristic.put(ArgumentKey.CHARACTERISTIC_UUID, characteristicUuid);
+            characteristics.add(characteristic);
+        }
+        RecordingResult result = new RecordingResult();
+        delegate.onMethodCall(new MethodCall(MethodName.READ_CHARACTERISTICS_BATCH, arguments(
+                ArgumentKey.DEVICE_IDENTIFIER, DEVICE,
+                ArgumentKey.CHARACTERISTICS, characteristics,
+                ArgumentKey.TRANSACTION_ID, transactionId,
+                ArgumentKey.RESPONSE_FORMAT, ResponseFormat.BINARY)), result);
+        return result;
+    }
+
+    private static Map<String, Object> arguments(Object... keysAndValues) {
+        Map<String, Object> arguments = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            arguments.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return arguments;
+    }
+}
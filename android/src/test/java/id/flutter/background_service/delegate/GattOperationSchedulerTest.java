@@ -0,0 +1,302 @@
+package id.flutter.background_service.delegate;
+
+import id.flutter.background_service.constant.ArgumentKey;
+import id.flutter.background_service.constant.MethodName;
+import id.flutter.background_service.constant.OperationPriority;
+import id.flutter.background_service.gatt.ValueCache;
+import com.polidea.multiplatformbleadapter.errors.BleErrorCode;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GattOperationSchedulerTest {
+
+    private static final String DEVICE = "AA:BB:CC:DD:EE:FF";
+    private static final String OTHER_DEVICE = "11:22:33:44:55:66";
+
+    private static class FakeClock implements GattOperationScheduler.Clock {
+        long now = 1000;
+        final Map<Runnable, Long> timers = new LinkedHashMap<>();
+
+        @Override
+        public long now() {
+            return now;
+        }
+
+        @Override
+        public void postDelayed(Runnable runnable, long delayMillis) {
+            timers.put(runnable, now + delayMillis);
+        }
+
+        @Override
+        public void removeCallbacks(Runnable runnable) {
+            timers.remove(runnable);
+        }
+
+        void advance(long millis) {
+            now += millis;
+            List<Runnable> due = new ArrayList<>();
+            for (Iterator<Map.Entry<Runnable, Long>> iterator = timers.entrySet().iterator(); iterator.hasNext(); ) {
+                Map.Entry<Runnable, Long> timer = iterator.next();
+                if (timer.getValue() <= now) {
+                    due.add(timer.getKey());
+                    iterator.remove();
+                }
+            }
+            for (Runnable runnable : due) {
+                runnable.run();
+            }
+        }
+    }
+
+    private static class RecordingResult implements MethodChannel.Result {
+        int replies = 0;
+        Object value;
+        String errorCode;
+
+        @Override
+        public void success(@Nullable Object result) {
+            replies++;
+            value = result;
+        }
+
+        @Override
+        public void error(String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+            replies++;
+            this.errorCode = errorCode;
+        }
+
+        @Override
+        public void notImplemented() {
+            replies++;
+        }
+    }
+
+    /**
+     * Keeps every dispatched call pending until the test resolves it.
+     */
+    private static class RecordingHandler implements MethodChannel.MethodCallHandler {
+        final List<String> dispatched = new ArrayList<>();
+        final Map<String, MethodChannel.Result> pending = new HashMap<>();
+        final List<String> throwing = new ArrayList<>();
+        final List<String> replyingBeforeThrowing = new ArrayList<>();
+
+        @Override
+        public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+            String transactionId = call.argument(ArgumentKey.TRANSACTION_ID);
+            dispatched.add(transactionId);
+            if (replyingBeforeThrowing.contains(transactionId)) {
+                result.success(transactionId);
+                throw new IllegalStateException("after reply");
+            }
+            if (throwing.contains(transactionId)) {
+                throw new IllegalArgumentException(call.method + " cannot be handled by this delegate");
+            }
+            pending.put(transactionId, result);
+        }
+
+        void complete(String transactionId) {
+            pending.remove(transactionId).success(transactionId);
+        }
+    }
+
+    private FakeClock clock;
+    private RecordingHandler handler;
+    private GattOperationScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock();
+        handler = new RecordingHandler();
+        scheduler = new GattOperationScheduler(handler, new InFlightReads(new ValueCache()), clock);
+    }
+
+    @Test
+    public void dispatchesOneOperationPerDeviceAtATime() {
+        RecordingResult first = write("first", DEVICE, null, null);
+        RecordingResult second = write("second", DEVICE, null, null);
+        write("other", OTHER_DEVICE, null, null);
+
+        assertEquals(list("first", "other"), handler.dispatched);
+
+        handler.complete("first");
+
+        assertEquals("first", first.value);
+        assertEquals(list("first", "other", "second"), handler.dispatched);
+        assertEquals(0, second.replies);
+    }
+
+    @Test
+    public void takesNextOperationFromMostUrgentLane() {
+        write("inFlight", DEVICE, null, null);
+        write("background", DEVICE, OperationPriority.BACKGROUND, null);
+        write("normal1", DEVICE, OperationPriority.NORMAL, null);
+        write("critical", DEVICE, OperationPriority.CRITICAL, null);
+        write("normal2", DEVICE, null, null);
+
+        handler.complete("inFlight");
+        handler.complete("critical");
+        handler.complete("normal1");
+        handler.complete("normal2");
+
+        assertEquals(list("inFlight", "critical", "normal1", "normal2", "background"), handler.dispatched);
+    }
+
+    @Test
+    public void rejectsUnknownPriority() {
+        RecordingResult result = write("first", DEVICE, "urgent", null);
+
+        assertEquals(String.valueOf(BleErrorCode.UnknownError.code), result.errorCode);
+        assertTrue(handler.dispatched.isEmpty());
+    }
+
+    @Test
+    public void failsQueuedOperationWhenDeadlinePasses() {
+        write("inFlight", DEVICE, null, null);
+        RecordingResult queued = write("queued", DEVICE, null, 100);
+
+        clock.advance(99);
+        assertEquals(0, queued.replies);
+        clock.advance(1);
+
+        assertEquals(String.valueOf(BleErrorCode.OperationTimedOut.code), queued.errorCode);
+        handler.complete("inFlight");
+        assertEquals(list("inFlight"), handler.dispatched);
+        assertEquals(1L, lane(OperationPriority.NORMAL).get("expired"));
+    }
+
+    @Test
+    public void deadlineDoesNotApplyOnceDispatched() {
+        write("inFlight", DEVICE, null, null);
+        RecordingResult queued = write("queued", DEVICE, null, 100);
+        handler.complete("inFlight");
+
+        clock.advance(100);
+
+        assertEquals(0, queued.replies);
+        assertTrue(clock.timers.isEmpty());
+    }
+
+    @Test
+    public void cancelsQueuedOperation() {
+        write("inFlight", DEVICE, null, null);
+        RecordingResult queued = write("queued", DEVICE, null, 100);
+
+        assertTrue(scheduler.cancel("queued"));
+
+        assertEquals(String.valueOf(BleErrorCode.OperationCancelled.code), queued.errorCode);
+        assertTrue(clock.timers.isEmpty());
+        handler.complete("inFlight");
+        assertEquals(list("inFlight"), handler.dispatched);
+        assertEquals(1L, lane(OperationPriority.NORMAL).get("cancelled"));
+    }
+
+    @Test
+    public void doesNotCancelDispatchedOrUnknownOperation() {
+        write("inFlight", DEVICE, null, null);
+
+        assertFalse(scheduler.cancel("inFlight"));
+        assertFalse(scheduler.cancel("unknown"));
+        assertFalse(scheduler.cancel(null));
+    }
+
+    @Test
+    public void releasesDeviceWhenDelegateThrowsOnDispatch() {
+        handler.throwing.add("broken");
+
+        RecordingResult broken = write("broken", DEVICE, null, null);
+        write("next", DEVICE, null, null);
+
+        assertEquals(String.valueOf(BleErrorCode.UnknownError.code), broken.errorCode);
+        assertEquals(list("broken", "next"), handler.dispatched);
+    }
+
+    @Test
+    public void releasesDeviceWhenDelegateThrowsForQueuedOperation() {
+        handler.throwing.add("broken1");
+        handler.throwing.add("broken2");
+        RecordingResult inFlight = write("inFlight", DEVICE, null, null);
+        RecordingResult broken1 = write("broken1", DEVICE, null, null);
+        RecordingResult broken2 = write("broken2", DEVICE, null, null);
+        write("next", DEVICE, null, null);
+
+        handler.complete("inFlight");
+
+        assertEquals(1, inFlight.replies);
+        assertEquals(String.valueOf(BleErrorCode.UnknownError.code), broken1.errorCode);
+        assertEquals(String.valueOf(BleErrorCode.UnknownError.code), broken2.errorCode);
+        assertEquals(list("inFlight", "broken1", "broken2", "next"), handler.dispatched);
+    }
+
+    @Test
+    public void repliesOnceWhenDelegateThrowsAfterReplying() {
+        handler.replyingBeforeThrowing.add("replied");
+
+        RecordingResult replied = write("replied", DEVICE, null, null);
+        write("next", DEVICE, null, null);
+
+        assertEquals(1, replied.replies);
+        assertEquals("replied", replied.value);
+        assertEquals(list("replied", "next"), handler.dispatched);
+        handler.complete("next");
+        assertEquals(0, (int) lane(OperationPriority.NORMAL).get("queued"));
+    }
+
+    @Test
+    public void passesThroughUnscheduledMethods() {
+        MethodCall call = new MethodCall(MethodName.MONITOR_CHARACTERISTIC_FOR_DEVICE, arguments("monitor", DEVICE));
+        scheduler.onMethodCall(call, new RecordingResult());
+        write("write", DEVICE, null, null);
+
+        assertEquals(list("monitor", "write"), handler.dispatched);
+    }
+
+    private RecordingResult write(String transactionId, String deviceId, String priority, Integer deadlineMillis) {
+        Map<String, Object> arguments = arguments(transactionId, deviceId);
+        if (priority != null) {
+            arguments.put(ArgumentKey.PRIORITY, priority);
+        }
+        if (deadlineMillis != null) {
+            arguments.put(ArgumentKey.DEADLINE_MILLIS, deadlineMillis);
+        }
+        RecordingResult result = new RecordingResult();
+        scheduler.onMethodCall(new MethodCall(MethodName.WRITE_CHARACTERISTIC_FOR_DEVICE, arguments), result);
+        return result;
+    }
+
+    private static Map<String, Object> arguments(String transactionId, String deviceId) {
+        Map<String, Object> arguments = new HashMap<>();
+        arguments.put(ArgumentKey.TRANSACTION_ID, transactionId);
+        arguments.put(ArgumentKey.DEVICE_IDENTIFIER, deviceId);
+        return arguments;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> lane(String priority) {
+        return (Map<String, Object>) scheduler.getStatistics().get(priority);
+    }
+
+    private static List<String> list(String... values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,176 @@
+package id.flutter.background_service.delegate;
+
+import id.flutter.background_service.gatt.AttributeKeys;
+import id.flutter.background_service.gatt.ValueCache;
+import com.polidea.multiplatformbleadapter.Characteristic;
+import com.polidea.multiplatformbleadapter.OnErrorCallback;
+import com.polidea.multiplatformbleadapter.OnSuccessCallback;
+import com.polidea.multiplatformbleadapter.errors.BleError;
+import com.polidea.multiplatformbleadapter.errors.BleErrorCode;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InFlightReadsTest {
+
+    private static final String DEVICE = "AA:BB:CC:DD:EE:FF";
+    private static final UUID SERVICE = UUID.fromString("0000180f-0000-1000-8000-00805f9b34fb");
+    private static final UUID BATTERY_LEVEL = UUID.fromString("00002a19-0000-1000-8000-00805f9b34fb");
+    private static final String KEY = AttributeKeys.characteristic(7);
+
+    private ValueCache valueCache;
+    private InFlightReads inFlightReads;
+    private RecordingRead read;
+
+    @Before
+    public void setUp() {
+        valueCache = new ValueCache();
+        Map<String, Object> policy = new HashMap<>();
+        policy.put(ValueCache.Key.UUID, BATTERY_LEVEL.toString());
+        valueCache.configure(1024, Collections.singletonList(policy));
+        inFlightReads = new InFlightReads(valueCache);
+        read = new RecordingRead();
+    }
+
+    @Test
+    public void joinedCallerReceivesValueOfPendingRead() {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        inFlightReads.join(KEY, "1", first, first, read);
+        inFlightReads.join(KEY, "2", second, second, read);
+
+        assertEquals(1, read.started);
+        assertTrue(inFlightReads.isShared(KEY));
+
+        Characteristic value = characteristic();
+        read.onSuccess.onSuccess(value);
+
+        assertSame(value, first.value);
+        assertSame(value, second.value);
+        assertFalse(inFlightReads.isShared(AttributeKeys.characteristic(8)));
+        assertEquals(1L, inFlightReads.getStatistics().get("reads"));
+        assertEquals(1L, inFlightReads.getStatistics().get("joined"));
+        assertEquals(0, inFlightReads.getStatistics().get("inFlight"));
+    }
+
+    @Test
+    public void servesCachedValueWithoutRead() {
+        Recorder first = new Recorder();
+        inFlightReads.join(KEY, "1", first, first, read);
+        read.onSuccess.onSuccess(characteristic());
+
+        Recorder second = new Recorder();
+        inFlightReads.join(KEY, "2", second, second, read);
+
+        assertEquals(1, read.started);
+        assertSame(first.value, second.value);
+    }
+
+    @Test
+    public void doesNotCacheValueOfReadRacingInvalidation() {
+        Recorder first = new Recorder();
+        inFlightReads.join(KEY, "1", first, first, read);
+        valueCache.invalidate(KEY);
+        read.onSuccess.onSuccess(characteristic());
+
+        Recorder second = new Recorder();
+        inFlightReads.join(KEY, "2", second, second, read);
+
+        assertEquals(2, read.started);
+    }
+
+    @Test
+    public void errorReachesEveryCaller() {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        inFlightReads.join(KEY, "1", first, first, read);
+        inFlightReads.join(KEY, "2", second, second, read);
+
+        BleError error = new BleError(BleErrorCode.CharacteristicReadFailed, "Read failed", null);
+        read.onError.onError(error);
+
+        assertSame(error, first.error);
+        assertSame(error, second.error);
+        assertFalse(inFlightReads.isShared(KEY));
+    }
+
+    @Test
+    public void cancelDetachesCallerFromSharedRead() {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        inFlightReads.join(KEY, "1", first, first, read);
+        inFlightReads.join(KEY, "2", second, second, read);
+
+        assertTrue(inFlightReads.cancel("2"));
+        assertEquals(BleErrorCode.OperationCancelled, second.error.errorCode);
+
+        Characteristic value = characteristic();
+        read.onSuccess.onSuccess(value);
+
+        assertSame(value, first.value);
+        assertNull(second.value);
+    }
+
+    @Test
+    public void cancelLeavesLoneCallerAttached() {
+        Recorder first = new Recorder();
+        inFlightReads.join(KEY, "1", first, first, read);
+
+        assertFalse(inFlightReads.cancel("1"));
+        assertFalse(inFlightReads.cancel(null));
+        assertNull(first.error);
+        assertTrue(inFlightReads.isShared(KEY));
+    }
+
+    private static Characteristic characteristic() {
+        Characteristic characteristic = mock(Characteristic.class);
+        when(characteristic.getId()).thenReturn(7);
+        when(characteristic.getUuid()).thenReturn(BATTERY_LEVEL);
+        when(characteristic.getServiceID()).thenReturn(1);
+        when(characteristic.getServiceUUID()).thenReturn(SERVICE);
+        when(characteristic.getDeviceId()).thenReturn(DEVICE);
+        when(characteristic.getValue()).thenReturn(new byte[]{42});
+        return characteristic;
+    }
+
+    private static class RecordingRead implements InFlightReads.Read<Characteristic> {
+        int started = 0;
+        OnSuccessCallback<Characteristic> onSuccess;
+        OnErrorCallback onError;
+
+        @Override
+        public void start(OnSuccessCallback<Characteristic> onSuccess, OnErrorCallback onError) {
+            started++;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+    }
+
+    private static class Recorder implements OnSuccessCallback<Characteristic>, OnErrorCallback {
+        Characteristic value;
+        BleError error;
+
+        @Override
+        public void onSuccess(Characteristic data) {
+            value = data;
+        }
+
+        @Override
+        public void onError(BleError error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package id.flutter.background_service.event;
+
+import id.flutter.background_service.converter.ValueLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WindowAggregatorTest {
+
+    private WindowAggregator aggregator;
+
+    @Before
+    public void setUp() {
+        Map<String, Object> layout = new HashMap<>();
+        layout.put(ValueLayout.Key.WIDTH, 2);
+        layout.put(ValueLayout.Key.SIGNED, true);
+        aggregator = new WindowAggregator(ValueLayout.fromMap(layout));
+    }
+
+    @Test
+    public void summarizesWindow() {
+        assertTrue(aggregator.add(int16(-4)));
+        assertTrue(aggregator.add(int16(10)));
+        assertTrue(aggregator.add(int16(3)));
+
+        Map<String, Object> summary = aggregator.closeWindow();
+
+        assertEquals(3, summary.get("count"));
+        assertEquals(-4.0, summary.get("min"));
+        assertEquals(10.0, summary.get("max"));
+        assertEquals(3.0, summary.get("mean"));
+        assertTrue((Long) summary.get("end") >= (Long) summary.get("start"));
+    }
+
+    @Test
+    public void skipsValuesTooShortForLayout() {
+        assertFalse(aggregator.add(new byte[1]));
+        assertFalse(aggregator.add(null));
+
+        assertNull(aggregator.closeWindow());
+    }
+
+    @Test
+    public void startsNextWindowEmpty() {
+        aggregator.add(int16(100));
+        Map<String, Object> first = aggregator.closeWindow();
+        aggregator.add(int16(-1));
+
+        Map<String, Object> second = aggregator.closeWindow();
+
+        assertEquals(1, second.get("count"));
+        assertEquals(-1.0, second.get("min"));
+        assertEquals(-1.0, second.get("max"));
+        assertEquals(first.get("end"), second.get("start"));
+        assertNull(aggregator.closeWindow());
+    }
+
+    private static byte[] int16(int value) {
+        return new byte[]{(byte) value, (byte) (value >> 8)};
+    }
+}
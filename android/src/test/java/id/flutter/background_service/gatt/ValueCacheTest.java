@@ -0,0 +1,250 @@
+package id.flutter.background_service.gatt;
+
+import com.polidea.multiplatformbleadapter.Characteristic;
+import com.polidea.multiplatformbleadapter.Descriptor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ValueCacheTest {
+
+    private static final String DEVICE = "AA:BB:CC:DD:EE:FF";
+    private static final UUID SERVICE = UUID.fromString("0000180f-0000-1000-8000-00805f9b34fb");
+    private static final UUID BATTERY_LEVEL = UUID.fromString("00002a19-0000-1000-8000-00805f9b34fb");
+    private static final UUID MODEL_NUMBER = UUID.fromString("00002a24-0000-1000-8000-00805f9b34fb");
+    private static final UUID SERIAL_NUMBER = UUID.fromString("00002a25-0000-1000-8000-00805f9b34fb");
+    private static final UUID USER_DESCRIPTION = UUID.fromString("00002901-0000-1000-8000-00805f9b34fb");
+    private static final int VALUE_LENGTH = 16;
+    private static final int ENTRY_SIZE = ValueCache.ENTRY_OVERHEAD_BYTES + VALUE_LENGTH;
+
+    private long now;
+    private ValueCache valueCache;
+
+    @Before
+    public void setUp() {
+        now = 1000;
+        valueCache = new ValueCache() {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+        valueCache.configure(2 * ENTRY_SIZE, policies(BATTERY_LEVEL, 500L, MODEL_NUMBER, 0L, SERIAL_NUMBER, null, USER_DESCRIPTION, 0L));
+    }
+
+    @Test
+    public void servesValueUnderEveryKeyOfTheAttribute() {
+        Characteristic batteryLevel = characteristic(7, BATTERY_LEVEL);
+
+        valueCache.put(batteryLevel, valueCache.getGeneration(), 1);
+
+        assertSame(batteryLevel, valueCache.get(keyOf(BATTERY_LEVEL)));
+        assertSame(batteryLevel, valueCache.get(AttributeKeys.characteristic(7)));
+        assertSame(batteryLevel, valueCache.get(AttributeKeys.characteristic(1, BATTERY_LEVEL.toString())));
+    }
+
+    @Test
+    public void ignoresAttributesWithoutPolicy() {
+        Characteristic other = characteristic(7, UUID.fromString("00002a00-0000-1000-8000-00805f9b34fb"));
+
+        valueCache.put(other, valueCache.getGeneration(), 1);
+
+        assertFalse(valueCache.contains(AttributeKeys.characteristic(7)));
+        assertEquals(0, valueCache.getIdentifierCount());
+    }
+
+    @Test
+    public void expiresValueAfterTimeToLive() {
+        valueCache.put(characteristic(7, BATTERY_LEVEL), valueCache.getGeneration(), 1);
+        now += 499;
+
+        assertTrue(valueCache.contains(AttributeKeys.characteristic(7)));
+
+        now += 1;
+
+        assertNull(valueCache.get(AttributeKeys.characteristic(7)));
+        assertEquals(1L, valueCache.getStatistics().get("expired"));
+        assertEquals(0L, valueCache.getStatistics().get("bytes"));
+        assertEquals(0, valueCache.getIdentifierCount());
+    }
+
+    @Test
+    public void keepsValueWithoutTimeToLive() {
+        valueCache.put(characteristic(8, MODEL_NUMBER), valueCache.getGeneration(), 1);
+        now = Long.MAX_VALUE - 1;
+
+        assertTrue(valueCache.contains(keyOf(MODEL_NUMBER)));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedValueOverBudget() {
+        Characteristic batteryLevel = characteristic(7, BATTERY_LEVEL);
+        valueCache.put(batteryLevel, valueCache.getGeneration(), 1);
+        valueCache.put(characteristic(8, MODEL_NUMBER), valueCache.getGeneration(), 1);
+        valueCache.get(keyOf(BATTERY_LEVEL));
+
+        valueCache.put(characteristic(9, SERIAL_NUMBER), valueCache.getGeneration(), 1);
+
+        assertSame(batteryLevel, valueCache.get(AttributeKeys.characteristic(7)));
+        assertFalse(valueCache.contains(AttributeKeys.characteristic(8)));
+        assertTrue(valueCache.contains(AttributeKeys.characteristic(9)));
+        assertEquals(1L, valueCache.getStatistics().get("evicted"));
+        assertEquals((long) 2 * ENTRY_SIZE, valueCache.getStatistics().get("bytes"));
+        assertEquals(4, valueCache.getIdentifierCount());
+    }
+
+    @Test
+    public void skipsValueLargerThanBudget() {
+        Characteristic batteryLevel = characteristic(7, BATTERY_LEVEL);
+        when(batteryLevel.getValue()).thenReturn(new byte[2 * ENTRY_SIZE]);
+
+        valueCache.put(batteryLevel, valueCache.getGeneration(), 1);
+
+        assertFalse(valueCache.contains(keyOf(BATTERY_LEVEL)));
+        assertEquals(0, valueCache.getIdentifierCount());
+    }
+
+    @Test
+    public void doesNotCacheValueReadBeforeInvalidation() {
+        long readGeneration = valueCache.getGeneration();
+        valueCache.invalidate(AttributeKeys.characteristic(7));
+
+        valueCache.put(characteristic(7, BATTERY_LEVEL), readGeneration, 1);
+
+        assertFalse(valueCache.contains(keyOf(BATTERY_LEVEL)));
+        assertEquals(1L, valueCache.getStatistics().get("misses"));
+    }
+
+    @Test
+    public void countsMissForEveryReaderOfCoveredValue() {
+        valueCache.put(characteristic(7, BATTERY_LEVEL), valueCache.getGeneration(), 3);
+        valueCache.put(characteristic(8, UUID.fromString("00002a00-0000-1000-8000-00805f9b34fb")),
+                valueCache.getGeneration(), 2);
+
+        assertEquals(3L, valueCache.getStatistics().get("misses"));
+    }
+
+    @Test
+    public void invalidatesValueByIdentifierKey() {
+        valueCache.put(characteristic(7, BATTERY_LEVEL), valueCache.getGeneration(), 1);
+
+        valueCache.invalidate(AttributeKeys.characteristic(1, BATTERY_LEVEL.toString()));
+
+        assertFalse(valueCache.contains(keyOf(BATTERY_LEVEL)));
+        assertEquals(1L, valueCache.getStatistics().get("invalidated"));
+        assertEquals(0, valueCache.getIdentifierCount());
+    }
+
+    @Test
+    public void invalidatesDescriptorValue() {
+        Descriptor descriptor = descriptor();
+        valueCache.put(descriptor, valueCache.getGeneration(), 1);
+        assertSame(descriptor, valueCache.get(AttributeKeys.descriptor(7, USER_DESCRIPTION.toString())));
+
+        valueCache.invalidate(descriptor);
+
+        assertFalse(valueCache.contains(AttributeKeys.descriptor(11)));
+        assertEquals(0, valueCache.getIdentifierCount());
+    }
+
+    @Test
+    public void invalidatesValuesOfDevice() {
+        valueCache.put(characteristic(7, BATTERY_LEVEL), valueCache.getGeneration(), 1);
+        valueCache.put(descriptor(), valueCache.getGeneration(), 1);
+        long readGeneration = valueCache.getGeneration();
+
+        valueCache.invalidateDevice(DEVICE);
+        valueCache.put(characteristic(8, MODEL_NUMBER), readGeneration, 1);
+
+        assertFalse(valueCache.contains(AttributeKeys.characteristic(7)));
+        assertFalse(valueCache.contains(AttributeKeys.descriptor(11)));
+        assertFalse(valueCache.contains(keyOf(MODEL_NUMBER)));
+        assertEquals(2L, valueCache.getStatistics().get("invalidated"));
+        assertEquals(0, valueCache.getIdentifierCount());
+    }
+
+    @Test
+    public void keepsValuesOfOtherDevices() {
+        valueCache.put(characteristic(7, BATTERY_LEVEL), valueCache.getGeneration(), 1);
+
+        valueCache.invalidateDevice("11:22:33:44:55:66");
+
+        assertTrue(valueCache.contains(AttributeKeys.characteristic(7)));
+    }
+
+    @Test
+    public void keepsIdentifierReassignedToAnotherAttribute() {
+        valueCache.put(characteristic(7, BATTERY_LEVEL), valueCache.getGeneration(), 1);
+        valueCache.forgetIdentifiers();
+        Characteristic modelNumber = characteristic(7, MODEL_NUMBER);
+        valueCache.put(modelNumber, valueCache.getGeneration(), 1);
+
+        valueCache.invalidate(characteristic(7, BATTERY_LEVEL));
+
+        assertSame(modelNumber, valueCache.get(AttributeKeys.characteristic(7)));
+    }
+
+    @Test
+    public void clearDropsValuesAndIdentifiers() {
+        valueCache.put(characteristic(7, BATTERY_LEVEL), valueCache.getGeneration(), 1);
+
+        valueCache.clear();
+
+        assertFalse(valueCache.contains(keyOf(BATTERY_LEVEL)));
+        assertEquals(0L, valueCache.getStatistics().get("bytes"));
+        assertEquals(0, valueCache.getIdentifierCount());
+    }
+
+    private static String keyOf(UUID characteristicUuid) {
+        return AttributeKeys.characteristic(DEVICE, SERVICE.toString(), characteristicUuid.toString());
+    }
+
+    private static Characteristic characteristic(int id, UUID uuid) {
+        Characteristic characteristic = mock(Characteristic.class);
+        when(characteristic.getId()).thenReturn(id);
+        when(characteristic.getUuid()).thenReturn(uuid);
+        when(characteristic.getServiceID()).thenReturn(1);
+        when(characteristic.getServiceUUID()).thenReturn(SERVICE);
+        when(characteristic.getDeviceId()).thenReturn(DEVICE);
+        when(characteristic.getValue()).thenReturn(new byte[VALUE_LENGTH]);
+        return characteristic;
+    }
+
+    private static Descriptor descriptor() {
+        Descriptor descriptor = mock(Descriptor.class);
+        when(descriptor.getId()).thenReturn(11);
+        when(descriptor.getUuid()).thenReturn(USER_DESCRIPTION);
+        when(descriptor.getCharacteristicId()).thenReturn(7);
+        when(descriptor.getCharacteristicUuid()).thenReturn(BATTERY_LEVEL);
+        when(descriptor.getServiceId()).thenReturn(1);
+        when(descriptor.getServiceUuid()).thenReturn(SERVICE);
+        when(descriptor.getDeviceId()).thenReturn(DEVICE);
+        when(descriptor.getValue()).thenReturn(new byte[VALUE_LENGTH]);
+        return descriptor;
+    }
+
+    private static List<Map<String, Object>> policies(Object... uuidsAndTimesToLive) {
+        List<Map<String, Object>> policies = new ArrayList<>();
+        for (int i = 0; i < uuidsAndTimesToLive.length; i += 2) {
+            Map<String, Object> policy = new HashMap<>();
+            policy.put(ValueCache.Key.UUID, uuidsAndTimesToLive[i].toString());
+            policy.put(ValueCache.Key.TIME_TO_LIVE_MILLIS, uuidsAndTimesToLive[i + 1]);
+            policies.add(policy);
+        }
+        return policies;
+    }
+}
@@ -0,0 +1,186 @@
+package id.flutter.background_service.scan;
+
+import com.polidea.multiplatformbleadapter.ScanResult;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RegionMonitorTest {
+
+    private static final String DEVICE = "AA:BB:CC:DD:EE:FF";
+
+    private long now;
+    private final List<String> events = new ArrayList<>();
+    private RegionMonitor regionMonitor;
+
+    @Before
+    public void setUp() {
+        now = 1000;
+        regionMonitor = new RegionMonitor(new RegionMonitor.Listener() {
+            @Override
+            public void onRegionEvent(String regionId, String deviceId, String type, int rssi) {
+                assertFalse(Thread.holdsLock(regionMonitor));
+                events.add(regionId + " " + type + " " + rssi);
+            }
+        }) {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+        regionMonitor.start();
+    }
+
+    @Test
+    public void entersOnceRssiStayedAboveThresholdForEnterDwell() {
+        regionMonitor.setRegions(regions(region(-70, -80, 1000, 0, 0)));
+
+        regionMonitor.onScanResult(scanResult(-60));
+        now += 999;
+        regionMonitor.onScanResult(scanResult(-65));
+
+        assertTrue(events.isEmpty());
+
+        now += 1;
+        regionMonitor.onScanResult(scanResult(-65));
+
+        assertEquals(Collections.singletonList("door enter -65"), events);
+    }
+
+    @Test
+    public void restartsEnterDwellWhenRssiDropsBelowThreshold() {
+        regionMonitor.setRegions(regions(region(-70, -80, 1000, 0, 0)));
+
+        regionMonitor.onScanResult(scanResult(-60));
+        now += 500;
+        regionMonitor.onScanResult(scanResult(-75));
+        now += 500;
+        regionMonitor.onScanResult(scanResult(-60));
+        now += 999;
+        regionMonitor.onScanResult(scanResult(-60));
+
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void staysInsideBetweenExitAndEnterThresholds() {
+        regionMonitor.setRegions(regions(region(-70, -80, 0, 0, 0)));
+
+        regionMonitor.onScanResult(scanResult(-65));
+        regionMonitor.onScanResult(scanResult(-79));
+        regionMonitor.onScanResult(scanResult(-72));
+        regionMonitor.onScanResult(scanResult(-81));
+
+        assertEquals(Arrays.asList("door enter -65", "door exit -81"), events);
+    }
+
+    @Test
+    public void exitsOnceRssiStayedBelowThresholdForExitDwell() {
+        regionMonitor.setRegions(regions(region(-70, -80, 0, 2000, 0)));
+        regionMonitor.onScanResult(scanResult(-65));
+
+        regionMonitor.onScanResult(scanResult(-85));
+        now += 1000;
+        regionMonitor.onScanResult(scanResult(-75));
+        now += 1000;
+        regionMonitor.onScanResult(scanResult(-85));
+        now += 1999;
+        regionMonitor.onScanResult(scanResult(-85));
+
+        assertEquals(Collections.singletonList("door enter -65"), events);
+
+        now += 1;
+        regionMonitor.onScanResult(scanResult(-85));
+
+        assertEquals(Arrays.asList("door enter -65", "door exit -85"), events);
+    }
+
+    @Test
+    public void reportsDwellOncePerVisit() {
+        regionMonitor.setRegions(regions(region(-70, -80, 0, 0, 3000)));
+        regionMonitor.onScanResult(scanResult(-65));
+
+        now += 2999;
+        regionMonitor.sweep();
+        now += 1;
+        regionMonitor.sweep();
+        now += 1000;
+        regionMonitor.onScanResult(scanResult(-60));
+        regionMonitor.sweep();
+
+        assertEquals(Arrays.asList("door enter -65", "door dwell -65"), events);
+    }
+
+    @Test
+    public void exitsDeviceNotSeenForExitTimeout() {
+        regionMonitor.setRegions(regions(region(-70, -80, 0, 0, 0)));
+        regionMonitor.onScanResult(scanResult(-65));
+
+        now += RegionMonitor.DEFAULT_EXIT_TIMEOUT_MILLIS - 1;
+        regionMonitor.sweep();
+        now += 1;
+        regionMonitor.sweep();
+
+        assertEquals(Arrays.asList("door enter -65", "door exit -65"), events);
+    }
+
+    @Test
+    public void stopForgetsDevicesAndSweepsNoMore() {
+        regionMonitor.setRegions(regions(region(-70, -80, 0, 0, 0)));
+        regionMonitor.onScanResult(scanResult(-65));
+
+        regionMonitor.stop();
+        now += RegionMonitor.DEFAULT_EXIT_TIMEOUT_MILLIS;
+        regionMonitor.sweep();
+        regionMonitor.start();
+        regionMonitor.sweep();
+
+        assertEquals(Collections.singletonList("door enter -65"), events);
+    }
+
+    @Test
+    public void keepsExitThresholdAtOrBelowEnterThreshold() {
+        regionMonitor.setRegions(regions(region(-70, -60, 0, 0, 0)));
+
+        regionMonitor.onScanResult(scanResult(-70));
+        regionMonitor.onScanResult(scanResult(-65));
+
+        assertEquals(Collections.singletonList("door enter -70"), events);
+    }
+
+    private static ScanResult scanResult(int rssi) {
+        ScanResult scanResult = mock(ScanResult.class);
+        when(scanResult.getDeviceId()).thenReturn(DEVICE);
+        when(scanResult.getRssi()).thenReturn(rssi);
+        return scanResult;
+    }
+
+    private static Map<String, Object> region(int enterRssi, int exitRssi, long enterDwell, long exitDwell, long dwellTime) {
+        Map<String, Object> region = new HashMap<>();
+        region.put(RegionMonitor.Key.ID, "door");
+        region.put(RegionMonitor.Key.ENTER_RSSI, enterRssi);
+        region.put(RegionMonitor.Key.EXIT_RSSI, exitRssi);
+        region.put(RegionMonitor.Key.ENTER_DWELL_MILLIS, enterDwell);
+        region.put(RegionMonitor.Key.EXIT_DWELL_MILLIS, exitDwell);
+        region.put(RegionMonitor.Key.DWELL_TIME_MILLIS, dwellTime);
+        return region;
+    }
+
+    @SafeVarargs
+    private static List<Map<String, Object>> regions(Map<String, Object>... regions) {
+        return Arrays.asList(regions);
+    }
+}
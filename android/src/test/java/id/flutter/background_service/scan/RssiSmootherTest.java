@@ -0,0 +1,124 @@
+package id.flutter.background_service.scan;
+
+import id.flutter.background_service.constant.RssiFilterType;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RssiSmootherTest {
+
+    private static final String DEVICE = "AA:BB:CC:DD:EE:FF";
+    private static final String OTHER_DEVICE = "11:22:33:44:55:66";
+
+    private long now;
+    private final List<Double> estimates = new ArrayList<>();
+    private RssiSmoother smoother;
+
+    @Before
+    public void setUp() {
+        now = 1000;
+        smoother = new RssiSmoother(new RssiSmoother.Listener() {
+            @Override
+            public void onSmoothedRssi(String deviceId, double rssi, int rawRssi) {
+                estimates.add(rssi);
+            }
+        }) {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void reportsNothingWithoutFilter() {
+        smoother.onSample(DEVICE, -60);
+
+        assertTrue(estimates.isEmpty());
+    }
+
+    @Test
+    public void averagesExponentially() {
+        smoother.configure(RssiFilterType.EMA, 0.5, null, null, 0.0);
+
+        smoother.onSample(DEVICE, -60);
+        smoother.onSample(DEVICE, -70);
+        smoother.onSample(DEVICE, -70);
+
+        assertEquals(3, estimates.size());
+        assertEquals(-60, estimates.get(0), 1e-9);
+        assertEquals(-65, estimates.get(1), 1e-9);
+        assertEquals(-67.5, estimates.get(2), 1e-9);
+    }
+
+    @Test
+    public void filtersWithKalmanGain() {
+        smoother.configure(RssiFilterType.KALMAN, null, 1.0, 1.0, 0.0);
+
+        smoother.onSample(DEVICE, -60);
+        smoother.onSample(DEVICE, -70);
+        smoother.onSample(DEVICE, -70);
+
+        assertEquals(3, estimates.size());
+        assertEquals(-60, estimates.get(0), 1e-9);
+        // Prior covariance 2, gain 2/3.
+        assertEquals(-60 - 20.0 / 3, estimates.get(1), 1e-9);
+        // Prior covariance 2/3 + 1, gain 5/8.
+        assertEquals(-68.75, estimates.get(2), 1e-9);
+    }
+
+    @Test
+    public void keepsEstimatePerDevice() {
+        smoother.configure(RssiFilterType.EMA, 0.5, null, null, 0.0);
+
+        smoother.onSample(DEVICE, -60);
+        smoother.onSample(OTHER_DEVICE, -80);
+        smoother.onSample(DEVICE, -70);
+
+        assertEquals(-65, estimates.get(2), 1e-9);
+    }
+
+    @Test
+    public void reportsAtMostMaxRatePerDevice() {
+        smoother.configure(RssiFilterType.EMA, 0.5, null, null, 2.0);
+
+        smoother.onSample(DEVICE, -60);
+        now += 499;
+        smoother.onSample(DEVICE, -70);
+        smoother.onSample(OTHER_DEVICE, -80);
+
+        assertEquals(2, estimates.size());
+
+        now += 1;
+        smoother.onSample(DEVICE, -70);
+
+        assertEquals(3, estimates.size());
+        assertEquals(-67.5, estimates.get(2), 1e-9);
+    }
+
+    @Test
+    public void ignoresMalformedDeviceIds() {
+        smoother.configure(RssiFilterType.EMA, 0.5, null, null, 0.0);
+
+        smoother.onSample("not-a-mac", -60);
+
+        assertTrue(estimates.isEmpty());
+    }
+
+    @Test
+    public void resetForgetsEstimates() {
+        smoother.configure(RssiFilterType.EMA, 0.5, null, null, 0.0);
+        smoother.onSample(DEVICE, -60);
+
+        smoother.reset();
+        smoother.onSample(DEVICE, -80);
+
+        assertEquals(-80, estimates.get(1), 1e-9);
+    }
+}
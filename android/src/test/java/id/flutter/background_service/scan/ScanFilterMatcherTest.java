@@ -0,0 +1,179 @@
+package id.flutter.background_service.scan;
+
+import com.polidea.multiplatformbleadapter.AdvertisementData;
+import com.polidea.multiplatformbleadapter.ScanResult;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScanFilterMatcherTest {
+
+    private static final UUID HEART_RATE = UUID.fromString("0000180d-0000-1000-8000-00805f9b34fb");
+    private static final UUID BATTERY = UUID.fromString("0000180f-0000-1000-8000-00805f9b34fb");
+
+    @Test
+    public void emptySpecMatchesEverything() {
+        assertSame(ScanFilterMatcher.MATCH_ALL, ScanFilterMatcher.compile(null));
+        assertSame(ScanFilterMatcher.MATCH_ALL, ScanFilterMatcher.compile(Collections.<Map<String, Object>>emptyList()));
+        assertTrue(ScanFilterMatcher.MATCH_ALL.matches(mock(ScanResult.class)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMalformedUuid() {
+        ScanFilterMatcher.compile(spec(filter(ScanFilterMatcher.Key.SERVICE_UUID, "not-a-uuid")));
+    }
+
+    @Test
+    public void matchesManufacturerId() {
+        ScanFilterMatcher matcher = ScanFilterMatcher.compile(spec(filter(ScanFilterMatcher.Key.MANUFACTURER_ID, 0x004C)));
+
+        assertTrue(matcher.matches(withManufacturerData(new byte[]{0x4C, 0x00, 0x02})));
+        assertFalse(matcher.matches(withManufacturerData(new byte[]{0x00, 0x4C, 0x02})));
+        assertFalse(matcher.matches(withManufacturerData(new byte[]{0x4C})));
+        assertFalse(matcher.matches(withManufacturerData(null)));
+        assertFalse(matcher.matches(scanResult(-60, null, null)));
+    }
+
+    @Test
+    public void matchesManufacturerDataPrefix() {
+        Map<String, Object> filter = filter(ScanFilterMatcher.Key.MANUFACTURER_ID, 0x004C);
+        filter.put(ScanFilterMatcher.Key.MANUFACTURER_DATA_PREFIX, new byte[]{0x4C, 0x00, 0x02, 0x15});
+        ScanFilterMatcher matcher = ScanFilterMatcher.compile(spec(filter));
+
+        assertTrue(matcher.matches(withManufacturerData(new byte[]{0x4C, 0x00, 0x02, 0x15, 0x01})));
+        assertFalse(matcher.matches(withManufacturerData(new byte[]{0x4C, 0x00, 0x02, 0x16, 0x01})));
+        assertFalse(matcher.matches(withManufacturerData(new byte[]{0x4C, 0x00, 0x02})));
+    }
+
+    @Test
+    public void matchesNamePrefixOfDeviceOrLocalName() {
+        ScanFilterMatcher matcher = ScanFilterMatcher.compile(spec(filter(ScanFilterMatcher.Key.NAME_PREFIX, "Polar")));
+
+        ScanResult deviceName = scanResult(-60, "Polar H10", null);
+        ScanResult localName = scanResult(-60, null, mock(AdvertisementData.class));
+        when(localName.getAdvertisementData().getLocalName()).thenReturn("Polar OH1");
+        ScanResult otherName = scanResult(-60, "Garmin", mock(AdvertisementData.class));
+
+        assertTrue(matcher.matches(deviceName));
+        assertTrue(matcher.matches(localName));
+        assertFalse(matcher.matches(otherName));
+        assertFalse(matcher.matches(scanResult(-60, null, null)));
+    }
+
+    @Test
+    public void matchesServiceUuidGivenInShortForm() {
+        ScanFilterMatcher matcher = ScanFilterMatcher.compile(spec(filter(ScanFilterMatcher.Key.SERVICE_UUID, "180D")));
+
+        assertTrue(matcher.matches(withServiceUuids(BATTERY, HEART_RATE)));
+        assertFalse(matcher.matches(withServiceUuids(BATTERY)));
+        assertFalse(matcher.matches(withServiceUuids()));
+    }
+
+    @Test
+    public void matchesServiceDataUuidAndPrefix() {
+        Map<String, Object> filter = filter(ScanFilterMatcher.Key.SERVICE_DATA_UUID, BATTERY.toString());
+        filter.put(ScanFilterMatcher.Key.SERVICE_DATA_PREFIX, new byte[]{0x01});
+        ScanFilterMatcher matcher = ScanFilterMatcher.compile(spec(filter));
+
+        assertTrue(matcher.matches(withServiceData(BATTERY, new byte[]{0x01, 0x64})));
+        assertFalse(matcher.matches(withServiceData(BATTERY, new byte[]{0x02, 0x64})));
+        assertFalse(matcher.matches(withServiceData(HEART_RATE, new byte[]{0x01, 0x64})));
+    }
+
+    @Test
+    public void matchesMinRssi() {
+        ScanFilterMatcher matcher = ScanFilterMatcher.compile(spec(filter(ScanFilterMatcher.Key.MIN_RSSI, -70)));
+
+        assertTrue(matcher.matches(scanResult(-70, null, null)));
+        assertFalse(matcher.matches(scanResult(-71, null, null)));
+    }
+
+    @Test
+    public void requiresEveryFieldOfFilter() {
+        Map<String, Object> filter = filter(ScanFilterMatcher.Key.SERVICE_UUID, HEART_RATE.toString());
+        filter.put(ScanFilterMatcher.Key.MIN_RSSI, -70);
+        ScanFilterMatcher matcher = ScanFilterMatcher.compile(spec(filter));
+
+        ScanResult strong = withServiceUuids(HEART_RATE);
+        ScanResult weak = withServiceUuids(HEART_RATE);
+        when(weak.getRssi()).thenReturn(-80);
+
+        assertTrue(matcher.matches(strong));
+        assertFalse(matcher.matches(weak));
+    }
+
+    @Test
+    public void matchesAnyFilter() {
+        ScanFilterMatcher matcher = ScanFilterMatcher.compile(spec(
+                filter(ScanFilterMatcher.Key.MANUFACTURER_ID, 0x004C),
+                filter(ScanFilterMatcher.Key.SERVICE_UUID, HEART_RATE.toString()),
+                filter(ScanFilterMatcher.Key.NAME_PREFIX, "Polar")));
+
+        assertTrue(matcher.matches(withManufacturerData(new byte[]{0x4C, 0x00})));
+        assertTrue(matcher.matches(withServiceUuids(HEART_RATE)));
+        assertTrue(matcher.matches(scanResult(-60, "Polar H10", null)));
+        assertFalse(matcher.matches(withServiceUuids(BATTERY)));
+    }
+
+    @Test
+    public void indexedFilterStillChecksItsOtherFields() {
+        Map<String, Object> filter = filter(ScanFilterMatcher.Key.SERVICE_UUID, HEART_RATE.toString());
+        filter.put(ScanFilterMatcher.Key.NAME_PREFIX, "Polar");
+        ScanFilterMatcher matcher = ScanFilterMatcher.compile(spec(filter));
+
+        ScanResult named = withServiceUuids(HEART_RATE);
+        when(named.getDeviceName()).thenReturn("Polar H10");
+
+        assertTrue(matcher.matches(named));
+        assertFalse(matcher.matches(withServiceUuids(HEART_RATE)));
+    }
+
+    @SafeVarargs
+    private static List<Map<String, Object>> spec(Map<String, Object>... filters) {
+        return Arrays.asList(filters);
+    }
+
+    private static Map<String, Object> filter(String key, Object value) {
+        Map<String, Object> filter = new HashMap<>();
+        filter.put(key, value);
+        return filter;
+    }
+
+    private static ScanResult withManufacturerData(byte[] manufacturerData) {
+        AdvertisementData advertisementData = mock(AdvertisementData.class);
+        when(advertisementData.getManufacturerData()).thenReturn(manufacturerData);
+        return scanResult(-60, null, advertisementData);
+    }
+
+    private static ScanResult withServiceUuids(UUID... uuids) {
+        AdvertisementData advertisementData = mock(AdvertisementData.class);
+        when(advertisementData.getServiceUUIDs()).thenReturn(Arrays.asList(uuids));
+        return scanResult(-60, null, advertisementData);
+    }
+
+    private static ScanResult withServiceData(UUID uuid, byte[] data) {
+        AdvertisementData advertisementData = mock(AdvertisementData.class);
+        when(advertisementData.getServiceData()).thenReturn(Collections.singletonMap(uuid, data));
+        return scanResult(-60, null, advertisementData);
+    }
+
+    private static ScanResult scanResult(int rssi, String deviceName, AdvertisementData advertisementData) {
+        ScanResult scanResult = mock(ScanResult.class);
+        when(scanResult.getRssi()).thenReturn(rssi);
+        when(scanResult.getDeviceName()).thenReturn(deviceName);
+        when(scanResult.getAdvertisementData()).thenReturn(advertisementData);
+        return scanResult;
+    }
+}
@@ -0,0 +1,148 @@
+package id.flutter.background_service.scan;
+
+import com.polidea.multiplatformbleadapter.AdvertisementData;
+import com.polidea.multiplatformbleadapter.ScanResult;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScanResultDeduplicatorTest {
+
+    private long now;
+    private ScanResultDeduplicator deduplicator;
+
+    @Before
+    public void setUp() {
+        now = 1000;
+        deduplicator = new ScanResultDeduplicator() {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+        deduplicator.configure(false, 5, 1000);
+    }
+
+    @Test
+    public void emitsEverythingWhenDuplicatesAreAllowed() {
+        deduplicator.configure(true, 5, 1000);
+
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+    }
+
+    @Test
+    public void emitsEverythingWhenNotConfigured() {
+        ScanResultDeduplicator unconfigured = new ScanResultDeduplicator();
+
+        assertTrue(unconfigured.shouldEmit(scanResult("AA", -60, "a")));
+        assertTrue(unconfigured.shouldEmit(scanResult("AA", -60, "a")));
+    }
+
+    @Test
+    public void suppressesRepeatedAdvert() {
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+        now += 999;
+
+        assertFalse(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+    }
+
+    @Test
+    public void emitsEachDevice() {
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+
+        assertTrue(deduplicator.shouldEmit(scanResult("BB", -60, "a")));
+    }
+
+    @Test
+    public void emitsChangedPayload() {
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "b")));
+        assertFalse(deduplicator.shouldEmit(scanResult("AA", -60, "b")));
+    }
+
+    @Test
+    public void emitsChangedManufacturerData() {
+        ScanResult first = scanResult("AA", -60, "a");
+        when(first.getAdvertisementData().getManufacturerData()).thenReturn(new byte[]{1});
+        ScanResult second = scanResult("AA", -60, "a");
+        when(second.getAdvertisementData().getManufacturerData()).thenReturn(new byte[]{2});
+
+        assertTrue(deduplicator.shouldEmit(first));
+        assertTrue(deduplicator.shouldEmit(second));
+    }
+
+    @Test
+    public void emitsRssiMovedBeyondThreshold() {
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+
+        assertFalse(deduplicator.shouldEmit(scanResult("AA", -65, "a")));
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -66, "a")));
+        assertFalse(deduplicator.shouldEmit(scanResult("AA", -61, "a")));
+    }
+
+    @Test
+    public void emitsAgainAfterRefreshInterval() {
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+        now += 1000;
+
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+        now += 500;
+        assertFalse(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+    }
+
+    @Test
+    public void suppressedResultsDoNotPostponeRefresh() {
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+        now += 600;
+        assertFalse(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+        now += 400;
+
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+    }
+
+    @Test
+    public void prunesDevicesNotEmittedWithinRefreshInterval() {
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+        assertTrue(deduplicator.shouldEmit(scanResult("BB", -60, "a")));
+        now += 600;
+        assertTrue(deduplicator.shouldEmit(scanResult("CC", -60, "a")));
+        now += 400;
+
+        assertTrue(deduplicator.shouldEmit(scanResult("DD", -60, "a")));
+        assertEquals(2, deduplicator.getRecordCount());
+        assertFalse(deduplicator.shouldEmit(scanResult("CC", -60, "a")));
+    }
+
+    @Test
+    public void resetForgetsDevices() {
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+
+        deduplicator.reset();
+
+        assertTrue(deduplicator.shouldEmit(scanResult("AA", -60, "a")));
+    }
+
+    @Test
+    public void emitsResultsWithoutDeviceId() {
+        assertTrue(deduplicator.shouldEmit(scanResult(null, -60, "a")));
+        assertTrue(deduplicator.shouldEmit(scanResult(null, -60, "a")));
+    }
+
+    private static ScanResult scanResult(String deviceId, int rssi, String localName) {
+        AdvertisementData advertisementData = mock(AdvertisementData.class);
+        when(advertisementData.getLocalName()).thenReturn(localName);
+        ScanResult scanResult = mock(ScanResult.class);
+        when(scanResult.getDeviceId()).thenReturn(deviceId);
+        when(scanResult.getRssi()).thenReturn(rssi);
+        when(scanResult.getAdvertisementData()).thenReturn(advertisementData);
+        return scanResult;
+    }
+}
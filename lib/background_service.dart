@@ -48,6 +48,7 @@ class BackgroundService {
     Function onStart, {
     bool foreground = false,
     bool autoStart = false,
+    bool bleTaskQueue = false,
   }) async {
     final CallbackHandle? handle = PluginUtilities.getCallbackHandle(onStart);
     if (handle == null) {
@@ -62,7 +63,8 @@ class BackgroundService {
       <String, dynamic>{
         "handle": handle.toRawHandle(),
         "is_foreground_mode": foreground,
-        "auto_start_on_boot": autoStart
+        "auto_start_on_boot": autoStart,
+        "ble_task_queue": bleTaskQueue
       },
     );
 
@@ -118,6 +120,35 @@ class BackgroundService {
     _isRunning = false;
   }
 
+  // Start-up timings of the background engine, split into cold starts and warm
+  // starts that re-attached the cached engine. After a warm start the service
+  // sends {"state": "serviceRestarted"} through onDataReceived, and BleManager
+  // creates its client again.
+  // Only for Android
+  Future<Map<String, dynamic>> engineStartStatistics() async {
+    final result = await backgroundChannel
+        .invokeMapMethod<String, dynamic>("engineStartStatistics");
+    return result ?? <String, dynamic>{};
+  }
+
+  // Number of calls per background channel method since the service started
+  // Only for Android
+  Future<Map<String, int>> methodCallStatistics() async {
+    final result = await backgroundChannel
+        .invokeMapMethod<String, int>("methodCallStatistics");
+    return result ?? <String, int>{};
+  }
+
+  // Microseconds each background channel method spent on the main thread.
+  // With initialize(bleTaskQueue: true) BLE calls are handled on a background
+  // task queue and only the service methods are counted here.
+  // Only for Android
+  Future<Map<String, int>> mainThreadStatistics() async {
+    final result = await backgroundChannel
+        .invokeMapMethod<String, int>("mainThreadStatistics");
+    return result ?? <String, int>{};
+  }
+
   void setAutoStartOnBootMode(bool value) {
     if (Platform.isAndroid)
       backgroundChannel.invokeMethod("setAutoStartOnBootMode", {
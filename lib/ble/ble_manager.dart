@@ -62,6 +62,10 @@ abstract class BleManager {
   ///
   /// Must return before any other operation can be called.
   ///
+  /// On Android, when the background service restarts on its cached engine,
+  /// the client is created again with the same [restoreStateIdentifier].
+  /// Scans and monitors running at the time end.
+  ///
   /// ```dart
   /// await BleManager().createClient();
   /// ```
@@ -78,15 +82,32 @@ abstract class BleManager {
 
   /// Starts scanning for peripherals.
   ///
-  /// Arguments [scanMode] and [callbackType] are Android-only,
-  /// while [allowDuplicates] is iOS-only. Note that [allowDuplicates] set to
-  /// false will only result in slower refresh rate for unique peripheral's
-  /// advertisement data, not dismissal of it after receiving the initial one.
+  /// Arguments [scanMode] and [callbackType] are Android-only. Note that
+  /// [allowDuplicates] set to false will only result in slower refresh rate
+  /// for unique peripheral's advertisement data, not dismissal of it after
+  /// receiving the initial one. On Android a repeated advertisement is
+  /// delivered again once its payload changes, its RSSI moves by more than
+  /// [duplicateRssiDelta] dBm or [duplicateRefreshInterval] passes.
   /// Refer to each platform's own documentation for more detailed information.
   ///
   /// [uuids] is used to filter scan results to those whose advertised service
   /// match either of the specified UUIDs.
   ///
+  /// [filters] are evaluated on Android before a result is serialized, so
+  /// advertisements that match none of them never reach Dart.
+  ///
+  /// Passing [rssiSmoothing] enables per-peripheral RSSI smoothing for the
+  /// scan, observable through [observeSmoothedRssi].
+  ///
+  /// When [scanBatchSize] is greater than one, Android sends results in
+  /// batches of up to [scanBatchSize], flushed at least every
+  /// [scanBatchInterval] (200 ms by default). The stream still emits one
+  /// [ScanResult] at a time.
+  ///
+  /// [scanResultFormat] selects how results cross the platform channel.
+  /// [ScanResultFormat.binary] avoids building and parsing JSON for every
+  /// advertisement and is only supported on Android.
+  ///
   /// ```dart
   /// bleManager.startPeripheralScan().listen((scanResult) {
   ///   //Scan one peripheral and stop scanning
@@ -99,11 +120,107 @@ abstract class BleManager {
     int callbackType = CallbackType.allMatches,
     List<String> uuids = const [],
     bool allowDuplicates = false,
+    int? duplicateRssiDelta,
+    Duration? duplicateRefreshInterval,
+    String scanResultFormat = ScanResultFormat.json,
+    int? scanBatchSize,
+    Duration? scanBatchInterval,
+    List<ScanFilter> filters = const [],
+    RssiSmoothing? rssiSmoothing,
   });
 
   /// Finishes the scan operation on the device.
   Future<void> stopPeripheralScan();
 
+  /// Returns a stream of smoothed RSSI values for peripherals found by a scan
+  /// started with `rssiSmoothing`.
+  ///
+  /// Android only.
+  Stream<SmoothedRssi> observeSmoothedRssi();
+
+  /// Returns flush counters of the batching enabled with
+  /// [startPeripheralScan]'s `scanBatchSize` for the current or last scan.
+  ///
+  /// Android only.
+  Future<Map<String, int>> scanBatchStatistics();
+
+  /// Returns under `droppedEvents` the notifications dropped because Android
+  /// could not serialize them fast enough, and under `subscriptions`, per
+  /// transaction id of an active monitor, its delivery policy and the number
+  /// of notifications `delivered` to it and `dropped` by its
+  /// [MonitorDeliveryPolicy].
+  ///
+  /// Android only.
+  Future<Map<String, dynamic>> monitorStatistics();
+
+  /// Returns, per [OperationPriority] lane of the native GATT queue, the
+  /// number of `operations` finished, `queued`, `expired` past their deadline
+  /// and `cancelled` while queued, together with the total and maximum time
+  /// spent waiting in the queue (`totalQueueWaitMillis`, `maxQueueWaitMillis`)
+  /// and on air (`totalOnAirMillis`, `maxOnAirMillis`).
+  ///
+  /// Identical reads of one attribute or of the RSSI of one peripheral share
+  /// a single request while it is pending. `sharedReads` counts the `reads`
+  /// sent, the reads `joined` to a pending one and the reads `inFlight`.
+  ///
+  /// Android only.
+  Future<Map<String, dynamic>> gattSchedulerStatistics();
+
+  /// Registers how values of the characteristic with [characteristicUuid]
+  /// are decoded by [Characteristic.readDecoded],
+  /// [Characteristic.monitorDecoded] and their [Peripheral] counterparts:
+  /// each of [fields] becomes one number of the decoded list, in order.
+  /// Passing `null` removes the schema.
+  ///
+  /// Android only.
+  Future<void> registerPayloadSchema(
+    String characteristicUuid,
+    List<ValueLayout>? fields,
+  );
+
+  /// Enables the native cache of characteristic and descriptor values for
+  /// the UUIDs of [policies], replacing any previous configuration and
+  /// dropping cached values. Reads of a cached attribute are answered without
+  /// a request to the peripheral while the value is fresh. Writing the
+  /// attribute or receiving a notification of it drops its value. Values are
+  /// evicted least recently used first once they take more than [byteBudget]
+  /// bytes. Passing no policies or a budget of zero disables the cache.
+  ///
+  /// Values are kept per peripheral and attribute UUIDs for as long as the
+  /// background service runs, across connections.
+  ///
+  /// Android only.
+  Future<void> configureValueCache({
+    required int byteBudget,
+    required List<ValueCachePolicy> policies,
+  });
+
+  /// Returns the `hits` and `misses` of the value cache, the values
+  /// `expired`, `evicted` and `invalidated`, and the current number of
+  /// `entries`, their size in `bytes` and the `byteBudget`.
+  ///
+  /// Android only.
+  Future<Map<String, int>> valueCacheStatistics();
+
+  /// Replaces the proximity regions evaluated natively on scan results.
+  /// Passing an empty list stops region monitoring.
+  ///
+  /// Android only.
+  Future<void> setProximityRegions(List<ProximityRegion> regions);
+
+  /// Returns a stream of enter, exit and dwell transitions of the regions set
+  /// with [setProximityRegions]. Individual scan results are not needed to
+  /// follow the regions, so the scan stream can stay unsubscribed.
+  ///
+  /// Android only.
+  Stream<RegionEvent> observeRegionEvents();
+
+  /// Stores the [HeadlessMonitoring] configuration used by the next start of
+  /// the background service.
+  ///
+  /// Android only.
+  Future<void> configureHeadlessMonitoring(HeadlessMonitoring configuration);
+
   /// Sets specified [LogLevel].
   ///
   /// This sets log level for both Dart and native platform.
@@ -185,3 +302,9 @@ abstract class CallbackType {
   static const int firstMatch = 2;
   static const int matchLost = 4;
 }
+
+/// Encoding of scan results sent from the platform - binary is Android only.
+abstract class ScanResultFormat {
+  static const String json = "json";
+  static const String binary = "binary";
+}
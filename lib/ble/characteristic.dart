@@ -57,11 +57,36 @@ class Characteristic extends InternalCharacteristic {
   /// Reads the value of this characteristic.
   ///
   /// The value can be read only if [isReadable] is `true`.
-  Future<Uint8List> read({String? transactionId}) =>
+  /// [responseFormat] selects how the value crosses the platform channel.
+  ///
+  /// [priority] and [deadline] schedule the read among other operations on
+  /// the peripheral, see [OperationPriority]. A read still queued when
+  /// [deadline] passes fails without being sent.
+  Future<Uint8List> read({
+    String? transactionId,
+    String responseFormat = ResponseFormat.json,
+    String? priority,
+    Duration? deadline,
+  }) =>
       _manager.readCharacteristicForIdentifier(
         service.peripheral,
         this,
         transactionId ?? TransactionIdGenerator.getNextId(),
+        responseFormat,
+        priority,
+        deadline,
+      );
+
+  /// Reads the value of this characteristic decoded natively by the schema
+  /// passed to [BleManager.registerPayloadSchema] for its UUID. Fields the
+  /// value is too short for are `NaN`.
+  ///
+  /// Android only.
+  Future<Float64List> readDecoded({String? transactionId}) =>
+      _manager.readDecodedCharacteristicForIdentifier(
+        service.peripheral,
+        this,
+        transactionId ?? TransactionIdGenerator.getNextId(),
       );
 
   /// Writes to the value of this characteristic.
@@ -73,6 +98,8 @@ class Characteristic extends InternalCharacteristic {
     Uint8List value,
     bool withResponse, {
     String? transactionId,
+    String? priority,
+    Duration? deadline,
   }) =>
       _manager.writeCharacteristicForIdentifier(
         service.peripheral,
@@ -80,6 +107,8 @@ class Characteristic extends InternalCharacteristic {
         value,
         withResponse,
         transactionId ?? TransactionIdGenerator.getNextId(),
+        priority,
+        deadline,
       );
 
   /// Returns a [Stream] of notifications/indications emitted by this
@@ -90,11 +119,53 @@ class Characteristic extends InternalCharacteristic {
   /// Subscribing to the returned object enables the notifications/indications
   /// on the peripheral. Cancelling the last subscription disables the
   /// notifications/indications on this characteristic.
-  Stream<Uint8List> monitor({String? transactionId}) =>
+  ///
+  /// [deliveryPolicy] limits how often this listener receives notifications
+  /// and [responseFormat] selects how they cross the platform channel.
+  Stream<Uint8List> monitor({
+    String? transactionId,
+    MonitorDeliveryPolicy deliveryPolicy = const MonitorDeliveryPolicy.all(),
+    String responseFormat = ResponseFormat.json,
+  }) =>
       _manager.monitorCharacteristicForIdentifier(
         service.peripheral,
         this,
         transactionId ?? TransactionIdGenerator.getNextId(),
+        deliveryPolicy,
+        responseFormat,
+      );
+
+  /// Like [monitor], but emits values decoded natively by the schema passed to
+  /// [BleManager.registerPayloadSchema] for this characteristic's UUID. The
+  /// stream fails right away when no schema is registered.
+  ///
+  /// Android only.
+  Stream<Float64List> monitorDecoded({
+    String? transactionId,
+    MonitorDeliveryPolicy deliveryPolicy = const MonitorDeliveryPolicy.all(),
+  }) =>
+      _manager.monitorDecodedCharacteristicForIdentifier(
+        this,
+        uuid,
+        transactionId ?? TransactionIdGenerator.getNextId(),
+        deliveryPolicy,
+      );
+
+  /// Returns a [Stream] of min/max/mean summaries of the value described by
+  /// [layout], one per [window] in which this characteristic notified.
+  ///
+  /// The values are decoded and aggregated natively, so individual
+  /// notifications never cross the platform channel. Android only.
+  Stream<AggregatedValue> aggregate({
+    required ValueLayout layout,
+    required Duration window,
+    String? transactionId,
+  }) =>
+      _manager.aggregateCharacteristicForIdentifier(
+        this,
+        layout,
+        window,
+        transactionId ?? TransactionIdGenerator.getNextId(),
       );
 
   /// Returns a list of [Descriptor]s of this characteristic.
@@ -178,6 +249,15 @@ class CharacteristicWithValue extends Characteristic {
   )   : value = base64Decode(jsonObject[_CharacteristicMetadata.value]),
         super.fromJson(jsonObject, service, manager);
 
+  /// Creates the characteristic from a response sent in
+  /// [ResponseFormat.binary], which carries the value as raw bytes.
+  CharacteristicWithValue.fromMap(
+    Map<String, dynamic> map,
+    Service service,
+    ManagerForCharacteristic manager,
+  )   : value = map[_CharacteristicMetadata.value] ?? Uint8List(0),
+        super.fromJson(map, service, manager);
+
   @override
   bool operator ==(Object other) {
     return identical(this, other) ||
@@ -196,3 +276,91 @@ class CharacteristicWithValue extends Characteristic {
         ' CharacteristicWithValue{value = ${value.toString()}';
   }
 }
+
+/// Characteristic to read with [Peripheral.readCharacteristicsBatch].
+class CharacteristicReadRequest {
+  final String serviceUuid;
+  final String characteristicUuid;
+
+  const CharacteristicReadRequest(this.serviceUuid, this.characteristicUuid);
+}
+
+/// Outcome of one read of [Peripheral.readCharacteristicsBatch]. Exactly one
+/// of [characteristic] and [error] is set.
+class CharacteristicReadResult {
+  final CharacteristicWithValue? characteristic;
+  final BleError? error;
+
+  CharacteristicReadResult.success(CharacteristicWithValue this.characteristic)
+      : error = null;
+
+  CharacteristicReadResult.failure(BleError this.error)
+      : characteristic = null;
+
+  bool get isSuccess => error == null;
+}
+
+abstract class _BulkWriteProgressMetadata {
+  static const String transactionId = "transactionId";
+  static const String written = "written";
+  static const String total = "total";
+}
+
+/// Progress of [Peripheral.writeCharacteristicBulk].
+class BulkWriteProgress {
+  final String transactionId;
+
+  /// Bytes acknowledged by the platform so far.
+  final int written;
+
+  /// Size of the whole payload in bytes.
+  final int total;
+
+  BulkWriteProgress.fromMap(Map<dynamic, dynamic> map)
+      : transactionId = map[_BulkWriteProgressMetadata.transactionId],
+        written = map[_BulkWriteProgressMetadata.written],
+        total = map[_BulkWriteProgressMetadata.total];
+}
+
+/// Lane of a GATT operation in the native per-peripheral queue, which hands
+/// the operations of one peripheral to the adapter one at a time, taking the
+/// next one from the most urgent non-empty lane. RSSI requests default to
+/// [background], other reads and writes to [normal].
+///
+/// Android only.
+abstract class OperationPriority {
+  static const String critical = "critical";
+  static const String normal = "normal";
+  static const String background = "background";
+}
+
+abstract class _ValueCachePolicyMetadata {
+  static const String uuid = "uuid";
+  static const String timeToLive = "timeToLive";
+}
+
+/// Lets values of characteristics or descriptors with [uuid] be served from
+/// the native value cache, see [BleManager.configureValueCache].
+class ValueCachePolicy {
+  final String uuid;
+
+  /// How long a value read from a peripheral is served from the cache.
+  /// Without one, values stay until written, notified or evicted.
+  final Duration? timeToLive;
+
+  const ValueCachePolicy(this.uuid, {this.timeToLive});
+
+  Map<String, dynamic> toMap() => <String, dynamic>{
+        _ValueCachePolicyMetadata.uuid: uuid,
+        _ValueCachePolicyMetadata.timeToLive: timeToLive?.inMilliseconds,
+      };
+}
+
+/// Encoding of characteristic values sent from the platform.
+///
+/// [binary] sends the value as raw bytes through the platform channel codec
+/// instead of Base64 inside a JSON string and is only supported on Android.
+abstract class ResponseFormat {
+  static const String json = "json";
+  static const String binary = "binary";
+}
@@ -52,8 +52,16 @@ part 'characteristic.dart';
 
 part 'descriptor.dart';
 
+part 'gatt_tree.dart';
+
+part 'monitor_delivery.dart';
+
 part 'peripheral.dart';
 
+part 'proximity.dart';
+
+part 'scan_filter.dart';
+
 part 'scan_result.dart';
 
 part 'service.dart';
@@ -0,0 +1,18 @@
+part of flutter_ble_lib;
+
+/// A [Service] with all of its [Characteristic]s, as returned by
+/// [Peripheral.gattTree].
+class GattService {
+  final Service service;
+  final List<GattCharacteristic> characteristics;
+
+  GattService(this.service, this.characteristics);
+}
+
+/// A [Characteristic] with all of its [Descriptor]s.
+class GattCharacteristic {
+  final Characteristic characteristic;
+  final List<Descriptor> descriptors;
+
+  GattCharacteristic(this.characteristic, this.descriptors);
+}
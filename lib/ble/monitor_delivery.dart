@@ -0,0 +1,123 @@
+part of flutter_ble_lib;
+
+abstract class _DeliveryPolicyType {
+  static const String all = "all";
+  static const String latest = "latest";
+  static const String sample = "sample";
+}
+
+/// How notifications of a monitored characteristic are delivered to one
+/// listener - Android only, other platforms deliver every notification.
+///
+/// Notifications a policy skips are dropped natively before they are
+/// serialized and counted in [BleManager.monitorStatistics].
+class MonitorDeliveryPolicy {
+  final String policy;
+
+  /// Minimum time between two notifications for [MonitorDeliveryPolicy.latest]
+  /// and the sampling period for [MonitorDeliveryPolicy.sample].
+  final Duration interval;
+
+  /// Every notification, in order.
+  const MonitorDeliveryPolicy.all()
+      : policy = _DeliveryPolicyType.all,
+        interval = Duration.zero;
+
+  /// At most [maxHz] notifications per second. A notification arriving too
+  /// early is held back and replaced by newer ones until its turn comes.
+  MonitorDeliveryPolicy.latest({required double maxHz})
+      : policy = _DeliveryPolicyType.latest,
+        interval = Duration(microseconds: (1000000 / maxHz).round());
+
+  /// The newest notification once every [interval], if there was one.
+  const MonitorDeliveryPolicy.sample(this.interval)
+      : policy = _DeliveryPolicyType.sample;
+}
+
+abstract class _ValueLayoutMetadata {
+  static const String offset = "offset";
+  static const String width = "width";
+  static const String signed = "signed";
+  static const String littleEndian = "littleEndian";
+  static const String float = "float";
+  static const String scale = "scale";
+}
+
+/// Location and encoding of a numeric value inside a characteristic value.
+///
+/// `ValueLayout.int(offset: 2, width: 2, signed: true)` describes a signed
+/// little-endian 16-bit integer starting at the third byte.
+class ValueLayout {
+  final int offset;
+
+  /// Width of the value in bytes.
+  final int width;
+  final bool signed;
+  final bool littleEndian;
+  final bool float;
+
+  /// Factor the decoded value is multiplied by.
+  final double scale;
+
+  /// An integer of 1 to 8 bytes.
+  const ValueLayout.int({
+    this.offset = 0,
+    required this.width,
+    this.signed = false,
+    this.littleEndian = true,
+    this.scale = 1.0,
+  }) : float = false;
+
+  /// An IEEE 754 float of 4 or 8 bytes.
+  const ValueLayout.float({
+    this.offset = 0,
+    this.width = 4,
+    this.littleEndian = true,
+    this.scale = 1.0,
+  })  : float = true,
+        signed = true;
+
+  Map<String, dynamic> toMap() => <String, dynamic>{
+        _ValueLayoutMetadata.offset: offset,
+        _ValueLayoutMetadata.width: width,
+        _ValueLayoutMetadata.signed: signed,
+        _ValueLayoutMetadata.littleEndian: littleEndian,
+        _ValueLayoutMetadata.float: float,
+        _ValueLayoutMetadata.scale: scale,
+      };
+}
+
+abstract class _AggregatedValueMetadata {
+  static const String count = "count";
+  static const String min = "min";
+  static const String max = "max";
+  static const String mean = "mean";
+  static const String start = "start";
+  static const String end = "end";
+}
+
+/// Summary of the values a monitored characteristic notified during one
+/// window. Windows without notifications are not reported.
+class AggregatedValue {
+  final int count;
+  final double min;
+  final double max;
+  final double mean;
+  final DateTime start;
+  final DateTime end;
+
+  AggregatedValue.fromMap(Map<dynamic, dynamic> map)
+      : count = map[_AggregatedValueMetadata.count],
+        min = map[_AggregatedValueMetadata.min],
+        max = map[_AggregatedValueMetadata.max],
+        mean = map[_AggregatedValueMetadata.mean],
+        start = DateTime.fromMillisecondsSinceEpoch(
+            map[_AggregatedValueMetadata.start]),
+        end = DateTime.fromMillisecondsSinceEpoch(
+            map[_AggregatedValueMetadata.end]);
+
+  @override
+  String toString() =>
+      'AggregatedValue{count: $count, min: $min, max: $max, mean: $mean, '
+      'start: $start, end: $end}';
+}
@@ -88,6 +88,14 @@ class Peripheral {
   /// Will result in error if discovery was not done during this connection.
   Future<List<Service>> services() => _manager.services(this);
 
+  /// Returns all [Service]s of this peripheral with their [Characteristic]s
+  /// and those with their [Descriptor]s, fetched with a single call instead
+  /// of one call per service and characteristic.
+  ///
+  /// Will result in error if discovery was not done during this connection.
+  /// Android only.
+  Future<List<GattService>> gattTree() => _manager.gattTree(this);
+
   /// Returns a list of discovered [Characteristic]s of a [Service] identified
   /// by [servicedUuid].
   ///
@@ -101,8 +109,17 @@ class Peripheral {
   /// Reads RSSI for the peripheral.
   ///
   /// Optional [transactionId] could be used to cancel operation.
-  Future<int> rssi({String? transactionId}) =>
-      _manager.rssi(this, transactionId ?? TransactionIdGenerator.getNextId());
+  Future<int> rssi({
+    String? transactionId,
+    String? priority,
+    Duration? deadline,
+  }) =>
+      _manager.rssi(
+        this,
+        transactionId ?? TransactionIdGenerator.getNextId(),
+        priority,
+        deadline,
+      );
 
   /// Requests new MTU value for current connection and return the negotiation
   /// result on Android, reads MTU on iOS.
@@ -123,18 +140,64 @@ class Peripheral {
   ///
   /// Returns value of characteristic with [characteristicUuid] for service with
   /// [serviceUuid]. Optional [transactionId] could be used to cancel operation.
+  /// [responseFormat] selects how the value crosses the platform channel.
   ///
   /// Will result in error if discovery was not done during this connection.
   Future<CharacteristicWithValue> readCharacteristic(
     String serviceUuid,
     String characteristicUuid, {
     String? transactionId,
+    String responseFormat = ResponseFormat.json,
+    String? priority,
+    Duration? deadline,
   }) =>
       _manager.readCharacteristicForDevice(
         this,
         serviceUuid,
         characteristicUuid,
         transactionId ?? TransactionIdGenerator.getNextId(),
+        responseFormat,
+        priority,
+        deadline,
+      );
+
+  /// Reads all [requests] with a single call to the platform, which queues
+  /// the reads back to back. Results are in the order of [requests]; a failed
+  /// read is reported in its [CharacteristicReadResult] instead of failing
+  /// the whole batch.
+  ///
+  /// Every read runs under its own transaction id derived from
+  /// [transactionId], so cancelling [transactionId] itself does not cancel
+  /// them.
+  ///
+  /// Android only.
+  Future<List<CharacteristicReadResult>> readCharacteristicsBatch(
+    List<CharacteristicReadRequest> requests, {
+    String? transactionId,
+    String responseFormat = ResponseFormat.json,
+  }) =>
+      _manager.readCharacteristicsBatch(
+        this,
+        requests,
+        transactionId ?? TransactionIdGenerator.getNextId(),
+        responseFormat,
+      );
+
+  /// Reads value of [Characteristic] matching specified UUIDs decoded natively
+  /// by the schema passed to [BleManager.registerPayloadSchema] for
+  /// [characteristicUuid]. Fields the value is too short for are `NaN`.
+  ///
+  /// Android only.
+  Future<Float64List> readCharacteristicDecoded(
+    String serviceUuid,
+    String characteristicUuid, {
+    String? transactionId,
+  }) =>
+      _manager.readDecodedCharacteristicForDevice(
+        this,
+        serviceUuid,
+        characteristicUuid,
+        transactionId ?? TransactionIdGenerator.getNextId(),
       );
 
   /// Writes value of [Characteristic] matching specified UUIDs.
@@ -143,12 +206,18 @@ class Peripheral {
   /// [serviceUuid]. Optional [transactionId] could be used to cancel operation.
   ///
   /// Will result in error if discovery was not done during this connection.
+  ///
+  /// [priority] and [deadline] schedule the write among other operations on
+  /// this peripheral, see [OperationPriority]. A write still queued when
+  /// [deadline] passes fails without being sent.
   Future<Characteristic> writeCharacteristic(
     String serviceUuid,
     String characteristicUuid,
     Uint8List value,
     bool withResponse, {
     String? transactionId,
+    String? priority,
+    Duration? deadline,
   }) =>
       _manager.writeCharacteristicForDevice(
         this,
@@ -157,8 +226,51 @@ class Peripheral {
         value,
         withResponse,
         transactionId ?? TransactionIdGenerator.getNextId(),
+        priority,
+        deadline,
       );
 
+  /// Writes a payload larger than one packet to [Characteristic] matching
+  /// specified UUIDs and completes with the number of bytes written.
+  ///
+  /// The payload is either [value] or the contents of the file at [filePath].
+  /// It is split natively into chunks of [chunkSize] bytes, by default the
+  /// negotiated MTU minus the 3 byte ATT header, and up to [window] chunks are
+  /// queued at once - by default 1 with [withResponse] and 4 without.
+  /// [onProgress] is called at most once per [progressInterval] and once when
+  /// the write completes. Cancelling [transactionId] cancels the remaining
+  /// chunks.
+  ///
+  /// Android only.
+  Future<int> writeCharacteristicBulk(
+    String serviceUuid,
+    String characteristicUuid, {
+    Uint8List? value,
+    String? filePath,
+    bool withResponse = true,
+    int? chunkSize,
+    int? window,
+    Duration progressInterval = const Duration(milliseconds: 100),
+    void Function(BulkWriteProgress progress)? onProgress,
+    String? transactionId,
+  }) {
+    assert((value == null) != (filePath == null),
+        "Exactly one of value and filePath has to be set");
+    return _manager.writeCharacteristicBulk(
+      this,
+      serviceUuid,
+      characteristicUuid,
+      value,
+      filePath,
+      withResponse,
+      chunkSize,
+      window,
+      progressInterval,
+      onProgress,
+      transactionId ?? TransactionIdGenerator.getNextId(),
+    );
+  }
+
   /// Returns a list of [Descriptor]s for [Characteristic] matching specified UUIDs.
   ///
   /// Returns list of discovered Descriptors for given [serviceUuid] in specified
@@ -224,18 +336,66 @@ class Peripheral {
   /// If notifications are enabled they will be used in favour of indications.
   /// Optional [transactionId] could be used to cancel operation. Unsubscribing
   /// from the stream cancels monitoring.
+  /// [deliveryPolicy] limits how often this listener receives notifications
+  /// and [responseFormat] selects how they cross the platform channel.
   ///
   /// Will result in error if discovery was not done during this connection.
   Stream<CharacteristicWithValue> monitorCharacteristic(
     String serviceUuid,
     String characteristicUuid, {
     String? transactionId,
+    MonitorDeliveryPolicy deliveryPolicy = const MonitorDeliveryPolicy.all(),
+    String responseFormat = ResponseFormat.json,
   }) =>
       _manager.monitorCharacteristicForDevice(
         this,
         serviceUuid,
         characteristicUuid,
         transactionId ?? TransactionIdGenerator.getNextId(),
+        deliveryPolicy,
+        responseFormat,
+      );
+
+  /// Like [monitorCharacteristic], but emits values decoded natively by the
+  /// schema passed to [BleManager.registerPayloadSchema] for
+  /// [characteristicUuid]. The stream fails right away when no schema is
+  /// registered.
+  ///
+  /// Android only.
+  Stream<Float64List> monitorCharacteristicDecoded(
+    String serviceUuid,
+    String characteristicUuid, {
+    String? transactionId,
+    MonitorDeliveryPolicy deliveryPolicy = const MonitorDeliveryPolicy.all(),
+  }) =>
+      _manager.monitorDecodedCharacteristicForDevice(
+        this,
+        serviceUuid,
+        characteristicUuid,
+        transactionId ?? TransactionIdGenerator.getNextId(),
+        deliveryPolicy,
+      );
+
+  /// Returns a stream of min/max/mean summaries of the value described by
+  /// [layout] in the [Characteristic] matching specified UUIDs, one per
+  /// [window] in which it notified.
+  ///
+  /// The values are decoded and aggregated natively, so individual
+  /// notifications never cross the platform channel. Android only.
+  Stream<AggregatedValue> aggregateCharacteristic(
+    String serviceUuid,
+    String characteristicUuid, {
+    required ValueLayout layout,
+    required Duration window,
+    String? transactionId,
+  }) =>
+      _manager.aggregateCharacteristicForDevice(
+        this,
+        serviceUuid,
+        characteristicUuid,
+        layout,
+        window,
+        transactionId ?? TransactionIdGenerator.getNextId(),
       );
 
   @override
@@ -0,0 +1,195 @@
+part of flutter_ble_lib;
+
+abstract class _SmoothedRssiMetadata {
+  static const String id = "id";
+  static const String rssi = "rssi";
+  static const String rawRssi = "rawRssi";
+}
+
+abstract class _RssiFilterType {
+  static const String ema = "ema";
+  static const String kalman = "kalman";
+}
+
+/// Native per-peripheral RSSI smoothing applied while scanning - Android only.
+///
+/// Smoothed values are emitted by [BleManager.observeSmoothedRssi] at most
+/// [maxRateHz] times per second for each peripheral.
+class RssiSmoothing {
+  final String filterType;
+  final double? emaAlpha;
+  final double? processNoise;
+  final double? measurementNoise;
+  final double maxRateHz;
+
+  /// Exponential moving average, weighting each new sample with [alpha].
+  const RssiSmoothing.ema({double alpha = 0.3, this.maxRateHz = 2.0})
+      : filterType = _RssiFilterType.ema,
+        emaAlpha = alpha,
+        processNoise = null,
+        measurementNoise = null;
+
+  /// One-dimensional Kalman filter.
+  const RssiSmoothing.kalman({
+    this.processNoise = 0.008,
+    this.measurementNoise = 4.0,
+    this.maxRateHz = 2.0,
+  })  : filterType = _RssiFilterType.kalman,
+        emaAlpha = null;
+}
+
+/// Smoothed signal strength of a scanned peripheral.
+class SmoothedRssi {
+  final String peripheralIdentifier;
+
+  /// Filtered signal strength in dBm.
+  final double rssi;
+
+  /// The sample that triggered this update, in dBm.
+  final int rawRssi;
+
+  SmoothedRssi.fromMap(Map<dynamic, dynamic> map)
+      : peripheralIdentifier = map[_SmoothedRssiMetadata.id],
+        rssi = map[_SmoothedRssiMetadata.rssi],
+        rawRssi = map[_SmoothedRssiMetadata.rawRssi];
+}
+
+abstract class _ProximityRegionMetadata {
+  static const String id = "id";
+  static const String enterRssi = "enterRssi";
+  static const String exitRssi = "exitRssi";
+  static const String enterDwell = "enterDwell";
+  static const String exitDwell = "exitDwell";
+  static const String dwellTime = "dwellTime";
+  static const String exitTimeout = "exitTimeout";
+}
+
+abstract class _RegionEventMetadata {
+  static const String regionId = "regionId";
+  static const String id = "id";
+  static const String type = "type";
+  static const String rssi = "rssi";
+  static const String timestamp = "timestamp";
+}
+
+/// A proximity region evaluated natively on every scan result - Android only.
+///
+/// A peripheral matching [filter] enters the region once its RSSI stayed at
+/// or above [enterRssi] for [enterDwell], and exits once it stayed below
+/// [exitRssi] for [exitDwell] or was not seen for [exitTimeout]. Regions only
+/// see results that pass the filters of the running scan.
+class ProximityRegion {
+  final String id;
+  final ScanFilter filter;
+  final int enterRssi;
+
+  /// Defaults to 5 dBm below [enterRssi].
+  final int? exitRssi;
+  final Duration enterDwell;
+  final Duration exitDwell;
+
+  /// Time inside the region after which a [RegionEventType.dwell] event is
+  /// sent. No dwell event is sent when null.
+  final Duration? dwellTime;
+  final Duration exitTimeout;
+
+  const ProximityRegion(
+    this.id, {
+    this.filter = const ScanFilter(),
+    this.enterRssi = -70,
+    this.exitRssi,
+    this.enterDwell = Duration.zero,
+    this.exitDwell = Duration.zero,
+    this.dwellTime,
+    this.exitTimeout = const Duration(seconds: 5),
+  }) : assert(exitRssi == null || exitRssi <= enterRssi);
+
+  Map<String, dynamic> toMap() => <String, dynamic>{
+        ...filter.toMap(),
+        _ProximityRegionMetadata.id: id,
+        _ProximityRegionMetadata.enterRssi: enterRssi,
+        _ProximityRegionMetadata.exitRssi: exitRssi,
+        _ProximityRegionMetadata.enterDwell: enterDwell.inMilliseconds,
+        _ProximityRegionMetadata.exitDwell: exitDwell.inMilliseconds,
+        _ProximityRegionMetadata.dwellTime: dwellTime?.inMilliseconds,
+        _ProximityRegionMetadata.exitTimeout: exitTimeout.inMilliseconds,
+      };
+}
+
+enum RegionEventType { enter, exit, dwell }
+
+/// A transition of a peripheral into, out of or staying in a [ProximityRegion].
+class RegionEvent {
+  final String regionId;
+  final String peripheralIdentifier;
+  final RegionEventType type;
+
+  /// Signal strength in dBm of the sample that caused the transition.
+  final int rssi;
+
+  /// When the transition happened. Events queued in headless mode are
+  /// delivered later than this.
+  final DateTime timestamp;
+
+  RegionEvent.fromMap(Map<dynamic, dynamic> map)
+      : regionId = map[_RegionEventMetadata.regionId],
+        peripheralIdentifier = map[_RegionEventMetadata.id],
+        type = _mapToRegionEventType(map[_RegionEventMetadata.type]),
+        rssi = map[_RegionEventMetadata.rssi],
+        timestamp = DateTime.fromMillisecondsSinceEpoch(
+            map[_RegionEventMetadata.timestamp]);
+
+  static RegionEventType _mapToRegionEventType(dynamic rawValue) {
+    switch (rawValue) {
+      case "enter":
+        return RegionEventType.enter;
+      case "exit":
+        return RegionEventType.exit;
+      case "dwell":
+        return RegionEventType.dwell;
+      default:
+        throw "Cannot map $rawValue to known region event type";
+    }
+  }
+
+  static String _mapFromRegionEventType(RegionEventType type) {
+    switch (type) {
+      case RegionEventType.enter:
+        return "enter";
+      case RegionEventType.exit:
+        return "exit";
+      case RegionEventType.dwell:
+        return "dwell";
+    }
+  }
+}
+
+/// Configuration of the headless monitoring mode - Android only.
+///
+/// When enabled, the next start of the background service, including the
+/// start on boot, scans for [uuids] and evaluates [regions] natively without
+/// starting the Flutter engine. The engine is started once one of the
+/// [wakeOn] events happens. All region events seen until the engine attaches
+/// are delivered first by [BleManager.observeRegionEvents].
+class HeadlessMonitoring {
+  final bool enabled;
+  final List<ProximityRegion> regions;
+  final List<String> uuids;
+  final Set<RegionEventType> wakeOn;
+
+  const HeadlessMonitoring({
+    this.enabled = true,
+    this.regions = const [],
+    this.uuids = const [],
+    this.wakeOn = const {RegionEventType.enter},
+  });
+
+  const HeadlessMonitoring.disabled()
+      : enabled = false,
+        regions = const [],
+        uuids = const [],
+        wakeOn = const {};
+
+  List<String> get wakeOnNames =>
+      wakeOn.map(RegionEvent._mapFromRegionEventType).toList();
+}
@@ -0,0 +1,61 @@
+part of flutter_ble_lib;
+
+abstract class _ScanFilterMetadata {
+  static const String manufacturerId = "manufacturerId";
+  static const String manufacturerDataPrefix = "manufacturerDataPrefix";
+  static const String namePrefix = "namePrefix";
+  static const String serviceUuid = "serviceUuid";
+  static const String minRssi = "minRssi";
+  static const String serviceDataUuid = "serviceDataUuid";
+  static const String serviceDataPrefix = "serviceDataPrefix";
+}
+
+/// A filter applied natively to advertisements before they are sent to Dart.
+///
+/// A [ScanResult] is emitted when it matches any of the filters passed to
+/// [BleManager.startPeripheralScan]. All fields set on a single filter have
+/// to match. Android only.
+class ScanFilter {
+  /// Bluetooth SIG company identifier carried in the first two bytes of the
+  /// manufacturer data.
+  final int? manufacturerId;
+
+  /// Bytes the manufacturer data has to start with, including the company
+  /// identifier.
+  final Uint8List? manufacturerDataPrefix;
+
+  /// Prefix of either the device name or the advertised local name.
+  final String? namePrefix;
+
+  /// UUID that has to be among the advertised service UUIDs.
+  final String? serviceUuid;
+
+  /// Minimum signal strength in dBm.
+  final int? minRssi;
+
+  /// UUID of the service data entry that has to be present.
+  final String? serviceDataUuid;
+
+  /// Bytes the service data of [serviceDataUuid] has to start with.
+  final Uint8List? serviceDataPrefix;
+
+  const ScanFilter({
+    this.manufacturerId,
+    this.manufacturerDataPrefix,
+    this.namePrefix,
+    this.serviceUuid,
+    this.minRssi,
+    this.serviceDataUuid,
+    this.serviceDataPrefix,
+  }) : assert(serviceDataPrefix == null || serviceDataUuid != null);
+
+  Map<String, dynamic> toMap() => <String, dynamic>{
+        _ScanFilterMetadata.manufacturerId: manufacturerId,
+        _ScanFilterMetadata.manufacturerDataPrefix: manufacturerDataPrefix,
+        _ScanFilterMetadata.namePrefix: namePrefix,
+        _ScanFilterMetadata.serviceUuid: serviceUuid,
+        _ScanFilterMetadata.minRssi: minRssi,
+        _ScanFilterMetadata.serviceDataUuid: serviceDataUuid,
+        _ScanFilterMetadata.serviceDataPrefix: serviceDataPrefix,
+      };
+}
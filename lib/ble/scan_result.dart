@@ -44,6 +44,99 @@ class ScanResult {
         isConnectable: json[_ScanResultMetadata.isConnectable],
         overflowServiceUuids: json[_ScanResultMetadata.overflowServiceUuids]);
   }
+
+  /// Decodes the compact frame produced when scanning with
+  /// [ScanResultFormat.binary].
+  factory ScanResult.fromBinary(
+      Uint8List bytes, ManagerForPeripheral manager) {
+    final reader = _ScanResultFrameReader(bytes);
+    final flags = reader.flags;
+    final identifier = (flags & _ScanResultFrameFlag.stringId) != 0
+        ? reader.readShortString()
+        : reader.readMac();
+    final rssi = reader.readInt8();
+    reader.readUint16(); // mtu, not exposed by ScanResult
+    final name = (flags & _ScanResultFrameFlag.name) != 0
+        ? reader.readShortString()
+        : null;
+    return ScanResult._(
+      Peripheral.fromJson({
+        _PeripheralMetadata.identifier: identifier,
+        _PeripheralMetadata.name: name,
+      }, manager),
+      rssi,
+      AdvertisementData._fromFrame(reader, flags),
+    );
+  }
+}
+
+abstract class _ScanResultFrameFlag {
+  static const int name = 1;
+  static const int localName = 1 << 1;
+  static const int txPowerLevel = 1 << 2;
+  static const int manufacturerData = 1 << 3;
+  static const int stringId = 1 << 4;
+}
+
+class _ScanResultFrameReader {
+  static const int _supportedVersion = 1;
+
+  final ByteData _data;
+  final Uint8List _bytes;
+  int _offset = 0;
+  late final int flags;
+
+  _ScanResultFrameReader(this._bytes)
+      : _data = ByteData.sublistView(_bytes) {
+    final version = readUint8();
+    if (version != _supportedVersion) {
+      throw FormatException("Unsupported scan result frame version $version");
+    }
+    flags = readUint8();
+  }
+
+  int readUint8() => _data.getUint8(_offset++);
+
+  int readInt8() => _data.getInt8(_offset++);
+
+  int readUint16() {
+    final value = _data.getUint16(_offset, Endian.little);
+    _offset += 2;
+    return value;
+  }
+
+  Uint8List readBytes(int length) {
+    final value = Uint8List.sublistView(_bytes, _offset, _offset + length);
+    _offset += length;
+    return value;
+  }
+
+  String readShortString() => utf8.decode(readBytes(readUint8()));
+
+  String readMac() => readBytes(6)
+      .map((byte) => byte.toRadixString(16).padLeft(2, '0'))
+      .join(':')
+      .toUpperCase();
+
+  String readUuid() {
+    final width = readUint8();
+    final hex = readBytes(width)
+        .map((byte) => byte.toRadixString(16).padLeft(2, '0'))
+        .join();
+    if (width == 2) {
+      return "0000$hex-0000-1000-8000-00805f9b34fb";
+    }
+    return "${hex.substring(0, 8)}-${hex.substring(8, 12)}-"
+        "${hex.substring(12, 16)}-${hex.substring(16, 20)}-${hex.substring(20)}";
+  }
+
+  List<String>? readUuids() {
+    final count = readUint8();
+    if (count == 0) {
+      return null;
+    }
+    return List<String>.generate(count, (_) => readUuid());
+  }
 }
 
 /// Data advertised by the [Peripheral]: power level, local name,
@@ -80,6 +173,35 @@ class AdvertisementData {
         solicitedServiceUuids = _mapToListOfStringsOrNull(
             json[_ScanResultMetadata.solicitedServiceUuids]);
 
+  AdvertisementData._fromFrame(_ScanResultFrameReader reader, int flags)
+      : localName = (flags & _ScanResultFrameFlag.localName) != 0
+            ? reader.readShortString()
+            : null,
+        txPowerLevel = (flags & _ScanResultFrameFlag.txPowerLevel) != 0
+            ? reader.readInt8()
+            : null,
+        manufacturerData = (flags & _ScanResultFrameFlag.manufacturerData) != 0
+            ? Uint8List.fromList(reader.readBytes(reader.readUint16()))
+            : null,
+        serviceUuids = reader.readUuids(),
+        serviceData = _readServiceDataOrNull(reader),
+        solicitedServiceUuids = reader.readUuids();
+
+  static Map<String, Uint8List>? _readServiceDataOrNull(
+      _ScanResultFrameReader reader) {
+    final count = reader.readUint8();
+    if (count == 0) {
+      return null;
+    }
+    final serviceData = <String, Uint8List>{};
+    for (var i = 0; i < count; i++) {
+      final uuid = reader.readUuid();
+      serviceData[uuid] =
+          Uint8List.fromList(reader.readBytes(reader.readUint16()));
+    }
+    return serviceData;
+  }
+
   static Map<String, Uint8List>? _getServiceDataOrNull(
       Map<String, dynamic>? serviceData) {
     return serviceData?.map(
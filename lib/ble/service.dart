@@ -56,16 +56,19 @@ class Service extends InternalService {
   /// It returns a [Future] that completes with [CharacteristicWithValue],
   /// which is just a [Characteristic] but with an additonal `value`
   /// property of type [Uint8List]. Only [Characteristic] where
-  /// [Characteristic.isReadable] is `true` can be read.
+  /// [Characteristic.isReadable] is `true` can be read. [responseFormat]
+  /// selects how the value crosses the platform channel.
   Future<CharacteristicWithValue> readCharacteristic(
     String characteristicUuid, {
     String? transactionId,
+    String responseFormat = ResponseFormat.json,
   }) =>
       _manager.readCharacteristicForService(
         peripheral,
         this,
         characteristicUuid,
         transactionId ?? TransactionIdGenerator.getNextId(),
+        responseFormat,
       );
 
   /// Returns a [Stream] of values emitted by a [Characteristic] identified by
@@ -75,16 +78,22 @@ class Service extends InternalService {
   /// [CharacteristicWithValue] objects, which are the same as [Characteristic]
   /// but with an additonal `value` property of type [Uint8List]. Only
   /// [Characteristic] where [Characteristic.isNotifiable] is `true` can be
-  /// monitored.
+  /// monitored. [deliveryPolicy] limits how often this listener receives
+  /// notifications and [responseFormat] selects how they cross the platform
+  /// channel.
   Stream<CharacteristicWithValue> monitorCharacteristic(
     String characteristicUuid, {
     String? transactionId,
+    MonitorDeliveryPolicy deliveryPolicy = const MonitorDeliveryPolicy.all(),
+    String responseFormat = ResponseFormat.json,
   }) =>
       _manager.monitorCharacteristicForService(
         peripheral,
         this,
         characteristicUuid,
         transactionId ?? TransactionIdGenerator.getNextId(),
+        deliveryPolicy,
+        responseFormat,
       );
 
   /// Returns a list of [Descriptor]s of a [Characteristic] identified by
@@ -4,6 +4,9 @@ abstract class MethodName {
   static const String destroyClient = "destroyClient";
 
   static const String cancelTransaction = "cancelTransaction";
+  static const String gattSchedulerStatistics = "gattSchedulerStatistics";
+  static const String configureValueCache = "configureValueCache";
+  static const String valueCacheStatistics = "valueCacheStatistics";
 
   static const String getState = "getState";
 
@@ -12,6 +15,10 @@ abstract class MethodName {
 
   static const String startDeviceScan = "startDeviceScan";
   static const String stopDeviceScan = "stopDeviceScan";
+  static const String scanBatchStatistics = "scanBatchStatistics";
+  static const String setProximityRegions = "setProximityRegions";
+  static const String configureHeadlessMonitoring =
+      "configureHeadlessMonitoring";
 
   static const String connectToDevice = "connectToDevice";
   static const String isDeviceConnected = "isDeviceConnected";
@@ -21,6 +28,7 @@ abstract class MethodName {
   static const String discoverAllServicesAndCharacteristics =
       "discoverAllServicesAndCharacteristics";
   static const String services = "services";
+  static const String gattTree = "gattTree";
   static const String characteristics = "characteristics";
   static const String characteristicsForService = "characteristicsForService";
   static const String descriptorsForDevice = "descriptorsForDevice";
@@ -40,6 +48,7 @@ abstract class MethodName {
       "readCharacteristicForDevice";
   static const String readCharacteristicForService =
       "readCharacteristicForService";
+  static const String readCharacteristicsBatch = "readCharacteristicsBatch";
 
   static const String writeCharacteristicForIdentifier =
       "writeCharacteristicForIdentifier";
@@ -47,6 +56,7 @@ abstract class MethodName {
       "writeCharacteristicForDevice";
   static const String writeCharacteristicForService =
       "writeCharacteristicForService";
+  static const String writeCharacteristicBulk = "writeCharacteristicBulk";
 
   static const String monitorCharacteristicForIdentifier =
       "monitorCharacteristicForIdentifier";
@@ -54,6 +64,8 @@ abstract class MethodName {
       "monitorCharacteristicForDevice";
   static const String monitorCharacteristicForService =
       "monitorCharacteristicForService";
+  static const String monitorStatistics = "monitorStatistics";
+  static const String registerPayloadSchema = "registerPayloadSchema";
 
   static const String readDescriptorForDevice = "readDescriptorForDevice";
   static const String readDescriptorForService = "readDescriptorForService";
@@ -83,6 +95,9 @@ abstract class ChannelName {
       flutterBleLib + "/connectionStateChangeEvents";
   static const String monitorCharacteristic =
       flutterBleLib + "/monitorCharacteristic";
+  static const String proximityEvents = flutterBleLib + "/proximityEvents";
+  static const String regionEvents = flutterBleLib + "/regionEvents";
+  static const String bulkWriteProgress = flutterBleLib + "/bulkWriteProgress";
 }
 
 abstract class ArgumentName {
@@ -90,9 +105,35 @@ abstract class ArgumentName {
   static const String scanMode = "scanMode";
   static const String callbackType = "callbackType";
   static const String allowDuplicates = "allowDuplicates";
+  static const String duplicateRssiDelta = "duplicateRssiDelta";
+  static const String duplicateRefreshInterval = "duplicateRefreshInterval";
+  static const String scanBatchSize = "scanBatchSize";
+  static const String scanBatchInterval = "scanBatchInterval";
+  static const String scanFilters = "scanFilters";
+  static const String rssiFilter = "rssiFilter";
+  static const String rssiEmaAlpha = "rssiEmaAlpha";
+  static const String rssiProcessNoise = "rssiProcessNoise";
+  static const String rssiMeasurementNoise = "rssiMeasurementNoise";
+  static const String proximityMaxRate = "proximityMaxRate";
+  static const String proximityRegions = "proximityRegions";
+  static const String headlessEnabled = "headlessEnabled";
+  static const String wakeOn = "wakeOn";
+  static const String streamKeyed = "streamKeyed";
+  static const String deliveryPolicy = "deliveryPolicy";
+  static const String deliveryInterval = "deliveryInterval";
+  static const String valueLayout = "valueLayout";
+  static const String decode = "decode";
+  static const String payloadSchema = "payloadSchema";
+  static const String responseFormat = "responseFormat";
+  static const String byteBudget = "byteBudget";
+  static const String valueCachePolicies = "valueCachePolicies";
+  static const String characteristics = "characteristics";
   static const String uuids = "uuids";
+  static const String scanResultFormat = "scanResultFormat";
 
   static const String transactionId = "transactionId";
+  static const String priority = "priority";
+  static const String deadline = "deadline";
 
   static const String deviceIdentifier = "deviceIdentifier";
   static const String isAutoConnect = "isAutoConnect";
@@ -110,6 +151,10 @@ abstract class ArgumentName {
 
   static const String value = "value";
   static const String withResponse = "withResponse";
+  static const String filePath = "filePath";
+  static const String chunkSize = "chunkSize";
+  static const String writeWindow = "writeWindow";
+  static const String progressInterval = "progressInterval";
 
   static const String logLevel = "logLevel";
 
@@ -124,3 +169,10 @@ abstract class NativeConnectionState {
   static const String disconnecting = "disconnecting";
   static const String disconnected = "disconnected";
 }
+
+abstract class DeliveryPolicyName {
+  static const String all = "all";
+  static const String latest = "latest";
+  static const String sample = "sample";
+  static const String aggregate = "aggregate";
+}
@@ -29,6 +29,8 @@ abstract class ManagerForPeripheral {
 
   Future<List<Service>> services(Peripheral peripheral);
 
+  Future<List<GattService>> gattTree(Peripheral peripheral);
+
   Future<List<Characteristic>> characteristics(
     Peripheral peripheral,
     String serviceUuid,
@@ -37,6 +39,8 @@ abstract class ManagerForPeripheral {
   Future<int> rssi(
     Peripheral peripheral,
     String transactionId,
+    String? priority,
+    Duration? deadline,
   );
 
   Future<int> requestMtu(
@@ -50,6 +54,16 @@ abstract class ManagerForPeripheral {
     String serviceUuid,
     String characteristicUuid,
     String transactionId,
+    String responseFormat,
+    String? priority,
+    Duration? deadline,
+  );
+
+  Future<List<CharacteristicReadResult>> readCharacteristicsBatch(
+    Peripheral peripheral,
+    List<CharacteristicReadRequest> requests,
+    String transactionId,
+    String responseFormat,
   );
 
   Future<Characteristic> writeCharacteristicForDevice(
@@ -58,13 +72,55 @@ abstract class ManagerForPeripheral {
       String characteristicUuid,
       Uint8List value,
       bool withResponse,
-      String transactionId);
+      String transactionId,
+      String? priority,
+      Duration? deadline);
+
+  Future<int> writeCharacteristicBulk(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    Uint8List? value,
+    String? filePath,
+    bool withResponse,
+    int? chunkSize,
+    int? window,
+    Duration progressInterval,
+    void Function(BulkWriteProgress progress)? onProgress,
+    String transactionId,
+  );
 
   Stream<CharacteristicWithValue> monitorCharacteristicForDevice(
     Peripheral peripheral,
     String serviceUuid,
     String characteristicUuid,
     String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+    String responseFormat,
+  );
+
+  Future<Float64List> readDecodedCharacteristicForDevice(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    String transactionId,
+  );
+
+  Stream<Float64List> monitorDecodedCharacteristicForDevice(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+  );
+
+  Stream<AggregatedValue> aggregateCharacteristicForDevice(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    ValueLayout layout,
+    Duration window,
+    String transactionId,
   );
 
   Future<List<Descriptor>> descriptorsForPeripheral(
@@ -99,6 +155,7 @@ abstract class ManagerForService {
     InternalService service,
     String characteristicUuid,
     String transactionId,
+    String responseFormat,
   );
 
   Future<Characteristic> writeCharacteristicForService(
@@ -115,6 +172,8 @@ abstract class ManagerForService {
     InternalService service,
     String characteristicUuid,
     String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+    String responseFormat,
   );
 
   Future<List<Descriptor>> descriptorsForService(
@@ -143,6 +202,9 @@ abstract class ManagerForCharacteristic {
     Peripheral peripheral,
     InternalCharacteristic characteristic,
     String transactionId,
+    String responseFormat,
+    String? priority,
+    Duration? deadline,
   );
 
   Future<void> writeCharacteristicForIdentifier(
@@ -151,12 +213,36 @@ abstract class ManagerForCharacteristic {
     Uint8List value,
     bool withResponse,
     String transactionId,
+    String? priority,
+    Duration? deadline,
   );
 
   Stream<Uint8List> monitorCharacteristicForIdentifier(
     Peripheral peripheral,
     InternalCharacteristic characteristic,
     String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+    String responseFormat,
+  );
+
+  Future<Float64List> readDecodedCharacteristicForIdentifier(
+    Peripheral peripheral,
+    InternalCharacteristic characteristic,
+    String transactionId,
+  );
+
+  Stream<Float64List> monitorDecodedCharacteristicForIdentifier(
+    InternalCharacteristic characteristic,
+    String characteristicUuid,
+    String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+  );
+
+  Stream<AggregatedValue> aggregateCharacteristicForIdentifier(
+    InternalCharacteristic characteristic,
+    ValueLayout layout,
+    Duration window,
+    String transactionId,
   );
 
   Future<List<Descriptor>> descriptorsForCharacteristic(
@@ -1,40 +1,58 @@
 part of _internal;
 
+/// Optional arguments placing an operation in the native GATT queue of its
+/// peripheral; absent ones fall back to the defaults of the operation.
+Map<String, dynamic> _schedulingArguments(
+        String? priority, Duration? deadline) =>
+    <String, dynamic>{
+      if (priority != null) ArgumentName.priority: priority,
+      if (deadline != null) ArgumentName.deadline: deadline.inMilliseconds,
+    };
+
+abstract class _BatchReadItem {
+  static const String value = "value";
+  static const String error = "error";
+}
+
 mixin CharacteristicsMixin on FlutterBLE {
-  final Stream<dynamic> _characteristicsMonitoringEvents =
-      const EventChannel(ChannelName.monitorCharacteristic)
-          .receiveBroadcastStream();
+  final Stream<BulkWriteProgress> _bulkWriteProgressEvents =
+      const EventChannel(ChannelName.bulkWriteProgress)
+          .receiveBroadcastStream()
+          .map((event) => BulkWriteProgress.fromMap(event));
 
   Future<Uint8List> readCharacteristicForIdentifier(
     Peripheral peripheral,
     int characteristicIdentifier,
     String transactionId,
+    String responseFormat,
+    String? priority,
+    Duration? deadline,
   ) =>
       BackgroundService.backgroundChannel
           .invokeMethod(
             MethodName.readCharacteristicForIdentifier,
             <String, dynamic>{
+              ArgumentName.deviceIdentifier: peripheral.identifier,
               ArgumentName.characteristicIdentifier: characteristicIdentifier,
-              ArgumentName.transactionId: transactionId
+              ArgumentName.transactionId: transactionId,
+              ArgumentName.responseFormat: responseFormat,
+              ..._schedulingArguments(priority, deadline),
             },
           )
-          .catchError((errorJson) =>
-              Future.error(BleError.fromJson(jsonDecode(errorJson.details))))
-          .then((rawValue) {
-            String rawJsonValue = "";
-            if (rawValue is String) {
-              rawJsonValue = rawValue;
-            }
-            return _parseCharacteristicWithValueWithTransactionIdResponse(
-                    peripheral, rawJsonValue)
-                .value;
-          });
+          .catchError((error) => Future.error(_toBleError(error)))
+          .then((rawValue) =>
+              _parseCharacteristicWithValueWithTransactionIdResponse(
+                      peripheral, rawValue)
+                  .value);
 
   Future<CharacteristicWithValue> readCharacteristicForDevice(
     Peripheral peripheral,
     String serviceUuid,
     String characteristicUuid,
     String transactionId,
+    String responseFormat,
+    String? priority,
+    Duration? deadline,
   ) =>
       BackgroundService.backgroundChannel
           .invokeMethod(
@@ -43,45 +61,73 @@ mixin CharacteristicsMixin on FlutterBLE {
               ArgumentName.deviceIdentifier: peripheral.identifier,
               ArgumentName.serviceUuid: serviceUuid,
               ArgumentName.characteristicUuid: characteristicUuid,
-              ArgumentName.transactionId: transactionId
+              ArgumentName.transactionId: transactionId,
+              ArgumentName.responseFormat: responseFormat,
+              ..._schedulingArguments(priority, deadline),
             },
           )
-          .catchError((errorJson) =>
-              Future.error(BleError.fromJson(jsonDecode(errorJson.details))))
-          .then((rawValue) {
-            String rawJsonValue = "";
-            if (rawValue is String) {
-              rawJsonValue = rawValue;
-            }
-            return _parseCharacteristicWithValueWithTransactionIdResponse(
-                peripheral, rawJsonValue);
-          });
+          .catchError((error) => Future.error(_toBleError(error)))
+          .then((rawValue) =>
+              _parseCharacteristicWithValueWithTransactionIdResponse(
+                  peripheral, rawValue));
+
+  Future<List<CharacteristicReadResult>> readCharacteristicsBatch(
+    Peripheral peripheral,
+    List<CharacteristicReadRequest> requests,
+    String transactionId,
+    String responseFormat,
+  ) =>
+      BackgroundService.backgroundChannel
+          .invokeMethod<List<dynamic>>(
+            MethodName.readCharacteristicsBatch,
+            <String, dynamic>{
+              ArgumentName.deviceIdentifier: peripheral.identifier,
+              ArgumentName.characteristics: requests
+                  .map((request) => <String, String>{
+                        ArgumentName.serviceUuid: request.serviceUuid,
+                        ArgumentName.characteristicUuid:
+                            request.characteristicUuid,
+                      })
+                  .toList(),
+              ArgumentName.transactionId: transactionId,
+              ArgumentName.responseFormat: responseFormat,
+            },
+          )
+          .catchError((error) => Future.error(_toBleError(error)))
+          .then((rawItems) => (rawItems ?? <dynamic>[]).map((rawItem) {
+                final item = rawItem as Map;
+                final rawError = item[_BatchReadItem.error];
+                if (rawError != null) {
+                  return CharacteristicReadResult.failure(
+                      BleError.fromJson(jsonDecode(rawError)));
+                }
+                return CharacteristicReadResult.success(
+                    _parseCharacteristicWithValueWithTransactionIdResponse(
+                        peripheral, item[_BatchReadItem.value]));
+              }).toList());
 
   Future<CharacteristicWithValue> readCharacteristicForService(
     Peripheral peripheral,
     int serviceIdentifier,
     String characteristicUuid,
     String transactionId,
+    String responseFormat,
   ) =>
       BackgroundService.backgroundChannel
           .invokeMethod(
             MethodName.readCharacteristicForService,
             <String, dynamic>{
+              ArgumentName.deviceIdentifier: peripheral.identifier,
               ArgumentName.serviceIdentifier: serviceIdentifier,
               ArgumentName.characteristicUuid: characteristicUuid,
-              ArgumentName.transactionId: transactionId
+              ArgumentName.transactionId: transactionId,
+              ArgumentName.responseFormat: responseFormat,
             },
           )
-          .catchError((errorJson) =>
-              Future.error(BleError.fromJson(jsonDecode(errorJson.details))))
-          .then((rawValue) {
-            String rawJsonValue = "";
-            if (rawValue is String) {
-              rawJsonValue = rawValue;
-            }
-            return _parseCharacteristicWithValueWithTransactionIdResponse(
-                peripheral, rawJsonValue);
-          });
+          .catchError((error) => Future.error(_toBleError(error)))
+          .then((rawValue) =>
+              _parseCharacteristicWithValueWithTransactionIdResponse(
+                  peripheral, rawValue));
 
   Future<void> writeCharacteristicForIdentifier(
     Peripheral peripheral,
@@ -89,14 +135,18 @@ mixin CharacteristicsMixin on FlutterBLE {
     Uint8List value,
     bool withResponse,
     String transactionId,
+    String? priority,
+    Duration? deadline,
   ) =>
       BackgroundService.backgroundChannel.invokeMethod(
         MethodName.writeCharacteristicForIdentifier,
         <String, dynamic>{
+          ArgumentName.deviceIdentifier: peripheral.identifier,
           ArgumentName.characteristicIdentifier: characteristicIdentifier,
           ArgumentName.value: value,
           ArgumentName.withResponse: withResponse,
           ArgumentName.transactionId: transactionId,
+          ..._schedulingArguments(priority, deadline),
         },
       ).catchError((errorJson) =>
           Future.error(BleError.fromJson(jsonDecode(errorJson.details))));
@@ -107,7 +157,9 @@ mixin CharacteristicsMixin on FlutterBLE {
           String characteristicUuid,
           Uint8List value,
           bool withResponse,
-          String transactionId) =>
+          String transactionId,
+          String? priority,
+          Duration? deadline) =>
       BackgroundService.backgroundChannel
           .invokeMethod(
             MethodName.writeCharacteristicForDevice,
@@ -118,6 +170,7 @@ mixin CharacteristicsMixin on FlutterBLE {
               ArgumentName.value: value,
               ArgumentName.withResponse: withResponse,
               ArgumentName.transactionId: transactionId,
+              ..._schedulingArguments(priority, deadline),
             },
           )
           .catchError((errorJson) =>
@@ -127,6 +180,53 @@ mixin CharacteristicsMixin on FlutterBLE {
                 _parseCharacteristicResponse(peripheral, rawJsonValue),
           );
 
+  /// Progress events of all bulk writes arrive on one shared stream and are
+  /// filtered by transaction id for the duration of the call. The native side
+  /// keeps a single listener, so concurrent writes must not open streams of
+  /// their own.
+  Future<int> writeCharacteristicBulk(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    Uint8List? value,
+    String? filePath,
+    bool withResponse,
+    int? chunkSize,
+    int? window,
+    Duration progressInterval,
+    void Function(BulkWriteProgress progress)? onProgress,
+    String transactionId,
+  ) async {
+    StreamSubscription<BulkWriteProgress>? progressSubscription;
+    if (onProgress != null) {
+      progressSubscription = _bulkWriteProgressEvents
+          .where((progress) => progress.transactionId == transactionId)
+          .listen(onProgress);
+    }
+    try {
+      final written = await BackgroundService.backgroundChannel
+          .invokeMethod<int>(
+            MethodName.writeCharacteristicBulk,
+            <String, dynamic>{
+              ArgumentName.deviceIdentifier: peripheral.identifier,
+              ArgumentName.serviceUuid: serviceUuid,
+              ArgumentName.characteristicUuid: characteristicUuid,
+              ArgumentName.value: value,
+              ArgumentName.filePath: filePath,
+              ArgumentName.withResponse: withResponse,
+              ArgumentName.chunkSize: chunkSize,
+              ArgumentName.writeWindow: window,
+              ArgumentName.progressInterval: progressInterval.inMilliseconds,
+              ArgumentName.transactionId: transactionId,
+            },
+          )
+          .catchError((error) => Future<int?>.error(_toBleError(error)));
+      return written ?? 0;
+    } finally {
+      await progressSubscription?.cancel();
+    }
+  }
+
   Future<Characteristic> writeCharacteristicForService(
     Peripheral peripheral,
     int serviceIdentifier,
@@ -157,33 +257,25 @@ mixin CharacteristicsMixin on FlutterBLE {
     Peripheral peripheral,
     int characteristicIdentifier,
     String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+    String responseFormat,
   ) {
-    void Function() startMonitoring =
-        () => BackgroundService.backgroundChannel.invokeMethod(
+    Future<int?> Function() startMonitoring =
+        () => BackgroundService.backgroundChannel.invokeMethod<int>(
               MethodName.monitorCharacteristicForIdentifier,
               <String, dynamic>{
                 ArgumentName.characteristicIdentifier: characteristicIdentifier,
                 ArgumentName.transactionId: transactionId,
+                ArgumentName.streamKeyed: true,
+                ArgumentName.deliveryPolicy: deliveryPolicy.policy,
+                ArgumentName.deliveryInterval:
+                    deliveryPolicy.interval.inMilliseconds,
+                ArgumentName.responseFormat: responseFormat,
               },
             );
 
-    bool characteristicFilter(
-      CharacteristicWithValueAndTransactionId characteristic,
-    ) {
-      if (characteristic._id != characteristicIdentifier) {
-        return false;
-      }
-      return equalsIgnoreAsciiCase(
-        transactionId,
-        characteristic._transactionId ?? "",
-      );
-    }
-
-    ;
-
     return _createMonitoringStream(
       startMonitoring,
-      characteristicFilter,
       peripheral,
       transactionId,
     ).map((characteristicWithValue) => characteristicWithValue.value);
@@ -194,28 +286,27 @@ mixin CharacteristicsMixin on FlutterBLE {
     String serviceUuid,
     String characteristicUuid,
     String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+    String responseFormat,
   ) {
-    void Function() startMonitoring =
-        () => BackgroundService.backgroundChannel.invokeMethod(
+    Future<int?> Function() startMonitoring =
+        () => BackgroundService.backgroundChannel.invokeMethod<int>(
               MethodName.monitorCharacteristicForDevice,
               <String, dynamic>{
                 ArgumentName.deviceIdentifier: peripheral.identifier,
                 ArgumentName.serviceUuid: serviceUuid,
                 ArgumentName.characteristicUuid: characteristicUuid,
                 ArgumentName.transactionId: transactionId,
+                ArgumentName.streamKeyed: true,
+                ArgumentName.deliveryPolicy: deliveryPolicy.policy,
+                ArgumentName.deliveryInterval:
+                    deliveryPolicy.interval.inMilliseconds,
+                ArgumentName.responseFormat: responseFormat,
               },
             );
 
-    bool Function(CharacteristicWithValueAndTransactionId)
-        characteristicsFilter = (characteristic) =>
-            equalsIgnoreAsciiCase(characteristicUuid, characteristic.uuid) &&
-            equalsIgnoreAsciiCase(serviceUuid, characteristic.service.uuid) &&
-            equalsIgnoreAsciiCase(
-                transactionId, characteristic._transactionId ?? "");
-
     return _createMonitoringStream(
       startMonitoring,
-      characteristicsFilter,
       peripheral,
       transactionId,
     );
@@ -226,71 +317,288 @@ mixin CharacteristicsMixin on FlutterBLE {
     int serviceIdentifier,
     String characteristicUuid,
     String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+    String responseFormat,
   ) {
-    void Function() startMonitoring =
-        () => BackgroundService.backgroundChannel.invokeMethod(
+    Future<int?> Function() startMonitoring =
+        () => BackgroundService.backgroundChannel.invokeMethod<int>(
               MethodName.monitorCharacteristicForService,
               <String, dynamic>{
                 ArgumentName.serviceIdentifier: serviceIdentifier,
                 ArgumentName.characteristicUuid: characteristicUuid,
                 ArgumentName.transactionId: transactionId,
+                ArgumentName.streamKeyed: true,
+                ArgumentName.deliveryPolicy: deliveryPolicy.policy,
+                ArgumentName.deliveryInterval:
+                    deliveryPolicy.interval.inMilliseconds,
+                ArgumentName.responseFormat: responseFormat,
               },
             );
 
-    bool Function(CharacteristicWithValueAndTransactionId)
-        characteristicFilter = (characteristic) =>
-            equalsIgnoreAsciiCase(characteristicUuid, characteristic.uuid) &&
-            serviceIdentifier == characteristic.service._id &&
-            equalsIgnoreAsciiCase(
-                transactionId, characteristic._transactionId ?? "");
-
     return _createMonitoringStream(
       startMonitoring,
-      characteristicFilter,
       peripheral,
       transactionId,
     );
   }
 
+  Future<void> registerPayloadSchema(
+    String characteristicUuid,
+    List<ValueLayout>? fields,
+  ) =>
+      BackgroundService.backgroundChannel.invokeMethod(
+        MethodName.registerPayloadSchema,
+        <String, dynamic>{
+          ArgumentName.characteristicUuid: characteristicUuid,
+          ArgumentName.payloadSchema:
+              fields?.map((field) => field.toMap()).toList(),
+        },
+      );
+
+  Future<Float64List> readDecodedCharacteristicForIdentifier(
+    Peripheral peripheral,
+    int characteristicIdentifier,
+    String transactionId,
+  ) =>
+      BackgroundService.backgroundChannel
+          .invokeMethod<Float64List>(
+            MethodName.readCharacteristicForIdentifier,
+            <String, dynamic>{
+              ArgumentName.deviceIdentifier: peripheral.identifier,
+              ArgumentName.characteristicIdentifier: characteristicIdentifier,
+              ArgumentName.transactionId: transactionId,
+              ArgumentName.decode: true,
+            },
+          )
+          .catchError((error) => Future<Float64List?>.error(_toBleError(error)))
+          .then((value) => value ?? Float64List(0));
+
+  Future<Float64List> readDecodedCharacteristicForDevice(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    String transactionId,
+  ) =>
+      BackgroundService.backgroundChannel
+          .invokeMethod<Float64List>(
+            MethodName.readCharacteristicForDevice,
+            <String, dynamic>{
+              ArgumentName.deviceIdentifier: peripheral.identifier,
+              ArgumentName.serviceUuid: serviceUuid,
+              ArgumentName.characteristicUuid: characteristicUuid,
+              ArgumentName.transactionId: transactionId,
+              ArgumentName.decode: true,
+            },
+          )
+          .catchError((error) => Future<Float64List?>.error(_toBleError(error)))
+          .then((value) => value ?? Float64List(0));
+
+  Stream<Float64List> monitorDecodedCharacteristicForIdentifier(
+    int characteristicIdentifier,
+    String characteristicUuid,
+    String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+  ) =>
+      _createKeyedStream(
+        () => BackgroundService.backgroundChannel.invokeMethod<int>(
+          MethodName.monitorCharacteristicForIdentifier,
+          <String, dynamic>{
+            ArgumentName.characteristicIdentifier: characteristicIdentifier,
+            ArgumentName.characteristicUuid: characteristicUuid,
+            ArgumentName.transactionId: transactionId,
+            ArgumentName.streamKeyed: true,
+            ArgumentName.deliveryPolicy: deliveryPolicy.policy,
+            ArgumentName.deliveryInterval:
+                deliveryPolicy.interval.inMilliseconds,
+            ArgumentName.decode: true,
+          },
+        ),
+        (rawValue) => rawValue as Float64List,
+        transactionId,
+      );
+
+  Stream<Float64List> monitorDecodedCharacteristicForDevice(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+  ) =>
+      _createKeyedStream(
+        () => BackgroundService.backgroundChannel.invokeMethod<int>(
+          MethodName.monitorCharacteristicForDevice,
+          <String, dynamic>{
+            ArgumentName.deviceIdentifier: peripheral.identifier,
+            ArgumentName.serviceUuid: serviceUuid,
+            ArgumentName.characteristicUuid: characteristicUuid,
+            ArgumentName.transactionId: transactionId,
+            ArgumentName.streamKeyed: true,
+            ArgumentName.deliveryPolicy: deliveryPolicy.policy,
+            ArgumentName.deliveryInterval:
+                deliveryPolicy.interval.inMilliseconds,
+            ArgumentName.decode: true,
+          },
+        ),
+        (rawValue) => rawValue as Float64List,
+        transactionId,
+      );
+
+  Stream<AggregatedValue> aggregateCharacteristicForIdentifier(
+    int characteristicIdentifier,
+    ValueLayout layout,
+    Duration window,
+    String transactionId,
+  ) =>
+      _createKeyedStream(
+        () => BackgroundService.backgroundChannel.invokeMethod<int>(
+          MethodName.monitorCharacteristicForIdentifier,
+          <String, dynamic>{
+            ArgumentName.characteristicIdentifier: characteristicIdentifier,
+            ArgumentName.transactionId: transactionId,
+            ArgumentName.streamKeyed: true,
+            ArgumentName.deliveryPolicy: DeliveryPolicyName.aggregate,
+            ArgumentName.deliveryInterval: window.inMilliseconds,
+            ArgumentName.valueLayout: layout.toMap(),
+          },
+        ),
+        (rawValue) => AggregatedValue.fromMap(rawValue),
+        transactionId,
+      );
+
+  Stream<AggregatedValue> aggregateCharacteristicForDevice(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    ValueLayout layout,
+    Duration window,
+    String transactionId,
+  ) =>
+      _createKeyedStream(
+        () => BackgroundService.backgroundChannel.invokeMethod<int>(
+          MethodName.monitorCharacteristicForDevice,
+          <String, dynamic>{
+            ArgumentName.deviceIdentifier: peripheral.identifier,
+            ArgumentName.serviceUuid: serviceUuid,
+            ArgumentName.characteristicUuid: characteristicUuid,
+            ArgumentName.transactionId: transactionId,
+            ArgumentName.streamKeyed: true,
+            ArgumentName.deliveryPolicy: DeliveryPolicyName.aggregate,
+            ArgumentName.deliveryInterval: window.inMilliseconds,
+            ArgumentName.valueLayout: layout.toMap(),
+          },
+        ),
+        (rawValue) => AggregatedValue.fromMap(rawValue),
+        transactionId,
+      );
+
+  Future<Map<String, dynamic>> monitorStatistics() => BackgroundService
+      .backgroundChannel
+      .invokeMapMethod<String, dynamic>(MethodName.monitorStatistics)
+      .then((value) => value ?? <String, dynamic>{});
+
+  Future<Map<String, dynamic>> gattSchedulerStatistics() => BackgroundService
+      .backgroundChannel
+      .invokeMapMethod<String, dynamic>(MethodName.gattSchedulerStatistics)
+      .then((value) => value ?? <String, dynamic>{});
+
+  Future<void> configureValueCache(
+    int byteBudget,
+    List<ValueCachePolicy> policies,
+  ) =>
+      BackgroundService.backgroundChannel.invokeMethod(
+        MethodName.configureValueCache,
+        <String, dynamic>{
+          ArgumentName.byteBudget: byteBudget,
+          ArgumentName.valueCachePolicies:
+              policies.map((policy) => policy.toMap()).toList(),
+        },
+      );
+
+  Future<Map<String, int>> valueCacheStatistics() => BackgroundService
+      .backgroundChannel
+      .invokeMapMethod<String, int>(MethodName.valueCacheStatistics)
+      .then((value) => value ?? <String, int>{});
+
   Stream<CharacteristicWithValueAndTransactionId> _createMonitoringStream(
-    void Function() onListen,
-    bool Function(CharacteristicWithValueAndTransactionId) filter,
+    Future<int?> Function() startMonitoring,
     Peripheral peripheral,
     String transactionId,
+  ) =>
+      _createKeyedStream(
+        startMonitoring,
+        (rawValue) => _parseCharacteristicWithValueWithTransactionIdResponse(
+            peripheral, rawValue),
+        transactionId,
+      );
+
+  /// Registers the monitor natively, which returns the key of an event channel
+  /// carrying only this monitor's events. The native side starts the
+  /// monitor when that channel is listened to and cancels it with the
+  /// listener. A stream cancelled before the key arrives cancels
+  /// [transactionId] instead, as its channel will never be listened to.
+  Stream<T> _createKeyedStream<T>(
+    Future<int?> Function() startMonitoring,
+    T Function(dynamic rawValue) parse,
+    String transactionId,
   ) {
-    Stream<CharacteristicWithValueAndTransactionId> stream =
-        _characteristicsMonitoringEvents
-            .map((rawValue) {
-              String rawJsonValue = "";
-              if (rawValue is String) {
-                rawJsonValue = rawValue;
-              }
-              return _parseCharacteristicWithValueWithTransactionIdResponse(
-                  peripheral, rawJsonValue);
-            })
-            .where(filter)
-            .handleError((errorJson) =>
-                _throwErrorIfMatchesWithTransactionId(errorJson, transactionId))
-            .transform<CharacteristicWithValueAndTransactionId>(
-                CancelOnErrorStreamTransformer());
-
-    StreamController<CharacteristicWithValueAndTransactionId> streamController =
-        StreamController.broadcast(
+    late StreamController<T> streamController;
+    StreamSubscription<T>? subscription;
+    var cancelled = false;
+
+    Future<void> onListen() async {
+      final int? streamKey;
+      try {
+        streamKey = await startMonitoring();
+      } on PlatformException catch (error) {
+        streamController.addError(error);
+        await streamController.close();
+        return;
+      }
+      if (streamKey == null) {
+        return;
+      }
+      if (cancelled) {
+        await cancelTransaction(transactionId);
+        return;
+      }
+      subscription = EventChannel(
+              "${ChannelName.monitorCharacteristic}/$streamKey")
+          .receiveBroadcastStream()
+          .map(parse)
+          .handleError((error) => throw _toBleError(error))
+          .transform<T>(CancelOnErrorStreamTransformer())
+          .listen(
+            streamController.add,
+            onError: streamController.addError,
+            onDone: streamController.close,
+          );
+    }
+
+    streamController = StreamController.broadcast(
       onListen: onListen,
-      onCancel: () => cancelTransaction(transactionId),
+      onCancel: () {
+        cancelled = true;
+        subscription?.cancel();
+      },
     );
 
-    streamController
-        .addStream(stream, cancelOnError: true)
-        .then((_) => streamController.close());
-
     return streamController.stream;
   }
 
+  /// Parses a response sent as JSON, or as a flat map with the raw value when
+  /// it was requested in [ResponseFormat.binary].
   CharacteristicWithValueAndTransactionId
       _parseCharacteristicWithValueWithTransactionIdResponse(
-          Peripheral peripheral, String rawJsonValue) {
-    Map<String, dynamic> rootObject = jsonDecode(rawJsonValue);
+          Peripheral peripheral, dynamic rawValue) {
+    if (rawValue is Map) {
+      Map<String, dynamic> map = Map<String, dynamic>.from(rawValue);
+      Service service = Service.fromJson(map, peripheral, _manager);
+      return CharacteristicWithValueAndTransactionId.fromMap(
+              map, service, _manager)
+          .setTransactionId(map["transactionId"] ?? '0');
+    }
+    Map<String, dynamic> rootObject =
+        jsonDecode(rawValue is String ? rawValue : "");
     Service service = Service.fromJson(rootObject, peripheral, _manager);
 
     var transactionId = rootObject["transactionId"] ?? '0';
@@ -308,17 +616,13 @@ mixin CharacteristicsMixin on FlutterBLE {
         rootObject["characteristic"], service, _manager);
   }
 
-  void _throwErrorIfMatchesWithTransactionId(
-      PlatformException errorJson, String transactionId) {
-    if (errorJson is PlatformException == false) {
-      return;
-    }
-    final errorDetails = jsonDecode(errorJson.details);
-    if (transactionId != errorDetails["transactionId"]) {
-      return;
+  Object _toBleError(Object error) {
+    if (error is PlatformException && error.details is String) {
+      return BleError.fromJson(jsonDecode(error.details));
     }
-    throw BleError.fromJson(errorDetails);
+    return error;
   }
+
 }
 
 class CharacteristicWithValueAndTransactionId extends CharacteristicWithValue {
@@ -330,6 +634,12 @@ class CharacteristicWithValueAndTransactionId extends CharacteristicWithValue {
     ManagerForCharacteristic manager,
   ) : super.fromJson(jsonObject, service, manager);
 
+  CharacteristicWithValueAndTransactionId.fromMap(
+    Map<String, dynamic> map,
+    Service service,
+    ManagerForCharacteristic manager,
+  ) : super.fromMap(map, service, manager);
+
   CharacteristicWithValueAndTransactionId setTransactionId(
       String transactionId) {
     _transactionId = transactionId;
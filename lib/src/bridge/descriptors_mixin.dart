@@ -40,6 +40,7 @@ mixin DescriptorsMixin on FlutterBLE {
           .invokeMethod(
             MethodName.readDescriptorForService,
             <String, dynamic>{
+              ArgumentName.deviceIdentifier: service.peripheral.identifier,
               ArgumentName.serviceIdentifier: service._id,
               ArgumentName.characteristicUuid: characteristicUuid,
               ArgumentName.descriptorUuid: descriptorUuid,
@@ -64,6 +65,8 @@ mixin DescriptorsMixin on FlutterBLE {
           .invokeMethod(
             MethodName.readDescriptorForCharacteristic,
             <String, dynamic>{
+              ArgumentName.deviceIdentifier:
+                  characteristic.service.peripheral.identifier,
               ArgumentName.characteristicIdentifier: characteristic._id,
               ArgumentName.descriptorUuid: descriptorUuid,
               ArgumentName.transactionId: transactionId,
@@ -85,6 +88,8 @@ mixin DescriptorsMixin on FlutterBLE {
           .invokeMethod(
             MethodName.readDescriptorForIdentifier,
             <String, dynamic>{
+              ArgumentName.deviceIdentifier:
+                  descriptor.characteristic.service.peripheral.identifier,
               ArgumentName.descriptorIdentifier: descriptor._id,
               ArgumentName.transactionId: transactionId,
             },
@@ -138,6 +143,7 @@ mixin DescriptorsMixin on FlutterBLE {
           .invokeMethod(
             MethodName.writeDescriptorForService,
             <String, dynamic>{
+              ArgumentName.deviceIdentifier: service.peripheral.identifier,
               ArgumentName.serviceIdentifier: service._id,
               ArgumentName.characteristicUuid: characteristicUuid,
               ArgumentName.descriptorUuid: descriptorUuid,
@@ -163,6 +169,8 @@ mixin DescriptorsMixin on FlutterBLE {
           .invokeMethod(
             MethodName.writeDescriptorForCharacteristic,
             <String, dynamic>{
+              ArgumentName.deviceIdentifier:
+                  characteristic.service.peripheral.identifier,
               ArgumentName.characteristicIdentifier: characteristic._id,
               ArgumentName.descriptorUuid: descriptorUuid,
               ArgumentName.value: value,
@@ -183,6 +191,8 @@ mixin DescriptorsMixin on FlutterBLE {
       BackgroundService.backgroundChannel.invokeMethod(
         MethodName.writeDescriptorForIdentifier,
         <String, dynamic>{
+          ArgumentName.deviceIdentifier:
+              descriptor.characteristic.service.peripheral.identifier,
           ArgumentName.descriptorIdentifier: descriptor._id,
           ArgumentName.value: value,
           ArgumentName.transactionId: transactionId,
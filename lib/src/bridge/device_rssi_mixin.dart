@@ -1,11 +1,17 @@
 part of _internal;
 
 mixin RssiMixin on FlutterBLE {
-  Future<int> rssi(Peripheral peripheral, String transactionId) async {
+  Future<int> rssi(
+    Peripheral peripheral,
+    String transactionId,
+    String? priority,
+    Duration? deadline,
+  ) async {
     return await BackgroundService.backgroundChannel
         .invokeMethod(MethodName.rssi, <String, dynamic>{
       ArgumentName.deviceIdentifier: peripheral.identifier,
-      ArgumentName.transactionId: transactionId
+      ArgumentName.transactionId: transactionId,
+      ..._schedulingArguments(priority, deadline),
     }).catchError((errorJson) =>
             Future.error(BleError.fromJson(jsonDecode(errorJson.details))));
   }
@@ -1,5 +1,10 @@
 part of _internal;
 
+abstract class _GattTreeMetadata {
+  static const String characteristics = "characteristics";
+  static const String descriptors = "descriptors";
+}
+
 mixin DiscoveryMixin on FlutterBLE {
   Future<void> discoverAllServicesAndCharacteristics(
       Peripheral peripheral, String transactionId) async {
@@ -31,6 +36,43 @@ mixin DiscoveryMixin on FlutterBLE {
         .toList();
   }
 
+  Future<List<GattService>> gattTree(Peripheral peripheral) async {
+    List<dynamic>? rawServices = await BackgroundService.backgroundChannel
+        .invokeMethod<List<dynamic>>(
+      MethodName.gattTree,
+      <String, dynamic>{
+        ArgumentName.deviceIdentifier: peripheral.identifier,
+      },
+    ).catchError((errorJson) =>
+            Future<List<dynamic>?>.error(
+                BleError.fromJson(jsonDecode(errorJson.details))));
+
+    return (rawServices ?? <dynamic>[]).map((rawService) {
+      Map<String, dynamic> serviceMap =
+          Map<String, dynamic>.from(rawService as Map);
+      Service service = Service.fromJson(serviceMap, peripheral, _manager);
+      return GattService(
+        service,
+        (serviceMap[_GattTreeMetadata.characteristics] as List<dynamic>)
+            .map((rawCharacteristic) {
+          Map<String, dynamic> characteristicMap =
+              Map<String, dynamic>.from(rawCharacteristic as Map);
+          Characteristic characteristic =
+              Characteristic.fromJson(characteristicMap, service, _manager);
+          return GattCharacteristic(
+            characteristic,
+            (characteristicMap[_GattTreeMetadata.descriptors] as List<dynamic>)
+                .map((rawDescriptor) => Descriptor.fromJson(
+                    Map<String, dynamic>.from(rawDescriptor as Map),
+                    characteristic,
+                    _manager))
+                .toList(),
+          );
+        }).toList(),
+      );
+    }).toList();
+  }
+
   Future<List<Characteristic>> characteristics(
       Peripheral peripheral, String serviceUuid) async {
     String jsonString = await BackgroundService.backgroundChannel.invokeMethod(
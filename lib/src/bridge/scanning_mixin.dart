@@ -12,9 +12,11 @@ mixin ScanningMixin on FlutterBLE {
                 throw BleError.fromJson(jsonDecode(errorJson.details)),
             test: (error) => error is PlatformException,
           )
+          .expand((event) => event is List ? event : [event])
           .map(
-            (scanResultJson) =>
-                ScanResult.fromJson(jsonDecode(scanResultJson), _manager),
+            (scanResult) => scanResult is Uint8List
+                ? ScanResult.fromBinary(scanResult, _manager)
+                : ScanResult.fromJson(jsonDecode(scanResult), _manager),
           );
       _activeScanEvents = scanEvents;
     }
@@ -30,6 +32,13 @@ mixin ScanningMixin on FlutterBLE {
     int callbackType,
     List<String> uuids,
     bool allowDuplicates,
+    int? duplicateRssiDelta,
+    Duration? duplicateRefreshInterval,
+    String scanResultFormat,
+    int? scanBatchSize,
+    Duration? scanBatchInterval,
+    List<ScanFilter> filters,
+    RssiSmoothing? rssiSmoothing,
   ) {
     final streamController = StreamController<ScanResult>.broadcast(
       onListen: () => BackgroundService.backgroundChannel.invokeMethod(
@@ -39,6 +48,21 @@ mixin ScanningMixin on FlutterBLE {
           ArgumentName.callbackType: callbackType,
           ArgumentName.uuids: uuids,
           ArgumentName.allowDuplicates: allowDuplicates,
+          ArgumentName.duplicateRssiDelta: duplicateRssiDelta,
+          ArgumentName.duplicateRefreshInterval:
+              duplicateRefreshInterval?.inMilliseconds,
+          ArgumentName.scanResultFormat: scanResultFormat,
+          ArgumentName.scanBatchSize: scanBatchSize,
+          ArgumentName.scanBatchInterval: scanBatchInterval?.inMilliseconds,
+          ArgumentName.scanFilters:
+              filters.map((filter) => filter.toMap()).toList(),
+          if (rssiSmoothing != null) ...<String, dynamic>{
+            ArgumentName.rssiFilter: rssiSmoothing.filterType,
+            ArgumentName.rssiEmaAlpha: rssiSmoothing.emaAlpha,
+            ArgumentName.rssiProcessNoise: rssiSmoothing.processNoise,
+            ArgumentName.rssiMeasurementNoise: rssiSmoothing.measurementNoise,
+            ArgumentName.proximityMaxRate: rssiSmoothing.maxRateHz,
+          },
         },
       ),
       onCancel: () {
@@ -54,6 +78,42 @@ mixin ScanningMixin on FlutterBLE {
     return streamController.stream;
   }
 
+  Stream<SmoothedRssi> observeSmoothedRssi() =>
+      const EventChannel(ChannelName.proximityEvents)
+          .receiveBroadcastStream()
+          .map((event) => SmoothedRssi.fromMap(event));
+
+  Future<Map<String, int>> scanBatchStatistics() => BackgroundService
+      .backgroundChannel
+      .invokeMapMethod<String, int>(MethodName.scanBatchStatistics)
+      .then((value) => value ?? <String, int>{});
+
+  Future<void> setProximityRegions(List<ProximityRegion> regions) =>
+      BackgroundService.backgroundChannel.invokeMethod(
+        MethodName.setProximityRegions,
+        <String, dynamic>{
+          ArgumentName.proximityRegions:
+              regions.map((region) => region.toMap()).toList(),
+        },
+      );
+
+  Future<void> configureHeadlessMonitoring(HeadlessMonitoring configuration) =>
+      BackgroundService.backgroundChannel.invokeMethod(
+        MethodName.configureHeadlessMonitoring,
+        <String, dynamic>{
+          ArgumentName.headlessEnabled: configuration.enabled,
+          ArgumentName.proximityRegions:
+              configuration.regions.map((region) => region.toMap()).toList(),
+          ArgumentName.uuids: configuration.uuids,
+          ArgumentName.wakeOn: configuration.wakeOnNames,
+        },
+      );
+
+  Stream<RegionEvent> observeRegionEvents() =>
+      const EventChannel(ChannelName.regionEvents)
+          .receiveBroadcastStream()
+          .map((event) => RegionEvent.fromMap(event));
+
   Future<void> stopDeviceScan() async {
     await BackgroundService.backgroundChannel
         .invokeMethod(MethodName.stopDeviceScan);
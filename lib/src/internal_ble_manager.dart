@@ -8,9 +8,20 @@ class InternalBleManager
         ManagerForCharacteristic,
         ManagerForDescriptor {
   late FlutterBleLib _bleLib;
+  bool _clientCreated = false;
+  String? _restoreStateIdentifier;
 
   InternalBleManager() {
     _bleLib = FlutterBleLib(this);
+    BackgroundService().onDataReceived.listen(_onServiceData);
+  }
+
+  // When the Android service restarts on the cached engine this isolate keeps
+  // running, but its native client went away with the previous service.
+  void _onServiceData(Map<String, dynamic>? data) {
+    if (data?["state"] == "serviceRestarted" && _clientCreated) {
+      _bleLib.createClient(_restoreStateIdentifier);
+    }
   }
 
   @override
@@ -26,11 +37,16 @@ class InternalBleManager
         restoreStateAction(devices);
       });
     }
+    _clientCreated = true;
+    _restoreStateIdentifier = restoreStateIdentifier;
     return _bleLib.createClient(restoreStateIdentifier);
   }
 
   @override
-  Future<void> destroyClient() => _bleLib.destroyClient();
+  Future<void> destroyClient() {
+    _clientCreated = false;
+    return _bleLib.destroyClient();
+  }
 
   @override
   Future<void> cancelTransaction(String transactionId) =>
@@ -58,12 +74,75 @@ class InternalBleManager
     int callbackType = CallbackType.allMatches,
     List<String> uuids = const [],
     bool allowDuplicates = false,
+    int? duplicateRssiDelta,
+    Duration? duplicateRefreshInterval,
+    String scanResultFormat = ScanResultFormat.json,
+    int? scanBatchSize,
+    Duration? scanBatchInterval,
+    List<ScanFilter> filters = const [],
+    RssiSmoothing? rssiSmoothing,
   }) =>
-      _bleLib.startDeviceScan(scanMode, callbackType, uuids, allowDuplicates);
+      _bleLib.startDeviceScan(
+        scanMode,
+        callbackType,
+        uuids,
+        allowDuplicates,
+        duplicateRssiDelta,
+        duplicateRefreshInterval,
+        scanResultFormat,
+        scanBatchSize,
+        scanBatchInterval,
+        filters,
+        rssiSmoothing,
+      );
 
   @override
   Future<void> stopPeripheralScan() => _bleLib.stopDeviceScan();
 
+  @override
+  Stream<SmoothedRssi> observeSmoothedRssi() => _bleLib.observeSmoothedRssi();
+
+  @override
+  Future<Map<String, int>> scanBatchStatistics() =>
+      _bleLib.scanBatchStatistics();
+
+  @override
+  Future<Map<String, dynamic>> monitorStatistics() =>
+      _bleLib.monitorStatistics();
+
+  @override
+  Future<Map<String, dynamic>> gattSchedulerStatistics() =>
+      _bleLib.gattSchedulerStatistics();
+
+  @override
+  Future<void> registerPayloadSchema(
+    String characteristicUuid,
+    List<ValueLayout>? fields,
+  ) =>
+      _bleLib.registerPayloadSchema(characteristicUuid, fields);
+
+  @override
+  Future<void> configureValueCache({
+    required int byteBudget,
+    required List<ValueCachePolicy> policies,
+  }) =>
+      _bleLib.configureValueCache(byteBudget, policies);
+
+  @override
+  Future<Map<String, int>> valueCacheStatistics() =>
+      _bleLib.valueCacheStatistics();
+
+  @override
+  Future<void> setProximityRegions(List<ProximityRegion> regions) =>
+      _bleLib.setProximityRegions(regions);
+
+  @override
+  Stream<RegionEvent> observeRegionEvents() => _bleLib.observeRegionEvents();
+
+  @override
+  Future<void> configureHeadlessMonitoring(HeadlessMonitoring configuration) =>
+      _bleLib.configureHeadlessMonitoring(configuration);
+
   @override
   Peripheral createUnsafePeripheral(String peripheralId, {String? name}) {
     const nameField = 'name';
@@ -142,6 +221,10 @@ class InternalBleManager
   Future<List<Service>> services(Peripheral peripheral) =>
       _bleLib.services(peripheral);
 
+  @override
+  Future<List<GattService>> gattTree(Peripheral peripheral) =>
+      _bleLib.gattTree(peripheral);
+
   @override
   Future<List<Descriptor>> descriptorsForPeripheral(
     Peripheral peripheral,
@@ -178,9 +261,11 @@ class InternalBleManager
   Future<int> rssi(
     Peripheral peripheral,
     String transactionId,
+    String? priority,
+    Duration? deadline,
   ) {
     print("call channel read RSSI");
-    return _bleLib.rssi(peripheral, transactionId);
+    return _bleLib.rssi(peripheral, transactionId, priority, deadline);
   }
 
   @override
@@ -204,21 +289,43 @@ class InternalBleManager
     Peripheral peripheral,
     InternalCharacteristic characteristic,
     String transactionId,
+    String responseFormat,
+    String? priority,
+    Duration? deadline,
   ) =>
-      _bleLib.readCharacteristicForIdentifier(
-          peripheral, characteristic._id, transactionId);
+      _bleLib.readCharacteristicForIdentifier(peripheral, characteristic._id,
+          transactionId, responseFormat, priority, deadline);
 
   @override
   Future<CharacteristicWithValue> readCharacteristicForDevice(
           Peripheral peripheral,
           String serviceUuid,
           String characteristicUuid,
-          String transactionId) =>
+          String transactionId,
+          String responseFormat,
+          String? priority,
+          Duration? deadline) =>
       _bleLib.readCharacteristicForDevice(
         peripheral,
         serviceUuid,
         characteristicUuid,
         transactionId,
+        responseFormat,
+        priority,
+        deadline,
+      );
+
+  @override
+  Future<List<CharacteristicReadResult>> readCharacteristicsBatch(
+          Peripheral peripheral,
+          List<CharacteristicReadRequest> requests,
+          String transactionId,
+          String responseFormat) =>
+      _bleLib.readCharacteristicsBatch(
+        peripheral,
+        requests,
+        transactionId,
+        responseFormat,
       );
 
   @override
@@ -226,12 +333,14 @@ class InternalBleManager
           Peripheral peripheral,
           InternalService service,
           String characteristicUuid,
-          String transactionId) =>
+          String transactionId,
+          String responseFormat) =>
       _bleLib.readCharacteristicForService(
         peripheral,
         service._id,
         characteristicUuid,
         transactionId,
+        responseFormat,
       );
 
   @override
@@ -240,13 +349,44 @@ class InternalBleManager
           InternalCharacteristic characteristic,
           Uint8List value,
           bool withResponse,
-          String transactionId) =>
+          String transactionId,
+          String? priority,
+          Duration? deadline) =>
       _bleLib.writeCharacteristicForIdentifier(
         peripheral,
         characteristic._id,
         value,
         withResponse,
         transactionId,
+        priority,
+        deadline,
+      );
+
+  @override
+  Future<int> writeCharacteristicBulk(
+          Peripheral peripheral,
+          String serviceUuid,
+          String characteristicUuid,
+          Uint8List? value,
+          String? filePath,
+          bool withResponse,
+          int? chunkSize,
+          int? window,
+          Duration progressInterval,
+          void Function(BulkWriteProgress progress)? onProgress,
+          String transactionId) =>
+      _bleLib.writeCharacteristicBulk(
+        peripheral,
+        serviceUuid,
+        characteristicUuid,
+        value,
+        filePath,
+        withResponse,
+        chunkSize,
+        window,
+        progressInterval,
+        onProgress,
+        transactionId,
       );
 
   @override
@@ -256,7 +396,9 @@ class InternalBleManager
           String characteristicUuid,
           Uint8List value,
           bool withResponse,
-          String transactionId) =>
+          String transactionId,
+          String? priority,
+          Duration? deadline) =>
       _bleLib.writeCharacteristicForDevice(
         peripheral,
         serviceUuid,
@@ -264,6 +406,8 @@ class InternalBleManager
         value,
         withResponse,
         transactionId,
+        priority,
+        deadline,
       );
 
   @override
@@ -289,12 +433,16 @@ class InternalBleManager
     String serviceUuid,
     String characteristicUuid,
     String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+    String responseFormat,
   ) =>
       _bleLib.monitorCharacteristicForDevice(
         peripheral,
         serviceUuid,
         characteristicUuid,
         transactionId,
+        deliveryPolicy,
+        responseFormat,
       );
 
   @override
@@ -303,12 +451,16 @@ class InternalBleManager
     InternalService service,
     String characteristicUuid,
     String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+    String responseFormat,
   ) =>
       _bleLib.monitorCharacteristicForService(
         peripheral,
         service._id,
         characteristicUuid,
         transactionId,
+        deliveryPolicy,
+        responseFormat,
       );
 
   @override
@@ -316,11 +468,103 @@ class InternalBleManager
     Peripheral peripheral,
     InternalCharacteristic characteristic,
     String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+    String responseFormat,
   ) =>
       _bleLib.monitorCharacteristicForIdentifier(
         peripheral,
         characteristic._id,
         transactionId,
+        deliveryPolicy,
+        responseFormat,
+      );
+
+  @override
+  Future<Float64List> readDecodedCharacteristicForDevice(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    String transactionId,
+  ) =>
+      _bleLib.readDecodedCharacteristicForDevice(
+        peripheral,
+        serviceUuid,
+        characteristicUuid,
+        transactionId,
+      );
+
+  @override
+  Stream<Float64List> monitorDecodedCharacteristicForDevice(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+  ) =>
+      _bleLib.monitorDecodedCharacteristicForDevice(
+        peripheral,
+        serviceUuid,
+        characteristicUuid,
+        transactionId,
+        deliveryPolicy,
+      );
+
+  @override
+  Future<Float64List> readDecodedCharacteristicForIdentifier(
+    Peripheral peripheral,
+    InternalCharacteristic characteristic,
+    String transactionId,
+  ) =>
+      _bleLib.readDecodedCharacteristicForIdentifier(
+        peripheral,
+        characteristic._id,
+        transactionId,
+      );
+
+  @override
+  Stream<Float64List> monitorDecodedCharacteristicForIdentifier(
+    InternalCharacteristic characteristic,
+    String characteristicUuid,
+    String transactionId,
+    MonitorDeliveryPolicy deliveryPolicy,
+  ) =>
+      _bleLib.monitorDecodedCharacteristicForIdentifier(
+        characteristic._id,
+        characteristicUuid,
+        transactionId,
+        deliveryPolicy,
+      );
+
+  @override
+  Stream<AggregatedValue> aggregateCharacteristicForDevice(
+    Peripheral peripheral,
+    String serviceUuid,
+    String characteristicUuid,
+    ValueLayout layout,
+    Duration window,
+    String transactionId,
+  ) =>
+      _bleLib.aggregateCharacteristicForDevice(
+        peripheral,
+        serviceUuid,
+        characteristicUuid,
+        layout,
+        window,
+        transactionId,
+      );
+
+  @override
+  Stream<AggregatedValue> aggregateCharacteristicForIdentifier(
+    InternalCharacteristic characteristic,
+    ValueLayout layout,
+    Duration window,
+    String transactionId,
+  ) =>
+      _bleLib.aggregateCharacteristicForIdentifier(
+        characteristic._id,
+        layout,
+        window,
+        transactionId,
       );
 
   @override
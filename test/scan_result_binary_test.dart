@@ -0,0 +1,165 @@
+import 'dart:convert';
+import 'dart:typed_data';
+
+import 'package:flutter_test/flutter_test.dart';
+import 'package:mockito/mockito.dart';
+import 'package:background_service/ble/flutter_ble_lib.dart';
+import 'package:background_service/src/_managers_for_classes.dart';
+
+class MockManagerForPeripheral extends Mock implements ManagerForPeripheral {}
+
+const int version = 1;
+const int nameFlag = 1;
+const int localNameFlag = 1 << 1;
+const int txPowerLevelFlag = 1 << 2;
+const int manufacturerDataFlag = 1 << 3;
+const int stringIdFlag = 1 << 4;
+
+const List<int> mac = [0xAA, 0xBB, 0xCC, 0xDD, 0xEE, 0x0F];
+const List<int> heartRateService = [2, 0x18, 0x0D];
+const List<int> batteryService = [2, 0x18, 0x0F];
+const List<int> fullUuid = [
+  16,
+  0x6E, 0x40, 0x00, 0x01, 0xB5, 0xA3, 0xF3, 0x93,
+  0xE0, 0xA9, 0xE5, 0x0E, 0x24, 0xDC, 0xCA, 0x9E,
+];
+const String fullUuidString = "6e400001-b5a3-f393-e0a9-e50e24dcca9e";
+
+List<int> shortString(String value) {
+  final bytes = utf8.encode(value);
+  return [bytes.length, ...bytes];
+}
+
+List<int> uint16(int value) => [value & 0xFF, value >> 8];
+
+void main() {
+  final manager = MockManagerForPeripheral();
+
+  ScanResult decode(List<int> frame) =>
+      ScanResult.fromBinary(Uint8List.fromList(frame), manager);
+
+  test('decodes a MAC identifier without optional fields', () {
+    final scanResult = decode([
+      version, 0,
+      ...mac,
+      -60 & 0xFF,
+      ...uint16(23),
+      0, 0, 0,
+    ]);
+
+    expect(scanResult.peripheral.identifier, "AA:BB:CC:DD:EE:0F");
+    expect(scanResult.peripheral.name, isNull);
+    expect(scanResult.rssi, -60);
+    expect(scanResult.advertisementData.localName, isNull);
+    expect(scanResult.advertisementData.txPowerLevel, isNull);
+    expect(scanResult.advertisementData.manufacturerData, isNull);
+    expect(scanResult.advertisementData.serviceUuids, isNull);
+    expect(scanResult.advertisementData.serviceData, isNull);
+    expect(scanResult.advertisementData.solicitedServiceUuids, isNull);
+  });
+
+  test('decodes a string identifier with every optional field', () {
+    final scanResult = decode([
+      version,
+      nameFlag |
+          localNameFlag |
+          txPowerLevelFlag |
+          manufacturerDataFlag |
+          stringIdFlag,
+      ...shortString("device-1"),
+      -40 & 0xFF,
+      ...uint16(185),
+      ...shortString("Heart"),
+      ...shortString("Heart Local"),
+      -8 & 0xFF,
+      ...uint16(3), 0x4C, 0x00, 0x02,
+      0, 0, 0,
+    ]);
+
+    expect(scanResult.peripheral.identifier, "device-1");
+    expect(scanResult.peripheral.name, "Heart");
+    expect(scanResult.rssi, -40);
+    expect(scanResult.advertisementData.localName, "Heart Local");
+    expect(scanResult.advertisementData.txPowerLevel, -8);
+    expect(scanResult.advertisementData.manufacturerData, [0x4C, 0x00, 0x02]);
+  });
+
+  test('decodes an empty string identifier', () {
+    final scanResult = decode([
+      version, stringIdFlag,
+      0,
+      -70 & 0xFF,
+      ...uint16(23),
+      0, 0, 0,
+    ]);
+
+    expect(scanResult.peripheral.identifier, "");
+    expect(scanResult.rssi, -70);
+  });
+
+  test('expands short UUIDs to the Bluetooth base UUID', () {
+    final scanResult = decode([
+      version, 0,
+      ...mac,
+      -50 & 0xFF,
+      ...uint16(23),
+      2, ...heartRateService, ...batteryService,
+      1, ...batteryService, ...uint16(1), 100,
+      1, ...heartRateService,
+    ]);
+
+    final advertisementData = scanResult.advertisementData;
+    expect(advertisementData.serviceUuids, [
+      "0000180d-0000-1000-8000-00805f9b34fb",
+      "0000180f-0000-1000-8000-00805f9b34fb",
+    ]);
+    expect(advertisementData.serviceData, {
+      "0000180f-0000-1000-8000-00805f9b34fb": [100],
+    });
+    expect(advertisementData.solicitedServiceUuids,
+        ["0000180d-0000-1000-8000-00805f9b34fb"]);
+  });
+
+  test('decodes full UUIDs most significant byte first', () {
+    final scanResult = decode([
+      version, stringIdFlag,
+      ...shortString("device-2"),
+      -50 & 0xFF,
+      ...uint16(23),
+      1, ...fullUuid,
+      1, ...fullUuid, ...uint16(2), 0x01, 0x02,
+      1, ...fullUuid,
+    ]);
+
+    final advertisementData = scanResult.advertisementData;
+    expect(advertisementData.serviceUuids, [fullUuidString]);
+    expect(advertisementData.serviceData, {
+      fullUuidString: [0x01, 0x02],
+    });
+    expect(advertisementData.solicitedServiceUuids, [fullUuidString]);
+  });
+
+  test('decodes short and full UUIDs mixed in one list', () {
+    final scanResult = decode([
+      version, 0,
+      ...mac,
+      -50 & 0xFF,
+      ...uint16(23),
+      2, ...fullUuid, ...heartRateService,
+      0,
+      0,
+    ]);
+
+    expect(scanResult.advertisementData.serviceUuids, [
+      fullUuidString,
+      "0000180d-0000-1000-8000-00805f9b34fb",
+    ]);
+  });
+
+  test('rejects frames of other versions', () {
+    expect(
+      () => decode([2, 0, ...mac, 0, ...uint16(23), 0, 0, 0]),
+      throwsFormatException,
+    );
+  });
+}